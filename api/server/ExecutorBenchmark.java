@@ -0,0 +1,182 @@
+package api.server;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExecutorBenchmark - Générateur de charge comparant les modes d'executor du serveur
+ *
+ * Lancement :
+ *   java -cp <classes> api.server.ExecutorBenchmark [connexions] [durée s] [attente ms] [threads] [file]
+ *
+ * Pour chaque mode (virtual, bounded, fixed), démarre un HttpServer local dont l'executor
+ * vient de ServerExecutors.create, puis maintient "connexions" requêtes simultanées
+ * (une connexion keep-alive chacune) pendant la durée donnée. Le handler attend "attente" ms
+ * avant de répondre, comme une requête bloquée par un client lent ou une écriture disque :
+ * c'est ce temps de blocage qui départage les modes, pas le calcul.
+ *
+ * Affiche par mode : requêtes mesurées, débit, latences p50 / p99 / max et erreurs
+ * (connexions refusées par la file bornée, délais dépassés).
+ */
+public final class ExecutorBenchmark {
+
+    private static final int MAX_SAMPLES = 2_000_000;
+    private static final long WARMUP_MS = 2_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final byte[] BODY = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private ExecutorBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int waitMillis = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        int queueCapacity = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        System.out.printf("[BENCH] %d connexions, %d s (+%d ms de chauffe), attente %d ms, %d threads, file %d%n",
+                connections, seconds, WARMUP_MS, waitMillis, threads, queueCapacity);
+        System.out.printf("%-8s %10s %10s %9s %9s %9s %8s%n",
+                "mode", "requêtes", "req/s", "p50 ms", "p99 ms", "max ms", "erreurs");
+        for (ServerExecutors.Mode mode : ServerExecutors.Mode.values()) {
+            Result result = run(mode, connections, seconds, waitMillis, threads, queueCapacity);
+            System.out.printf("%-8s %10d %10.0f %9.1f %9.1f %9.1f %8d%n",
+                    mode.name().toLowerCase(), result.count, result.count / (double) seconds,
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors.get());
+        }
+        System.exit(0);
+    }
+
+    // ========================================================================
+    // Un mode
+    // ========================================================================
+
+    private static Result run(ServerExecutors.Mode mode, int connections, int seconds, int waitMillis,
+                              int threads, int queueCapacity) throws IOException, InterruptedException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                connections);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(BODY);
+            }
+        });
+        ExecutorService executor = ServerExecutors.create(mode, threads, queueCapacity);
+        server.setExecutor(executor);
+        server.start();
+
+        // Le client a ses propres threads : il ne doit pas dépendre de l'executor mesuré
+        ExecutorService clientThreads = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientThreads)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + server.getAddress().getPort() + "/"))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+
+        long measureStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MS);
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(seconds);
+        Result result = new Result();
+        CountDownLatch done = new CountDownLatch(connections);
+        for (int i = 0; i < connections; i++) {
+            send(client, request, result, measureStart, deadline, done);
+        }
+        done.await();
+        result.finish();
+
+        server.stop(0);
+        executor.shutdownNow();
+        clientThreads.shutdownNow();
+        return result;
+    }
+
+    /**
+     * Un client : renvoie une requête dès la réponse précédente reçue, jusqu'à l'échéance
+     */
+    private static void send(HttpClient client, HttpRequest request, Result result,
+                             long measureStart, long deadline, CountDownLatch done) {
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long end = System.nanoTime();
+            if (start >= measureStart && end < deadline) {
+                if (error != null || response.statusCode() != 200) {
+                    result.errors.incrementAndGet();
+                } else {
+                    result.record(end - start);
+                }
+            }
+            if (end < deadline) {
+                send(client, request, result, measureStart, deadline, done);
+            } else {
+                done.countDown();
+            }
+        });
+    }
+
+    // ========================================================================
+    // Mesures
+    // ========================================================================
+
+    private static final class Result {
+        private final long[] samples = new long[MAX_SAMPLES];
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicLong errors = new AtomicLong();
+        private long count;
+        private long[] sorted;
+
+        void record(long nanos) {
+            int index = cursor.getAndIncrement();
+            if (index < samples.length) {
+                samples[index] = nanos;
+            }
+        }
+
+        /**
+         * Fin de la mesure : tri des latences (plus aucun client actif)
+         */
+        void finish() {
+            count = cursor.get();
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+            Arrays.sort(sorted);
+        }
+
+        /**
+         * @param quantile Entre 0 et 1 (1 : maximum)
+         * @return La latence en millisecondes
+         */
+        double percentile(double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package api.server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RequestTracker - Filtre qui compte les requêtes en cours
+ *
+ * Permet un arrêt gracieux : une fois stopAccepting() appelé, les nouvelles requêtes
+ * reçoivent 503 (avec "Connection: close" et "Retry-After") pendant que
+ * les requêtes déjà commencées se terminent normalement; awaitIdle() attend leur fin.
+ * Entre les deux, le serveur peut fermer ce qui ne se termine pas seul (flux SSE).
+ */
+public class RequestTracker extends Filter {
+
+    private final Object idleLock = new Object();
+    private int inFlight;          // protégé par idleLock
+    private boolean draining;      // protégé par idleLock
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        boolean accepted;
+        synchronized (idleLock) {
+            accepted = !draining;
+            if (accepted) {
+                inFlight++;
+            }
+        }
+        if (!accepted) {
+            rejectWhileDraining(exchange);
+            return;
+        }
+
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            synchronized (idleLock) {
+                inFlight--;
+                if (inFlight == 0) {
+                    idleLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Suivi des requêtes en cours (arrêt gracieux)";
+    }
+
+    /**
+     * Les requêtes suivantes reçoivent 503
+     */
+    public void stopAccepting() {
+        synchronized (idleLock) {
+            draining = true;
+        }
+    }
+
+    /**
+     * Attend la fin des requêtes en cours
+     * @return true si toutes les requêtes se sont terminées avant l'échéance
+     */
+    public boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (idleLock) {
+            while (inFlight > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                idleLock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (idleLock) {
+            return inFlight;
+        }
+    }
+
+    private static void rejectWhileDraining(HttpExchange exchange) throws IOException {
+        byte[] body = "{\"error\":\"SERVICE_UNAVAILABLE\",\"message\":\"Serveur en cours d'arrêt\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.getResponseHeaders().set("Connection", "close");
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        exchange.sendResponseHeaders(503, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
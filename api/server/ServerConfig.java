@@ -0,0 +1,356 @@
+package api.server;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * ServerConfig - Configuration du serveur
+ *
+ * Chaque paramètre est résolu dans l'ordre (le dernier l'emporte) :
+ * 1. valeur par défaut
+ * 2. fichier de propriétés ("server.properties" dans le répertoire courant,
+ *    ou chemin donné par -Dtickets.config / TICKETS_CONFIG)
+ * 3. variable d'environnement (ex: tickets.maxBodyBytes -> TICKETS_MAX_BODY_BYTES)
+ * 4. propriété système (-Dtickets.maxBodyBytes=...)
+ */
+public final class ServerConfig {
+
+    private static ServerConfig instance;
+
+    private final int port;
+    private final int backlog;
+    private final ServerEngines.Engine engine;
+    private final int nioSelectorThreads;
+    private final long nioIdleTimeoutSeconds;
+    private final ServerExecutors.Mode executorMode;
+    private final int threads;
+    private final int queueSize;
+    private final long maxBodyBytes;
+    private final int compressionMinBytes;
+    private final int changeFeedCapacity;
+    private final int eventStreamMaxSubscribers;
+    private final int eventStreamBufferSize;
+    private final int batchMaxOperations;
+    private final boolean requireIfMatch;
+    private final String dataDir;
+    private final long snapshotIntervalSeconds;
+    private final int idBlockSize;
+    private final long sessionIdleTimeoutSeconds;
+    private final long sessionMaxLifetimeSeconds;
+    private final int maxSessions;
+    private final boolean signedTokens;
+    private final String tokenKeyFile;
+    private final long tokenTtlSeconds;
+    private final int shutdownDrainSeconds;
+
+    private final Properties file;
+
+    private ServerConfig(Properties file) {
+        this.file = file;
+        this.port = intValue("tickets.port", 8080, 1, 65535);
+        this.backlog = intValue("tickets.backlog", 1024, 0, Integer.MAX_VALUE);
+        this.engine = ServerEngines.Engine.fromString(value("tickets.engine", "jdk"));
+        this.nioSelectorThreads = intValue("tickets.nio.selectorThreads",
+                Runtime.getRuntime().availableProcessors(), 1, 1024);
+        this.nioIdleTimeoutSeconds = longValue("tickets.nio.idleTimeoutSeconds", 30, 0);
+        this.executorMode = ServerExecutors.Mode.fromString(value("tickets.executor", "virtual"));
+        this.threads = intValue("tickets.threads", 50, 1, 10_000);
+        this.queueSize = intValue("tickets.queueSize", 1000, 1, Integer.MAX_VALUE);
+        this.maxBodyBytes = longValue("tickets.maxBodyBytes", 1024 * 1024, 1);
+        this.compressionMinBytes = intValue("tickets.compressionMinBytes", 1024, 0, 1024 * 1024);
+        this.changeFeedCapacity = intValue("tickets.changeFeedCapacity", 10_000, 1, 10_000_000);
+        this.eventStreamMaxSubscribers = intValue("tickets.events.maxSubscribers", 100, 0, 100_000);
+        this.eventStreamBufferSize = intValue("tickets.events.bufferSize", 256, 1, 1_000_000);
+        this.batchMaxOperations = intValue("tickets.batch.maxOperations", 500, 1, 10_000);
+        this.requireIfMatch = booleanValue("tickets.requireIfMatch", false);
+        this.dataDir = value("tickets.dataDir", "data");
+        this.snapshotIntervalSeconds = longValue("tickets.snapshotIntervalSeconds", 60, 0);
+        this.idBlockSize = intValue("tickets.idBlockSize", 1000, 1, 1_000_000);
+        this.sessionIdleTimeoutSeconds = longValue("tickets.session.idleTimeoutSeconds", 1800, 0);
+        this.sessionMaxLifetimeSeconds = longValue("tickets.session.maxLifetimeSeconds", 43_200, 0);
+        this.maxSessions = intValue("tickets.session.maxSessions", 100_000, 1, 10_000_000);
+        this.signedTokens = booleanValue("tickets.auth.signedTokens", false);
+        this.tokenKeyFile = value("tickets.auth.keyFile", "");
+        this.tokenTtlSeconds = longValue("tickets.auth.tokenTtlSeconds", 3600, 1);
+        this.shutdownDrainSeconds = intValue("tickets.shutdownDrainSeconds", 10, 0, 3600);
+    }
+
+    /**
+     * Configuration du processus (chargée au premier appel)
+     * @throws IllegalArgumentException si une valeur est invalide
+     */
+    public static synchronized ServerConfig get() {
+        if (instance == null) {
+            instance = new ServerConfig(loadFile());
+        }
+        return instance;
+    }
+
+    private static Properties loadFile() {
+        Properties properties = new Properties();
+        String location = System.getProperty("tickets.config", System.getenv("TICKETS_CONFIG"));
+        Path path = Paths.get(location != null ? location : "server.properties");
+
+        if (!Files.isRegularFile(path)) {
+            if (location != null) {
+                throw new IllegalArgumentException("Fichier de configuration introuvable : " + path);
+            }
+            return properties;
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+            System.out.println("[CONFIG] Configuration chargée depuis " + path.toAbsolutePath());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Lecture de " + path + " impossible : " + e.getMessage(), e);
+        }
+        return properties;
+    }
+
+    // ========================================================================
+    // Résolution des valeurs
+    // ========================================================================
+
+    private String value(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(environmentName(key));
+        }
+        if (value == null) {
+            value = file.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    private int intValue(String key, int defaultValue, int min, int max) {
+        long value = longValue(key, defaultValue, min);
+        if (value > max) {
+            throw new IllegalArgumentException(key + " doit être entre " + min + " et " + max + " : " + value);
+        }
+        return (int) value;
+    }
+
+    private boolean booleanValue(String key, boolean defaultValue) {
+        String raw = value(key, null);
+        if (raw == null || raw.isEmpty()) {
+            return defaultValue;
+        }
+        if (!"true".equalsIgnoreCase(raw) && !"false".equalsIgnoreCase(raw)) {
+            throw new IllegalArgumentException(key + " doit être true ou false : " + raw);
+        }
+        return Boolean.parseBoolean(raw);
+    }
+
+    private long longValue(String key, long defaultValue, long min) {
+        String raw = value(key, null);
+        if (raw == null || raw.isEmpty()) {
+            return defaultValue;
+        }
+        long value;
+        try {
+            value = Long.parseLong(raw);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " invalide : " + raw);
+        }
+        if (value < min) {
+            throw new IllegalArgumentException(key + " doit être au moins " + min + " : " + value);
+        }
+        return value;
+    }
+
+    /**
+     * tickets.maxBodyBytes -> TICKETS_MAX_BODY_BYTES
+     */
+    private static String environmentName(String key) {
+        StringBuilder name = new StringBuilder();
+        for (char c : key.toCharArray()) {
+            if (c == '.') {
+                name.append('_');
+            } else if (Character.isUpperCase(c)) {
+                name.append('_').append(c);
+            } else {
+                name.append(Character.toUpperCase(c));
+            }
+        }
+        return name.toString();
+    }
+
+    // Getters
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Taille de la file d'acceptation TCP (connexions en attente d'accept)
+     */
+    public int getBacklog() {
+        return backlog;
+    }
+
+    /**
+     * Moteur HTTP (jdk ou nio)
+     */
+    public ServerEngines.Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Nombre de boucles de sélection du moteur NIO
+     */
+    public int getNioSelectorThreads() {
+        return nioSelectorThreads;
+    }
+
+    /**
+     * Moteur NIO : fermeture d'une connexion sans requête en cours après ce délai,
+     * et délai maximal d'une écriture bloquée par un client lent (0 = jamais)
+     */
+    public long getNioIdleTimeoutSeconds() {
+        return nioIdleTimeoutSeconds;
+    }
+
+    public ServerExecutors.Mode getExecutorMode() {
+        return executorMode;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Taille maximale du corps d'une requête (au-delà : 413)
+     */
+    public long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /**
+     * Taille en dessous de laquelle une réponse n'est pas compressée
+     */
+    public int getCompressionMinBytes() {
+        return compressionMinBytes;
+    }
+
+    /**
+     * Nombre de mutations conservées pour GET /tickets/changes (au-delà : resynchronisation)
+     */
+    public int getChangeFeedCapacity() {
+        return changeFeedCapacity;
+    }
+
+    /**
+     * Nombre maximal de flux /events ouverts simultanément (au-delà : 503)
+     *
+     * Chaque flux occupe un thread de l'executor pendant toute sa durée : avec un pool
+     * (bounded, fixed, ou virtual sans threads virtuels), au plus la moitié des threads
+     * sert aux flux, l'autre moitié reste disponible pour l'API.
+     */
+    public int getEventStreamMaxSubscribers() {
+        int workers = ServerExecutors.concurrencyLimit(executorMode, threads);
+        if (workers == Integer.MAX_VALUE) {
+            return eventStreamMaxSubscribers;
+        }
+        return Math.min(eventStreamMaxSubscribers, workers / 2);
+    }
+
+    /**
+     * Événements en attente par flux /events; un client qui ne suit pas est déconnecté
+     */
+    public int getEventStreamBufferSize() {
+        return eventStreamBufferSize;
+    }
+
+    /**
+     * Nombre maximal d'opérations par requête POST /tickets/batch
+     */
+    public int getBatchMaxOperations() {
+        return batchMaxOperations;
+    }
+
+    /**
+     * Si vrai, PUT /tickets/{id}, le statut et l'assignation exigent If-Match (sinon : 428)
+     */
+    public boolean isRequireIfMatch() {
+        return requireIfMatch;
+    }
+
+    /**
+     * Répertoire de persistance (vide = persistance désactivée)
+     */
+    public String getDataDir() {
+        return dataDir;
+    }
+
+    public long getSnapshotIntervalSeconds() {
+        return snapshotIntervalSeconds;
+    }
+
+    /**
+     * Nombre d'IDs de tickets réservés par entrée du journal (une écriture par bloc)
+     */
+    public int getIdBlockSize() {
+        return idBlockSize;
+    }
+
+    /**
+     * Une session inutilisée pendant ce délai expire (0 = jamais)
+     */
+    public long getSessionIdleTimeoutSeconds() {
+        return sessionIdleTimeoutSeconds;
+    }
+
+    /**
+     * Durée de vie maximale d'une session, même active (0 = illimitée)
+     */
+    public long getSessionMaxLifetimeSeconds() {
+        return sessionMaxLifetimeSeconds;
+    }
+
+    /**
+     * Nombre maximal de sessions; au-delà, les moins récemment utilisées sont évincées
+     */
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    /**
+     * Si vrai, la connexion émet des tokens signés (HMAC) vérifiables sans état partagé
+     */
+    public boolean isSignedTokens() {
+        return signedTokens;
+    }
+
+    /**
+     * Fichier de la clé de signature (vide = "token.key" dans le répertoire de données,
+     * ou le répertoire courant sans persistance). À partager entre les serveurs.
+     */
+    public String getTokenKeyFile() {
+        if (!tokenKeyFile.isEmpty()) {
+            return tokenKeyFile;
+        }
+        return dataDir.isEmpty() ? "token.key" : Paths.get(dataDir, "token.key").toString();
+    }
+
+    /**
+     * Durée de validité d'un token signé
+     */
+    public long getTokenTtlSeconds() {
+        return tokenTtlSeconds;
+    }
+
+    /**
+     * Délai maximal accordé aux requêtes en cours lors de l'arrêt
+     */
+    public int getShutdownDrainSeconds() {
+        return shutdownDrainSeconds;
+    }
+}
@@ -0,0 +1,53 @@
+package api.server;
+
+import api.server.nio.NioHttpServer;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * ServerEngines - Fabrique du moteur HTTP du serveur
+ *
+ * Moteurs disponibles (même contrat HttpServer / HttpHandler pour les resources) :
+ * - JDK : com.sun.net.httpserver.HttpServer (inclus dans le JDK)
+ * - NIO : moteur non bloquant (api.server.nio) avec connexions persistantes
+ *   et pipelining HTTP/1.1; les réponses sont écrites depuis des ByteBuffer directs
+ */
+public final class ServerEngines {
+
+    public enum Engine {
+        JDK,
+        NIO;
+
+        public static Engine fromString(String value) {
+            for (Engine engine : values()) {
+                if (engine.name().equalsIgnoreCase(value)) {
+                    return engine;
+                }
+            }
+            throw new IllegalArgumentException("Moteur HTTP invalide : " + value
+                    + ". Valeurs acceptées : jdk, nio");
+        }
+    }
+
+    private ServerEngines() {
+    }
+
+    /**
+     * Crée le serveur lié au port (non démarré)
+     */
+    public static HttpServer create(Engine engine, InetSocketAddress address, ServerConfig config)
+            throws IOException {
+        switch (engine) {
+            case NIO:
+                return NioHttpServer.create(address, config.getBacklog(), config.getNioSelectorThreads(),
+                        config.getNioIdleTimeoutSeconds(), config.getMaxBodyBytes());
+
+            case JDK:
+            default:
+                System.out.println("[INFO] Moteur HTTP : com.sun.net.httpserver");
+                return HttpServer.create(address, config.getBacklog());
+        }
+    }
+}
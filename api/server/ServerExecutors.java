@@ -0,0 +1,146 @@
+package api.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ServerExecutors - Fabrique des executors du serveur HTTP
+ *
+ * Modes disponibles :
+ * - VIRTUAL : un thread virtuel par requête (JDK 21+); un client lent n'occupe
+ *   qu'un thread virtuel. Sur un JDK plus ancien, repli sur BOUNDED.
+ * - BOUNDED : pool de threads plateforme de taille fixe avec une file bornée;
+ *   quand la file est pleine, la connexion est refusée (et journalisée) au lieu
+ *   d'accumuler une attente sans limite.
+ * - FIXED : pool de taille fixe avec file non bornée (comportement historique).
+ */
+public final class ServerExecutors {
+
+    public enum Mode {
+        VIRTUAL,
+        BOUNDED,
+        FIXED;
+
+        public static Mode fromString(String value) {
+            for (Mode mode : values()) {
+                if (mode.name().equalsIgnoreCase(value)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Mode d'executor invalide : " + value
+                    + ". Valeurs acceptées : virtual, bounded, fixed");
+        }
+    }
+
+    private static final boolean VIRTUAL_THREADS_AVAILABLE = hasVirtualThreads();
+
+    private ServerExecutors() {
+    }
+
+    /**
+     * Crée l'executor des requêtes HTTP
+     * @param mode Mode demandé
+     * @param threads Nombre de threads (modes BOUNDED et FIXED)
+     * @param queueCapacity Taille de la file d'attente (mode BOUNDED)
+     */
+    public static ExecutorService create(Mode mode, int threads, int queueCapacity) {
+        switch (mode) {
+            case VIRTUAL:
+                ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+                if (virtual != null) {
+                    System.out.println("[INFO] Executor : un thread virtuel par requête");
+                    return virtual;
+                }
+                System.out.println("[INFO] Threads virtuels indisponibles (JDK 21+ requis) : repli sur un pool borné");
+                return newBoundedPool(threads, queueCapacity);
+
+            case BOUNDED:
+                return newBoundedPool(threads, queueCapacity);
+
+            case FIXED:
+            default:
+                System.out.println("[INFO] Executor : pool fixe de " + threads + " threads");
+                return Executors.newFixedThreadPool(threads, namedThreads("http-worker-"));
+        }
+    }
+
+    /**
+     * Nombre de requêtes que l'executor peut exécuter en même temps
+     * @return Integer.MAX_VALUE pour les threads virtuels, sinon la taille du pool
+     */
+    public static int concurrencyLimit(Mode mode, int threads) {
+        if (mode == Mode.VIRTUAL && VIRTUAL_THREADS_AVAILABLE) {
+            return Integer.MAX_VALUE;
+        }
+        return threads;
+    }
+
+    private static boolean hasVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() par réflexion : le serveur
+     * compile et s'exécute aussi sur les JDK antérieurs à 21
+     * @return L'executor, ou null si le JDK ne supporte pas les threads virtuels
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newBoundedPool(int threads, int queueCapacity) {
+        System.out.println("[INFO] Executor : pool borné de " + threads + " threads, file de " + queueCapacity);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreads("http-worker-"),
+                new RejectAndLog());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        };
+    }
+
+    /**
+     * Refuse la requête quand la file est pleine : HttpServer ferme alors la connexion.
+     * Les refus sont journalisés avec parcimonie (le premier, puis un sur 1000).
+     */
+    private static final class RejectAndLog implements RejectedExecutionHandler {
+        private final AtomicLong rejected = new AtomicLong();
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            long count = rejected.incrementAndGet();
+            if (count == 1 || count % 1000 == 0) {
+                System.err.println("[SERVEUR] File d'attente pleine (" + executor.getQueue().size()
+                        + " requêtes) : " + count + " connexion(s) refusée(s) au total");
+            }
+            throw new RejectedExecutionException("File d'attente du serveur pleine");
+        }
+    }
+}
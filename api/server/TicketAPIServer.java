@@ -1,67 +1,88 @@
 package api.server;
 
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import api.server.resources.*;
+import api.server.services.ApplicationState;
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TicketAPIServer - Serveur HTTP REST pour le système de gestion de tickets
  *
- * Utilise com.sun.net.httpserver.HttpServer (inclus dans le JDK)
- * Écoute sur le port 8080
+ * Utilise com.sun.net.httpserver.HttpServer (inclus dans le JDK), ou le moteur NIO
+ * non bloquant (keep-alive, pipelining) avec -Dtickets.engine=nio (voir ServerEngines)
+ * Écoute sur le port configuré (8080 par défaut, voir ServerConfig)
+ *
+ * Arrêt gracieux (Ctrl+C / SIGTERM) : les nouvelles requêtes reçoivent 503, les requêtes
+ * en cours se terminent (délai maximal configurable), puis l'état est écrit sur disque.
  *
  * Endpoints implémentés :
  * - /api/v1/auth/*      - Authentification
  * - /api/v1/users/*     - Gestion des utilisateurs
  * - /api/v1/tickets/*   - Gestion des tickets
+ * - /api/v1/events      - Flux SSE des changements de tickets
  */
 public class TicketAPIServer {
 
-    private static final int PORT = 8080;
     private static final String BASE_PATH = "/api/v1";
 
     public static void main(String[] args) {
         try {
-            // Créer le serveur HTTP
-            HttpServer server = HttpServer.create(new InetSocketAddress(PORT), 0);
+            ServerConfig config = ServerConfig.get();
+            int port = config.getPort();
+
+            // Créer le serveur HTTP (backlog = file d'acceptation TCP pour les rafales de connexions)
+            HttpServer server = ServerEngines.create(config.getEngine(), new InetSocketAddress(port), config);
 
             System.out.println("==================================================");
             System.out.println("  Serveur API REST - Système de Gestion de Tickets");
-            System.out.println("  Port: " + PORT);
-            System.out.println("  URL de base: http://localhost:" + PORT + BASE_PATH);
+            System.out.println("  Port: " + port);
+            System.out.println("  URL de base: http://localhost:" + port + BASE_PATH);
             System.out.println("==================================================\n");
 
             // Enregistrer les handlers (resources)
-            registerHandlers(server);
+            RequestTracker tracker = new RequestTracker();
+            registerHandlers(server, tracker);
 
             // Configurer l'executor pour gérer les requêtes
-            server.setExecutor(Executors.newFixedThreadPool(10));
+            ExecutorService executor = ServerExecutors.create(config.getExecutorMode(),
+                    config.getThreads(), config.getQueueSize());
+            server.setExecutor(executor);
+
+            // Arrêt gracieux (Ctrl+C / SIGTERM)
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> shutdown(server, executor, tracker, config.getShutdownDrainSeconds()), "shutdown"));
 
             // Démarrer le serveur
             server.start();
 
             System.out.println("[OK] Serveur démarré avec succès!");
             System.out.println("\n\u001B[1m\u001B[32m📚 Documentation interactive (Swagger UI):\u001B[0m");
-            System.out.println("  \u001B[36mhttp://localhost:" + PORT + "/docs\u001B[0m");
+            System.out.println("  \u001B[36mhttp://localhost:" + port + "/docs\u001B[0m");
             System.out.println("\nEndpoints disponibles:");
             System.out.println("  GET    " + BASE_PATH);
             System.out.println("  POST   " + BASE_PATH + "/auth/login");
             System.out.println("  GET    " + BASE_PATH + "/auth/session");
             System.out.println("  POST   " + BASE_PATH + "/auth/logout");
+            System.out.println("  GET    " + BASE_PATH + "/auth/metrics");
             System.out.println("  GET    " + BASE_PATH + "/users");
             System.out.println("  GET    " + BASE_PATH + "/users/{id}");
             System.out.println("  GET    " + BASE_PATH + "/tickets");
             System.out.println("  POST   " + BASE_PATH + "/tickets");
+            System.out.println("  GET    " + BASE_PATH + "/tickets/changes");
+            System.out.println("  POST   " + BASE_PATH + "/tickets/batch");
             System.out.println("  GET    " + BASE_PATH + "/tickets/{id}");
             System.out.println("  PUT    " + BASE_PATH + "/tickets/{id}");
             System.out.println("  DELETE " + BASE_PATH + "/tickets/{id}");
             System.out.println("  GET    " + BASE_PATH + "/tickets/{id}/comments");
             System.out.println("  POST   " + BASE_PATH + "/tickets/{id}/comments");
-            System.out.println("  PATCH  " + BASE_PATH + "/tickets/{id}/status");
+            System.out.println("  POST   " + BASE_PATH + "/tickets/{id}/status");
             System.out.println("  GET    " + BASE_PATH + "/tickets/{id}/status");
-            System.out.println("  PATCH  " + BASE_PATH + "/tickets/{id}/assignment");
+            System.out.println("  POST   " + BASE_PATH + "/tickets/{id}/assignment");
             System.out.println("  GET    " + BASE_PATH + "/tickets/{id}/export/pdf");
+            System.out.println("  GET    " + BASE_PATH + "/events");
             System.out.println("\nAppuyez sur Ctrl+C pour arrêter le serveur...\n");
 
         } catch (Exception e) {
@@ -73,25 +94,61 @@ public class TicketAPIServer {
     /**
      * Enregistre tous les handlers (resources) du serveur
      */
-    private static void registerHandlers(HttpServer server) {
+    private static void registerHandlers(HttpServer server, RequestTracker tracker) {
         // Documentation Swagger UI
-        server.createContext("/docs", new SwaggerUIResource());
-        server.createContext("/openapi.yaml", new OpenApiResource());
+        register(server, tracker, "/docs", new SwaggerUIResource());
+        register(server, tracker, "/openapi.yaml", new OpenApiResource());
+
+        // API : un seul contexte, aiguillé par l'arbre de routes
+        ApiRouter router = new ApiRouter(BASE_PATH);
+        new ApiHomeResource().registerRoutes(router);       // Page d'accueil de l'API
+        new AuthResource().registerRoutes(router);          // Authentification
+        new UserResource().registerRoutes(router);          // Utilisateurs
+        new TicketResource().registerRoutes(router);        // Tickets (CRUD)
+        new EventsResource().registerRoutes(router);        // Notifications (Server-Sent Events)
+        register(server, tracker, BASE_PATH, router);
 
-        // Page d'accueil de l'API
-        server.createContext(BASE_PATH, new ApiHomeResource());
+        System.out.println("[INFO] Handlers enregistrés avec succès");
+    }
 
-        // Authentification
-        server.createContext(BASE_PATH + "/auth/login", new AuthResource());
-        server.createContext(BASE_PATH + "/auth/session", new AuthResource());
-        server.createContext(BASE_PATH + "/auth/logout", new AuthResource());
+    private static void register(HttpServer server, RequestTracker tracker, String path, HttpHandler handler) {
+        server.createContext(path, handler).getFilters().add(tracker);
+    }
 
-        // Utilisateurs
-        server.createContext(BASE_PATH + "/users", new UserResource());
+    /**
+     * Arrêt gracieux :
+     * 1. les nouvelles requêtes reçoivent 503, les flux SSE sont fermés
+     *    et les requêtes en cours se terminent (avec échéance)
+     * 2. fermeture du port d'écoute et des connexions
+     * 3. arrêt de l'executor
+     * 4. écriture de l'état (snapshot final, fermeture du journal)
+     */
+    private static void shutdown(HttpServer server, ExecutorService executor, RequestTracker tracker,
+                                 int drainSeconds) {
+        System.out.println("\n[ARRET] Arrêt demandé : attente des requêtes en cours (max " + drainSeconds + " s)");
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(drainSeconds);
 
-        // Tickets (CRUD)
-        server.createContext(BASE_PATH + "/tickets", new TicketResource());
+        try {
+            tracker.stopAccepting();
+            // Les flux SSE ne se terminent jamais d'eux-mêmes
+            ApplicationState.getInstance().closeChangeSubscribers();
+            if (!tracker.awaitIdle(TimeUnit.SECONDS.toMillis(drainSeconds))) {
+                System.err.println("[ARRET] Échéance atteinte : " + tracker.getInFlight() + " requête(s) interrompue(s)");
+            }
+
+            // Les requêtes sont terminées : inutile d'attendre davantage dans stop()
+            server.stop(0);
+
+            executor.shutdown();
+            long remaining = Math.max(0, deadline - System.currentTimeMillis());
+            if (!executor.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
-        System.out.println("[INFO] Handlers enregistrés avec succès");
+        ApplicationState.getInstance().shutdown();
+        System.out.println("[ARRET] Serveur arrêté");
     }
 }
@@ -0,0 +1,112 @@
+package api.server.models;
+
+import java.util.List;
+
+/**
+ * BatchOperation - Une opération d'une requête groupée
+ * Basé sur le schéma OpenAPI BatchOperation
+ *
+ * Champs utilisés selon "op" (mêmes règles que les endpoints unitaires) :
+ * - CREATE  : title, priority, descriptionContent
+ * - UPDATE  : ticketID, title, priority, descriptionContent
+ * - STATUS  : ticketID, newStatus
+ * - ASSIGN  : ticketID, userID
+ * - COMMENT : ticketID, text
+ * - DELETE  : ticketID
+ *
+ * expectedVersion (optionnel, toute opération sur un ticket existant) : équivalent de If-Match,
+ * la version du ticket avant l'opération (en tenant compte des opérations précédentes du lot).
+ */
+public class BatchOperation {
+    private String op;
+    private Integer ticketID;
+    private String title;
+    private String priority;
+    private List<ContentItemDTO> descriptionContent;
+    private String newStatus;
+    private Integer userID;
+    private String text;
+    private Long expectedVersion;
+
+    // Constructeur par défaut
+    public BatchOperation() {
+    }
+
+    public BatchOperation(String op, Integer ticketID) {
+        this.op = op;
+        this.ticketID = ticketID;
+    }
+
+    // Getters et Setters
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Integer getTicketID() {
+        return ticketID;
+    }
+
+    public void setTicketID(Integer ticketID) {
+        this.ticketID = ticketID;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public List<ContentItemDTO> getDescriptionContent() {
+        return descriptionContent;
+    }
+
+    public void setDescriptionContent(List<ContentItemDTO> descriptionContent) {
+        this.descriptionContent = descriptionContent;
+    }
+
+    public String getNewStatus() {
+        return newStatus;
+    }
+
+    public void setNewStatus(String newStatus) {
+        this.newStatus = newStatus;
+    }
+
+    public Integer getUserID() {
+        return userID;
+    }
+
+    public void setUserID(Integer userID) {
+        this.userID = userID;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public void setExpectedVersion(Long expectedVersion) {
+        this.expectedVersion = expectedVersion;
+    }
+}
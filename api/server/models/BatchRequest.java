@@ -0,0 +1,59 @@
+package api.server.models;
+
+import java.util.List;
+
+/**
+ * BatchRequest - Requête d'opérations groupées (POST /tickets/batch)
+ * Basé sur le schéma OpenAPI BatchRequest
+ *
+ * mode : "bestEffort" (défaut, chaque opération réussit ou échoue seule)
+ *        ou "atomic" (tout ou rien)
+ * returnTickets : inclure l'état du ticket dans chaque résultat (faux par défaut)
+ */
+public class BatchRequest {
+    public static final String MODE_ATOMIC = "atomic";
+    public static final String MODE_BEST_EFFORT = "bestEffort";
+
+    private String mode;
+    private boolean returnTickets;
+    private List<BatchOperation> operations;
+
+    // Constructeur par défaut
+    public BatchRequest() {
+    }
+
+    public BatchRequest(String mode, boolean returnTickets, List<BatchOperation> operations) {
+        this.mode = mode;
+        this.returnTickets = returnTickets;
+        this.operations = operations;
+    }
+
+    public boolean isAtomic() {
+        return MODE_ATOMIC.equals(mode);
+    }
+
+    // Getters et Setters
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public boolean isReturnTickets() {
+        return returnTickets;
+    }
+
+    public void setReturnTickets(boolean returnTickets) {
+        this.returnTickets = returnTickets;
+    }
+
+    public List<BatchOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperation> operations) {
+        this.operations = operations;
+    }
+}
@@ -0,0 +1,75 @@
+package api.server.models;
+
+import java.util.List;
+
+/**
+ * BatchResponse - Réponse de POST /tickets/batch
+ * Basé sur le schéma OpenAPI BatchResponse
+ *
+ * committed : faux si le mode atomique a tout annulé
+ */
+public class BatchResponse {
+    private String mode;
+    private boolean committed;
+    private int succeeded;
+    private int failed;
+    private List<BatchResult> results;
+
+    // Constructeur par défaut
+    public BatchResponse() {
+    }
+
+    public BatchResponse(String mode, boolean committed, List<BatchResult> results) {
+        this.mode = mode;
+        this.committed = committed;
+        this.results = results;
+        for (BatchResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    // Getters et Setters
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public void setCommitted(boolean committed) {
+        this.committed = committed;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,88 @@
+package api.server.models;
+
+/**
+ * BatchResult - Résultat d'une opération groupée
+ * Basé sur le schéma OpenAPI BatchResult
+ *
+ * status : code HTTP qu'aurait renvoyé l'endpoint unitaire
+ * (201 création/commentaire, 200 modification, 204 suppression, 4xx en cas d'échec;
+ * 424 : opération valide annulée par l'échec d'une autre en mode atomique)
+ */
+public class BatchResult {
+    private int index;
+    private int status;
+    private Integer ticketID;
+    private String error;
+    private String message;
+    private TicketDTO ticket;
+
+    // Constructeur par défaut
+    public BatchResult() {
+    }
+
+    public BatchResult(int index, int status, Integer ticketID) {
+        this.index = index;
+        this.status = status;
+        this.ticketID = ticketID;
+    }
+
+    public static BatchResult failure(int index, Integer ticketID, int status, String error, String message) {
+        BatchResult result = new BatchResult(index, status, ticketID);
+        result.error = error;
+        result.message = message;
+        return result;
+    }
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+
+    // Getters et Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Integer getTicketID() {
+        return ticketID;
+    }
+
+    public void setTicketID(Integer ticketID) {
+        this.ticketID = ticketID;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public TicketDTO getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(TicketDTO ticket) {
+        this.ticket = ticket;
+    }
+}
@@ -0,0 +1,84 @@
+package api.server.models;
+
+/**
+ * SessionMetricsDTO - Compteurs des sessions (depuis le démarrage du serveur)
+ * Basé sur le schéma OpenAPI SessionMetrics
+ */
+public class SessionMetricsDTO {
+    private int active;
+    private int maxSessions;
+    private long idleTimeoutSeconds;
+    private long maxLifetimeSeconds;
+    private long opened;
+    private long loggedOut;
+    private long expiredIdle;
+    private long expiredLifetime;
+    private long evicted;
+    private boolean signedTokens;
+    private int revokedTokens;
+
+    // Constructeur par défaut
+    public SessionMetricsDTO() {
+    }
+
+    public SessionMetricsDTO(int active, int maxSessions, long idleTimeoutSeconds, long maxLifetimeSeconds,
+                             long opened, long loggedOut, long expiredIdle, long expiredLifetime, long evicted,
+                             boolean signedTokens, int revokedTokens) {
+        this.active = active;
+        this.maxSessions = maxSessions;
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+        this.maxLifetimeSeconds = maxLifetimeSeconds;
+        this.opened = opened;
+        this.loggedOut = loggedOut;
+        this.expiredIdle = expiredIdle;
+        this.expiredLifetime = expiredLifetime;
+        this.evicted = evicted;
+        this.signedTokens = signedTokens;
+        this.revokedTokens = revokedTokens;
+    }
+
+    // Getters
+    public int getActive() {
+        return active;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public long getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public long getMaxLifetimeSeconds() {
+        return maxLifetimeSeconds;
+    }
+
+    public long getOpened() {
+        return opened;
+    }
+
+    public long getLoggedOut() {
+        return loggedOut;
+    }
+
+    public long getExpiredIdle() {
+        return expiredIdle;
+    }
+
+    public long getExpiredLifetime() {
+        return expiredLifetime;
+    }
+
+    public long getEvicted() {
+        return evicted;
+    }
+
+    public boolean isSignedTokens() {
+        return signedTokens;
+    }
+
+    public int getRevokedTokens() {
+        return revokedTokens;
+    }
+}
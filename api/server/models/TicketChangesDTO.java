@@ -0,0 +1,74 @@
+package api.server.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TicketChangesDTO - Changements de tickets depuis une révision
+ * Basé sur le schéma OpenAPI TicketChanges
+ *
+ * Si resyncRequired est vrai, la révision demandée est sortie de l'historique :
+ * le client recharge la liste complète puis repart de "revision".
+ */
+public class TicketChangesDTO {
+    private long revision;
+    private boolean resyncRequired;
+    private List<TicketDTO> upserted;
+    private List<Integer> deleted;
+
+    // Constructeur par défaut
+    public TicketChangesDTO() {
+        this.upserted = new ArrayList<>();
+        this.deleted = new ArrayList<>();
+    }
+
+    public TicketChangesDTO(long revision, List<TicketDTO> upserted, List<Integer> deleted) {
+        this.revision = revision;
+        this.resyncRequired = false;
+        this.upserted = upserted != null ? upserted : new ArrayList<>();
+        this.deleted = deleted != null ? deleted : new ArrayList<>();
+    }
+
+    /**
+     * Réponse "resynchronisation requise" à la révision courante
+     */
+    public static TicketChangesDTO resync(long revision) {
+        TicketChangesDTO changes = new TicketChangesDTO();
+        changes.revision = revision;
+        changes.resyncRequired = true;
+        return changes;
+    }
+
+    // Getters et Setters
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    public void setResyncRequired(boolean resyncRequired) {
+        this.resyncRequired = resyncRequired;
+    }
+
+    public List<TicketDTO> getUpserted() {
+        return upserted;
+    }
+
+    public void setUpserted(List<TicketDTO> upserted) {
+        this.upserted = upserted;
+    }
+
+    public List<Integer> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Integer> deleted) {
+        this.deleted = deleted;
+    }
+}
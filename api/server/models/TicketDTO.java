@@ -20,6 +20,7 @@ public class TicketDTO {
     private List<ContentItemDTO> descriptionContent;
     private String creationDate;
     private String updateDate;
+    private long version;         // incrémentée à chaque modification (If-Match)
 
     // Constructeur par défaut
     public TicketDTO() {
@@ -28,7 +29,8 @@ public class TicketDTO {
 
     public TicketDTO(int ticketID, String title, String status, String priority,
                      String createdByName, String assignedToName, String description,
-                     List<ContentItemDTO> descriptionContent, String creationDate, String updateDate) {
+                     List<ContentItemDTO> descriptionContent, String creationDate, String updateDate,
+                     long version) {
         this.ticketID = ticketID;
         this.title = title;
         this.status = status;
@@ -39,6 +41,7 @@ public class TicketDTO {
         this.descriptionContent = descriptionContent != null ? descriptionContent : new ArrayList<>();
         this.creationDate = creationDate;
         this.updateDate = updateDate;
+        this.version = version;
     }
 
     // Getters et Setters
@@ -122,6 +125,14 @@ public class TicketDTO {
         this.updateDate = updateDate;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "TicketDTO{" +
@@ -131,6 +142,7 @@ public class TicketDTO {
                 ", priority='" + priority + '\'' +
                 ", createdByName='" + createdByName + '\'' +
                 ", assignedToName='" + assignedToName + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,59 @@
+package api.server.models;
+
+/**
+ * TicketEventDTO - Événement de changement de ticket (flux SSE /events)
+ * Basé sur le schéma OpenAPI TicketEvent
+ *
+ * type : CREATE, UPDATE, STATUS, ASSIGN, COMMENT ou DELETE
+ * ticket : état courant du ticket (absent pour DELETE)
+ */
+public class TicketEventDTO {
+    private long revision;
+    private String type;
+    private int ticketID;
+    private TicketDTO ticket;
+
+    // Constructeur par défaut
+    public TicketEventDTO() {
+    }
+
+    public TicketEventDTO(long revision, String type, int ticketID, TicketDTO ticket) {
+        this.revision = revision;
+        this.type = type;
+        this.ticketID = ticketID;
+        this.ticket = ticket;
+    }
+
+    // Getters et Setters
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getTicketID() {
+        return ticketID;
+    }
+
+    public void setTicketID(int ticketID) {
+        this.ticketID = ticketID;
+    }
+
+    public TicketDTO getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(TicketDTO ticket) {
+        this.ticket = ticket;
+    }
+}
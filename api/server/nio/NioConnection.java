@@ -0,0 +1,490 @@
+package api.server.nio;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.Headers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * NioConnection - Une connexion HTTP/1.1 du moteur NIO
+ *
+ * Cycle : le sélecteur lit jusqu'à obtenir une requête complète (en-têtes + corps),
+ * puis confie la connexion à l'executor (lecture suspendue). Le thread du handler
+ * écrit la réponse, traite à la suite les requêtes pipelinées déjà reçues, et rend
+ * enfin la connexion au sélecteur. Une seule requête est donc en cours par connexion :
+ * les réponses partent dans l'ordre des requêtes.
+ *
+ * Le tampon de lecture n'est touché que par le propriétaire courant (sélecteur ou handler);
+ * le passage de l'un à l'autre se fait par l'executor ou la file de tâches du sélecteur.
+ */
+final class NioConnection {
+
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Requête reçue (en-têtes analysés; corps complet avant l'appel du handler)
+     */
+    static final class Request {
+        String method;
+        URI uri;
+        String protocol;
+        final Headers headers = new Headers();
+        int headerLength;
+        int bodyLength;
+        byte[] body;
+        boolean keepAlive;
+        boolean expectContinue;
+    }
+
+    /**
+     * Requête refusée avant l'appel du handler
+     */
+    private static final class RejectedRequest extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int code;
+
+        RejectedRequest(int code, String message) {
+            super(message, null, false, false);
+            this.code = code;
+        }
+    }
+
+    private final NioHttpServer server;
+    private final SelectorLoop loop;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final InetSocketAddress remoteAddress;
+    private final InetSocketAddress localAddress;
+
+    private ByteBuffer in = ByteBuffer.allocate(INITIAL_BUFFER_SIZE); // octets reçus : [0, position[
+    private int scanFrom;            // début de la recherche de fin d'en-têtes
+    private Request pending;         // en-têtes reçus, corps incomplet
+    private boolean continueSent;
+
+    private volatile boolean busy;   // requête confiée à un handler (lecture suspendue)
+    private volatile boolean closed;
+    private volatile long lastActivity = System.currentTimeMillis();
+
+    private final Object writeLock = new Object();
+    private ByteBuffer pendingWrite; // reste à écrire par le sélecteur (protégé par writeLock)
+
+    NioConnection(NioHttpServer server, SelectorLoop loop, SocketChannel channel, SelectionKey key)
+            throws IOException {
+        this.server = server;
+        this.loop = loop;
+        this.channel = channel;
+        this.key = key;
+        this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+        this.localAddress = (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    InetSocketAddress getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    InetSocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    /**
+     * Vrai si la connexion attend une requête depuis avant cet instant (keep-alive ou client lent)
+     */
+    boolean isIdleSince(long instant) {
+        return !busy && !closed && lastActivity < instant;
+    }
+
+    // ========================================================================
+    // Lecture (thread du sélecteur)
+    // ========================================================================
+
+    void onReadable() throws IOException {
+        if (busy) {
+            return;
+        }
+        if (!in.hasRemaining()) {
+            grow(pending != null ? pending.headerLength + pending.bodyLength : MAX_HEADER_BYTES);
+        }
+        int read = channel.read(in);
+        if (read < 0) {
+            close();
+            return;
+        }
+        lastActivity = System.currentTimeMillis();
+
+        Request request = nextRequest();
+        if (request == null) {
+            return;
+        }
+        busy = true;
+        key.interestOps(0);
+        NioExchange exchange = new NioExchange(this, request);
+        try {
+            server.executor().execute(() -> serve(exchange));
+        } catch (RejectedExecutionException e) {
+            // File de l'executor pleine : comme HttpServer, la connexion est fermée
+            close();
+        }
+    }
+
+    /**
+     * Rend la connexion au sélecteur après la dernière réponse
+     */
+    private void resumeReading() {
+        if (!closed) {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    // ========================================================================
+    // Analyse des requêtes (propriétaire courant de la connexion)
+    // ========================================================================
+
+    /**
+     * @return La prochaine requête complète du tampon, ou null (incomplète, ou refusée et connexion fermée)
+     */
+    private Request nextRequest() {
+        try {
+            if (pending == null) {
+                int headerLength = findHeaderEnd();
+                if (headerLength < 0) {
+                    if (in.position() >= MAX_HEADER_BYTES) {
+                        throw new RejectedRequest(431, "En-têtes de requête trop longs");
+                    }
+                    return null;
+                }
+                pending = parseHead(headerLength);
+                continueSent = false;
+            }
+
+            int total = pending.headerLength + pending.bodyLength;
+            if (in.position() < total) {
+                if (pending.expectContinue && !continueSent) {
+                    writeNow(CONTINUE);
+                    continueSent = true;
+                }
+                grow(total);
+                return null;
+            }
+        } catch (RejectedRequest e) {
+            reject(e.code, e.getMessage());
+            return null;
+        }
+
+        Request request = pending;
+        pending = null;
+        int total = request.headerLength + request.bodyLength;
+        byte[] bytes = in.array();
+        request.body = request.bodyLength > 0 ? Arrays.copyOfRange(bytes, request.headerLength, total) : new byte[0];
+
+        // Requêtes pipelinées : le reste du tampon est ramené au début
+        int remaining = in.position() - total;
+        if (in.capacity() > MAX_HEADER_BYTES && remaining <= INITIAL_BUFFER_SIZE) {
+            ByteBuffer smaller = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+            smaller.put(bytes, total, remaining);
+            in = smaller;
+        } else {
+            System.arraycopy(bytes, total, bytes, 0, remaining);
+            in.position(remaining);
+        }
+        scanFrom = 0;
+        return request;
+    }
+
+    /**
+     * @return La longueur des en-têtes (ligne vide comprise), ou -1 s'ils sont incomplets
+     */
+    private int findHeaderEnd() {
+        byte[] bytes = in.array();
+        int end = in.position();
+        for (int i = scanFrom; i < end; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            // "\n\n" ou "\n\r\n" (LF seul toléré)
+            if (i + 1 < end && bytes[i + 1] == '\n') {
+                return i + 2;
+            }
+            if (i + 2 < end && bytes[i + 1] == '\r' && bytes[i + 2] == '\n') {
+                return i + 3;
+            }
+        }
+        scanFrom = Math.max(0, end - 2);
+        return -1;
+    }
+
+    private Request parseHead(int headerLength) throws RejectedRequest {
+        String head = new String(in.array(), 0, headerLength, StandardCharsets.ISO_8859_1);
+        String[] lines = head.split("\r?\n");
+        int line = 0;
+        while (line < lines.length && lines[line].isEmpty()) {
+            line++; // lignes vides tolérées avant la ligne de requête
+        }
+        if (line == lines.length) {
+            throw new RejectedRequest(400, "Ligne de requête manquante");
+        }
+
+        Request request = new Request();
+        request.headerLength = headerLength;
+        String[] parts = lines[line].split(" ");
+        if (parts.length != 3 || parts[0].isEmpty()) {
+            throw new RejectedRequest(400, "Ligne de requête invalide");
+        }
+        request.method = parts[0];
+        request.protocol = parts[2];
+        if (!"HTTP/1.1".equals(request.protocol) && !"HTTP/1.0".equals(request.protocol)) {
+            throw new RejectedRequest(505, "Version HTTP non supportée : " + request.protocol);
+        }
+        try {
+            request.uri = new URI(parts[1]);
+        } catch (URISyntaxException e) {
+            throw new RejectedRequest(400, "URI invalide");
+        }
+
+        for (line++; line < lines.length; line++) {
+            String header = lines[line];
+            if (header.isEmpty()) {
+                break;
+            }
+            int colon = header.indexOf(':');
+            if (colon <= 0) {
+                throw new RejectedRequest(400, "En-tête invalide");
+            }
+            try {
+                request.headers.add(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+            } catch (IllegalArgumentException e) {
+                // Headers refuse les CR/LF isolés dans un nom ou une valeur
+                throw new RejectedRequest(400, "En-tête invalide");
+            }
+        }
+
+        if (request.headers.containsKey("Transfer-Encoding")) {
+            throw new RejectedRequest(411, "Content-Length requis (corps \"chunked\" non supporté)");
+        }
+        long length = contentLength(request.headers);
+        if (length > server.maxBodyBytes() || length > Integer.MAX_VALUE - headerLength) {
+            throw new RejectedRequest(413, "Corps de requête trop volumineux (max " + server.maxBodyBytes() + " octets)");
+        }
+        request.bodyLength = (int) length;
+
+        String connection = request.headers.getFirst("Connection");
+        String tokens = connection != null ? connection.toLowerCase(Locale.ROOT) : "";
+        request.keepAlive = "HTTP/1.1".equals(request.protocol)
+                ? !tokens.contains("close")
+                : tokens.contains("keep-alive");
+        request.expectContinue = "100-continue".equalsIgnoreCase(request.headers.getFirst("Expect"));
+        return request;
+    }
+
+    private static long contentLength(Headers headers) throws RejectedRequest {
+        String value = null;
+        for (String candidate : headers.getOrDefault("Content-Length", Collections.emptyList())) {
+            if (value != null && !value.equals(candidate.trim())) {
+                throw new RejectedRequest(400, "Content-Length contradictoires");
+            }
+            value = candidate.trim();
+        }
+        if (value == null) {
+            return 0;
+        }
+        try {
+            long length = Long.parseLong(value);
+            if (length < 0) {
+                throw new NumberFormatException();
+            }
+            return length;
+        } catch (NumberFormatException e) {
+            throw new RejectedRequest(400, "Content-Length invalide : " + value);
+        }
+    }
+
+    private void grow(int needed) {
+        if (in.capacity() >= needed && in.hasRemaining()) {
+            return;
+        }
+        int capacity = Math.max(needed, Math.min(in.capacity() * 2, MAX_HEADER_BYTES));
+        if (capacity <= in.capacity()) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        in.flip();
+        larger.put(in);
+        in = larger;
+    }
+
+    // ========================================================================
+    // Traitement (thread de l'executor)
+    // ========================================================================
+
+    private void serve(NioExchange first) {
+        NioExchange exchange = first;
+        while (exchange != null) {
+            if (!handle(exchange)) {
+                close();
+                return;
+            }
+            // Pipelining : requête suivante déjà reçue, traitée sans repasser par le sélecteur
+            Request next = nextRequest();
+            if (closed) {
+                return;
+            }
+            exchange = next != null ? new NioExchange(this, next) : null;
+        }
+        lastActivity = System.currentTimeMillis();
+        busy = false;
+        loop.execute(this::resumeReading);
+    }
+
+    /**
+     * @return true si la connexion peut servir la requête suivante
+     */
+    private boolean handle(NioExchange exchange) {
+        NioHttpContext context = server.findContext(exchange.getRequestURI().getPath());
+        try {
+            if (context == null || context.getHandler() == null) {
+                exchange.sendPlainResponse(404, "<h1>404 Not Found</h1>No context found for request");
+            } else {
+                exchange.setContext(context);
+                new Filter.Chain(context.getFilters(), context.getHandler()).doFilter(exchange);
+            }
+            return exchange.finish();
+        } catch (Exception e) {
+            // Comme HttpServer : la connexion est fermée (le client voit une réponse tronquée)
+            exchange.release();
+            return false;
+        } catch (Error e) {
+            exchange.release();
+            close();
+            throw e;
+        }
+    }
+
+    // ========================================================================
+    // Écriture
+    // ========================================================================
+
+    /**
+     * Écrit tout le tampon. Si le canal n'absorbe pas tout, le sélecteur termine
+     * l'écriture pendant que l'appelant attend (au plus le délai d'inactivité).
+     */
+    void write(ByteBuffer source) throws IOException {
+        synchronized (writeLock) {
+            try {
+                while (source.hasRemaining()) {
+                    if (closed) {
+                        throw new IOException("Connexion fermée");
+                    }
+                    if (channel.write(source) > 0) {
+                        continue;
+                    }
+                    pendingWrite = source;
+                    loop.execute(this::awaitWritable);
+                    awaitPendingWrite();
+                }
+            } catch (IOException e) {
+                pendingWrite = null;
+                close();
+                throw e;
+            }
+        }
+    }
+
+    // Appelée avec writeLock
+    private void awaitPendingWrite() throws IOException {
+        long timeout = server.idleTimeoutMillis();
+        long deadline = System.currentTimeMillis() + timeout;
+        while (pendingWrite != null && !closed) {
+            long remaining = timeout > 0 ? deadline - System.currentTimeMillis() : 0;
+            if (timeout > 0 && remaining <= 0) {
+                throw new IOException("Délai d'écriture dépassé");
+            }
+            try {
+                writeLock.wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Écriture interrompue");
+            }
+        }
+        if (closed) {
+            throw new IOException("Connexion fermée");
+        }
+    }
+
+    private void awaitWritable() {
+        if (!closed) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Thread du sélecteur : poursuit l'écriture en attente
+     */
+    void onWritable() throws IOException {
+        synchronized (writeLock) {
+            if (pendingWrite != null) {
+                channel.write(pendingWrite);
+                if (pendingWrite.hasRemaining()) {
+                    return;
+                }
+                pendingWrite = null;
+                writeLock.notifyAll();
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Écriture immédiate d'une courte réponse, sans attente (100 Continue, refus)
+     */
+    private void writeNow(byte[] bytes) {
+        synchronized (writeLock) {
+            try {
+                channel.write(ByteBuffer.wrap(bytes));
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Refuse la requête en cours d'analyse puis ferme la connexion
+     */
+    private void reject(int code, String message) {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        String head = "HTTP/1.1 " + code + " " + NioExchange.reasonPhrase(code) + "\r\n"
+                + "Content-Type: text/plain; charset=UTF-8\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+        byte[] response = Arrays.copyOf(headBytes, headBytes.length + body.length);
+        System.arraycopy(body, 0, response, headBytes.length, body.length);
+        writeNow(response);
+        close();
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        key.cancel();
+        NioHttpServer.closeQuietly(channel);
+        synchronized (writeLock) {
+            writeLock.notifyAll();
+        }
+    }
+}
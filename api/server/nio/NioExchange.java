@@ -0,0 +1,489 @@
+package api.server.nio;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * NioExchange - Échange requête/réponse du moteur NIO (contrat HttpExchange)
+ *
+ * La ligne de statut, les en-têtes et le corps sont encodés dans un ByteBuffer direct
+ * (pool borné) puis écrits sur le canal à chaque remplissage, flush() ou fermeture :
+ * - sendResponseHeaders(code, n > 0) : Content-Length n
+ * - sendResponseHeaders(code, 0) : "chunked" (HTTP/1.0 : corps délimité par la fermeture)
+ * - sendResponseHeaders(code, -1) : pas de corps
+ */
+final class NioExchange extends HttpExchange {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int CHUNK_HEADER = 6;            // "hhhh\r\n" (taille < 0x10000)
+    private static final int CHUNK_RESERVE = 2 + 5;       // "\r\n" + "0\r\n\r\n"
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final BlockingQueue<ByteBuffer> BUFFERS =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors() * 16);
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+    private static volatile CachedDate cachedDate = new CachedDate(0, "");
+
+    private static final class CachedDate {
+        final long second;
+        final String value;
+
+        CachedDate(long second, String value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
+
+    private final NioConnection connection;
+    private final NioConnection.Request request;
+    private final Headers responseHeaders = new Headers();
+    private final ResponseBody body = new ResponseBody();
+    private HttpContext context;
+    private Map<String, Object> attributes;
+    private InputStream requestStream;
+    private OutputStream responseStream;
+    private int responseCode = -1;
+    private boolean closeConnection;
+
+    NioExchange(NioConnection connection, NioConnection.Request request) {
+        this.connection = connection;
+        this.request = request;
+        this.closeConnection = !request.keepAlive;
+        this.requestStream = new ByteArrayInputStream(request.body);
+        this.responseStream = body;
+    }
+
+    void setContext(HttpContext context) {
+        this.context = context;
+    }
+
+    // ========================================================================
+    // Requête
+    // ========================================================================
+
+    @Override
+    public Headers getRequestHeaders() {
+        return request.headers;
+    }
+
+    @Override
+    public URI getRequestURI() {
+        return request.uri;
+    }
+
+    @Override
+    public String getRequestMethod() {
+        return request.method;
+    }
+
+    @Override
+    public String getProtocol() {
+        return request.protocol;
+    }
+
+    @Override
+    public InputStream getRequestBody() {
+        return requestStream;
+    }
+
+    @Override
+    public HttpContext getHttpContext() {
+        return context;
+    }
+
+    @Override
+    public InetSocketAddress getRemoteAddress() {
+        return connection.getRemoteAddress();
+    }
+
+    @Override
+    public InetSocketAddress getLocalAddress() {
+        return connection.getLocalAddress();
+    }
+
+    @Override
+    public HttpPrincipal getPrincipal() {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes != null ? attributes.get(name) : null;
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (attributes == null) {
+            attributes = new HashMap<>();
+        }
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void setStreams(InputStream input, OutputStream output) {
+        if (input != null) {
+            requestStream = input;
+        }
+        if (output != null) {
+            responseStream = output;
+        }
+    }
+
+    // ========================================================================
+    // Réponse
+    // ========================================================================
+
+    @Override
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public OutputStream getResponseBody() {
+        return responseStream;
+    }
+
+    @Override
+    public void sendResponseHeaders(int code, long length) throws IOException {
+        if (responseCode >= 0) {
+            throw new IOException("En-têtes de réponse déjà envoyés");
+        }
+        responseCode = code;
+
+        boolean head = "HEAD".equals(request.method);
+        boolean bodyForbidden = code == 204 || code == 304 || code < 200;
+        if (bodyForbidden || length < 0) {
+            body.mode = ResponseBody.NONE;
+        } else if (length > 0) {
+            body.mode = ResponseBody.FIXED;
+            body.remaining = length;
+            responseHeaders.set("Content-Length", Long.toString(length));
+        } else if ("HTTP/1.0".equals(request.protocol)) {
+            // HTTP/1.0 : pas de "chunked", la fin du corps est signalée par la fermeture
+            body.mode = ResponseBody.UNTIL_CLOSE;
+            closeConnection = true;
+        } else {
+            body.mode = ResponseBody.CHUNKED;
+            responseHeaders.set("Transfer-Encoding", "chunked");
+        }
+        if (body.mode == ResponseBody.NONE && !bodyForbidden) {
+            responseHeaders.set("Content-Length", "0");
+        }
+        if (head) {
+            body.discard = true;
+        }
+
+        String connectionHeader = responseHeaders.getFirst("Connection");
+        if (connectionHeader != null && connectionHeader.toLowerCase(Locale.ROOT).contains("close")) {
+            closeConnection = true;
+        }
+        if (closeConnection) {
+            responseHeaders.set("Connection", "close");
+        } else if ("HTTP/1.0".equals(request.protocol)) {
+            responseHeaders.set("Connection", "keep-alive");
+        }
+        responseHeaders.set("Date", currentDate());
+
+        body.open();
+        writeHead(body.buffer, code);
+        if (body.mode == ResponseBody.CHUNKED && !body.discard) {
+            body.startChunk();
+        }
+        if (body.mode == ResponseBody.NONE || body.discard) {
+            body.complete();
+        }
+    }
+
+    private void writeHead(ByteBuffer buffer, int code) throws IOException {
+        try {
+            putAscii(buffer, "HTTP/1.1 ");
+            putAscii(buffer, Integer.toString(code));
+            buffer.put((byte) ' ');
+            putAscii(buffer, reasonPhrase(code));
+            buffer.put(CRLF);
+            for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+                for (String value : header.getValue()) {
+                    putAscii(buffer, header.getKey());
+                    buffer.put((byte) ':');
+                    buffer.put((byte) ' ');
+                    putAscii(buffer, value);
+                    buffer.put(CRLF);
+                }
+            }
+            buffer.put(CRLF);
+        } catch (BufferOverflowException e) {
+            throw new IOException("En-têtes de réponse trop longs");
+        }
+    }
+
+    private static void putAscii(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            buffer.put(c < 0x100 ? (byte) c : (byte) '?');
+        }
+    }
+
+    /**
+     * Réponse texte complète (contexte inconnu)
+     */
+    void sendPlainResponse(int code, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        responseHeaders.set("Content-Type", "text/html; charset=UTF-8");
+        sendResponseHeaders(code, bytes.length);
+        try (OutputStream output = body) {
+            output.write(bytes);
+        }
+    }
+
+    /**
+     * Ferme le flux de réponse (comme HttpExchange.close : fin du corps "chunked")
+     */
+    @Override
+    public void close() {
+        try {
+            requestStream.close();
+            responseStream.close();
+        } catch (IOException e) {
+            // connexion fermée par le flux lui-même
+        }
+    }
+
+    /**
+     * Termine l'échange après le handler
+     * @return true si la réponse est complète et la connexion réutilisable
+     */
+    boolean finish() throws IOException {
+        if (responseCode < 0) {
+            // Le handler n'a rien envoyé : la connexion est fermée (comme HttpServer)
+            return false;
+        }
+        if (!body.closed) {
+            body.close();
+        }
+        return body.completed && !closeConnection;
+    }
+
+    /**
+     * Rend le tampon au pool (échange interrompu)
+     */
+    void release() {
+        body.releaseBuffer();
+    }
+
+    private static String currentDate() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedDate date = cachedDate;
+        if (date.second != second) {
+            date = new CachedDate(second, DATE_FORMAT.format(Instant.ofEpochSecond(second)));
+            cachedDate = date;
+        }
+        return date.value;
+    }
+
+    static String reasonPhrase(int code) {
+        switch (code) {
+            case 100: return "Continue";
+            case 200: return "OK";
+            case 201: return "Created";
+            case 204: return "No Content";
+            case 206: return "Partial Content";
+            case 301: return "Moved Permanently";
+            case 302: return "Found";
+            case 304: return "Not Modified";
+            case 400: return "Bad Request";
+            case 401: return "Unauthorized";
+            case 403: return "Forbidden";
+            case 404: return "Not Found";
+            case 405: return "Method Not Allowed";
+            case 409: return "Conflict";
+            case 411: return "Length Required";
+            case 412: return "Precondition Failed";
+            case 413: return "Payload Too Large";
+            case 428: return "Precondition Required";
+            case 429: return "Too Many Requests";
+            case 431: return "Request Header Fields Too Large";
+            case 500: return "Internal Server Error";
+            case 503: return "Service Unavailable";
+            case 505: return "HTTP Version Not Supported";
+            default: return "Status";
+        }
+    }
+
+    // ========================================================================
+    // Corps de la réponse
+    // ========================================================================
+
+    /**
+     * Flux du corps : accumule dans le ByteBuffer direct, écrit sur le canal quand il est plein
+     */
+    private final class ResponseBody extends OutputStream {
+        static final int NONE = 0;
+        static final int FIXED = 1;
+        static final int CHUNKED = 2;
+        static final int UNTIL_CLOSE = 3;
+
+        int mode = NONE;
+        long remaining;          // FIXED : octets encore attendus
+        boolean discard;         // HEAD : corps non transmis
+        ByteBuffer buffer;
+        int chunkStart;          // CHUNKED : position de l'en-tête du bloc en cours
+        boolean closed;
+        boolean completed;
+
+        void open() {
+            ByteBuffer pooled = BUFFERS.poll();
+            buffer = pooled != null ? pooled : ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        void startChunk() {
+            chunkStart = buffer.position();
+            buffer.position(chunkStart + CHUNK_HEADER);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Flux de réponse fermé");
+            }
+            if (responseCode < 0) {
+                throw new IOException("sendResponseHeaders() doit précéder l'écriture du corps");
+            }
+            if (discard || length == 0) {
+                return;
+            }
+            if (mode == NONE) {
+                throw new IOException("Réponse sans corps (code " + responseCode + ")");
+            }
+            if (mode == FIXED) {
+                if (length > remaining) {
+                    throw new IOException("Corps plus long que le Content-Length annoncé");
+                }
+                remaining -= length;
+            }
+
+            int reserve = mode == CHUNKED ? CHUNK_RESERVE : 0;
+            while (length > 0) {
+                int room = buffer.remaining() - reserve;
+                if (room <= 0) {
+                    emit(false);
+                    continue;
+                }
+                int count = Math.min(room, length);
+                buffer.put(bytes, offset, count);
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (buffer != null && !closed && !discard && buffer.position() > (mode == CHUNKED ? chunkStart + CHUNK_HEADER : 0)) {
+                emit(false);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (responseCode < 0 || completed) {
+                return;
+            }
+            if (mode == FIXED && remaining > 0) {
+                releaseBuffer();
+                closeConnection = true;
+                throw new IOException("Corps plus court que le Content-Length annoncé (" + remaining + " octet(s) manquant(s))");
+            }
+            emit(true);
+            completed = true;
+            releaseBuffer();
+        }
+
+        /**
+         * Réponse sans corps : en-têtes envoyés immédiatement
+         */
+        void complete() throws IOException {
+            buffer.flip();
+            try {
+                connection.write(buffer);
+            } finally {
+                releaseBuffer();
+            }
+            completed = true;
+        }
+
+        /**
+         * Écrit le contenu du tampon (bloc "chunked" complété si besoin)
+         * @param last Dernier envoi (bloc terminal en mode "chunked")
+         */
+        private void emit(boolean last) throws IOException {
+            if (mode == CHUNKED) {
+                int dataLength = buffer.position() - chunkStart - CHUNK_HEADER;
+                if (dataLength > 0) {
+                    for (int i = 0; i < 4; i++) {
+                        buffer.put(chunkStart + i, HEX[(dataLength >> (12 - 4 * i)) & 0xF]);
+                    }
+                    buffer.put(chunkStart + 4, (byte) '\r');
+                    buffer.put(chunkStart + 5, (byte) '\n');
+                    buffer.put(CRLF);
+                } else {
+                    buffer.position(chunkStart); // bloc vide : en-tête réservé retiré
+                }
+                if (last) {
+                    buffer.put(LAST_CHUNK);
+                }
+            }
+            buffer.flip();
+            connection.write(buffer);
+            buffer.clear();
+            if (mode == CHUNKED && !last) {
+                startChunk();
+            }
+        }
+
+        void releaseBuffer() {
+            if (buffer != null) {
+                buffer.clear();
+                BUFFERS.offer(buffer);
+                buffer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package api.server.nio;
+
+import com.sun.net.httpserver.Authenticator;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * NioHttpContext - Contexte (chemin -> handler + filtres) du moteur NIO
+ */
+final class NioHttpContext extends HttpContext {
+
+    private final NioHttpServer server;
+    private final String path;
+    private final List<Filter> filters = new CopyOnWriteArrayList<>();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private volatile HttpHandler handler;
+    private volatile Authenticator authenticator;
+
+    NioHttpContext(NioHttpServer server, String path) {
+        this.server = server;
+        this.path = path;
+    }
+
+    @Override
+    public HttpHandler getHandler() {
+        return handler;
+    }
+
+    @Override
+    public void setHandler(HttpHandler handler) {
+        if (handler == null) {
+            throw new NullPointerException("handler");
+        }
+        if (this.handler != null) {
+            throw new IllegalArgumentException("Handler déjà défini pour " + path);
+        }
+        this.handler = handler;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public HttpServer getServer() {
+        return server;
+    }
+
+    @Override
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public List<Filter> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Conservé pour le contrat HttpContext; le moteur NIO n'applique pas d'Authenticator
+     * (l'authentification de l'API est faite par les resources)
+     */
+    @Override
+    public Authenticator setAuthenticator(Authenticator authenticator) {
+        Authenticator previous = this.authenticator;
+        this.authenticator = authenticator;
+        return previous;
+    }
+
+    @Override
+    public Authenticator getAuthenticator() {
+        return authenticator;
+    }
+}
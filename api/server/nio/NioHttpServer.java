@@ -0,0 +1,280 @@
+package api.server.nio;
+
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * NioHttpServer - Moteur HTTP/1.1 non bloquant (sélecteurs NIO)
+ *
+ * Remplaçant de com.sun.net.httpserver.HttpServer avec le même contrat : contextes,
+ * filtres (RequestTracker) et HttpHandler des resources sont utilisés tels quels.
+ *
+ * - un thread d'acceptation répartit les connexions entre N boucles de sélection;
+ *   une connexion inactive n'occupe aucun thread
+ * - connexions persistantes (keep-alive) et pipelining : les requêtes déjà reçues sur
+ *   une connexion sont traitées à la suite, dans l'ordre, sans repasser par le sélecteur
+ * - les handlers s'exécutent sur l'executor du serveur; les réponses sont encodées
+ *   (en-têtes compris) dans des ByteBuffer directs réutilisés puis écrites sur le canal
+ * - les corps de requête sont reçus en entier avant l'appel du handler (Content-Length
+ *   obligatoire, au plus maxBodyBytes; "Transfer-Encoding: chunked" reçoit 411)
+ */
+public final class NioHttpServer extends HttpServer {
+
+    private final int selectorThreads;
+    private final long idleTimeoutMillis;
+    private final long maxBodyBytes;
+    private final List<NioHttpContext> contexts = new CopyOnWriteArrayList<>();
+
+    private ServerSocketChannel serverChannel;
+    private InetSocketAddress address;
+    private int backlog;
+    private Executor executor;
+    private ExecutorService defaultExecutor;     // créé si aucun executor n'est fourni
+    private SelectorLoop[] loops;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    /**
+     * @param selectorThreads Nombre de boucles de sélection
+     * @param idleTimeoutSeconds Fermeture d'une connexion sans requête en cours (et délai d'écriture maximal)
+     * @param maxBodyBytes Taille maximale d'un corps de requête (au-delà : 413)
+     */
+    public NioHttpServer(int selectorThreads, long idleTimeoutSeconds, long maxBodyBytes) {
+        this.selectorThreads = selectorThreads;
+        this.idleTimeoutMillis = idleTimeoutSeconds * 1000;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public static NioHttpServer create(InetSocketAddress address, int backlog, int selectorThreads,
+                                       long idleTimeoutSeconds, long maxBodyBytes) throws IOException {
+        NioHttpServer server = new NioHttpServer(selectorThreads, idleTimeoutSeconds, maxBodyBytes);
+        server.bind(address, backlog);
+        return server;
+    }
+
+    // ========================================================================
+    // Cycle de vie
+    // ========================================================================
+
+    @Override
+    public synchronized void bind(InetSocketAddress address, int backlog) throws IOException {
+        if (serverChannel != null) {
+            throw new IllegalStateException("Serveur déjà lié à " + this.address);
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        channel.bind(address, backlog);
+        this.serverChannel = channel;
+        this.address = (InetSocketAddress) channel.getLocalAddress();
+        this.backlog = backlog;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (serverChannel == null) {
+            throw new IllegalStateException("Serveur non lié (bind)");
+        }
+        if (running) {
+            throw new IllegalStateException("Serveur déjà démarré");
+        }
+        if (executor == null) {
+            defaultExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            executor = defaultExecutor;
+        }
+
+        loops = new SelectorLoop[selectorThreads];
+        try {
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new SelectorLoop(this, "nio-selector-" + (i + 1));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Ouverture des sélecteurs impossible", e);
+        }
+        running = true;
+        for (SelectorLoop loop : loops) {
+            loop.start();
+        }
+
+        acceptor = new Thread(this::acceptLoop, "nio-acceptor");
+        acceptor.start();
+        System.out.println("[NIO] Moteur non bloquant : " + loops.length + " sélecteur(s), file d'acceptation "
+                + backlog);
+    }
+
+    /**
+     * Boucle d'acceptation (bloquante) : chaque connexion est confiée à un sélecteur, à tour de rôle
+     */
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return; // arrêt
+            } catch (IOException e) {
+                // Ex : trop de fichiers ouverts; ne pas boucler à vide
+                System.err.println("[NIO] Erreur d'acceptation : " + e.getMessage());
+                sleepQuietly(100);
+                continue;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            } catch (IOException e) {
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    /**
+     * Ferme le port d'écoute puis, après au plus delay secondes, toutes les connexions
+     */
+    @Override
+    public void stop(int delay) {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // déjà fermé
+        }
+        if (delay > 0) {
+            sleepQuietly(delay * 1000L);
+        }
+        for (SelectorLoop loop : loops) {
+            loop.shutdown();
+        }
+        try {
+            acceptor.join(1000);
+            for (SelectorLoop loop : loops) {
+                loop.join(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public void setExecutor(Executor executor) {
+        if (running) {
+            throw new IllegalStateException("Serveur déjà démarré");
+        }
+        this.executor = executor;
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return defaultExecutor != null ? null : executor;
+    }
+
+    @Override
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    // ========================================================================
+    // Contextes
+    // ========================================================================
+
+    @Override
+    public HttpContext createContext(String path, HttpHandler handler) {
+        NioHttpContext context = (NioHttpContext) createContext(path);
+        context.setHandler(handler);
+        return context;
+    }
+
+    @Override
+    public synchronized HttpContext createContext(String path) {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("Chemin de contexte invalide : " + path);
+        }
+        for (NioHttpContext context : contexts) {
+            if (context.getPath().equals(path)) {
+                throw new IllegalArgumentException("Contexte déjà déclaré : " + path);
+            }
+        }
+        NioHttpContext context = new NioHttpContext(this, path);
+        contexts.add(context);
+        return context;
+    }
+
+    @Override
+    public synchronized void removeContext(String path) {
+        if (!contexts.removeIf(context -> context.getPath().equals(path))) {
+            throw new IllegalArgumentException("Contexte inconnu : " + path);
+        }
+    }
+
+    @Override
+    public void removeContext(HttpContext context) {
+        removeContext(context.getPath());
+    }
+
+    /**
+     * Contexte dont le chemin est le plus long préfixe du chemin demandé (comme HttpServer)
+     * @return null si aucun contexte ne correspond
+     */
+    NioHttpContext findContext(String path) {
+        NioHttpContext best = null;
+        for (NioHttpContext context : contexts) {
+            if (path.startsWith(context.getPath())
+                    && (best == null || context.getPath().length() > best.getPath().length())) {
+                best = context;
+            }
+        }
+        return best;
+    }
+
+    // ========================================================================
+    // Accès des connexions
+    // ========================================================================
+
+    Executor executor() {
+        return executor;
+    }
+
+    long idleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    long maxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // déjà fermé
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package api.server.nio;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SelectorLoop - Boucle de sélection d'un groupe de connexions
+ *
+ * Lit les requêtes des connexions en attente et termine les écritures que le canal
+ * n'a pas pu absorber. Les autres threads (acceptation, handlers) ne touchent jamais
+ * aux SelectionKey directement : ils déposent une tâche exécutée par la boucle.
+ */
+final class SelectorLoop {
+
+    private static final long IDLE_CHECK_MILLIS = 1000;
+
+    private final NioHttpServer server;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    SelectorLoop(NioHttpServer server, String name) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, name);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void join(long millis) throws InterruptedException {
+        thread.join(millis);
+    }
+
+    /**
+     * Exécute la tâche sur le thread de la boucle (ordre de dépôt)
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (Thread.currentThread() != thread) {
+            selector.wakeup();
+        }
+    }
+
+    void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new NioConnection(server, this, channel, key));
+            } catch (IOException e) {
+                NioHttpServer.closeQuietly(channel);
+            }
+        });
+    }
+
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void run() {
+        long nextIdleCheck = System.currentTimeMillis() + IDLE_CHECK_MILLIS;
+        while (running) {
+            try {
+                selector.select(IDLE_CHECK_MILLIS);
+            } catch (IOException e) {
+                System.err.println("[NIO] Erreur du sélecteur : " + e.getMessage());
+                continue;
+            }
+            runTasks();
+
+            Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+            while (selected.hasNext()) {
+                SelectionKey key = selected.next();
+                selected.remove();
+                NioConnection connection = (NioConnection) key.attachment();
+                try {
+                    if (key.isValid() && key.isWritable()) {
+                        connection.onWritable();
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        connection.onReadable();
+                    }
+                } catch (IOException | CancelledKeyException e) {
+                    connection.close();
+                } catch (RuntimeException e) {
+                    // Erreur propre à cette connexion : elle est fermée, la boucle continue
+                    System.err.println("[NIO] Erreur sur une connexion : " + e);
+                    connection.close();
+                }
+            }
+
+            long now = System.currentTimeMillis();
+            if (now >= nextIdleCheck) {
+                closeIdle(now);
+                nextIdleCheck = now + IDLE_CHECK_MILLIS;
+            }
+        }
+        closeAll();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (CancelledKeyException e) {
+                // connexion fermée entre-temps
+            } catch (RuntimeException e) {
+                System.err.println("[NIO] Erreur dans une tâche du sélecteur : " + e);
+            }
+        }
+    }
+
+    private void closeIdle(long now) {
+        long timeout = server.idleTimeoutMillis();
+        if (timeout <= 0) {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            NioConnection connection = (NioConnection) key.attachment();
+            if (connection != null && connection.isIdleSince(now - timeout)) {
+                connection.close();
+            }
+        }
+    }
+
+    private void closeAll() {
+        runTasks();
+        for (SelectionKey key : selector.keys()) {
+            NioConnection connection = (NioConnection) key.attachment();
+            if (connection != null) {
+                connection.close();
+            } else {
+                NioHttpServer.closeQuietly((SocketChannel) key.channel());
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // ignoré à l'arrêt
+        }
+    }
+}
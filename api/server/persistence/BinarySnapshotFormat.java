@@ -0,0 +1,440 @@
+package api.server.persistence;
+
+import core.content.CompositeContent;
+import core.content.Content;
+import core.content.ImageContent;
+import core.content.TextContent;
+import core.content.VideoContent;
+import core.entities.Admin;
+import core.entities.Ticket;
+import core.entities.TicketStatus;
+import core.entities.User;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * BinarySnapshotFormat - Format binaire versionné des snapshots ("snapshot-&lt;seq&gt;.bin")
+ *
+ * En-tête : [magic int][version short][lastSeq long][lastTicketId int] (borne haute des IDs réservés)
+ * puis une suite d'entrées [longueur int][type byte][données], terminée par une entrée END.
+ * Types : USER, SESSION, TICKET, REVOKED (token signé révoqué : [id][expiration long]). Chaînes : [longueur int (-1 = null)][UTF-8].
+ *
+ * Entrée TICKET : champs indexés (id, titre, statut, priorité, dates, assigné, créateur),
+ * puis deux blocs [longueur int][octets] : la description (arbre Content) et les commentaires,
+ * puis la version du ticket [long] (absente des snapshots antérieurs : 0).
+ *
+ * Chargement : le fichier est projeté en mémoire (MappedByteBuffer, par fenêtres d'au plus
+ * 1 Go alignées sur les entrées). Seuls les champs indexés sont décodés au démarrage;
+ * les blocs description / commentaires restent dans la projection et ne sont décodés
+ * qu'au premier accès au ticket. Un ticket jamais lu est recopié tel quel (octets bruts)
+ * dans le snapshot suivant.
+ */
+public final class BinarySnapshotFormat {
+
+    public static final String EXTENSION = ".bin";
+
+    private static final int MAGIC = 0x544B534E; // "TKSN"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 4;
+    private static final long MAX_WINDOW = 1L << 30;
+
+    private static final byte ENTRY_USER = 1;
+    private static final byte ENTRY_SESSION = 2;
+    private static final byte ENTRY_TICKET = 3;
+    private static final byte ENTRY_REVOKED = 4;
+    private static final byte ENTRY_END = 0;
+
+    private static final byte CONTENT_TEXT = 1;
+    private static final byte CONTENT_IMAGE = 2;
+    private static final byte CONTENT_VIDEO = 3;
+    private static final byte CONTENT_COMPOSITE = 4;
+
+    private static final int NO_ID = Integer.MIN_VALUE;
+
+    private BinarySnapshotFormat() {
+    }
+
+    // ========================================================================
+    // Écriture
+    // ========================================================================
+
+    /**
+     * Écrit un snapshot. Chaque ticket est encodé sous son propre verrou.
+     */
+    public static void write(SnapshotData data, FileChannel channel) throws IOException {
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), 256 * 1024));
+        EntryBuffer entry = new EntryBuffer();
+        EntryBuffer block = new EntryBuffer();
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(data.getLastSeq());
+        out.writeInt(data.getLastTicketId());
+
+        for (User user : data.getUsers()) {
+            entry.reset();
+            entry.data.writeByte(user instanceof Admin ? 1 : 0);
+            entry.data.writeInt(user.getUserID());
+            writeString(entry.data, user.getName());
+            writeString(entry.data, user.getEmail());
+            writeString(entry.data, user.getRole());
+            entry.writeTo(out, ENTRY_USER);
+        }
+
+        for (Map.Entry<String, Integer> session : data.getSessions().entrySet()) {
+            entry.reset();
+            writeString(entry.data, session.getKey());
+            entry.data.writeInt(session.getValue());
+            entry.writeTo(out, ENTRY_SESSION);
+        }
+
+        for (Map.Entry<String, Long> revoked : data.getRevokedTokens().entrySet()) {
+            entry.reset();
+            writeString(entry.data, revoked.getKey());
+            entry.data.writeLong(revoked.getValue());
+            entry.writeTo(out, ENTRY_REVOKED);
+        }
+
+        for (Ticket ticket : data.getTickets()) {
+            entry.reset();
+            synchronized (ticket) {
+                encodeTicket(ticket, entry.data, block);
+            }
+            entry.writeTo(out, ENTRY_TICKET);
+        }
+
+        out.writeInt(0);
+        out.writeByte(ENTRY_END);
+        out.flush();
+    }
+
+    private static void encodeTicket(Ticket ticket, DataOutputStream out, EntryBuffer block) throws IOException {
+        out.writeInt(ticket.getTicketID());
+        writeString(out, ticket.getTitle());
+        writeString(out, ticket.getStatus().name());
+        writeString(out, ticket.getPriority());
+        out.writeLong(ticket.getCreationDate().getTime());
+        out.writeLong(ticket.getUpdateDate().getTime());
+        writeId(out, ticket.getAssignedToUserID());
+        writeId(out, ticket.getCreatedByUserID());
+
+        // Description : recopie brute si elle n'a jamais été décodée
+        Supplier<Content> pendingDescription = ticket.getPendingDescription();
+        if (pendingDescription instanceof MappedBlock) {
+            ((MappedBlock<?>) pendingDescription).copyTo(out);
+        } else {
+            block.reset();
+            writeContent(block.data, ticket.getDescription());
+            block.writeBlockTo(out);
+        }
+
+        Supplier<List<String>> pendingComments = ticket.getPendingComments();
+        if (pendingComments instanceof MappedBlock) {
+            ((MappedBlock<?>) pendingComments).copyTo(out);
+        } else {
+            List<String> comments = ticket.getComments();
+            block.reset();
+            block.data.writeInt(comments.size());
+            for (String comment : comments) {
+                writeString(block.data, comment);
+            }
+            block.writeBlockTo(out);
+        }
+
+        out.writeLong(ticket.getVersion());
+    }
+
+    private static void writeContent(DataOutputStream out, Content content) throws IOException {
+        if (content instanceof CompositeContent) {
+            List<Content> children = ((CompositeContent) content).getChildren();
+            out.writeByte(CONTENT_COMPOSITE);
+            out.writeInt(children.size());
+            for (Content child : children) {
+                writeContent(out, child);
+            }
+        } else if (content instanceof ImageContent) {
+            ImageContent image = (ImageContent) content;
+            out.writeByte(CONTENT_IMAGE);
+            writeString(out, image.getImagePath());
+            writeString(out, image.getCaption());
+        } else if (content instanceof VideoContent) {
+            VideoContent video = (VideoContent) content;
+            out.writeByte(CONTENT_VIDEO);
+            writeString(out, video.getVideoPath());
+            out.writeInt(video.getDuration());
+        } else {
+            out.writeByte(CONTENT_TEXT);
+            writeString(out, content instanceof TextContent ? ((TextContent) content).getText() : "");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeId(DataOutputStream out, Integer id) throws IOException {
+        out.writeInt(id != null ? id : NO_ID);
+    }
+
+    /**
+     * Tampon réutilisable pour encoder une entrée avant d'en connaître la longueur
+     */
+    private static final class EntryBuffer {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        final DataOutputStream data = new DataOutputStream(bytes);
+
+        void reset() {
+            bytes.reset();
+        }
+
+        void writeTo(DataOutputStream out, byte type) throws IOException {
+            data.flush();
+            out.writeInt(bytes.size());
+            out.writeByte(type);
+            bytes.writeTo(out);
+        }
+
+        void writeBlockTo(DataOutputStream out) throws IOException {
+            data.flush();
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        }
+    }
+
+    // ========================================================================
+    // Lecture
+    // ========================================================================
+
+    /**
+     * Charge un snapshot. Les tickets retournés décodent leur description et
+     * leurs commentaires à la demande, directement depuis la projection mémoire.
+     */
+    public static SnapshotData read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new PersistenceException("Snapshot tronqué : " + path.getFileName());
+            }
+
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_WINDOW));
+            if (window.getInt() != MAGIC) {
+                throw new PersistenceException("Format de snapshot inconnu : " + path.getFileName());
+            }
+            short version = window.getShort();
+            if (version != VERSION) {
+                throw new PersistenceException("Version de snapshot non supportée (" + version + ") : "
+                        + path.getFileName());
+            }
+            long lastSeq = window.getLong();
+            int lastTicketId = window.getInt();
+
+            List<User> users = new ArrayList<>();
+            Map<String, Integer> sessions = new HashMap<>();
+            Map<String, Long> revokedTokens = new HashMap<>();
+            List<Ticket> tickets = new ArrayList<>();
+            Map<String, String> priorities = new HashMap<>(); // une seule instance par valeur
+
+            long windowStart = 0;
+            long position = HEADER_SIZE;
+            while (true) {
+                // Remapper si l'en-tête de l'entrée sort de la fenêtre
+                if (position + 5 > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                            Math.min(size - windowStart, MAX_WINDOW));
+                }
+                if (position + 5 > size) {
+                    throw new PersistenceException("Snapshot tronqué : " + path.getFileName());
+                }
+
+                int offset = (int) (position - windowStart);
+                int length = window.getInt(offset);
+                byte type = window.get(offset + 4);
+                if (type == ENTRY_END) {
+                    break;
+                }
+                if (length < 0 || position + 5 + length > size) {
+                    throw new PersistenceException("Snapshot tronqué : " + path.getFileName());
+                }
+                if (position + 5 + length > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                            Math.min(size - windowStart, MAX_WINDOW));
+                    offset = 0;
+                }
+
+                ByteBuffer in = window.duplicate();
+                in.position(offset + 5).limit(offset + 5 + length);
+                try {
+                    switch (type) {
+                        case ENTRY_USER:
+                            users.add(readUser(in));
+                            break;
+                        case ENTRY_SESSION:
+                            sessions.put(readString(in), in.getInt());
+                            break;
+                        case ENTRY_REVOKED:
+                            revokedTokens.put(readString(in), in.getLong());
+                            break;
+                        case ENTRY_TICKET:
+                            tickets.add(readTicket(in, window, priorities));
+                            break;
+                        default:
+                            // Type inconnu (version future compatible) : ignoré
+                            break;
+                    }
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    throw new PersistenceException("Snapshot corrompu : " + path.getFileName()
+                            + " (position " + position + ")", e);
+                }
+
+                position += 5 + length;
+            }
+
+            return new SnapshotData(lastSeq, lastTicketId, users, tickets, sessions, revokedTokens);
+        }
+    }
+
+    private static User readUser(ByteBuffer in) {
+        boolean admin = in.get() == 1;
+        int id = in.getInt();
+        String name = readString(in);
+        String email = readString(in);
+        String role = readString(in);
+        return admin ? new Admin(id, name, email) : new User(id, name, email, role);
+    }
+
+    private static Ticket readTicket(ByteBuffer in, MappedByteBuffer window, Map<String, String> priorities) {
+        int id = in.getInt();
+        String title = readString(in);
+        TicketStatus status = TicketStatus.valueOf(readString(in));
+        String priority = readString(in);
+        if (priority != null) {
+            priority = priorities.computeIfAbsent(priority, p -> p);
+        }
+        long creationDate = in.getLong();
+        long updateDate = in.getLong();
+        int assignedTo = in.getInt();
+        int createdBy = in.getInt();
+
+        int descriptionLength = in.getInt();
+        MappedBlock<Content> description = new MappedBlock<>(window, in.position(), descriptionLength,
+                BinarySnapshotFormat::readContent);
+        in.position(in.position() + descriptionLength);
+        int commentsLength = in.getInt();
+        MappedBlock<List<String>> comments = new MappedBlock<>(window, in.position(), commentsLength,
+                BinarySnapshotFormat::readComments);
+        in.position(in.position() + commentsLength);
+        long version = in.remaining() >= 8 ? in.getLong() : 0;
+
+        Ticket ticket = new Ticket(id, title, null, priority);
+        ticket.setStatus(status);
+        ticket.setAssignedToUserID(assignedTo != NO_ID ? assignedTo : null);
+        ticket.setCreatedByUserID(createdBy != NO_ID ? createdBy : null);
+        ticket.setCreationDate(new Date(creationDate));
+        ticket.setUpdateDate(new Date(updateDate));
+        ticket.setLazyContent(description, comments);
+        ticket.setVersion(version);
+        return ticket;
+    }
+
+    private static Content readContent(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case CONTENT_COMPOSITE:
+                CompositeContent composite = new CompositeContent();
+                int count = in.getInt();
+                for (int i = 0; i < count; i++) {
+                    composite.add(readContent(in));
+                }
+                return composite;
+            case CONTENT_IMAGE:
+                return new ImageContent(readString(in), readString(in));
+            case CONTENT_VIDEO:
+                return new VideoContent(readString(in), in.getInt());
+            case CONTENT_TEXT:
+                return new TextContent(readString(in));
+            default:
+                throw new IllegalArgumentException("Type de contenu inconnu : " + type);
+        }
+    }
+
+    private static List<String> readComments(ByteBuffer in) {
+        int count = in.getInt();
+        List<String> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            comments.add(readString(in));
+        }
+        return comments;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Bloc encodé (description ou commentaires) resté dans la projection mémoire.
+     * Décodé à la demande; recopié tel quel si le ticket n'a jamais été lu.
+     */
+    private static final class MappedBlock<T> implements Supplier<T> {
+        private final MappedByteBuffer window;
+        private final int offset;
+        private final int length;
+        private final Function<ByteBuffer, T> decoder;
+
+        MappedBlock(MappedByteBuffer window, int offset, int length, Function<ByteBuffer, T> decoder) {
+            this.window = window;
+            this.offset = offset;
+            this.length = length;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public T get() {
+            // Vue indépendante : plusieurs tickets peuvent être décodés en parallèle
+            ByteBuffer in = window.duplicate();
+            in.position(offset).limit(offset + length);
+            return decoder.apply(in);
+        }
+
+        void copyTo(DataOutputStream out) throws IOException {
+            byte[] bytes = new byte[length];
+            ByteBuffer in = window.duplicate();
+            in.position(offset);
+            in.get(bytes);
+            out.writeInt(length);
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package api.server.persistence;
+
+/**
+ * JournalRecord - Entrée du journal (write-ahead log)
+ *
+ * Les mutations de tickets transportent l'image complète du ticket (TicketRecord);
+ * les mutations de sessions transportent le token et l'ID utilisateur
+ * (une révocation de token signé transporte le token complet);
+ * une réservation d'IDs transporte seulement la borne haute (ticketId).
+ * Le numéro de séquence est attribué par le journal et stocké dans l'en-tête binaire de l'entrée.
+ */
+public class JournalRecord {
+    private MutationType type;
+    private int ticketId;
+    private TicketRecord ticket;
+    private String token;
+    private Integer userId;
+
+    private transient long seq;
+
+    // Constructeur par défaut (requis pour la désérialisation JSON)
+    public JournalRecord() {
+    }
+
+    private JournalRecord(MutationType type, int ticketId, TicketRecord ticket, String token, Integer userId) {
+        this.type = type;
+        this.ticketId = ticketId;
+        this.ticket = ticket;
+        this.token = token;
+        this.userId = userId;
+    }
+
+    /**
+     * Mutation d'un ticket (création, modification, statut, assignation, commentaire)
+     */
+    public static JournalRecord ticketChanged(MutationType type, TicketRecord ticket) {
+        return new JournalRecord(type, ticket.getId(), ticket, null, null);
+    }
+
+    public static JournalRecord ticketDeleted(int ticketId) {
+        return new JournalRecord(MutationType.DELETE, ticketId, null, null, null);
+    }
+
+    public static JournalRecord sessionOpened(String token, int userId) {
+        return new JournalRecord(MutationType.SESSION_OPEN, 0, null, token, userId);
+    }
+
+    public static JournalRecord sessionClosed(String token) {
+        return new JournalRecord(MutationType.SESSION_CLOSE, 0, null, token, null);
+    }
+
+    public static JournalRecord tokenRevoked(String token) {
+        return new JournalRecord(MutationType.TOKEN_REVOKE, 0, null, token, null);
+    }
+
+    /**
+     * Bloc d'IDs de tickets réservé jusqu'à highWaterMark inclus
+     */
+    public static JournalRecord idsReserved(int highWaterMark) {
+        return new JournalRecord(MutationType.ID_RESERVE, highWaterMark, null, null, null);
+    }
+
+    // Getters
+    public MutationType getType() {
+        return type;
+    }
+
+    public int getTicketId() {
+        return ticketId;
+    }
+
+    public TicketRecord getTicket() {
+        return ticket;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    void setSeq(long seq) {
+        this.seq = seq;
+    }
+}
@@ -0,0 +1,36 @@
+package api.server.persistence;
+
+/**
+ * MutationType - Types de mutations enregistrées dans le journal
+ */
+public enum MutationType {
+    /** Création d'un ticket */
+    CREATE,
+
+    /** Modification du titre, de la priorité ou de la description */
+    UPDATE,
+
+    /** Changement de statut */
+    STATUS,
+
+    /** Assignation à un utilisateur */
+    ASSIGN,
+
+    /** Ajout d'un commentaire */
+    COMMENT,
+
+    /** Suppression d'un ticket */
+    DELETE,
+
+    /** Ouverture d'une session */
+    SESSION_OPEN,
+
+    /** Fermeture d'une session */
+    SESSION_CLOSE,
+
+    /** Réservation d'un bloc d'IDs de tickets (borne haute dans ticketId) */
+    ID_RESERVE,
+
+    /** Révocation d'un token signé (déconnexion) */
+    TOKEN_REVOKE
+}
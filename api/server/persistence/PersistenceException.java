@@ -0,0 +1,16 @@
+package api.server.persistence;
+
+/**
+ * PersistenceException - Erreur d'écriture ou de lecture du journal / des snapshots
+ */
+public class PersistenceException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PersistenceException(String message) {
+        super(message);
+    }
+
+    public PersistenceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,154 @@
+package api.server.persistence;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * PersistenceManager - Moteur de persistance de l'état serveur
+ *
+ * Combine :
+ * - un journal append-only des mutations (WriteAheadLog, commit groupé)
+ * - des snapshots compactés périodiques (SnapshotStore)
+ * - la récupération au démarrage : dernier snapshot + rejeu de la fin du journal
+ *
+ * Cycle de vie : recover() -> start() -> append()... -> close()
+ */
+public class PersistenceManager {
+
+    /**
+     * Reconstruit l'état en mémoire pendant la récupération
+     */
+    public interface RecoveryHandler {
+        void restoreSnapshot(SnapshotData snapshot);
+
+        void replay(JournalRecord record);
+    }
+
+    private final WriteAheadLog journal;
+    private final SnapshotStore snapshots;
+    private final long snapshotIntervalSeconds;
+    private final AtomicLong appendsSinceSnapshot = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+    private LongFunction<SnapshotData> snapshotSource;
+    private long lastSeq;
+
+    public PersistenceManager(Path directory, long snapshotIntervalSeconds) {
+        this.journal = new WriteAheadLog(directory);
+        this.snapshots = new SnapshotStore(directory);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    /**
+     * Charge le dernier snapshot puis rejoue les entrées plus récentes du journal
+     * @return true si un état existant a été restauré, false si le répertoire est vide
+     */
+    public boolean recover(RecoveryHandler handler) {
+        try {
+            SnapshotData snapshot = snapshots.loadLatest();
+            long fromSeq = 0;
+            if (snapshot != null) {
+                handler.restoreSnapshot(snapshot);
+                fromSeq = snapshot.getLastSeq();
+            }
+
+            long replayed = journal.replay(fromSeq, handler::replay);
+            lastSeq = replayed;
+
+            if (snapshot != null || replayed > 0) {
+                System.out.println("[PERSISTENCE] État restauré : snapshot seq " + fromSeq
+                        + ", " + (replayed - fromSeq) + " entrée(s) du journal rejouée(s)");
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new PersistenceException("Récupération impossible : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Démarre le journal et les snapshots périodiques
+     * @param snapshotSource Capture l'état courant; reçoit le seq couvert par le snapshot
+     */
+    public void start(LongFunction<SnapshotData> snapshotSource) {
+        this.snapshotSource = snapshotSource;
+        try {
+            journal.start(lastSeq);
+        } catch (IOException e) {
+            throw new PersistenceException("Ouverture du journal impossible : " + e.getMessage(), e);
+        }
+
+        if (snapshotIntervalSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "snapshot-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> {
+                if (appendsSinceSnapshot.get() > 0) {
+                    snapshot();
+                }
+            }, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Ajoute une mutation au journal (voir WriteAheadLog.append)
+     */
+    public CompletableFuture<Long> append(JournalRecord record) {
+        appendsSinceSnapshot.incrementAndGet();
+        return journal.append(record);
+    }
+
+    /**
+     * Attend qu'une entrée soit durable.
+     * À appeler hors de tout verrou de ticket : le thread attend le prochain fsync groupé.
+     * @throws PersistenceException si l'entrée n'a pas pu être écrite
+     */
+    public void awaitDurable(CompletableFuture<Long> pending) {
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PersistenceException) {
+                throw (PersistenceException) e.getCause();
+            }
+            throw new PersistenceException("Écriture du journal impossible", e.getCause());
+        }
+    }
+
+    /**
+     * Écrit un snapshot compacté puis supprime les segments de journal qu'il couvre.
+     *
+     * Le journal bascule d'abord sur un nouveau segment : toutes les entrées de seq &lt;= S
+     * sont dans les anciens segments et déjà appliquées en mémoire. L'état capturé ensuite
+     * contient donc au moins tout jusqu'à S; les entrées &gt; S sont rejouées à la récupération.
+     */
+    public synchronized void snapshot() {
+        try {
+            appendsSinceSnapshot.set(0);
+            long coveredSeq = journal.rotate().join();
+            snapshots.write(snapshotSource.apply(coveredSeq));
+            journal.deleteSegmentsUpTo(coveredSeq);
+            System.out.println("[PERSISTENCE] Snapshot écrit (seq " + coveredSeq + ")");
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[PERSISTENCE] Échec du snapshot : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Arrête les snapshots et vide le journal sur disque
+     */
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        journal.close();
+    }
+}
@@ -0,0 +1,63 @@
+package api.server.persistence;
+
+import core.entities.Ticket;
+import core.entities.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SnapshotData - Contenu d'un snapshot compacté de l'état serveur
+ *
+ * lastSeq : toutes les entrées du journal jusqu'à ce numéro sont incluses.
+ * Le snapshot peut aussi refléter des entrées plus récentes (snapshot flou);
+ * leur rejeu est sans effet puisque chaque entrée est une image complète.
+ *
+ * À l'écriture, les tickets sont les entités vivantes (encodées une à une sous leur verrou).
+ */
+public class SnapshotData {
+    private final long lastSeq;
+    private final int lastTicketId;
+    private final List<User> users;
+    private final List<Ticket> tickets;
+    private final Map<String, Integer> sessions; // token -> userID
+    private final Map<String, Long> revokedTokens; // id de token signé -> expiration (s)
+
+    public SnapshotData(long lastSeq, int lastTicketId, List<User> users, List<Ticket> tickets,
+                        Map<String, Integer> sessions, Map<String, Long> revokedTokens) {
+        this.lastSeq = lastSeq;
+        this.lastTicketId = lastTicketId;
+        this.users = users;
+        this.tickets = tickets;
+        this.sessions = sessions;
+        this.revokedTokens = revokedTokens;
+    }
+
+    // Getters
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public int getLastTicketId() {
+        return lastTicketId;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public List<Ticket> getTickets() {
+        return tickets;
+    }
+
+    public Map<String, Integer> getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Tokens signés révoqués et non encore expirés
+     */
+    public Map<String, Long> getRevokedTokens() {
+        return revokedTokens;
+    }
+}
@@ -0,0 +1,90 @@
+package api.server.persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SnapshotStore - Lecture et écriture des snapshots "snapshot-&lt;seq&gt;.bin"
+ *
+ * Un snapshot est écrit dans un fichier temporaire, synchronisé sur disque,
+ * puis renommé atomiquement : un crash pendant l'écriture laisse le snapshot précédent intact.
+ */
+public class SnapshotStore {
+
+    private static final String PREFIX = "snapshot-";
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Charge le snapshot le plus récent
+     * @return Le snapshot, ou null s'il n'en existe aucun
+     */
+    public SnapshotData loadLatest() throws IOException {
+        List<Path> snapshots = listSnapshots();
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+
+        return BinarySnapshotFormat.read(snapshots.get(snapshots.size() - 1));
+    }
+
+    /**
+     * Écrit un snapshot de façon atomique puis supprime les snapshots plus anciens
+     */
+    public void write(SnapshotData data) throws IOException {
+        Files.createDirectories(directory);
+        Path target = directory.resolve(fileName(data.getLastSeq()));
+        Path temp = directory.resolve(fileName(data.getLastSeq()) + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            BinarySnapshotFormat.write(data, channel);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Path old : listSnapshots()) {
+            if (!old.equals(target)) {
+                try {
+                    Files.deleteIfExists(old);
+                } catch (IOException e) {
+                    // Windows : un fichier encore projeté en mémoire ne peut pas être supprimé.
+                    // Il sera supprimé lors d'un prochain snapshot.
+                    System.err.println("[PERSISTENCE] Suppression différée de " + old.getFileName());
+                }
+            }
+        }
+    }
+
+    private List<Path> listSnapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                PREFIX + "*" + BinarySnapshotFormat.EXTENSION)) {
+            for (Path path : stream) {
+                snapshots.add(path);
+            }
+        }
+        // Noms à largeur fixe : l'ordre alphabétique est l'ordre des seq
+        Collections.sort(snapshots);
+        return snapshots;
+    }
+
+    private static String fileName(long lastSeq) {
+        return String.format("%s%020d%s", PREFIX, lastSeq, BinarySnapshotFormat.EXTENSION);
+    }
+}
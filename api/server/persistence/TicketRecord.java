@@ -0,0 +1,91 @@
+package api.server.persistence;
+
+import api.server.models.ContentItemDTO;
+
+import java.util.List;
+
+/**
+ * TicketRecord - Image complète d'un ticket, telle qu'écrite sur disque
+ *
+ * Chaque entrée du journal transporte l'état du ticket APRÈS la mutation :
+ * rejouer une entrée est donc idempotent, ce qui permet des snapshots "flous"
+ * (pris pendant que les écritures continuent).
+ */
+public class TicketRecord {
+    private int id;
+    private String title;
+    private List<ContentItemDTO> description;
+    private String status;       // nom de l'enum TicketStatus
+    private String priority;
+    private long creationDate;   // millisecondes epoch
+    private long updateDate;
+    private Integer assignedTo;
+    private Integer createdBy;
+    private List<String> comments;
+    private long version;        // absente des journaux antérieurs : 0
+
+    // Constructeur par défaut (requis pour la désérialisation JSON)
+    public TicketRecord() {
+    }
+
+    public TicketRecord(int id, String title, List<ContentItemDTO> description, String status,
+                        String priority, long creationDate, long updateDate,
+                        Integer assignedTo, Integer createdBy, List<String> comments, long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.creationDate = creationDate;
+        this.updateDate = updateDate;
+        this.assignedTo = assignedTo;
+        this.createdBy = createdBy;
+        this.comments = comments;
+        this.version = version;
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public List<ContentItemDTO> getDescription() {
+        return description;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public long getCreationDate() {
+        return creationDate;
+    }
+
+    public long getUpdateDate() {
+        return updateDate;
+    }
+
+    public Integer getAssignedTo() {
+        return assignedTo;
+    }
+
+    public Integer getCreatedBy() {
+        return createdBy;
+    }
+
+    public List<String> getComments() {
+        return comments;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
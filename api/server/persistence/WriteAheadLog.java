@@ -0,0 +1,402 @@
+package api.server.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * WriteAheadLog - Journal append-only des mutations, avec commit groupé
+ *
+ * Format d'une entrée : [longueur int][seq long][crc32 int][JSON UTF-8]
+ * (le CRC couvre seq + JSON). Le journal est découpé en segments
+ * "journal-&lt;premier seq&gt;.log"; un snapshot fait basculer sur un nouveau segment
+ * et permet de supprimer les précédents.
+ *
+ * Commit groupé : les threads de requête mettent leurs entrées en file et attendent
+ * un CompletableFuture. Un thread d'écriture unique vide la file, écrit tout le lot
+ * puis fait un seul force() : un fsync est partagé par toutes les entrées du lot.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 4 + 8 + 4;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_BATCH = 4096;
+
+    /**
+     * Entrée en attente d'écriture (payload null = bascule de segment)
+     */
+    private static final class PendingWrite {
+        final long seq;
+        final byte[] payload;
+        final CompletableFuture<Long> done = new CompletableFuture<>();
+
+        PendingWrite(long seq, byte[] payload) {
+            this.seq = seq;
+            this.payload = payload;
+        }
+    }
+
+    private static final PendingWrite STOP = new PendingWrite(-1, null);
+
+    private final Path directory;
+    private final Gson gson = new Gson();
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Object appendLock = new Object();
+
+    private long lastSeq;                // protégé par appendLock
+    private boolean closed;              // protégé par appendLock
+    private volatile IOException failure;
+    private Thread writer;
+
+    // Accédés uniquement par le thread d'écriture (après start)
+    private FileChannel segment;
+    private long segmentStartSeq;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+
+    public WriteAheadLog(Path directory) {
+        this.directory = directory;
+    }
+
+    // ========================================================================
+    // Récupération
+    // ========================================================================
+
+    /**
+     * Relit les segments dans l'ordre et transmet les entrées de seq > afterSeq.
+     * Une entrée incomplète ou corrompue en fin du dernier segment (crash pendant
+     * l'écriture) est tronquée; ailleurs, elle est une erreur.
+     * @return Le dernier numéro de séquence lu (ou afterSeq si aucun)
+     */
+    public long replay(long afterSeq, Consumer<JournalRecord> consumer) throws IOException {
+        List<Path> segments = listSegments();
+        long last = afterSeq;
+
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            boolean lastSegment = i == segments.size() - 1;
+            long validEnd = 0;
+
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+                while (true) {
+                    int length;
+                    try {
+                        length = in.readInt();
+                    } catch (EOFException e) {
+                        break; // fin propre du segment
+                    }
+
+                    JournalRecord record;
+                    try {
+                        record = readRecord(in, length);
+                    } catch (EOFException | CorruptRecordException e) {
+                        if (!lastSegment) {
+                            throw new PersistenceException("Journal corrompu : " + path.getFileName()
+                                    + " (position " + validEnd + ")");
+                        }
+                        System.err.println("[JOURNAL] Entrée incomplète en fin de " + path.getFileName()
+                                + " (position " + validEnd + ") : tronquée");
+                        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                            channel.truncate(validEnd);
+                            channel.force(true);
+                        }
+                        break;
+                    }
+
+                    validEnd += HEADER_SIZE + length;
+                    if (record.getSeq() > last) {
+                        consumer.accept(record);
+                        last = record.getSeq();
+                    }
+                }
+            }
+        }
+
+        return last;
+    }
+
+    private JournalRecord readRecord(DataInputStream in, int length) throws IOException {
+        if (length < 0 || length > MAX_RECORD_SIZE) {
+            throw new CorruptRecordException();
+        }
+        long seq = in.readLong();
+        int crc = in.readInt();
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+
+        if (crc != checksum(seq, payload)) {
+            throw new CorruptRecordException();
+        }
+
+        try {
+            JournalRecord record = gson.fromJson(new String(payload, StandardCharsets.UTF_8), JournalRecord.class);
+            record.setSeq(seq);
+            return record;
+        } catch (JsonParseException e) {
+            throw new CorruptRecordException();
+        }
+    }
+
+    private static final class CorruptRecordException extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    // ========================================================================
+    // Écriture
+    // ========================================================================
+
+    /**
+     * Ouvre un nouveau segment et démarre le thread d'écriture
+     * @param lastSeq Dernier numéro de séquence connu (snapshot + journal rejoué)
+     */
+    public void start(long lastSeq) throws IOException {
+        Files.createDirectories(directory);
+        this.lastSeq = lastSeq;
+        openSegment(lastSeq + 1);
+
+        writer = new Thread(this::runWriter, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Ajoute une entrée au journal.
+     * L'appelant peut détenir le verrou du ticket concerné : l'ordre des entrées d'un
+     * même ticket suit alors l'ordre d'application en mémoire. Attendre le résultat
+     * doit se faire APRÈS avoir relâché ce verrou.
+     * @return Future complété avec le seq une fois l'entrée durable (après fsync)
+     */
+    public CompletableFuture<Long> append(JournalRecord record) {
+        byte[] payload = gson.toJson(record).getBytes(StandardCharsets.UTF_8);
+        if (payload.length > MAX_RECORD_SIZE) {
+            return CompletableFuture.failedFuture(
+                    new PersistenceException("Entrée de journal trop volumineuse : " + payload.length + " octets"));
+        }
+
+        synchronized (appendLock) {
+            if (closed || failure != null) {
+                return CompletableFuture.failedFuture(unavailable());
+            }
+            PendingWrite pending = new PendingWrite(++lastSeq, payload);
+            queue.add(pending);
+            return pending.done;
+        }
+    }
+
+    /**
+     * Bascule sur un nouveau segment
+     * @return Future complété avec le dernier seq du segment fermé, une fois celui-ci durable
+     */
+    public CompletableFuture<Long> rotate() {
+        synchronized (appendLock) {
+            if (closed || failure != null) {
+                return CompletableFuture.failedFuture(unavailable());
+            }
+            PendingWrite marker = new PendingWrite(lastSeq, null);
+            queue.add(marker);
+            return marker.done;
+        }
+    }
+
+    /**
+     * Supprime les segments dont toutes les entrées ont un seq &lt;= lastSeq
+     * (seulement les segments antérieurs à la dernière bascule)
+     */
+    public void deleteSegmentsUpTo(long lastSeq) throws IOException {
+        for (Path path : listSegments()) {
+            if (segmentStart(path) <= lastSeq) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>();
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue; // seul STOP arrête le thread
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            running = writeBatch(batch);
+            batch.clear();
+        }
+
+        try {
+            segment.close();
+        } catch (IOException e) {
+            System.err.println("[JOURNAL] Erreur à la fermeture du segment : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Écrit un lot d'entrées et le rend durable avec un seul fsync
+     * @return false si le lot contenait la demande d'arrêt
+     */
+    private boolean writeBatch(List<PendingWrite> batch) {
+        List<PendingWrite> written = new ArrayList<>(batch.size());
+        boolean running = true;
+
+        try {
+            buffer.clear();
+            for (PendingWrite pending : batch) {
+                if (pending == STOP) {
+                    running = false;
+                } else if (pending.payload == null) {
+                    flush(written);
+                    if (pending.seq + 1 != segmentStartSeq) {
+                        segment.close();
+                        openSegment(pending.seq + 1);
+                    }
+                    pending.done.complete(pending.seq);
+                } else {
+                    encode(pending);
+                    written.add(pending);
+                }
+            }
+            flush(written);
+        } catch (IOException e) {
+            failure = e;
+            System.err.println("[JOURNAL] Erreur d'écriture, journal désactivé : " + e.getMessage());
+            for (PendingWrite pending : batch) {
+                pending.done.completeExceptionally(unavailable());
+            }
+            // Les entrées arrivées entre-temps ne seront jamais écrites
+            List<PendingWrite> rest = new ArrayList<>();
+            queue.drainTo(rest);
+            for (PendingWrite pending : rest) {
+                if (pending == STOP) {
+                    running = false;
+                }
+                pending.done.completeExceptionally(unavailable());
+            }
+        }
+
+        return running;
+    }
+
+    private void encode(PendingWrite pending) {
+        int size = HEADER_SIZE + pending.payload.length;
+        if (buffer.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + size));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+        buffer.putInt(pending.payload.length);
+        buffer.putLong(pending.seq);
+        buffer.putInt(checksum(pending.seq, pending.payload));
+        buffer.put(pending.payload);
+    }
+
+    /**
+     * Écrit le tampon, fait un fsync, puis complète les entrées écrites
+     */
+    private void flush(List<PendingWrite> written) throws IOException {
+        if (written.isEmpty()) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        segment.force(false);
+        buffer.clear();
+
+        for (PendingWrite pending : written) {
+            pending.done.complete(pending.seq);
+        }
+        written.clear();
+    }
+
+    private void openSegment(long startSeq) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, startSeq, SEGMENT_SUFFIX));
+        segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentStartSeq = startSeq;
+    }
+
+    /**
+     * Attend l'écriture des entrées en file puis arrête le thread d'écriture
+     */
+    @Override
+    public void close() {
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(STOP);
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // ========================================================================
+    // Utilitaires
+    // ========================================================================
+
+    private PersistenceException unavailable() {
+        if (failure != null) {
+            return new PersistenceException("Journal indisponible : " + failure.getMessage(), failure);
+        }
+        return new PersistenceException("Journal fermé");
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                segments.add(path);
+            }
+        }
+        // Noms à largeur fixe : l'ordre alphabétique est l'ordre des seq
+        segments.sort(null);
+        return segments;
+    }
+
+    private static long segmentStart(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksum(long seq, byte[] payload) {
+        CRC32 crc = new CRC32();
+        ByteBuffer seqBytes = ByteBuffer.allocate(8).putLong(seq);
+        crc.update(seqBytes.array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
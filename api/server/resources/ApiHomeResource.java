@@ -12,15 +12,8 @@ import java.util.Map;
 public class ApiHomeResource extends BaseResource {
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-
-        if ("GET".equals(method)) {
-            handleGetApiHome(exchange);
-        } else {
-            sendErrorResponse(exchange, 405, "Method Not Allowed",
-                "Seule la méthode GET est autorisée sur cette route");
-        }
+    public void registerRoutes(ApiRouter router) {
+        router.add("GET", "", this, (exchange, params) -> handleGetApiHome(exchange));
     }
 
     /**
@@ -0,0 +1,271 @@
+package api.server.resources;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ApiRouter - Aiguillage des requêtes de l'API par un arbre de routes précompilé
+ *
+ * Les resources déclarent leurs routes au démarrage (registerRoutes) :
+ *   router.add("GET", "/tickets/{id}/comments", this, this::handleGetComments);
+ *
+ * - Un segment "{nom}" est un paramètre entier, lu directement dans le chemin
+ *   (sans découpage ni sous-chaîne); les segments littéraux sont prioritaires
+ *   ("/tickets/batch" avant "/tickets/{id}")
+ * - Chemin inconnu : 404; méthode non déclarée pour ce chemin : 405 avec l'en-tête Allow;
+ *   paramètre non entier : 400; OPTIONS (CORS preflight) est traité pour tout chemin connu
+ * - Les exceptions d'une route sont traitées par sa resource (BaseResource.handleError)
+ */
+public class ApiRouter extends BaseResource implements HttpHandler {
+
+    /**
+     * Handler d'une route
+     */
+    @FunctionalInterface
+    public interface RouteHandler {
+        void handle(HttpExchange exchange, PathParams params) throws IOException;
+    }
+
+    /**
+     * Paramètres entiers extraits du chemin, par nom
+     */
+    public static final class PathParams {
+        private static final PathParams NONE = new PathParams(new String[0], new int[0]);
+
+        private final String[] names;
+        private final int[] values;
+
+        private PathParams(String[] names, int[] values) {
+            this.names = names;
+            this.values = values;
+        }
+
+        public int getInt(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return values[i];
+                }
+            }
+            throw new IllegalArgumentException("Paramètre de chemin inconnu : " + name);
+        }
+    }
+
+    private static final class Route {
+        final BaseResource owner;
+        final RouteHandler handler;
+
+        Route(BaseResource owner, RouteHandler handler) {
+            this.owner = owner;
+            this.handler = handler;
+        }
+    }
+
+    private static final class Node {
+        final String segment;                               // null pour un paramètre
+        final List<Node> literals = new ArrayList<>();
+        Node param;
+        String[] paramNames;                                // paramètres du chemin jusqu'à ce nœud
+        final Map<String, Route> routes = new LinkedHashMap<>(); // méthode -> route
+        String allow;                                       // en-tête Allow (405), calculé à l'ajout
+
+        Node(String segment) {
+            this.segment = segment;
+        }
+    }
+
+    /**
+     * Résultat de la recherche : nœud atteint et valeurs des paramètres
+     */
+    private static final class Match {
+        final int[] values;
+        int invalidStart = -1;      // segment non entier (400), bornes dans le chemin
+        int invalidEnd;
+
+        Match(int depth) {
+            this.values = new int[depth];
+        }
+    }
+
+    private static final int MAX_PARAMS = 8;
+
+    private final String basePath;
+    private final Node root = new Node("");
+
+    /**
+     * @param basePath Préfixe commun des routes (ex: "/api/v1")
+     */
+    public ApiRouter(String basePath) {
+        this.basePath = basePath;
+    }
+
+    // ========================================================================
+    // Déclaration des routes
+    // ========================================================================
+
+    /**
+     * @param pattern Chemin relatif au préfixe, ex: "/tickets/{id}" ("" pour la racine)
+     * @throws IllegalStateException si la route existe déjà
+     */
+    public synchronized void add(String method, String pattern, BaseResource owner, RouteHandler handler) {
+        Node node = root;
+        List<String> names = new ArrayList<>();
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                names.add(segment.substring(1, segment.length() - 1));
+                if (node.param == null) {
+                    node.param = new Node(null);
+                }
+                node = node.param;
+            } else {
+                node = literalChild(node, segment);
+            }
+        }
+        if (names.size() > MAX_PARAMS) {
+            throw new IllegalArgumentException("Trop de paramètres dans la route " + pattern);
+        }
+
+        String[] paramNames = names.toArray(new String[0]);
+        if (node.paramNames != null && !Arrays.equals(node.paramNames, paramNames)) {
+            throw new IllegalStateException("Noms de paramètres incohérents pour " + pattern);
+        }
+        if (node.routes.putIfAbsent(method, new Route(owner, handler)) != null) {
+            throw new IllegalStateException("Route déjà déclarée : " + method + " " + pattern);
+        }
+        node.paramNames = paramNames;
+        node.allow = String.join(", ", node.routes.keySet()) + ", OPTIONS";
+    }
+
+    private static Node literalChild(Node node, String segment) {
+        for (Node child : node.literals) {
+            if (child.segment.equals(segment)) {
+                return child;
+            }
+        }
+        Node child = new Node(segment);
+        node.literals.add(child);
+        return child;
+    }
+
+    // ========================================================================
+    // Aiguillage
+    // ========================================================================
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+
+        Match match = new Match(MAX_PARAMS);
+        Node node = null;
+        if (path.startsWith(basePath)) {
+            int start = basePath.length();
+            int end = path.length();
+            if (end > start && path.charAt(end - 1) == '/') {
+                end--; // "/tickets/" équivaut à "/tickets"
+            }
+            if (start == end || path.charAt(start) == '/') {
+                node = find(root, path, start, end, match, 0);
+            }
+        }
+
+        if (node == null) {
+            sendErrorResponse(exchange, 404, "NOT_FOUND", "Endpoint non trouvé");
+            return;
+        }
+        if ("OPTIONS".equals(method)) {
+            handleOptionsRequest(exchange);
+            return;
+        }
+        Route route = node.routes.get(method);
+        if (route == null) {
+            exchange.getResponseHeaders().set("Allow", node.allow);
+            sendErrorResponse(exchange, 405, "METHOD_NOT_ALLOWED", "Méthode non autorisée : " + method);
+            return;
+        }
+        if (match.invalidStart >= 0) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR",
+                "Identifiant invalide : " + path.substring(match.invalidStart, match.invalidEnd));
+            return;
+        }
+
+        PathParams params = node.paramNames.length == 0
+                ? PathParams.NONE
+                : new PathParams(node.paramNames, match.values);
+        route.owner.invoke(exchange, route.handler, params);
+    }
+
+    /**
+     * Recherche le nœud du chemin [pos, end[ (pos pointe sur un "/" ou sur end)
+     * @param depth Nombre de paramètres déjà lus
+     * @return Le nœud portant des routes, ou null
+     */
+    private static Node find(Node node, String path, int pos, int end, Match match, int depth) {
+        if (pos >= end) {
+            return node.routes.isEmpty() ? null : node;
+        }
+        int start = pos + 1;
+        int next = path.indexOf('/', start);
+        if (next < 0 || next > end) {
+            next = end;
+        }
+        int length = next - start;
+        if (length == 0) {
+            return null; // "//"
+        }
+
+        // Segments littéraux d'abord
+        for (Node child : node.literals) {
+            if (child.segment.length() == length && path.regionMatches(start, child.segment, 0, length)) {
+                Node found = find(child, path, next, end, match, depth);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        if (node.param == null || depth >= MAX_PARAMS) {
+            return null;
+        }
+        long value = parseId(path, start, next);
+        boolean firstInvalid = value < 0 && match.invalidStart < 0;
+        if (firstInvalid) {
+            match.invalidStart = start;
+            match.invalidEnd = next;
+        }
+        match.values[depth] = (int) value;
+        Node found = find(node.param, path, next, end, match, depth + 1);
+        if (found == null && firstInvalid) {
+            match.invalidStart = -1;
+        }
+        return found;
+    }
+
+    /**
+     * Entier positif lu dans path[start, end[, sans allocation
+     * @return -1 si le segment n'est pas un entier (int)
+     */
+    private static long parseId(String path, int start, int end) {
+        if (end - start > 10) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? value : -1;
+    }
+}
@@ -12,36 +12,18 @@ import java.io.IOException;
  * POST /api/v1/auth/login
  * GET  /api/v1/auth/session
  * POST /api/v1/auth/logout
+ * GET  /api/v1/auth/metrics
  */
 public class AuthResource extends BaseResource {
 
     private final ApplicationState appState = ApplicationState.getInstance();
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
-
-        // Support CORS preflight
-        if ("OPTIONS".equals(method)) {
-            handleOptionsRequest(exchange);
-            return;
-        }
-
-        try {
-            if (path.endsWith("/login") && "POST".equals(method)) {
-                handleLogin(exchange);
-            } else if (path.endsWith("/session") && "GET".equals(method)) {
-                handleGetSession(exchange);
-            } else if (path.endsWith("/logout") && "POST".equals(method)) {
-                handleLogout(exchange);
-            } else {
-                sendErrorResponse(exchange, 404, "NOT_FOUND", "Endpoint non trouvé");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            sendErrorResponse(exchange, 500, "INTERNAL_ERROR", e.getMessage());
-        }
+    public void registerRoutes(ApiRouter router) {
+        router.add("POST", "/auth/login", this, (exchange, params) -> handleLogin(exchange));
+        router.add("GET", "/auth/session", this, (exchange, params) -> handleGetSession(exchange));
+        router.add("POST", "/auth/logout", this, (exchange, params) -> handleLogout(exchange));
+        router.add("GET", "/auth/metrics", this, (exchange, params) -> handleGetMetrics(exchange));
     }
 
     /**
@@ -118,4 +100,16 @@ public class AuthResource extends BaseResource {
 
         sendNoContent(exchange);
     }
+
+    /**
+     * GET /auth/metrics (administrateurs)
+     */
+    private void handleGetMetrics(HttpExchange exchange) throws IOException {
+        User user = requireAuth(exchange);
+        if (user == null || !requireAdmin(exchange, user)) {
+            return;
+        }
+
+        sendJsonResponse(exchange, 200, appState.getSessionMetrics());
+    }
 }
@@ -1,29 +1,53 @@
 package api.server.resources;
 
 import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
+import api.server.ServerConfig;
 import api.server.models.ErrorResponse;
 import api.server.services.ApplicationState;
 import core.entities.User;
 import core.entities.Admin;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * BaseResource - Classe de base pour tous les handlers HTTP
  * Fournit des méthodes utilitaires pour la gestion des réponses JSON
  * et l'authentification
+ *
+ * Les resources de l'API déclarent leurs routes auprès de l'ApiRouter (registerRoutes);
+ * les autres (documentation) sont des HttpHandler montés directement.
  */
-public abstract class BaseResource implements HttpHandler {
+public abstract class BaseResource {
 
+    /** Sortie compacte (par défaut) et lecture des corps de requête */
     protected static final Gson gson = new GsonBuilder()
+            .create();
+
+    /** Sortie indentée, seulement sur demande (?pretty=true) */
+    private static final Gson prettyGson = new GsonBuilder()
             .setPrettyPrinting()
             .create();
 
+    private static final int WRITE_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Préfixe des ETags propre à ce démarrage : les versions repartent de zéro au
+     * redémarrage, un ETag émis par une instance précédente ne doit jamais correspondre
+     */
+    private static final String ETAG_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     protected final ApplicationState appState = ApplicationState.getInstance();
 
     /**
@@ -32,40 +56,100 @@ public abstract class BaseResource implements HttpHandler {
     protected void handleOptionsRequest(HttpExchange exchange) throws IOException {
         exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().set("Access-Control-Allow-Methods", "GET, POST, PUT, PATCH, DELETE, OPTIONS");
-        exchange.getResponseHeaders().set("Access-Control-Allow-Headers", "Content-Type, Authorization");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Headers", "Content-Type, Authorization, If-None-Match, If-Match");
         exchange.getResponseHeaders().set("Access-Control-Max-Age", "3600");
         exchange.sendResponseHeaders(204, -1);
     }
 
     /**
      * Envoie une réponse JSON
+     * Les DTOs sont sérialisés directement dans le corps de la réponse (transfert "chunked",
+     * compressé si négocié) : aucune copie String / byte[] du document complet n'est construite.
+     * JSON compact par défaut, indenté si la requête contient ?pretty=true
      */
     protected void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String jsonResponse = gson.toJson(data);
-        byte[] bytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
+        Gson writerGson = wantsPrettyJson(exchange) ? prettyGson : gson;
 
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
         exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
-        exchange.sendResponseHeaders(statusCode, bytes.length);
 
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bytes);
+        ResponseCompression.DeferredBody body = openResponseBody(exchange, statusCode);
+        try {
+            JsonWriter writer = writerGson.newJsonWriter(new BufferedWriter(
+                    new OutputStreamWriter(body, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE));
+            writerGson.toJson(data, data != null ? data.getClass() : Object.class, writer);
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            // Sérialisation interrompue : ni 200 tronqué ni en-têtes envoyés si rien n'est parti
+            body.abort();
+            throw e;
         }
     }
 
+    /**
+     * Envoie un tableau JSON dont les éléments sont déjà encodés (JSON compact UTF-8) :
+     * les fragments sont concaténés tels quels, sans resérialisation
+     */
+    protected void sendJsonArrayResponse(HttpExchange exchange, int statusCode, List<byte[]> elements)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+
+        ResponseCompression.DeferredBody body = openResponseBody(exchange, statusCode);
+        try {
+            OutputStream out = new BufferedOutputStream(body, WRITE_BUFFER_SIZE);
+            out.write('[');
+            for (int i = 0; i < elements.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(elements.get(i));
+            }
+            out.write(']');
+            out.close();
+        } catch (IOException | RuntimeException e) {
+            body.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Vrai si le client demande un JSON indenté (?pretty=true)
+     */
+    protected boolean wantsPrettyJson(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || !query.contains("pretty")) {
+            return false;
+        }
+        return "true".equalsIgnoreCase(parseQueryParams(exchange).get("pretty"));
+    }
+
     /**
      * Envoie une réponse texte
      */
     protected void sendTextResponse(HttpExchange exchange, int statusCode, String text) throws IOException {
-        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        sendBytesResponse(exchange, statusCode, "text/plain; charset=UTF-8",
+                text.getBytes(StandardCharsets.UTF_8));
+    }
 
-        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+    /**
+     * Envoie un corps déjà encodé (HTML, YAML, texte...), compressé si négocié
+     */
+    protected void sendBytesResponse(HttpExchange exchange, int statusCode, String contentType, byte[] bytes)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
         exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
-        exchange.sendResponseHeaders(statusCode, bytes.length);
+        ResponseCompression.send(exchange, statusCode, bytes, ServerConfig.get().getCompressionMinBytes());
+    }
 
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bytes);
-        }
+    /**
+     * Ouvre le corps de la réponse; les en-têtes (code, Content-Encoding, longueur)
+     * sont envoyés par le flux lui-même. Content-Type doit être posé avant l'appel.
+     * Les réponses sous tickets.compressionMinBytes partent non compressées avec Content-Length.
+     * close() envoie la réponse; abort() l'abandonne si son écriture échoue.
+     */
+    protected ResponseCompression.DeferredBody openResponseBody(HttpExchange exchange, int statusCode) {
+        return ResponseCompression.open(exchange, statusCode, ServerConfig.get().getCompressionMinBytes());
     }
 
     /**
@@ -84,45 +168,212 @@ public abstract class BaseResource implements HttpHandler {
         sendJsonResponse(exchange, statusCode, errorResponse);
     }
 
+    // ========================================================================
+    // Requêtes conditionnelles (ETag / If-None-Match)
+    // ========================================================================
+
     /**
-     * Lit le corps de la requête
+     * Construit un ETag fort à partir des versions qui déterminent la représentation
+     * (ex: etag(exchange, "t1001", "v3") -> "k2x9f1-t1001-v3")
      */
-    protected String readRequestBody(HttpExchange exchange) throws IOException {
-        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    protected String etag(HttpExchange exchange, Object... parts) {
+        StringBuilder tag = new StringBuilder("\"").append(ETAG_EPOCH);
+        for (Object part : parts) {
+            tag.append('-').append(part);
+        }
+        if (wantsPrettyJson(exchange)) {
+            tag.append("-p");
+        }
+        return tag.append('"').toString();
     }
 
     /**
-     * Extrait l'ID depuis le chemin (ex: /tickets/123 -> 123)
+     * Pose l'ETag de la réponse; si le client possède déjà cette version
+     * (If-None-Match), répond 304 sans corps
+     * @return true si la réponse 304 a été envoyée
      */
-    protected Integer extractIdFromPath(String path) {
-        try {
-            String[] parts = path.split("/");
-            // Dernier segment du path
-            String lastPart = parts[parts.length - 1];
-            return Integer.parseInt(lastPart);
-        } catch (NumberFormatException e) {
+    protected boolean sendNotModifiedIfMatch(HttpExchange exchange, String etag) throws IOException {
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "private, no-cache");
+        exposeHeader(exchange, "ETag");
+
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null || !etagListMatches(ifNoneMatch, etag)) {
+            return false;
+        }
+
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return true;
+    }
+
+    /**
+     * Comparaison faible (RFC 9110) : W/"x" correspond à "x", "*" correspond à tout
+     */
+    private static boolean etagListMatches(String header, String etag) {
+        String expected = stripWeak(etag);
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if ("*".equals(value) || stripWeak(value).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    // ========================================================================
+    // Écritures conditionnelles (If-Match)
+    // ========================================================================
+
+    /**
+     * Version attendue par une écriture conditionnelle (If-Match).
+     * Chaque valeur peut être l'ETag d'un GET de la ressource (fort ou faible, avec ou sans ?pretty)
+     * ou le numéro de version seul ("3" : champ "version" du DTO).
+     * @param resourceTag Partie de l'ETag qui identifie la ressource (ex: "t1001")
+     * @param currentVersion Version lue avant l'écriture
+     * @return null sans précondition (en-tête absent ou "*"); currentVersion si une valeur
+     *         y correspond (à revérifier sous verrou); sinon la première version indiquée,
+     *         ou -1 si aucune n'est reconnue (ETag d'une autre ressource ou d'un démarrage précédent)
+     */
+    protected Long ifMatchVersion(HttpExchange exchange, String resourceTag, long currentVersion) {
+        String header = exchange.getRequestHeaders().getFirst("If-Match");
+        if (header == null || header.trim().isEmpty()) {
             return null;
         }
+
+        String prefix = ETAG_EPOCH + "-" + resourceTag + "-v";
+        long firstListed = -1;
+        for (String candidate : header.split(",")) {
+            String value = stripWeak(candidate.trim());
+            if ("*".equals(value)) {
+                return null;
+            }
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            if (value.startsWith(prefix)) {
+                value = value.substring(prefix.length());
+                if (value.endsWith("-p")) {
+                    value = value.substring(0, value.length() - 2);
+                }
+            }
+            if (value.equals(Long.toString(currentVersion))) {
+                return currentVersion;
+            }
+            if (firstListed < 0 && !value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+                try {
+                    firstListed = Long.parseLong(value);
+                } catch (NumberFormatException e) {
+                    // Hors limites : ne correspond à aucune version
+                }
+            }
+        }
+        return firstListed;
     }
 
     /**
-     * Vérifie si le chemin correspond à un pattern (ex: /tickets/{id})
+     * Ajoute un en-tête à Access-Control-Expose-Headers (lisible par le client web)
      */
-    protected boolean matchesPattern(String path, String pattern) {
-        String[] pathParts = path.split("/");
-        String[] patternParts = pattern.split("/");
+    protected void exposeHeader(HttpExchange exchange, String name) {
+        String current = exchange.getResponseHeaders().getFirst("Access-Control-Expose-Headers");
+        if (current == null || current.isEmpty()) {
+            exchange.getResponseHeaders().set("Access-Control-Expose-Headers", name);
+        } else if (!current.contains(name)) {
+            exchange.getResponseHeaders().set("Access-Control-Expose-Headers", current + ", " + name);
+        }
+    }
 
-        if (pathParts.length != patternParts.length) {
-            return false;
+    /**
+     * Lit le corps de la requête, dans la limite de ServerConfig.getMaxBodyBytes()
+     * @throws PayloadTooLargeException si le corps dépasse la limite (annoncée ou réelle)
+     */
+    protected String readRequestBody(HttpExchange exchange) throws IOException {
+        long limit = ServerConfig.get().getMaxBodyBytes();
+
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > limit) {
+                    throw new PayloadTooLargeException(limit);
+                }
+            } catch (NumberFormatException e) {
+                // Longueur illisible : la limite est vérifiée pendant la lecture
+            }
         }
 
-        for (int i = 0; i < patternParts.length; i++) {
-            if (!patternParts[i].startsWith("{") && !patternParts[i].equals(pathParts[i])) {
-                return false;
+        // Corps "chunked" ou longueur annoncée inexacte : lire au plus limit + 1 octets
+        byte[] body = exchange.getRequestBody().readNBytes((int) Math.min(limit + 1, Integer.MAX_VALUE - 8));
+        if (body.length > limit) {
+            throw new PayloadTooLargeException(limit);
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Extrait les paramètres de la query string (ex: ?status=OUVERT&limit=50)
+     * Les valeurs sont décodées (URL encoding); seule la première occurrence est conservée
+     */
+    protected Map<String, String> parseQueryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
             }
+            int separator = pair.indexOf('=');
+            String key = separator >= 0 ? pair.substring(0, separator) : pair;
+            String value = separator >= 0 ? pair.substring(separator + 1) : "";
+            params.putIfAbsent(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                               URLDecoder.decode(value, StandardCharsets.UTF_8));
         }
 
-        return true;
+        return params;
+    }
+
+    // ========================================================================
+    // Routes
+    // ========================================================================
+
+    /**
+     * Déclare les routes de la resource (resources de l'API seulement)
+     */
+    public void registerRoutes(ApiRouter router) {
+    }
+
+    /**
+     * Exécute le handler d'une route; une exception devient une réponse d'erreur
+     */
+    final void invoke(HttpExchange exchange, ApiRouter.RouteHandler handler, ApiRouter.PathParams params)
+            throws IOException {
+        try {
+            handler.handle(exchange, params);
+        } catch (Exception e) {
+            handleError(exchange, e);
+        }
+    }
+
+    /**
+     * Réponse d'erreur pour une exception levée par une route (413 ou 500).
+     * Les resources la redéfinissent pour leurs exceptions propres.
+     */
+    protected void handleError(HttpExchange exchange, Exception e) throws IOException {
+        if (e instanceof PayloadTooLargeException) {
+            sendErrorResponse(exchange, 413, "PAYLOAD_TOO_LARGE", e.getMessage());
+            return;
+        }
+        e.printStackTrace();
+        sendErrorResponse(exchange, 500, "INTERNAL_ERROR", e.getMessage());
     }
 
     // ========================================================================
@@ -0,0 +1,256 @@
+package api.server.resources;
+
+import com.sun.net.httpserver.HttpExchange;
+import api.server.ServerConfig;
+import api.server.models.TicketEventDTO;
+import api.server.services.ApplicationState;
+import api.server.services.ChangeFeed;
+import core.entities.User;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EventsResource - Flux Server-Sent Events des changements de tickets
+ *
+ * GET /api/v1/events [Auth requis]
+ *
+ * Chaque mutation de ticket (création, modification, statut, assignation,
+ * commentaire, suppression) est poussée sous la forme :
+ *   id: <révision>
+ *   event: ticket
+ *   data: {"revision":..,"type":"STATUS","ticketID":1001,"ticket":{...}}
+ *
+ * - Reprise : avec l'en-tête Last-Event-ID (envoyé automatiquement par EventSource),
+ *   les changements manqués sont rejoués; hors de l'historique, un événement "resync" est envoyé
+ * - Chaque flux a un tampon borné : un client qui ne suit pas est déconnecté
+ *   (il se reconnecte et reprend avec Last-Event-ID)
+ * - Un commentaire ": ping" est envoyé toutes les 15 s pour garder la connexion ouverte
+ * - EventSource ne peut pas envoyer d'en-tête Authorization : le token est aussi
+ *   accepté en paramètre (?access_token=...)
+ *
+ * Chaque flux occupe un thread de l'executor pendant toute sa durée : le nombre de flux
+ * est borné (ServerConfig.getEventStreamMaxSubscribers) pour que l'API reste servie.
+ */
+public class EventsResource extends BaseResource {
+
+    private static final long HEARTBEAT_SECONDS = 15;
+    private static final int RETRY_MILLIS = 3000;
+
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    @Override
+    public void registerRoutes(ApiRouter router) {
+        router.add("GET", "/events", this, (exchange, params) -> handleEventStream(exchange));
+    }
+
+    /**
+     * Flux interrompu : la réponse est déjà commencée, seule la connexion est fermée
+     */
+    @Override
+    protected void handleError(HttpExchange exchange, Exception e) {
+        if (!(e instanceof IOException)) {
+            e.printStackTrace(); // IOException : client déconnecté
+        }
+        exchange.close();
+    }
+
+    /**
+     * Token depuis l'en-tête Authorization, ou depuis ?access_token= (EventSource)
+     */
+    @Override
+    protected String extractToken(HttpExchange exchange) {
+        String token = super.extractToken(exchange);
+        return token != null ? token : parseQueryParams(exchange).get("access_token");
+    }
+
+    private void handleEventStream(HttpExchange exchange) throws IOException {
+        User user = requireAuth(exchange);
+        if (user == null) return;
+
+        ServerConfig config = ServerConfig.get();
+        // Place réservée avant l'ouverture : des demandes simultanées ne dépassent pas la limite
+        if (openStreams.incrementAndGet() > config.getEventStreamMaxSubscribers()) {
+            openStreams.decrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "10");
+            sendErrorResponse(exchange, 503, "TOO_MANY_STREAMS", "Trop de flux d'événements ouverts");
+            return;
+        }
+        try {
+            streamEvents(exchange, user, config);
+        } finally {
+            openStreams.decrementAndGet();
+        }
+    }
+
+    private void streamEvents(HttpExchange exchange, User user, ServerConfig config) throws IOException {
+        Long lastEventId;
+        try {
+            lastEventId = parseLastEventId(exchange);
+        } catch (NumberFormatException e) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Last-Event-ID invalide");
+            return;
+        }
+
+        Integer visibleOnlyTo = hasFullAccess(user) ? null : user.getUserID();
+        Subscription subscription = new Subscription(config.getEventStreamBufferSize(), visibleOnlyTo);
+
+        // Inscription avant l'envoi des en-têtes : aucune mutation n'est perdue entre les deux
+        ChangeFeed.Delta missed = null;
+        long revision;
+        if (lastEventId != null) {
+            missed = appState.subscribeToChanges(subscription, lastEventId);
+            revision = missed != null ? missed.getRevision() : appState.getStoreVersion();
+        } else {
+            revision = appState.subscribeToChanges(subscription);
+        }
+
+        System.out.println("[EVENTS] Flux ouvert pour " + user.getName()
+                + (lastEventId != null ? " (reprise après " + lastEventId + ")" : ""));
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+            exchange.getResponseHeaders().set("X-Accel-Buffering", "no");
+            exchange.sendResponseHeaders(200, 0);
+
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                writer.write("retry: " + RETRY_MILLIS + "\n\n");
+
+                if (lastEventId != null) {
+                    if (missed == null) {
+                        writeResync(writer, revision);
+                    } else {
+                        for (ChangeFeed.TicketChange change : missed.getChanges().values()) {
+                            if (subscription.accepts(change)) {
+                                writeEvent(writer, change.getRevision(), appState.toTicketEvent(change));
+                            }
+                        }
+                    }
+                }
+                writer.flush();
+
+                streamLiveChanges(writer, subscription, revision);
+            }
+        } finally {
+            appState.unsubscribeFromChanges(subscription);
+            System.out.println("[EVENTS] Flux fermé pour " + user.getName());
+        }
+    }
+
+    /**
+     * Envoie les mutations au fil de l'eau jusqu'à la fermeture (client, tampon plein ou arrêt)
+     */
+    private void streamLiveChanges(Writer writer, Subscription subscription, long replayedUpTo) throws IOException {
+        while (true) {
+            Object next;
+            try {
+                next = subscription.queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (next == CLOSED || subscription.closed) {
+                return;
+            }
+            if (next == null) {
+                writer.write(": ping\n\n");
+                writer.flush();
+                continue;
+            }
+
+            // Regrouper les événements déjà en attente avant de vider le tampon réseau
+            do {
+                ChangeFeed.TicketChange change = (ChangeFeed.TicketChange) next;
+                if (change.getRevision() > replayedUpTo) {
+                    writeEvent(writer, change.getRevision(), appState.toTicketEvent(change));
+                }
+                next = subscription.queue.poll();
+            } while (next != null && next != CLOSED);
+            if (next == CLOSED) {
+                return;
+            }
+            writer.flush();
+        }
+    }
+
+    private void writeEvent(Writer writer, long revision, TicketEventDTO event) throws IOException {
+        writer.write("id: " + revision + "\n");
+        writer.write("event: ticket\n");
+        writer.write("data: ");
+        gson.toJson(event, TicketEventDTO.class, writer);
+        writer.write("\n\n");
+    }
+
+    /**
+     * Historique dépassé : le client doit recharger la liste complète
+     */
+    private void writeResync(Writer writer, long revision) throws IOException {
+        writer.write("id: " + revision + "\n");
+        writer.write("event: resync\n");
+        writer.write("data: {\"revision\":" + revision + ",\"type\":\"RESYNC\"}\n\n");
+    }
+
+    /**
+     * Last-Event-ID (en-tête, ou ?lastEventId= pour les clients qui ne peuvent pas poser d'en-tête)
+     * @return La révision, ou null pour un nouveau flux
+     */
+    private Long parseLastEventId(HttpExchange exchange) {
+        String value = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        if (value == null || value.isEmpty()) {
+            value = parseQueryParams(exchange).get("lastEventId");
+        }
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        return Long.parseLong(value.trim());
+    }
+
+    // ========================================================================
+    // Abonnement (tampon borné par flux)
+    // ========================================================================
+
+    /** Marqueur de fin de flux déposé par close() */
+    private static final Object CLOSED = new Object();
+
+    private static final class Subscription implements ChangeFeed.Subscriber {
+        final BlockingQueue<Object> queue;
+        final Integer visibleOnlyTo;
+        volatile boolean closed;
+
+        Subscription(int capacity, Integer visibleOnlyTo) {
+            this.queue = new ArrayBlockingQueue<>(capacity + 1);    // + le marqueur de fin
+            this.visibleOnlyTo = visibleOnlyTo;
+        }
+
+        boolean accepts(ChangeFeed.TicketChange change) {
+            return ApplicationState.isVisibleTo(change, visibleOnlyTo);
+        }
+
+        @Override
+        public boolean offer(ChangeFeed.TicketChange change) {
+            if (!accepts(change)) {
+                return true;
+            }
+            // La dernière place est réservée au marqueur de fin
+            return queue.remainingCapacity() > 1 && queue.offer(change);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            // Réveiller le thread d'écriture (le tampon peut être plein)
+            queue.clear();
+            queue.offer(CLOSED);
+        }
+    }
+}
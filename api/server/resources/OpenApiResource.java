@@ -1,7 +1,9 @@
 package api.server.resources;
 
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -9,7 +11,7 @@ import java.nio.file.Paths;
  * OpenApiResource - Sert le fichier OpenAPI YAML
  * Endpoint: GET /openapi.yaml
  */
-public class OpenApiResource extends BaseResource {
+public class OpenApiResource extends BaseResource implements HttpHandler {
 
     private static final String OPENAPI_FILE_PATH = "api/openapi/tickets-api.yaml";
 
@@ -40,14 +42,8 @@ public class OpenApiResource extends BaseResource {
             String yamlContent = Files.readString(Paths.get(OPENAPI_FILE_PATH));
 
             // Envoyer la réponse YAML
-            byte[] bytes = yamlContent.getBytes();
-            exchange.getResponseHeaders().set("Content-Type", "application/yaml; charset=UTF-8");
-            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
-            exchange.sendResponseHeaders(200, bytes.length);
-
-            try (var os = exchange.getResponseBody()) {
-                os.write(bytes);
-            }
+            sendBytesResponse(exchange, 200, "application/yaml; charset=UTF-8",
+                    yamlContent.getBytes(StandardCharsets.UTF_8));
 
         } catch (IOException e) {
             sendErrorResponse(exchange, 500, "INTERNAL_ERROR",
@@ -0,0 +1,14 @@
+package api.server.resources;
+
+import java.io.IOException;
+
+/**
+ * PayloadTooLargeException - Corps de requête supérieur à la limite configurée (413)
+ */
+public class PayloadTooLargeException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public PayloadTooLargeException(long limit) {
+        super("Le corps de la requête dépasse la taille maximale de " + limit + " octets");
+    }
+}
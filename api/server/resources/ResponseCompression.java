@@ -0,0 +1,348 @@
+package api.server.resources;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * ResponseCompression - Compression des réponses négociée par Accept-Encoding
+ *
+ * - gzip et deflate (zlib) sont supportés; gzip est préféré à qualité égale
+ * - en dessous de minBytes, la réponse part non compressée (avec Content-Length)
+ * - les Deflater (mémoire native) sont réutilisés via un pool borné
+ */
+final class ResponseCompression {
+
+    enum Encoding {
+        GZIP("gzip"),
+        DEFLATE("deflate"),
+        IDENTITY(null);
+
+        final String token;
+
+        Encoding(String token) {
+            this.token = token;
+        }
+    }
+
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final DeflaterPool GZIP_POOL = new DeflaterPool(true);
+    private static final DeflaterPool DEFLATE_POOL = new DeflaterPool(false);
+
+    private ResponseCompression() {
+    }
+
+    // ========================================================================
+    // Négociation
+    // ========================================================================
+
+    /**
+     * Choisit l'encodage à partir de l'en-tête Accept-Encoding
+     * (ex: "gzip, deflate;q=0.5", "*;q=0.1", "gzip;q=0")
+     */
+    static Encoding negotiate(HttpExchange exchange) {
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            return Encoding.IDENTITY;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (header == null || header.isEmpty()) {
+            return Encoding.IDENTITY;
+        }
+
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String part : header.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = parseQuality(tokens);
+            switch (coding) {
+                case "gzip":
+                case "x-gzip":
+                    gzip = Math.max(gzip, quality);
+                    break;
+                case "deflate":
+                    deflate = Math.max(deflate, quality);
+                    break;
+                case "*":
+                    wildcard = quality;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+
+        if (gzip > 0 && gzip >= deflate) {
+            return Encoding.GZIP;
+        }
+        if (deflate > 0) {
+            return Encoding.DEFLATE;
+        }
+        return Encoding.IDENTITY;
+    }
+
+    private static double parseQuality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // ========================================================================
+    // Envoi
+    // ========================================================================
+
+    /**
+     * Corps de réponse dont les en-têtes sont envoyés au plus tard :
+     * les minBytes premiers octets sont gardés en mémoire; si la réponse se termine avant,
+     * elle part telle quelle avec un Content-Length, sinon elle part compressée en "chunked".
+     * Content-Type et autres en-têtes doivent être posés avant l'appel.
+     * close() termine la réponse; si l'écriture échoue, abort() la remplace.
+     */
+    static DeferredBody open(HttpExchange exchange, int statusCode, int minBytes) {
+        // La représentation dépend de Accept-Encoding, même quand elle part non compressée
+        exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        return new DeferredBody(exchange, statusCode, negotiate(exchange), minBytes);
+    }
+
+    /**
+     * Envoie un corps de taille connue, compressé si le client l'accepte et qu'il dépasse minBytes
+     */
+    static void send(HttpExchange exchange, int statusCode, byte[] bytes, int minBytes) throws IOException {
+        try (DeferredBody os = open(exchange, statusCode, minBytes)) {
+            os.write(bytes);
+        }
+    }
+
+    static final class DeferredBody extends OutputStream {
+        private final HttpExchange exchange;
+        private final int statusCode;
+        private final Encoding encoding;
+        private final byte[] pending;
+        private int pendingCount;
+
+        private OutputStream out;         // null tant que les en-têtes ne sont pas envoyés
+        private Deflater deflater;        // emprunté au pool pendant la compression
+        private boolean closed;
+
+        DeferredBody(HttpExchange exchange, int statusCode, Encoding encoding, int minBytes) {
+            this.exchange = exchange;
+            this.statusCode = statusCode;
+            this.encoding = encoding;
+            this.pending = new byte[Math.max(0, minBytes)];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out == null) {
+                if (pendingCount + len <= pending.length) {
+                    System.arraycopy(b, off, pending, pendingCount, len);
+                    pendingCount += len;
+                    return;
+                }
+                startStreaming();
+            }
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Pas d'envoi anticipé : la décision (compresser ou non) attend minBytes ou close()
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (out == null) {
+                    sendUncompressed();
+                } else {
+                    try {
+                        out.close();
+                    } catch (IOException e) {
+                        exchange.close();
+                        throw e;
+                    }
+                }
+            } finally {
+                releaseDeflater();
+            }
+        }
+
+        /**
+         * Abandonne une réponse dont l'écriture a échoué (ex: exception pendant la sérialisation).
+         * Si rien n'est parti, le tampon est jeté sans envoyer d'en-têtes : l'appelant peut encore
+         * répondre par une erreur. Sinon le corps est laissé inachevé (pas de fin gzip/deflate) et
+         * l'échange fermé, pour que le client ne prenne pas un corps tronqué pour la réponse.
+         */
+        void abort() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingCount = 0;
+            try {
+                if (out == null) {
+                    Headers headers = exchange.getResponseHeaders();
+                    headers.remove("ETag");     // décrit la représentation abandonnée
+                    headers.remove("Vary");     // reposé par la réponse d'erreur
+                } else {
+                    exchange.close();
+                }
+            } finally {
+                releaseDeflater();
+            }
+        }
+
+        /**
+         * Réponse courte (ou client sans compression) : envoi direct avec Content-Length
+         */
+        private void sendUncompressed() throws IOException {
+            exchange.sendResponseHeaders(statusCode, pendingCount == 0 ? -1 : pendingCount);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(pending, 0, pendingCount);
+            }
+        }
+
+        /**
+         * Seuil dépassé : envoi des en-têtes puis du tampon, compressé si négocié
+         */
+        private void startStreaming() throws IOException {
+            Headers headers = exchange.getResponseHeaders();
+            OutputStream body;
+            if (encoding == Encoding.IDENTITY) {
+                exchange.sendResponseHeaders(statusCode, 0);
+                body = exchange.getResponseBody();
+            } else {
+                headers.set("Content-Encoding", encoding.token);
+                // Les octets diffèrent de la version non compressée : l'ETag fort devient faible
+                String etag = headers.getFirst("ETag");
+                if (etag != null && !etag.startsWith("W/")) {
+                    headers.set("ETag", "W/" + etag);
+                }
+                exchange.sendResponseHeaders(statusCode, 0);
+                if (encoding == Encoding.GZIP) {
+                    deflater = GZIP_POOL.acquire();
+                    body = new GzipOutputStream(exchange.getResponseBody(), deflater);
+                } else {
+                    deflater = DEFLATE_POOL.acquire();
+                    body = new DeflaterOutputStream(exchange.getResponseBody(), deflater, BUFFER_SIZE);
+                }
+            }
+            out = body;
+            out.write(pending, 0, pendingCount);
+            pendingCount = 0;
+        }
+
+        private void releaseDeflater() {
+            if (deflater != null) {
+                (encoding == Encoding.GZIP ? GZIP_POOL : DEFLATE_POOL).release(deflater);
+                deflater = null;
+            }
+        }
+    }
+
+    // ========================================================================
+    // Format gzip sur un Deflater fourni
+    // ========================================================================
+
+    /**
+     * Équivalent de GZIPOutputStream, mais sur un Deflater "nowrap" emprunté au pool
+     * (GZIPOutputStream alloue et libère son propre Deflater à chaque réponse)
+     */
+    private static final class GzipOutputStream extends DeflaterOutputStream {
+        private static final byte[] HEADER = {
+                0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+        };
+
+        private final CRC32 crc = new CRC32();
+        private boolean trailerWritten;
+
+        GzipOutputStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out, deflater, BUFFER_SIZE);
+            out.write(HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            super.finish();
+            if (!trailerWritten) {
+                trailerWritten = true;
+                writeIntLE((int) crc.getValue());
+                writeIntLE((int) def.getBytesRead());
+            }
+        }
+
+        private void writeIntLE(int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >>> 8) & 0xff);
+            out.write((value >>> 16) & 0xff);
+            out.write((value >>> 24) & 0xff);
+        }
+    }
+
+    // ========================================================================
+    // Pool de Deflater
+    // ========================================================================
+
+    private static final class DeflaterPool {
+        private final boolean nowrap;
+        private final BlockingQueue<Deflater> idle = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        DeflaterPool(boolean nowrap) {
+            this.nowrap = nowrap;
+        }
+
+        Deflater acquire() {
+            Deflater deflater = idle.poll();
+            return deflater != null ? deflater : new Deflater(Deflater.DEFAULT_COMPRESSION, nowrap);
+        }
+
+        void release(Deflater deflater) {
+            deflater.reset();
+            if (!idle.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package api.server.resources;
 
 import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * SwaggerUIResource - Sert la page Swagger UI pour l'interface interactive /docs
  * Utilise Swagger UI via CDN (pas besoin de télécharger les fichiers)
  */
-public class SwaggerUIResource extends BaseResource {
+public class SwaggerUIResource extends BaseResource implements HttpHandler {
 
     @Override
     public void handle(HttpExchange exchange) throws IOException {
@@ -33,14 +35,7 @@ public class SwaggerUIResource extends BaseResource {
     private void handleGetSwaggerUI(HttpExchange exchange) throws IOException {
         String html = generateSwaggerUIHtml();
 
-        byte[] bytes = html.getBytes();
-        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
-        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
-        exchange.sendResponseHeaders(200, bytes.length);
-
-        try (var os = exchange.getResponseBody()) {
-            os.write(bytes);
-        }
+        sendBytesResponse(exchange, 200, "text/html; charset=UTF-8", html.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
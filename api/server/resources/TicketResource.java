@@ -1,12 +1,21 @@
 package api.server.resources;
 
+import com.google.gson.JsonParseException;
 import com.sun.net.httpserver.HttpExchange;
+import api.server.ServerConfig;
 import api.server.models.*;
 import api.server.services.ApplicationState;
+import api.server.services.TicketPage;
+import api.server.services.TicketProjection;
+import api.server.services.TicketQuery;
+import api.server.services.VersionConflictException;
+import core.entities.Admin;
 import core.entities.User;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * TicketResource - Handler pour tous les endpoints tickets
@@ -14,6 +23,8 @@ import java.util.List;
  * CRUD Tickets:
  * GET    /api/v1/tickets             [Auth requis]
  * POST   /api/v1/tickets             [Auth requis]
+ * GET    /api/v1/tickets/changes     [Auth requis]
+ * POST   /api/v1/tickets/batch       [Auth requis + permissions par opération]
  * GET    /api/v1/tickets/{id}        [Auth requis]
  * PUT    /api/v1/tickets/{id}        [Auth requis + permissions]
  * DELETE /api/v1/tickets/{id}        [Admin seulement]
@@ -23,126 +34,172 @@ import java.util.List;
  * POST /api/v1/tickets/{id}/comments [Auth requis]
  *
  * Status:
- * GET   /api/v1/tickets/{id}/status  [Auth requis]
- * PATCH /api/v1/tickets/{id}/status  [Admin/Dev seulement]
+ * GET  /api/v1/tickets/{id}/status  [Auth requis]
+ * POST /api/v1/tickets/{id}/status  [Admin/Dev seulement]
  *
  * Assignment:
- * PATCH /api/v1/tickets/{id}/assignment [Admin/Dev seulement]
+ * POST /api/v1/tickets/{id}/assignment [Admin/Dev seulement]
  *
  * Export:
  * GET /api/v1/tickets/{id}/export/pdf [Auth requis]
+ *
+ * Les GET de liste, de ticket et de commentaires portent un ETag (version) :
+ * avec If-None-Match, une version inchangée répond 304 sans corps.
+ *
+ * Écritures conditionnelles : PUT, statut et assignation honorent If-Match (ETag du GET
+ * ou champ "version" du ticket). Si le ticket a changé depuis, 412 sans modification :
+ * le client relit le ticket et ne réessaie que cette écriture.
  */
 public class TicketResource extends BaseResource {
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
-
-        // Support CORS preflight
-        if ("OPTIONS".equals(method)) {
-            handleOptionsRequest(exchange);
-            return;
-        }
-
-        try {
-            // Router vers le bon handler
-            if (path.contains("/comments")) {
-                handleCommentsEndpoints(exchange, method, path);
-            } else if (path.contains("/status")) {
-                handleStatusEndpoints(exchange, method, path);
-            } else if (path.contains("/assignment")) {
-                handleAssignmentEndpoint(exchange, method, path);
-            } else if (path.contains("/export/pdf")) {
-                handleExportPdfEndpoint(exchange, method, path);
-            } else {
-                handleTicketCRUD(exchange, method, path);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            sendErrorResponse(exchange, 500, "INTERNAL_ERROR", e.getMessage());
-        }
+    public void registerRoutes(ApiRouter router) {
+        router.add("GET", "/tickets", this, (exchange, params) -> handleGetAllTickets(exchange));
+        router.add("POST", "/tickets", this, (exchange, params) -> handleCreateTicket(exchange));
+        router.add("GET", "/tickets/changes", this, (exchange, params) -> handleChangesEndpoint(exchange));
+        router.add("POST", "/tickets/batch", this, (exchange, params) -> handleBatchEndpoint(exchange));
+        router.add("GET", "/tickets/{id}", this, this::handleGetTicketById);
+        router.add("PUT", "/tickets/{id}", this, this::handleUpdateTicket);
+        router.add("DELETE", "/tickets/{id}", this, this::handleDeleteTicket);
+        router.add("GET", "/tickets/{id}/comments", this, this::handleGetComments);
+        router.add("POST", "/tickets/{id}/comments", this, this::handleAddComment);
+        router.add("GET", "/tickets/{id}/status", this, this::handleGetTransitions);
+        router.add("POST", "/tickets/{id}/status", this, this::handleChangeStatus);
+        router.add("POST", "/tickets/{id}/assignment", this, this::handleAssignmentEndpoint);
+        router.add("GET", "/tickets/{id}/export/pdf", this, this::handleExportPdfEndpoint);
     }
 
-    /**
-     * CRUD basique des tickets
-     */
-    private void handleTicketCRUD(HttpExchange exchange, String method, String path) throws IOException {
-        switch (method) {
-            case "GET":
-                if (path.endsWith("/tickets")) {
-                    handleGetAllTickets(exchange);
-                } else {
-                    handleGetTicketById(exchange, path);
-                }
-                break;
-            case "POST":
-                handleCreateTicket(exchange);
-                break;
-            case "PUT":
-                handleUpdateTicket(exchange, path);
-                break;
-            case "DELETE":
-                handleDeleteTicket(exchange, path);
-                break;
-            default:
-                sendErrorResponse(exchange, 405, "METHOD_NOT_ALLOWED", "Méthode non autorisée");
+    @Override
+    protected void handleError(HttpExchange exchange, Exception e) throws IOException {
+        if (e instanceof VersionConflictException) {
+            // ETag de la version courante : le client sait quelle version relire
+            VersionConflictException conflict = (VersionConflictException) e;
+            exchange.getResponseHeaders().set("ETag",
+                ticketEtag(exchange, conflict.getTicketId(), conflict.getCurrentVersion()));
+            exposeHeader(exchange, "ETag");
+            sendErrorResponse(exchange, 412, "PRECONDITION_FAILED", e.getMessage());
+            return;
         }
+        super.handleError(exchange, e);
     }
 
     /**
-     * GET /tickets
+     * GET /tickets?status=&priority=&assignedTo=&createdBy=&sort=&order=&limit=&offset=&cursor=
      * Authentification requise
      * Admin/Dev voient tous les tickets, les autres seulement les leurs
+     * Le corps reste un tableau JSON; le total et le curseur suivant sont dans les en-têtes
      */
     private void handleGetAllTickets(HttpExchange exchange) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return; // Erreur 401 déjà envoyée
 
-        List<TicketDTO> tickets = appState.getAllTicketsDTO();
+        TicketQuery query;
+        try {
+            query = TicketQuery.fromQueryParams(parseQueryParams(exchange));
+        } catch (IllegalArgumentException e) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", e.getMessage());
+            return;
+        }
 
         // Filtrer selon les permissions
         if (!hasFullAccess(user)) {
             // Utilisateur normal: seulement ses propres tickets
-            tickets = tickets.stream()
-                .filter(t -> t.getCreatedByName().equals(user.getName()))
-                .toList();
+            query.setVisibleOnlyTo(user.getUserID());
         }
 
-        sendJsonResponse(exchange, 200, tickets);
-        System.out.println("[TICKETS] Liste de " + tickets.size() + " tickets récupérée pour " + user.getName());
+        // Version lue avant la recherche : l'ETag n'est jamais plus récent que le contenu.
+        // La query string fait partie de l'URL; l'utilisateur détermine la visibilité.
+        String etag = etag(exchange, "s" + appState.getStoreVersion(), "u" + user.getUserID());
+        if (sendNotModifiedIfMatch(exchange, etag)) {
+            return;
+        }
+
+        TicketPage page = appState.queryTickets(query);
+
+        exchange.getResponseHeaders().set("X-Total-Count", String.valueOf(page.getTotalCount()));
+        if (page.getNextCursor() != null) {
+            exchange.getResponseHeaders().set("X-Next-Cursor", page.getNextCursor());
+        }
+        exposeHeader(exchange, "X-Total-Count");
+        exposeHeader(exchange, "X-Next-Cursor");
+
+        if (wantsPrettyJson(exchange)) {
+            sendJsonResponse(exchange, 200, page.getItems());
+        } else {
+            // JSON des tickets déjà encodé (projections en cache) : concaténé tel quel
+            List<byte[]> elements = new ArrayList<>(page.size());
+            for (TicketProjection item : page.getProjections()) {
+                elements.add(item.getJson());
+            }
+            sendJsonArrayResponse(exchange, 200, elements);
+        }
+        System.out.println("[TICKETS] Page de " + page.size() + "/" + page.getTotalCount() + " tickets récupérée pour " + user.getName());
     }
 
     /**
-     * GET /tickets/{id}
+     * GET /tickets/changes?since=
      * Authentification requise
+     * Tickets créés/modifiés et IDs supprimés depuis la révision "since", ou
+     * resyncRequired si elle est sortie de l'historique (sans "since" : révision courante)
      */
-    private void handleGetTicketById(HttpExchange exchange, String path) throws IOException {
+    private void handleChangesEndpoint(HttpExchange exchange) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return;
 
-        Integer ticketId = extractIdFromPath(path);
+        String sinceParam = parseQueryParams(exchange).get("since");
+        long since = -1;
+        if (sinceParam != null && !sinceParam.isEmpty()) {
+            try {
+                since = Long.parseLong(sinceParam);
+            } catch (NumberFormatException e) {
+                sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Paramètre since invalide : " + sinceParam);
+                return;
+            }
+        }
 
-        if (ticketId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID ticket invalide");
-            return;
+        Integer visibleOnlyTo = hasFullAccess(user) ? null : user.getUserID();
+        TicketChangesDTO changes = appState.getTicketChanges(since, visibleOnlyTo);
+
+        sendJsonResponse(exchange, 200, changes);
+        if (changes.isResyncRequired() && since >= 0) {
+            System.out.println("[TICKETS] Resynchronisation requise pour " + user.getName() + " (révision " + since + ")");
         }
+    }
+
+    /**
+     * GET /tickets/{id}
+     * Authentification requise
+     */
+    private void handleGetTicketById(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
+        User user = requireAuth(exchange);
+        if (user == null) return;
+
+        int ticketId = params.getInt("id");
 
-        TicketDTO ticket = appState.getTicketDTOById(ticketId);
+        core.entities.Ticket ticket = appState.findTicketById(ticketId);
 
         if (ticket == null) {
             sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
             return;
         }
 
-        // Vérifier que l'utilisateur a accès à ce ticket
-        if (!hasFullAccess(user) && !ticket.getCreatedByName().equals(user.getName())) {
+        // Vérifier que l'utilisateur a accès à ce ticket (créateur, par ID)
+        if (!hasFullAccess(user) && !Integer.valueOf(user.getUserID()).equals(ticket.getCreatedByUserID())) {
             sendErrorResponse(exchange, 403, "FORBIDDEN",
                 "Vous n'avez pas accès à ce ticket");
             return;
         }
 
-        sendJsonResponse(exchange, 200, ticket);
+        if (sendNotModifiedIfMatch(exchange, ticketEtag(exchange, ticketId, ticket.getVersion()))) {
+            return;
+        }
+
+        TicketProjection projection = appState.getTicketProjection(ticket);
+        if (wantsPrettyJson(exchange)) {
+            sendJsonResponse(exchange, 200, projection.getDto());
+        } else {
+            sendBytesResponse(exchange, 200, "application/json; charset=UTF-8", projection.getJson());
+        }
         System.out.println("[TICKETS] Ticket #" + ticketId + " récupéré par " + user.getName());
     }
 
@@ -170,19 +227,86 @@ public class TicketResource extends BaseResource {
     }
 
     /**
-     * PUT /tickets/{id}
-     * Authentification requise + permissions (créateur ou Admin/Dev)
+     * POST /tickets/batch
+     * Plusieurs opérations en une requête : une seule authentification, puis les
+     * permissions de chaque opération sont celles de l'endpoint unitaire correspondant.
+     * 200 : lot traité (voir le résultat de chaque opération); 409 : lot atomique annulé
      */
-    private void handleUpdateTicket(HttpExchange exchange, String path) throws IOException {
+    private void handleBatchEndpoint(HttpExchange exchange) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return;
 
-        Integer ticketId = extractIdFromPath(path);
+        String requestBody = readRequestBody(exchange);
+        BatchRequest request;
+        try {
+            request = gson.fromJson(requestBody, BatchRequest.class);
+        } catch (JsonParseException e) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Corps de requête invalide");
+            return;
+        }
 
-        if (ticketId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID ticket invalide");
+        if (request == null || request.getOperations() == null || request.getOperations().isEmpty()) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Aucune opération");
+            return;
+        }
+        if (request.getMode() != null && !request.isAtomic()
+                && !BatchRequest.MODE_BEST_EFFORT.equals(request.getMode())) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR",
+                "Mode invalide (atomic ou bestEffort) : " + request.getMode());
             return;
         }
+        int maxOperations = ServerConfig.get().getBatchMaxOperations();
+        if (request.getOperations().size() > maxOperations) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR",
+                "Trop d'opérations (maximum " + maxOperations + ")");
+            return;
+        }
+        if (request.getOperations().contains(null)) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Opération vide");
+            return;
+        }
+
+        BatchResponse response = appState.executeBatch(request, user,
+            (operation, ticket) -> checkBatchPermission(user, operation, ticket));
+
+        sendJsonResponse(exchange, response.isCommitted() ? 200 : 409, response);
+        System.out.println("[BATCH] " + request.getOperations().size() + " opération(s) (" + response.getMode()
+            + ") par " + user.getName() + " : " + response.getSucceeded() + " réussie(s), "
+            + response.getFailed() + " échec(s)");
+    }
+
+    /**
+     * Permissions d'une opération groupée, identiques à celles des endpoints unitaires
+     * @return Le motif du refus, ou null si permis
+     */
+    private String checkBatchPermission(User user, BatchOperation operation, core.entities.Ticket ticket) {
+        switch (operation.getOp().toUpperCase(Locale.ROOT)) {
+            case "UPDATE":
+                return canEditTicket(user, ticket.getCreatedByUserID())
+                    ? null : "Vous n'êtes pas autorisé à modifier ce ticket";
+            case "STATUS":
+                return hasFullAccess(user)
+                    ? null : "Seuls les administrateurs et développeurs peuvent changer les statuts";
+            case "ASSIGN":
+                return hasFullAccess(user)
+                    ? null : "Seuls les administrateurs et développeurs peuvent assigner des tickets";
+            case "DELETE":
+                return user instanceof Admin
+                    ? null : "Cette opération nécessite des privilèges administrateur.";
+            default:
+                return null; // CREATE, COMMENT : tout utilisateur authentifié
+        }
+    }
+
+    /**
+     * PUT /tickets/{id}
+     * Authentification requise + permissions (créateur ou Admin/Dev)
+     */
+    private void handleUpdateTicket(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
+        User user = requireAuth(exchange);
+        if (user == null) return;
+
+        int ticketId = params.getInt("id");
 
         // Vérifier que le ticket existe et récupérer le créateur
         core.entities.Ticket ticket = appState.findTicketById(ticketId);
@@ -198,11 +322,19 @@ public class TicketResource extends BaseResource {
             return;
         }
 
+        if (!requireIfMatchIfConfigured(exchange)) return;
+        Long expectedVersion = ifMatchVersion(exchange, "t" + ticketId, ticket.getVersion());
+
         String requestBody = readRequestBody(exchange);
         UpdateTicketRequest request = gson.fromJson(requestBody, UpdateTicketRequest.class);
 
-        TicketDTO updatedTicket = appState.updateTicket(ticketId, request);
+        TicketDTO updatedTicket = appState.updateTicket(ticketId, request, expectedVersion);
+        if (updatedTicket == null) {
+            sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
+            return;
+        }
 
+        setTicketEtag(exchange, updatedTicket);
         sendJsonResponse(exchange, 200, updatedTicket);
         System.out.println("[TICKETS] Ticket #" + ticketId + " modifié par " + user.getName());
     }
@@ -211,19 +343,14 @@ public class TicketResource extends BaseResource {
      * DELETE /tickets/{id}
      * Admin seulement
      */
-    private void handleDeleteTicket(HttpExchange exchange, String path) throws IOException {
+    private void handleDeleteTicket(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return;
 
         // Vérifier que l'utilisateur est admin
         if (!requireAdmin(exchange, user)) return;
 
-        Integer ticketId = extractIdFromPath(path);
-
-        if (ticketId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID ticket invalide");
-            return;
-        }
+        int ticketId = params.getInt("id");
 
         boolean deleted = appState.deleteTicket(ticketId);
 
@@ -237,111 +364,122 @@ public class TicketResource extends BaseResource {
     }
 
     /**
-     * Gestion des commentaires
+     * GET /tickets/{id}/comments
      * Authentification requise
      */
-    private void handleCommentsEndpoints(HttpExchange exchange, String method, String path) throws IOException {
+    private void handleGetComments(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return;
 
-        Integer ticketId = extractIdFromPath(path.replace("/comments", ""));
-
-        if (ticketId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID ticket invalide");
+        int ticketId = params.getInt("id");
+        core.entities.Ticket ticket = appState.findTicketById(ticketId);
+        if (ticket == null) {
+            sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
+            return;
+        }
+        if (sendNotModifiedIfMatch(exchange, etag(exchange, "c" + ticketId, "v" + ticket.getVersion()))) {
             return;
         }
 
-        if ("GET".equals(method)) {
-            List<String> comments = appState.getTicketComments(ticketId);
-            sendJsonResponse(exchange, 200, comments);
-            System.out.println("[COMMENTS] " + comments.size() + " commentaires récupérés pour ticket #" + ticketId);
-        } else if ("POST".equals(method)) {
-            String requestBody = readRequestBody(exchange);
-            CommentRequest request = gson.fromJson(requestBody, CommentRequest.class);
+        List<String> comments = ticket.getComments();
+        sendJsonResponse(exchange, 200, comments);
+        System.out.println("[COMMENTS] " + comments.size() + " commentaires récupérés pour ticket #" + ticketId);
+    }
 
-            if (request == null || request.getText() == null || request.getText().isEmpty()) {
-                sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Le commentaire ne peut pas être vide");
-                return;
-            }
+    /**
+     * POST /tickets/{id}/comments
+     * Authentification requise
+     */
+    private void handleAddComment(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
+        User user = requireAuth(exchange);
+        if (user == null) return;
 
-            String comment = appState.addComment(ticketId, request.getText());
+        int ticketId = params.getInt("id");
+        String requestBody = readRequestBody(exchange);
+        CommentRequest request = gson.fromJson(requestBody, CommentRequest.class);
 
-            if (comment == null) {
-                sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
-                return;
-            }
+        if (request == null || request.getText() == null || request.getText().isEmpty()) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Le commentaire ne peut pas être vide");
+            return;
+        }
 
-            sendJsonResponse(exchange, 201, comment);
-            System.out.println("[COMMENTS] Commentaire ajouté au ticket #" + ticketId + " par " + user.getName());
-        } else {
-            sendErrorResponse(exchange, 405, "METHOD_NOT_ALLOWED", "Méthode non autorisée");
+        String comment = appState.addComment(ticketId, request.getText());
+
+        if (comment == null) {
+            sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
+            return;
         }
+
+        sendJsonResponse(exchange, 201, comment);
+        System.out.println("[COMMENTS] Commentaire ajouté au ticket #" + ticketId + " par " + user.getName());
     }
 
     /**
-     * Gestion des statuts
-     * GET: Authentification requise
-     * PATCH: Admin/Dev seulement
+     * GET /tickets/{id}/status - Transitions disponibles
+     * Authentification requise
      */
-    private void handleStatusEndpoints(HttpExchange exchange, String method, String path) throws IOException {
+    private void handleGetTransitions(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return;
 
-        Integer ticketId = extractIdFromPath(path.replace("/status", ""));
+        int ticketId = params.getInt("id");
+        List<String> transitions = appState.getAvailableTransitions(ticketId);
 
-        if (ticketId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID ticket invalide");
+        if (transitions == null) {
+            sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
             return;
         }
 
-        if ("GET".equals(method)) {
-            List<String> transitions = appState.getAvailableTransitions(ticketId);
-
-            if (transitions == null) {
-                sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
-                return;
-            }
+        sendJsonResponse(exchange, 200, transitions);
+    }
 
-            sendJsonResponse(exchange, 200, transitions);
-        } else if ("POST".equals(method)) {
-            // Seuls Admin et Développeur peuvent changer les statuts
-            if (!hasFullAccess(user)) {
-                sendErrorResponse(exchange, 403, "FORBIDDEN",
-                    "Seuls les administrateurs et développeurs peuvent changer les statuts");
-                return;
-            }
+    /**
+     * POST /tickets/{id}/status
+     * Admin/Dev seulement
+     */
+    private void handleChangeStatus(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
+        User user = requireAuth(exchange);
+        if (user == null) return;
 
-            String requestBody = readRequestBody(exchange);
-            StatusUpdateDTO request = gson.fromJson(requestBody, StatusUpdateDTO.class);
+        // Seuls Admin et Développeur peuvent changer les statuts
+        if (!hasFullAccess(user)) {
+            sendErrorResponse(exchange, 403, "FORBIDDEN",
+                "Seuls les administrateurs et développeurs peuvent changer les statuts");
+            return;
+        }
 
-            if (request == null || request.getNewStatus() == null) {
-                sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Nouveau statut manquant");
-                return;
-            }
+        int ticketId = params.getInt("id");
+        String requestBody = readRequestBody(exchange);
+        StatusUpdateDTO request = gson.fromJson(requestBody, StatusUpdateDTO.class);
 
-            try {
-                TicketDTO updatedTicket = appState.changeTicketStatus(ticketId, request.getNewStatus());
+        if (request == null || request.getNewStatus() == null) {
+            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "Nouveau statut manquant");
+            return;
+        }
+        if (!requireIfMatchIfConfigured(exchange)) return;
+        Long expectedVersion = ifMatchVersion(exchange, ticketId);
 
-                if (updatedTicket == null) {
-                    sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
-                    return;
-                }
+        try {
+            TicketDTO updatedTicket = appState.changeTicketStatus(ticketId, request.getNewStatus(), expectedVersion);
 
-                sendJsonResponse(exchange, 200, updatedTicket);
-                System.out.println("[STATUS] Statut du ticket #" + ticketId + " changé vers: " + request.getNewStatus() + " par " + user.getName());
-            } catch (IllegalStateException e) {
-                sendErrorResponse(exchange, 400, "INVALID_TRANSITION", e.getMessage());
+            if (updatedTicket == null) {
+                sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket #" + ticketId + " introuvable");
+                return;
             }
-        } else {
-            sendErrorResponse(exchange, 405, "METHOD_NOT_ALLOWED", "Méthode non autorisée");
+
+            setTicketEtag(exchange, updatedTicket);
+            sendJsonResponse(exchange, 200, updatedTicket);
+            System.out.println("[STATUS] Statut du ticket #" + ticketId + " changé vers: " + request.getNewStatus() + " par " + user.getName());
+        } catch (IllegalStateException e) {
+            sendErrorResponse(exchange, 400, "INVALID_TRANSITION", e.getMessage());
         }
     }
 
     /**
-     * Assignation de ticket
+     * POST /tickets/{id}/assignment
      * Admin/Dev seulement
      */
-    private void handleAssignmentEndpoint(HttpExchange exchange, String method, String path) throws IOException {
+    private void handleAssignmentEndpoint(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return;
 
@@ -352,17 +490,7 @@ public class TicketResource extends BaseResource {
             return;
         }
 
-        if (!"POST".equals(method)) {
-            sendErrorResponse(exchange, 405, "METHOD_NOT_ALLOWED", "Méthode non autorisée");
-            return;
-        }
-
-        Integer ticketId = extractIdFromPath(path.replace("/assignment", ""));
-
-        if (ticketId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID ticket invalide");
-            return;
-        }
+        int ticketId = params.getInt("id");
 
         String requestBody = readRequestBody(exchange);
         AssignmentDTO request = gson.fromJson(requestBody, AssignmentDTO.class);
@@ -372,36 +500,67 @@ public class TicketResource extends BaseResource {
             return;
         }
 
-        TicketDTO updatedTicket = appState.assignTicket(ticketId, request.getUserID());
+        if (!requireIfMatchIfConfigured(exchange)) return;
+        Long expectedVersion = ifMatchVersion(exchange, ticketId);
+
+        TicketDTO updatedTicket = appState.assignTicket(ticketId, request.getUserID(), expectedVersion);
 
         if (updatedTicket == null) {
             sendErrorResponse(exchange, 404, "NOT_FOUND", "Ticket ou utilisateur introuvable");
             return;
         }
 
+        setTicketEtag(exchange, updatedTicket);
         sendJsonResponse(exchange, 200, updatedTicket);
         System.out.println("[ASSIGNMENT] Ticket #" + ticketId + " assigné à l'utilisateur #" + request.getUserID() + " par " + user.getName());
     }
 
+    // ========================================================================
+    // Versions (ETag / If-Match)
+    // ========================================================================
+
+    private String ticketEtag(HttpExchange exchange, int ticketId, long version) {
+        return etag(exchange, "t" + ticketId, "v" + version);
+    }
+
     /**
-     * Export PDF
-     * Authentification requise
+     * ETag de la nouvelle version, réutilisable tel quel en If-Match pour l'écriture suivante
      */
-    private void handleExportPdfEndpoint(HttpExchange exchange, String method, String path) throws IOException {
-        User user = requireAuth(exchange);
-        if (user == null) return;
+    private void setTicketEtag(HttpExchange exchange, TicketDTO ticket) {
+        exchange.getResponseHeaders().set("ETag", ticketEtag(exchange, ticket.getTicketID(), ticket.getVersion()));
+        exposeHeader(exchange, "ETag");
+    }
 
-        if (!"GET".equals(method)) {
-            sendErrorResponse(exchange, 405, "METHOD_NOT_ALLOWED", "Méthode non autorisée");
-            return;
+    /**
+     * Version attendue (If-Match) pour un ticket pas encore lu par le handler
+     */
+    private Long ifMatchVersion(HttpExchange exchange, int ticketId) {
+        core.entities.Ticket ticket = appState.findTicketById(ticketId);
+        return ifMatchVersion(exchange, "t" + ticketId, ticket != null ? ticket.getVersion() : -1);
+    }
+
+    /**
+     * Avec tickets.requireIfMatch, une écriture sans If-Match est refusée (428)
+     * @return false si la réponse d'erreur a été envoyée
+     */
+    private boolean requireIfMatchIfConfigured(HttpExchange exchange) throws IOException {
+        if (!ServerConfig.get().isRequireIfMatch() || exchange.getRequestHeaders().getFirst("If-Match") != null) {
+            return true;
         }
+        sendErrorResponse(exchange, 428, "PRECONDITION_REQUIRED",
+            "En-tête If-Match requis (ETag ou version du ticket)");
+        return false;
+    }
 
-        Integer ticketId = extractIdFromPath(path.replace("/export/pdf", ""));
+    /**
+     * GET /tickets/{id}/export/pdf
+     * Authentification requise
+     */
+    private void handleExportPdfEndpoint(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
+        User user = requireAuth(exchange);
+        if (user == null) return;
 
-        if (ticketId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID ticket invalide");
-            return;
-        }
+        int ticketId = params.getInt("id");
 
         String pdfContent = appState.exportTicketToPDF(ticketId);
 
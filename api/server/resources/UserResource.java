@@ -15,31 +15,9 @@ import java.util.List;
 public class UserResource extends BaseResource {
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
-
-        // Support CORS preflight
-        if ("OPTIONS".equals(method)) {
-            handleOptionsRequest(exchange);
-            return;
-        }
-
-        try {
-            if ("GET".equals(method)) {
-                // Vérifier si c'est /users ou /users/{id}
-                if (path.endsWith("/users")) {
-                    handleGetAllUsers(exchange);
-                } else {
-                    handleGetUserById(exchange, path);
-                }
-            } else {
-                sendErrorResponse(exchange, 405, "METHOD_NOT_ALLOWED", "Méthode non autorisée");
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            sendErrorResponse(exchange, 500, "INTERNAL_ERROR", e.getMessage());
-        }
+    public void registerRoutes(ApiRouter router) {
+        router.add("GET", "/users", this, (exchange, params) -> handleGetAllUsers(exchange));
+        router.add("GET", "/users/{id}", this, this::handleGetUserById);
     }
 
     /**
@@ -51,6 +29,9 @@ public class UserResource extends BaseResource {
         if (user == null) return;
 
         List<UserDTO> users = appState.getAllUsersDTO();
+        if (sendNotModifiedIfMatch(exchange, etag(exchange, "users", users.size()))) {
+            return;
+        }
         sendJsonResponse(exchange, 200, users);
         System.out.println("[USERS] Liste de " + users.size() + " utilisateurs récupérée par " + user.getName());
     }
@@ -59,16 +40,11 @@ public class UserResource extends BaseResource {
      * GET /users/{id}
      * Authentification requise
      */
-    private void handleGetUserById(HttpExchange exchange, String path) throws IOException {
+    private void handleGetUserById(HttpExchange exchange, ApiRouter.PathParams params) throws IOException {
         User user = requireAuth(exchange);
         if (user == null) return;
 
-        Integer userId = extractIdFromPath(path);
-
-        if (userId == null) {
-            sendErrorResponse(exchange, 400, "VALIDATION_ERROR", "ID utilisateur invalide");
-            return;
-        }
+        int userId = params.getInt("id");
 
         UserDTO userDTO = appState.getUserDTOById(userId);
 
@@ -77,6 +53,10 @@ public class UserResource extends BaseResource {
             return;
         }
 
+        if (sendNotModifiedIfMatch(exchange, etag(exchange, "user" + userId))) {
+            return;
+        }
+
         sendJsonResponse(exchange, 200, userDTO);
         System.out.println("[USERS] Utilisateur #" + userId + " récupéré par " + user.getName());
     }
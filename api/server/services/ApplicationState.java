@@ -2,10 +2,13 @@ package api.server.services;
 
 import core.entities.*;
 import core.content.*;
+import api.server.ServerConfig;
 import api.server.models.*;
+import api.server.persistence.*;
 
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ApplicationState - Singleton côté serveur
@@ -14,20 +17,54 @@ import java.util.concurrent.ConcurrentHashMap;
  * Cette classe est la version serveur de gui.controllers.ApplicationState
  * Elle maintient les données en mémoire et fournit les services métier
  *
- * Thread-safe avec ConcurrentHashMap pour gérer plusieurs requêtes simultanées
+ * Thread-safe : tickets et utilisateurs sont indexés par clé primaire dans des
+ * ConcurrentIntIndex (recherche O(1) sans verrou), les sessions dans un SessionStore
+ * (expiration par inactivité et durée maximale, nombre de sessions plafonné)
+ *
+ * Persistance : chaque mutation est appliquée en mémoire puis ajoutée au journal pendant
+ * que le ticket est verrouillé; la réponse n'est envoyée qu'une fois l'entrée durable.
+ * Au démarrage, l'état est restauré depuis le répertoire de données (ServerConfig :
+ * "tickets.dataDir", "data" par défaut; une valeur vide désactive la persistance).
  */
 public class ApplicationState {
     private static ApplicationState instance;
 
-    private List<Ticket> allTickets;
-    private List<User> allUsers;
-    private Map<String, User> sessions; // token -> User
+    private ConcurrentIntIndex<Ticket> allTickets; // ticketID -> Ticket (ordre d'insertion)
+    private ConcurrentIntIndex<User> allUsers;     // userID -> User (ordre d'insertion)
+    private TicketIndex ticketIndex;               // index secondaires (statut, priorité, assigné, créateur)
+    private final ConcurrentIntIndex<TicketProjection> projections; // ticketID -> dernière projection servie
+    private SessionStore sessions; // token -> User
+    private final TokenSigner tokenSigner;          // null si les tokens signés sont désactivés
+    private final RevocationList revokedTokens;     // tokens signés déconnectés avant expiration
+    private PersistenceManager persistence; // null si la persistance est désactivée
+    private final ChangeFeed changeFeed; // révision incrémentée à chaque mutation de ticket
 
     private ApplicationState() {
-        allTickets = Collections.synchronizedList(new ArrayList<>());
-        allUsers = Collections.synchronizedList(new ArrayList<>());
-        sessions = new ConcurrentHashMap<>();
-        initTestData();
+        allTickets = new ConcurrentIntIndex<>();
+        allUsers = new ConcurrentIntIndex<>();
+        ticketIndex = new TicketIndex();
+        projections = new ConcurrentIntIndex<>();
+        ServerConfig config = ServerConfig.get();
+        // Une session expirée ou évincée est journalisée comme une déconnexion (sans attendre le fsync)
+        sessions = new SessionStore(config.getSessionIdleTimeoutSeconds(), config.getSessionMaxLifetimeSeconds(),
+                config.getMaxSessions(), token -> journal(JournalRecord.sessionClosed(token)));
+        tokenSigner = config.isSignedTokens()
+                ? TokenSigner.fromKeyFile(Paths.get(config.getTokenKeyFile()), config.getTokenTtlSeconds())
+                : null;
+        revokedTokens = new RevocationList();
+        changeFeed = new ChangeFeed(ServerConfig.get().getChangeFeedCapacity(), System.currentTimeMillis() * 1000);
+        initTestUsers();
+
+        String dataDir = ServerConfig.get().getDataDir();
+        if (dataDir.isEmpty()) {
+            initTestTickets();
+        } else {
+            openPersistence(dataDir);
+        }
+
+        sessions.start();
+
+        System.out.println("[INIT] ApplicationState initialisé avec " + allUsers.size() + " utilisateurs et " + allTickets.size() + " tickets");
     }
 
     public static synchronized ApplicationState getInstance() {
@@ -38,17 +75,25 @@ public class ApplicationState {
     }
 
     /**
-     * Initialise les données de test
+     * Initialise les utilisateurs de test (non modifiables par l'API, donc non journalisés)
      */
-    private void initTestData() {
+    private void initTestUsers() {
         // Créer des utilisateurs de test
         User user1 = new User(1, "Utilisateur1", "utilisateur1@uqac.ca", "Developpeur");
         User user2 = new User(2, "Utilisateur2", "utilisateur2@uqac.ca", "Testeur");
         Admin admin = new Admin(100, "Admin1", "admin@uqac.ca");
 
-        allUsers.add(user1);
-        allUsers.add(user2);
-        allUsers.add(admin);
+        allUsers.put(user1.getUserID(), user1);
+        allUsers.put(user2.getUserID(), user2);
+        allUsers.put(admin.getUserID(), admin);
+    }
+
+    /**
+     * Initialise les tickets de test (premier démarrage seulement)
+     */
+    private void initTestTickets() {
+        User user1 = findUserById(1);
+        User user2 = findUserById(2);
 
         // Créer quelques tickets de test
         TextContent desc1 = new TextContent(
@@ -59,7 +104,7 @@ public class ApplicationState {
                 desc1,
                 "Haute"
         );
-        allTickets.add(ticket1);
+        registerTicket(ticket1);
 
         TextContent desc2 = new TextContent(
                 "L'interface utilisateur n'est pas responsive sur mobile. Les boutons sont trop petits."
@@ -69,7 +114,7 @@ public class ApplicationState {
                 desc2,
                 "Moyenne"
         );
-        allTickets.add(ticket2);
+        registerTicket(ticket2);
 
         // Ticket avec contenu composite
         CompositeContent richDesc = new CompositeContent();
@@ -82,27 +127,235 @@ public class ApplicationState {
                 richDesc,
                 "Critique"
         );
-        allTickets.add(ticket3);
+        registerTicket(ticket3);
+    }
 
-        System.out.println("[INIT] ApplicationState initialisé avec " + allUsers.size() + " utilisateurs et " + allTickets.size() + " tickets");
+    // ========================================================================
+    // Persistance
+    // ========================================================================
+
+    /**
+     * Restaure l'état depuis le répertoire de données, ou l'initialise au premier démarrage
+     */
+    private void openPersistence(String dataDir) {
+        persistence = new PersistenceManager(Paths.get(dataDir), ServerConfig.get().getSnapshotIntervalSeconds());
+
+        boolean restored = persistence.recover(new PersistenceManager.RecoveryHandler() {
+            @Override
+            public void restoreSnapshot(SnapshotData snapshot) {
+                for (User user : snapshot.getUsers()) {
+                    allUsers.put(user.getUserID(), user);
+                }
+                for (Ticket ticket : snapshot.getTickets()) {
+                    registerTicket(ticket);
+                }
+                for (Map.Entry<String, Integer> session : snapshot.getSessions().entrySet()) {
+                    restoreSession(session.getKey(), session.getValue());
+                }
+                for (Map.Entry<String, Long> revoked : snapshot.getRevokedTokens().entrySet()) {
+                    revokedTokens.revoke(revoked.getKey(), revoked.getValue());
+                }
+                User.restoreLastTicketID(snapshot.getLastTicketId());
+            }
+
+            @Override
+            public void replay(JournalRecord record) {
+                applyJournalRecord(record);
+            }
+        });
+
+        persistence.start(this::captureSnapshot);
+
+        // IDs de tickets réservés par blocs : seule la borne haute de chaque bloc est journalisée,
+        // avant la création du premier ticket du bloc (le journal préserve l'ordre des écritures)
+        PersistenceManager manager = persistence;
+        User.getTicketIDAllocator().configure(ServerConfig.get().getIdBlockSize(),
+                highWaterMark -> manager.append(JournalRecord.idsReserved(highWaterMark)));
+
+        if (!restored) {
+            // Premier démarrage : les données de test forment le snapshot initial
+            initTestTickets();
+            persistence.snapshot();
+        }
+    }
+
+    /**
+     * Rejoue une entrée du journal (idempotent : les entrées sont des images complètes)
+     */
+    private void applyJournalRecord(JournalRecord record) {
+        switch (record.getType()) {
+            case SESSION_OPEN:
+                restoreSession(record.getToken(), record.getUserId());
+                break;
+            case SESSION_CLOSE:
+                sessions.discard(record.getToken());
+                break;
+            case DELETE:
+                Ticket removed = allTickets.remove(record.getTicketId());
+                if (removed != null) {
+                    ticketIndex.remove(removed);
+                    projections.remove(record.getTicketId());
+                }
+                User.restoreLastTicketID(record.getTicketId());
+                break;
+            case TOKEN_REVOKE:
+                TokenSigner.Claims claims = TokenSigner.parse(record.getToken());
+                if (claims != null) {
+                    revokedTokens.revoke(claims.getId(), claims.getExpiresAt());
+                }
+                break;
+            case ID_RESERVE:
+                User.restoreLastTicketID(record.getTicketId());
+                break;
+            default:
+                restoreTicket(record.getTicket());
+                break;
+        }
+    }
+
+    private void restoreTicket(TicketRecord record) {
+        Ticket previous = allTickets.get(record.getId());
+        if (previous != null) {
+            ticketIndex.remove(previous);
+        }
+        registerTicket(fromTicketRecord(record));
+        User.restoreLastTicketID(record.getId());
+    }
+
+    private void restoreSession(String token, Integer userId) {
+        User user = userId != null ? findUserById(userId) : null;
+        if (user != null) {
+            sessions.restore(token, user);
+        }
+    }
+
+    /**
+     * Capture l'état courant pour un snapshot, sans arrêter les écritures :
+     * les tickets sont encodés un à un sous leur propre verrou pendant l'écriture
+     */
+    private SnapshotData captureSnapshot(long coveredSeq) {
+
+        return new SnapshotData(coveredSeq, User.getLastTicketID(), allUsers.values(), allTickets.values(),
+                sessions.userIds(), revokedTokens.entries());
+    }
+
+    /**
+     * Ajoute une mutation de ticket au journal.
+     * Doit être appelée pendant que le ticket est verrouillé, juste après la mutation.
+     * @return L'entrée en attente, à passer à awaitDurable() hors du verrou (null sans persistance)
+     */
+    private CompletableFuture<Long> journal(MutationType type, Ticket ticket) {
+        if (persistence == null) {
+            return null;
+        }
+        return persistence.append(JournalRecord.ticketChanged(type, toTicketRecord(ticket)));
+    }
+
+    private CompletableFuture<Long> journal(JournalRecord record) {
+        return persistence != null ? persistence.append(record) : null;
+    }
+
+    private void awaitDurable(CompletableFuture<Long> pending) {
+        if (pending != null) {
+            persistence.awaitDurable(pending);
+        }
+    }
+
+    private TicketRecord toTicketRecord(Ticket ticket) {
+        return new TicketRecord(
+                ticket.getTicketID(),
+                ticket.getTitle(),
+                convertContentToDTO(ticket.getDescription()),
+                ticket.getStatus().name(),
+                ticket.getPriority(),
+                ticket.getCreationDate().getTime(),
+                ticket.getUpdateDate().getTime(),
+                ticket.getAssignedToUserID(),
+                ticket.getCreatedByUserID(),
+                ticket.getComments(),
+                ticket.getVersion()
+        );
+    }
+
+    private Ticket fromTicketRecord(TicketRecord record) {
+        Ticket ticket = new Ticket(record.getId(), record.getTitle(),
+                convertDTOToContent(record.getDescription()), record.getPriority());
+        ticket.setStatus(TicketStatus.valueOf(record.getStatus()));
+        ticket.setAssignedToUserID(record.getAssignedTo());
+        ticket.setCreatedByUserID(record.getCreatedBy());
+        ticket.setComments(record.getComments() != null ? record.getComments() : Collections.emptyList());
+        ticket.setCreationDate(new Date(record.getCreationDate()));
+        ticket.setUpdateDate(new Date(record.getUpdateDate()));
+        ticket.setVersion(record.getVersion());
+        return ticket;
+    }
+
+    /**
+     * Arrête la persistance (snapshot final puis fermeture du journal)
+     */
+    public void shutdown() {
+        sessions.close();
+        if (persistence != null) {
+            persistence.snapshot();
+            persistence.close();
+        }
     }
 
     // ========================================================================
     // Gestion des sessions
     // ========================================================================
 
+    /**
+     * Ouvre une session : token signé (sans état serveur) si activé, sinon session en mémoire
+     */
     public String createSession(User user) {
+        if (tokenSigner != null) {
+            return tokenSigner.issue(user);
+        }
         String token = "session_" + UUID.randomUUID().toString();
-        sessions.put(token, user);
+        sessions.open(token, user);
+        awaitDurable(journal(JournalRecord.sessionOpened(token, user.getUserID())));
         return token;
     }
 
+    /**
+     * Session active (null si inconnue, expirée, évincée ou révoquée).
+     * Un token signé est vérifié localement : signature, expiration, liste de révocation.
+     */
     public User getUserFromSession(String token) {
+        if (tokenSigner != null && token.startsWith(TokenSigner.PREFIX)) {
+            TokenSigner.Claims claims = tokenSigner.verify(token);
+            if (claims == null || revokedTokens.isRevoked(claims.getId())) {
+                return null;
+            }
+            User user = findUserById(claims.getUserId());
+            return user != null && user.getRole().equals(claims.getRole()) ? user : null;
+        }
         return sessions.get(token);
     }
 
     public void invalidateSession(String token) {
-        sessions.remove(token);
+        if (tokenSigner != null && token.startsWith(TokenSigner.PREFIX)) {
+            TokenSigner.Claims claims = tokenSigner.verify(token);
+            if (claims != null && !revokedTokens.isRevoked(claims.getId())) {
+                revokedTokens.revoke(claims.getId(), claims.getExpiresAt());
+                awaitDurable(journal(JournalRecord.tokenRevoked(token)));
+            }
+            return;
+        }
+        if (sessions.remove(token)) {
+            awaitDurable(journal(JournalRecord.sessionClosed(token)));
+        }
+    }
+
+    /**
+     * Compteurs des sessions (GET /auth/metrics)
+     */
+    public SessionMetricsDTO getSessionMetrics() {
+        return new SessionMetricsDTO(sessions.size(), sessions.getMaxSessions(), sessions.getIdleTimeoutSeconds(),
+                sessions.getMaxLifetimeSeconds(), sessions.getOpened(), sessions.getLoggedOut(),
+                sessions.getExpiredIdle(), sessions.getExpiredLifetime(), sessions.getEvicted(),
+                tokenSigner != null, revokedTokens.size());
     }
 
     // ========================================================================
@@ -110,25 +363,41 @@ public class ApplicationState {
     // ========================================================================
 
     public User findUserById(int userId) {
-        synchronized (allUsers) {
-            for (User user : allUsers) {
-                if (user.getUserID() == userId) {
-                    return user;
-                }
-            }
-        }
-        return null;
+        return allUsers.get(userId);
     }
 
     public Ticket findTicketById(int ticketId) {
-        synchronized (allTickets) {
-            for (Ticket ticket : allTickets) {
-                if (ticket.getTicketID() == ticketId) {
-                    return ticket;
-                }
-            }
-        }
-        return null;
+        return allTickets.get(ticketId);
+    }
+
+    /**
+     * Version de l'ensemble des tickets (ETag des listes) : révision courante du flux
+     * de changements, incrémentée à chaque création, modification ou suppression.
+     * À lire avant de construire la réponse.
+     */
+    public long getStoreVersion() {
+        return changeFeed.getRevision();
+    }
+
+    /**
+     * Enregistre la modification d'un ticket dans le flux de changements.
+     * La mutation a déjà incrémenté la version du ticket, dans la même publication que
+     * le nouvel état. Doit être appelée pendant que le ticket est verrouillé, juste après.
+     */
+    private void markChanged(Ticket ticket, MutationType type) {
+        changeFeed.record(ticket.getTicketID(), type, ticket.getCreatedByUserID());
+    }
+
+    private boolean isRegistered(Ticket ticket) {
+        return allTickets.get(ticket.getTicketID()) == ticket;
+    }
+
+    /**
+     * Ajoute un ticket à l'index primaire et aux index secondaires
+     */
+    private void registerTicket(Ticket ticket) {
+        allTickets.put(ticket.getTicketID(), ticket);
+        ticketIndex.add(ticket);
     }
 
     // ========================================================================
@@ -147,26 +416,55 @@ public class ApplicationState {
         );
     }
 
+    /**
+     * Convertit un ticket en DTO sans prendre son verrou
+     * (DTO partagé de la projection en cache : ne pas le modifier)
+     */
     public TicketDTO convertToTicketDTO(Ticket ticket) {
-        String createdByName = getUserNameById(ticket.getCreatedByUserID());
-        String assignedToName = getUserNameById(ticket.getAssignedToUserID());
-        String description = ticket.getDescription().display();
+        return getTicketProjection(ticket).getDto();
+    }
+
+    /**
+     * Projection du ticket (DTO + JSON), reconstruite seulement si le ticket a été modifié
+     * depuis (nouvelle vue publiée) ou si le nom de son créateur ou de son assigné a changé.
+     * Les attributs viennent d'une même vue publiée (cohérents entre eux).
+     */
+    public TicketProjection getTicketProjection(Ticket ticket) {
+        TicketSnapshot snapshot = ticket.getSnapshot();
+        String createdByName = getUserNameById(snapshot.getCreatedByUserID());
+        String assignedToName = getUserNameById(snapshot.getAssignedToUserID());
+
+        TicketProjection cached = projections.get(snapshot.getTicketID());
+        if (cached != null && cached.isCurrent(snapshot, createdByName, assignedToName)) {
+            return cached;
+        }
+
+        // Description lue après la vue : au moins aussi récente qu'elle
+        Content content = ticket.getDescription();
+        String description = content.display();
 
         // Convertir le contenu en liste de ContentItemDTO
-        List<ContentItemDTO> contentItems = convertContentToDTO(ticket.getDescription());
+        List<ContentItemDTO> contentItems = convertContentToDTO(content);
 
-        return new TicketDTO(
-                ticket.getTicketID(),
-                ticket.getTitle(),
-                ticket.getStatus().toString(),
-                ticket.getPriority(),
+        TicketDTO dto = new TicketDTO(
+                snapshot.getTicketID(),
+                snapshot.getTitle(),
+                snapshot.getStatus().toString(),
+                snapshot.getPriority(),
                 createdByName,
                 assignedToName,
                 description,
                 contentItems,
-                ticket.getCreationDate().toString(),
-                ticket.getUpdateDate().toString()
+                snapshot.getCreationDate().toString(),
+                snapshot.getUpdateDate().toString(),
+                snapshot.getVersion()
         );
+        TicketProjection projection = new TicketProjection(snapshot, createdByName, assignedToName, dto);
+        // Le ticket peut avoir été supprimé entre-temps : ne pas ressusciter son entrée
+        if (allTickets.get(snapshot.getTicketID()) == ticket) {
+            projections.put(snapshot.getTicketID(), projection);
+        }
+        return projection;
     }
 
     /**
@@ -278,11 +576,9 @@ public class ApplicationState {
     // ========================================================================
 
     public List<UserDTO> getAllUsersDTO() {
-        List<UserDTO> dtos = new ArrayList<>();
-        synchronized (allUsers) {
-            for (User user : allUsers) {
-                dtos.add(convertToUserDTO(user));
-            }
+        List<UserDTO> dtos = new ArrayList<>(allUsers.size());
+        for (User user : allUsers) {
+            dtos.add(convertToUserDTO(user));
         }
         return dtos;
     }
@@ -293,11 +589,9 @@ public class ApplicationState {
     }
 
     public List<TicketDTO> getAllTicketsDTO() {
-        List<TicketDTO> dtos = new ArrayList<>();
-        synchronized (allTickets) {
-            for (Ticket ticket : allTickets) {
-                dtos.add(convertToTicketDTO(ticket));
-            }
+        List<TicketDTO> dtos = new ArrayList<>(allTickets.size());
+        for (Ticket ticket : allTickets) {
+            dtos.add(convertToTicketDTO(ticket));
         }
         return dtos;
     }
@@ -307,6 +601,178 @@ public class ApplicationState {
         return ticket != null ? convertToTicketDTO(ticket) : null;
     }
 
+    /**
+     * Changements de tickets depuis une révision (synchronisation incrémentale)
+     * Les tickets modifiés sont retournés dans leur état courant; un ticket supprimé
+     * après sa dernière modification est retourné comme supprimé.
+     * @param since Dernière révision connue du client
+     * @param visibleOnlyTo Restreindre aux tickets de ce créateur (null = tous)
+     * @return Les changements, ou une réponse "resyncRequired" si since est hors de l'historique
+     */
+    public TicketChangesDTO getTicketChanges(long since, Integer visibleOnlyTo) {
+        ChangeFeed.Delta delta = changeFeed.since(since);
+        if (delta == null) {
+            return TicketChangesDTO.resync(changeFeed.getRevision());
+        }
+
+        List<TicketDTO> upserted = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        for (ChangeFeed.TicketChange change : delta.getChanges().values()) {
+            if (!isVisibleTo(change, visibleOnlyTo)) {
+                continue;
+            }
+            Ticket ticket = change.isDeleted() ? null : allTickets.get(change.getTicketId());
+            if (ticket != null) {
+                upserted.add(convertToTicketDTO(ticket));
+            } else {
+                deleted.add(change.getTicketId());
+            }
+        }
+        return new TicketChangesDTO(delta.getRevision(), upserted, deleted);
+    }
+
+    /**
+     * Vrai si la mutation concerne un ticket visible (visibleOnlyTo null = accès complet)
+     */
+    public static boolean isVisibleTo(ChangeFeed.TicketChange change, Integer visibleOnlyTo) {
+        return visibleOnlyTo == null || visibleOnlyTo.equals(change.getCreatedBy());
+    }
+
+    /**
+     * Événement à diffuser pour une mutation : le ticket est joint dans son état courant
+     * (un ticket supprimé depuis est signalé comme supprimé)
+     */
+    public TicketEventDTO toTicketEvent(ChangeFeed.TicketChange change) {
+        Ticket ticket = change.isDeleted() ? null : allTickets.get(change.getTicketId());
+        if (ticket == null) {
+            return new TicketEventDTO(change.getRevision(), MutationType.DELETE.name(), change.getTicketId(), null);
+        }
+        return new TicketEventDTO(change.getRevision(), change.getType().name(), change.getTicketId(),
+                convertToTicketDTO(ticket));
+    }
+
+    // ========================================================================
+    // Abonnés aux changements (flux SSE)
+    // ========================================================================
+
+    /**
+     * @return La révision courante (l'abonné reçoit les mutations suivantes)
+     */
+    public long subscribeToChanges(ChangeFeed.Subscriber subscriber) {
+        return changeFeed.subscribe(subscriber);
+    }
+
+    /**
+     * Reprise après "since" : delta manqué (null si hors de l'historique), puis mutations suivantes
+     */
+    public ChangeFeed.Delta subscribeToChanges(ChangeFeed.Subscriber subscriber, long since) {
+        return changeFeed.subscribe(subscriber, since);
+    }
+
+    public void unsubscribeFromChanges(ChangeFeed.Subscriber subscriber) {
+        changeFeed.unsubscribe(subscriber);
+    }
+
+    public int getChangeSubscriberCount() {
+        return changeFeed.getSubscriberCount();
+    }
+
+    /**
+     * Ferme tous les flux d'événements (arrêt du serveur)
+     */
+    public void closeChangeSubscribers() {
+        changeFeed.closeSubscribers();
+    }
+
+    /**
+     * Recherche paginée de tickets
+     * Les index secondaires fournissent les candidats (parcours complet si aucun filtre indexé),
+     * puis filtre les entités, trie, et ne projette que la page demandée (projections en cache)
+     */
+    public TicketPage queryTickets(TicketQuery query) {
+        List<RankedTicket> matches = new ArrayList<>();
+        Set<Integer> candidates = ticketIndex.candidates(query);
+
+        if (candidates == null) {
+            for (Ticket ticket : allTickets) {
+                if (query.matches(ticket)) {
+                    matches.add(new RankedTicket(ticket, query.sortKey(ticket)));
+                }
+            }
+        } else {
+            for (Integer id : candidates) {
+                Ticket ticket = allTickets.get(id);
+                if (ticket != null && query.matches(ticket)) {
+                    matches.add(new RankedTicket(ticket, query.sortKey(ticket)));
+                }
+            }
+        }
+
+        int total = matches.size();
+        int from = Math.min(query.getOffset(), total);
+        int to = query.getLimit() != null ? Math.min(from + query.getLimit(), total) : total;
+
+        Comparator<RankedTicket> order = RankedTicket.ORDER;
+        if (query.isDescending()) {
+            order = order.reversed();
+        }
+
+        List<TicketProjection> items = new ArrayList<>(to - from);
+        for (RankedTicket ranked : selectRange(matches, order, from, to)) {
+            items.add(getTicketProjection(ranked.ticket));
+        }
+        return new TicketPage(items, total, query.nextCursor(total));
+    }
+
+    /**
+     * Retourne les éléments [from, to) de la liste triée.
+     * Pour une petite page, un tas borné (O(n log k)) évite de trier tous les résultats.
+     */
+    private static List<RankedTicket> selectRange(List<RankedTicket> items, Comparator<RankedTicket> order,
+                                                  int from, int to) {
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        if (to >= items.size() / 2) {
+            items.sort(order);
+            return items.subList(from, to);
+        }
+
+        // Tas max des "to" premiers éléments : la racine est le plus grand conservé
+        PriorityQueue<RankedTicket> heap = new PriorityQueue<>(to, order.reversed());
+        for (RankedTicket item : items) {
+            if (heap.size() < to) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        List<RankedTicket> firsts = new ArrayList<>(heap);
+        firsts.sort(order);
+        return firsts.subList(from, to);
+    }
+
+    /**
+     * Ticket accompagné de sa clé de tri capturée au moment de la recherche
+     */
+    private static final class RankedTicket {
+        static final Comparator<RankedTicket> ORDER = Comparator
+                .comparingLong((RankedTicket r) -> r.key)
+                .thenComparingInt(r -> r.id);
+
+        final Ticket ticket;
+        final long key;
+        final int id;
+
+        RankedTicket(Ticket ticket, long key) {
+            this.ticket = ticket;
+            this.key = key;
+            this.id = ticket.getTicketID();
+        }
+    }
+
     // ========================================================================
     // Opérations métier
     // ========================================================================
@@ -318,32 +784,30 @@ public class ApplicationState {
 
         Content content = convertDTOToContent(request.getDescriptionContent());
         Ticket ticket = creator.createTicket(request.getTitle(), content, request.getPriority());
-
-        synchronized (allTickets) {
-            allTickets.add(ticket);
-        }
+        awaitDurable(applyCreate(ticket));
 
         return convertToTicketDTO(ticket);
     }
 
-    public TicketDTO updateTicket(int ticketId, UpdateTicketRequest request) {
+    /**
+     * @param expectedVersion Version lue par le client (If-Match), null pour ne pas la vérifier
+     * @throws VersionConflictException si le ticket a été modifié depuis cette version
+     */
+    public TicketDTO updateTicket(int ticketId, UpdateTicketRequest request, Long expectedVersion) {
         Ticket ticket = findTicketById(ticketId);
         if (ticket == null) {
             return null;
         }
 
-        if (request.getTitle() != null) {
-            ticket.setTitle(request.getTitle());
-        }
-
-        if (request.getPriority() != null) {
-            ticket.setPriority(request.getPriority());
-        }
-
-        if (request.getDescriptionContent() != null && !request.getDescriptionContent().isEmpty()) {
-            Content content = convertDTOToContent(request.getDescriptionContent());
-            ticket.setDescription(content);
+        CompletableFuture<Long> durable;
+        synchronized (ticket) {
+            if (!isRegistered(ticket)) {
+                return null; // supprimé entre-temps : ne pas journaliser après le DELETE
+            }
+            checkVersion(ticket, expectedVersion);
+            durable = applyUpdate(ticket, request.getTitle(), request.getPriority(), request.getDescriptionContent());
         }
+        awaitDurable(durable);
 
         return convertToTicketDTO(ticket);
     }
@@ -354,9 +818,15 @@ public class ApplicationState {
             return false;
         }
 
-        synchronized (allTickets) {
-            return allTickets.remove(ticket);
+        CompletableFuture<Long> durable;
+        synchronized (ticket) {
+            if (!isRegistered(ticket)) {
+                return false; // supprimé entre-temps
+            }
+            durable = applyDelete(ticket);
         }
+        awaitDurable(durable);
+        return true;
     }
 
     public List<String> getTicketComments(int ticketId) {
@@ -370,7 +840,14 @@ public class ApplicationState {
             return null;
         }
 
-        ticket.addComment(commentText);
+        CompletableFuture<Long> durable;
+        synchronized (ticket) {
+            if (!isRegistered(ticket)) {
+                return null; // supprimé entre-temps : ne pas journaliser après le DELETE
+            }
+            durable = applyComment(ticket, commentText);
+        }
+        awaitDurable(durable);
         return commentText;
     }
 
@@ -387,19 +864,36 @@ public class ApplicationState {
         return transitions;
     }
 
-    public TicketDTO changeTicketStatus(int ticketId, String newStatusStr) throws IllegalStateException {
+    /**
+     * @param expectedVersion Version lue par le client (If-Match), null pour ne pas la vérifier
+     * @throws VersionConflictException si le ticket a été modifié depuis cette version
+     */
+    public TicketDTO changeTicketStatus(int ticketId, String newStatusStr, Long expectedVersion)
+            throws IllegalStateException {
         Ticket ticket = findTicketById(ticketId);
         if (ticket == null) {
             return null;
         }
 
         TicketStatus newStatus = TicketStatus.valueOf(newStatusStr);
-        ticket.updateStatus(newStatus); // Peut lancer IllegalStateException
+        CompletableFuture<Long> durable;
+        synchronized (ticket) {
+            if (!isRegistered(ticket)) {
+                return null; // supprimé entre-temps : ne pas journaliser après le DELETE
+            }
+            checkVersion(ticket, expectedVersion);
+            durable = applyStatus(ticket, newStatus); // Peut lancer IllegalStateException
+        }
+        awaitDurable(durable);
 
         return convertToTicketDTO(ticket);
     }
 
-    public TicketDTO assignTicket(int ticketId, int userId) {
+    /**
+     * @param expectedVersion Version lue par le client (If-Match), null pour ne pas la vérifier
+     * @throws VersionConflictException si le ticket a été modifié depuis cette version
+     */
+    public TicketDTO assignTicket(int ticketId, int userId, Long expectedVersion) {
         Ticket ticket = findTicketById(ticketId);
         User user = findUserById(userId);
 
@@ -407,10 +901,362 @@ public class ApplicationState {
             return null;
         }
 
-        ticket.assignTo(userId);
+        CompletableFuture<Long> durable;
+        synchronized (ticket) {
+            if (!isRegistered(ticket)) {
+                return null; // supprimé entre-temps : ne pas journaliser après le DELETE
+            }
+            checkVersion(ticket, expectedVersion);
+            durable = applyAssign(ticket, userId);
+        }
+        awaitDurable(durable);
         return convertToTicketDTO(ticket);
     }
 
+    /**
+     * Écriture conditionnelle : vérifiée sous le verrou du ticket, juste avant la mutation
+     * (aucune autre écriture ne peut s'intercaler entre la comparaison et la modification)
+     */
+    private static void checkVersion(Ticket ticket, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != ticket.getVersion()) {
+            throw new VersionConflictException(ticket.getTicketID(), expectedVersion, ticket.getVersion());
+        }
+    }
+
+    // ========================================================================
+    // Mutations (ticket verrouillé et enregistré, sauf applyCreate)
+    // Chaque méthode retourne l'entrée de journal à attendre hors du verrou
+    // ========================================================================
+
+    private CompletableFuture<Long> applyCreate(Ticket ticket) {
+        synchronized (ticket) {
+            ticket.incrementVersion(); // version 1 avant d'être visible dans les index
+            registerTicket(ticket);
+            markChanged(ticket, MutationType.CREATE);
+            return journal(MutationType.CREATE, ticket);
+        }
+    }
+
+    private CompletableFuture<Long> applyUpdate(Ticket ticket, String title, String priority,
+                                                List<ContentItemDTO> descriptionContent) {
+        Content content = null;
+        if (descriptionContent != null && !descriptionContent.isEmpty()) {
+            content = convertDTOToContent(descriptionContent);
+        }
+        ticket.update(title, priority, content);
+
+        markChanged(ticket, MutationType.UPDATE);
+        return journal(MutationType.UPDATE, ticket);
+    }
+
+    private CompletableFuture<Long> applyDelete(Ticket ticket) {
+        int ticketId = ticket.getTicketID();
+        allTickets.remove(ticketId);
+        ticketIndex.remove(ticket);
+        projections.remove(ticketId);
+        changeFeed.record(ticketId, MutationType.DELETE, ticket.getCreatedByUserID());
+        return journal(JournalRecord.ticketDeleted(ticketId));
+    }
+
+    private CompletableFuture<Long> applyComment(Ticket ticket, String commentText) {
+        ticket.addComment(commentText);
+        markChanged(ticket, MutationType.COMMENT);
+        return journal(MutationType.COMMENT, ticket);
+    }
+
+    private CompletableFuture<Long> applyStatus(Ticket ticket, TicketStatus newStatus) {
+        ticket.updateStatus(newStatus); // Peut lancer IllegalStateException
+        markChanged(ticket, MutationType.STATUS);
+        return journal(MutationType.STATUS, ticket);
+    }
+
+    private CompletableFuture<Long> applyAssign(Ticket ticket, int userId) {
+        ticket.assignTo(userId);
+        markChanged(ticket, MutationType.ASSIGN);
+        return journal(MutationType.ASSIGN, ticket);
+    }
+
+    // ========================================================================
+    // Opérations groupées (POST /tickets/batch)
+    // ========================================================================
+
+    /**
+     * Contrôle des permissions d'une opération groupée (mêmes règles que les endpoints unitaires)
+     */
+    public interface BatchAuthorizer {
+        /**
+         * @param ticket Le ticket visé (null pour CREATE)
+         * @return Le motif du refus (403), ou null si l'opération est permise
+         */
+        String check(BatchOperation operation, Ticket ticket);
+    }
+
+    /**
+     * Exécute un lot d'opérations pour un utilisateur déjà authentifié.
+     *
+     * Tous les tickets visés sont verrouillés (dans l'ordre des IDs) pendant le lot :
+     * aucune autre écriture ne s'intercale. En mode atomique, toutes les opérations sont
+     * validées sur un état simulé (transitions de statut successives, versions, suppressions) avant
+     * la première mutation : au moindre échec, rien n'est appliqué.
+     * Le lot n'attend qu'une fois la durabilité du journal (dernière entrée écrite).
+     */
+    public BatchResponse executeBatch(BatchRequest request, User user, BatchAuthorizer authorizer) {
+        List<BatchOperation> operations = request.getOperations();
+
+        TreeMap<Integer, Ticket> targets = new TreeMap<>();
+        for (BatchOperation operation : operations) {
+            Integer ticketId = operation.getTicketID();
+            if (ticketId != null && !BatchRun.CREATE.equalsIgnoreCase(operation.getOp())) {
+                Ticket ticket = findTicketById(ticketId);
+                if (ticket != null) {
+                    targets.put(ticketId, ticket);
+                }
+            }
+        }
+
+        BatchRun run = new BatchRun(operations, user, authorizer, targets);
+        withLocks(new ArrayList<>(targets.values()), 0,
+                request.isAtomic() ? run::executeAtomic : run::executeBestEffort);
+        awaitDurable(run.lastDurable);
+
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            BatchResult result = run.results[i];
+            if (request.isReturnTickets() && result.isSuccess() && run.touched[i] != null
+                    && isRegistered(run.touched[i])) {
+                result.setTicket(convertToTicketDTO(run.touched[i]));
+            }
+            results.add(result);
+        }
+        String mode = request.isAtomic() ? BatchRequest.MODE_ATOMIC : BatchRequest.MODE_BEST_EFFORT;
+        return new BatchResponse(mode, run.committed, results);
+    }
+
+    /**
+     * Exécute l'action en détenant le verrou de chaque ticket (imbriqués, dans l'ordre de la liste)
+     */
+    private static void withLocks(List<Ticket> tickets, int from, Runnable action) {
+        if (from == tickets.size()) {
+            action.run();
+            return;
+        }
+        synchronized (tickets.get(from)) {
+            withLocks(tickets, from + 1, action);
+        }
+    }
+
+    /**
+     * Exécution d'un lot (sous les verrous des tickets visés)
+     */
+    private final class BatchRun {
+        static final String CREATE = "CREATE";
+
+        private final List<BatchOperation> operations;
+        private final User user;
+        private final BatchAuthorizer authorizer;
+        private final Map<Integer, Ticket> targets;
+
+        // État simulé : effets des opérations précédentes du lot
+        private final Map<Integer, TicketStatus> simulatedStatus = new HashMap<>();
+        private final Set<Integer> simulatedDeleted = new HashSet<>();
+        private final Map<Integer, Long> simulatedVersion = new HashMap<>();
+
+        final BatchResult[] results;
+        final Ticket[] touched;
+        CompletableFuture<Long> lastDurable;
+        boolean committed = true;
+
+        BatchRun(List<BatchOperation> operations, User user, BatchAuthorizer authorizer,
+                 Map<Integer, Ticket> targets) {
+            this.operations = operations;
+            this.user = user;
+            this.authorizer = authorizer;
+            this.targets = targets;
+            this.results = new BatchResult[operations.size()];
+            this.touched = new Ticket[operations.size()];
+        }
+
+        void executeBestEffort() {
+            for (int i = 0; i < operations.size(); i++) {
+                BatchResult failure = check(i);
+                if (failure != null) {
+                    results[i] = failure;
+                    continue;
+                }
+                try {
+                    results[i] = apply(i);
+                } catch (IllegalStateException | IllegalArgumentException e) {
+                    results[i] = BatchResult.failure(i, operations.get(i).getTicketID(), 400,
+                            "VALIDATION_ERROR", e.getMessage());
+                }
+            }
+        }
+
+        void executeAtomic() {
+            boolean valid = true;
+            for (int i = 0; i < operations.size(); i++) {
+                results[i] = check(i);
+                valid &= results[i] == null;
+            }
+
+            if (!valid) {
+                committed = false;
+                for (int i = 0; i < operations.size(); i++) {
+                    if (results[i] == null) {
+                        results[i] = BatchResult.failure(i, operations.get(i).getTicketID(), 424,
+                                "ABORTED", "Annulée : une autre opération du lot a échoué");
+                    }
+                }
+                return;
+            }
+
+            for (int i = 0; i < operations.size(); i++) {
+                results[i] = apply(i);
+            }
+        }
+
+        /**
+         * Valide une opération sur l'état simulé, puis y reporte son effet
+         * @return L'échec, ou null si l'opération peut être appliquée
+         */
+        private BatchResult check(int index) {
+            BatchOperation operation = operations.get(index);
+            String op = operation.getOp() != null ? operation.getOp().toUpperCase(Locale.ROOT) : "";
+            Integer ticketId = operation.getTicketID();
+
+            if (CREATE.equals(op)) {
+                if (operation.getTitle() == null || operation.getTitle().isEmpty()) {
+                    return BatchResult.failure(index, null, 400, "VALIDATION_ERROR",
+                            "Le titre du ticket ne peut pas être vide");
+                }
+                String refusal = authorizer.check(operation, null);
+                return refusal != null ? BatchResult.failure(index, null, 403, "FORBIDDEN", refusal) : null;
+            }
+            if (!Arrays.asList("UPDATE", "STATUS", "ASSIGN", "COMMENT", "DELETE").contains(op)) {
+                return BatchResult.failure(index, ticketId, 400, "VALIDATION_ERROR",
+                        "Opération inconnue : " + operation.getOp());
+            }
+            if (ticketId == null) {
+                return BatchResult.failure(index, null, 400, "VALIDATION_ERROR", "ID ticket invalide");
+            }
+
+            Ticket ticket = targets.get(ticketId);
+            if (ticket == null || !isRegistered(ticket) || simulatedDeleted.contains(ticketId)) {
+                return BatchResult.failure(index, ticketId, 404, "NOT_FOUND",
+                        "Ticket #" + ticketId + " introuvable");
+            }
+            String refusal = authorizer.check(operation, ticket);
+            if (refusal != null) {
+                return BatchResult.failure(index, ticketId, 403, "FORBIDDEN", refusal);
+            }
+
+            long version = simulatedVersion.getOrDefault(ticketId, ticket.getVersion());
+            Long expectedVersion = operation.getExpectedVersion();
+            if (expectedVersion != null && expectedVersion != version) {
+                return BatchResult.failure(index, ticketId, 412, "PRECONDITION_FAILED",
+                        new VersionConflictException(ticketId, expectedVersion, version).getMessage());
+            }
+
+            BatchResult failure = checkEffect(index, op, operation, ticket);
+            if (failure == null) {
+                simulatedVersion.put(ticketId, version + 1);
+            }
+            return failure;
+        }
+
+        /**
+         * Validation propre à chaque type d'opération (effets reportés sur l'état simulé)
+         */
+        private BatchResult checkEffect(int index, String op, BatchOperation operation, Ticket ticket) {
+            int ticketId = ticket.getTicketID();
+            switch (op) {
+                case "STATUS":
+                    if (operation.getNewStatus() == null) {
+                        return BatchResult.failure(index, ticketId, 400, "VALIDATION_ERROR", "Nouveau statut manquant");
+                    }
+                    TicketStatus newStatus;
+                    try {
+                        newStatus = TicketStatus.valueOf(operation.getNewStatus());
+                    } catch (IllegalArgumentException e) {
+                        return BatchResult.failure(index, ticketId, 400, "VALIDATION_ERROR",
+                                "Statut inconnu : " + operation.getNewStatus());
+                    }
+                    TicketStatus current = simulatedStatus.getOrDefault(ticketId, ticket.getStatus());
+                    if (!current.canTransitionTo(newStatus)) {
+                        return BatchResult.failure(index, ticketId, 400, "INVALID_TRANSITION",
+                                "Transition invalide : " + current + " -> " + newStatus + ". "
+                                        + "Transitions autorisees : " + current.getAvailableTransitions());
+                    }
+                    simulatedStatus.put(ticketId, newStatus);
+                    return null;
+                case "ASSIGN":
+                    if (operation.getUserID() == null || operation.getUserID() <= 0) {
+                        return BatchResult.failure(index, ticketId, 400, "VALIDATION_ERROR", "ID utilisateur invalide");
+                    }
+                    if (findUserById(operation.getUserID()) == null) {
+                        return BatchResult.failure(index, ticketId, 404, "NOT_FOUND",
+                                "Utilisateur #" + operation.getUserID() + " introuvable");
+                    }
+                    simulatedStatus.put(ticketId, TicketStatus.ASSIGNE);
+                    return null;
+                case "COMMENT":
+                    if (operation.getText() == null || operation.getText().trim().isEmpty()) {
+                        return BatchResult.failure(index, ticketId, 400, "VALIDATION_ERROR",
+                                "Le commentaire ne peut pas être vide");
+                    }
+                    return null;
+                case "DELETE":
+                    simulatedDeleted.add(ticketId);
+                    return null;
+                default:
+                    return null; // UPDATE
+            }
+        }
+
+        /**
+         * Applique une opération validée par check()
+         */
+        private BatchResult apply(int index) {
+            BatchOperation operation = operations.get(index);
+            String op = operation.getOp().toUpperCase(Locale.ROOT);
+
+            if (CREATE.equals(op)) {
+                Content content = convertDTOToContent(operation.getDescriptionContent());
+                Ticket created = user.createTicket(operation.getTitle(), content, operation.getPriority());
+                record(applyCreate(created));
+                touched[index] = created;
+                return new BatchResult(index, 201, created.getTicketID());
+            }
+
+            Ticket ticket = targets.get(operation.getTicketID());
+            touched[index] = ticket;
+            switch (op) {
+                case "UPDATE":
+                    record(applyUpdate(ticket, operation.getTitle(), operation.getPriority(),
+                            operation.getDescriptionContent()));
+                    return new BatchResult(index, 200, ticket.getTicketID());
+                case "STATUS":
+                    record(applyStatus(ticket, TicketStatus.valueOf(operation.getNewStatus())));
+                    return new BatchResult(index, 200, ticket.getTicketID());
+                case "ASSIGN":
+                    record(applyAssign(ticket, operation.getUserID()));
+                    return new BatchResult(index, 200, ticket.getTicketID());
+                case "COMMENT":
+                    record(applyComment(ticket, operation.getText()));
+                    return new BatchResult(index, 201, ticket.getTicketID());
+                default: // DELETE
+                    record(applyDelete(ticket));
+                    return new BatchResult(index, 204, ticket.getTicketID());
+            }
+        }
+
+        private void record(CompletableFuture<Long> durable) {
+            if (durable != null) {
+                lastDurable = durable; // une seule écriture à la fois : la dernière couvre les précédentes
+            }
+        }
+    }
+
     public String exportTicketToPDF(int ticketId) {
         Ticket ticket = findTicketById(ticketId);
         if (ticket == null) {
@@ -0,0 +1,315 @@
+package api.server.services;
+
+import api.server.persistence.MutationType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ChangeFeed - Historique borné des mutations de tickets
+ *
+ * Chaque mutation (création, modification, suppression) reçoit une révision
+ * croissante. Les dernières "capacity" mutations sont conservées dans un tampon
+ * circulaire; au-delà, un client trop en retard doit se resynchroniser.
+ *
+ * Les révisions partent d'une valeur dérivée de l'heure de démarrage : une révision
+ * obtenue avant un redémarrage est antérieure à l'historique et force une resynchronisation.
+ *
+ * Sans verrou : un écrivain réserve sa révision (compteur atomique), range la mutation
+ * dans l'anneau puis avance la révision publiée tant que les cases suivantes sont remplies
+ * (un écrivain termine la publication d'un autre plus lent). Les lecteurs ne voient que
+ * les révisions publiées : toutes celles qui les précèdent sont dans l'anneau.
+ *
+ * Des abonnés (flux SSE) reçoivent chaque mutation dans l'ordre des révisions, depuis
+ * un thread de diffusion : un abonné lent ne ralentit pas les écritures.
+ */
+public class ChangeFeed {
+
+    private final AtomicReferenceArray<TicketChange> ring;
+    private final long startRevision;
+    private final AtomicLong claimed;       // dernière révision attribuée
+    private final AtomicLong published;     // toutes les révisions <= published sont dans l'anneau
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private Thread dispatcher;              // démarré au premier abonnement (verrou this)
+    private volatile boolean dispatcherIdle;
+    private long delivered;                 // dernière révision diffusée (thread de diffusion)
+
+    /**
+     * Une mutation de ticket
+     */
+    public static final class TicketChange {
+        private final long revision;
+        private final int ticketId;
+        private final MutationType type;
+        private final Integer createdBy;     // visibilité (utilisateurs sans accès complet)
+
+        TicketChange(long revision, int ticketId, MutationType type, Integer createdBy) {
+            this.revision = revision;
+            this.ticketId = ticketId;
+            this.type = type;
+            this.createdBy = createdBy;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        public int getTicketId() {
+            return ticketId;
+        }
+
+        public MutationType getType() {
+            return type;
+        }
+
+        public Integer getCreatedBy() {
+            return createdBy;
+        }
+
+        public boolean isDeleted() {
+            return type == MutationType.DELETE;
+        }
+    }
+
+    /**
+     * Abonné aux mutations (ex: un flux SSE)
+     */
+    public interface Subscriber {
+        /**
+         * Appelée par le thread de diffusion, dans l'ordre des révisions : ne doit pas bloquer.
+         * Une mutation antérieure à l'abonnement peut encore être reçue (à ignorer d'après sa révision).
+         * @return false si le tampon de l'abonné est plein (il est alors retiré puis fermé)
+         */
+        boolean offer(TicketChange change);
+
+        /**
+         * L'abonné a été retiré (tampon plein, diffusion dépassée par l'historique, ou arrêt du serveur)
+         */
+        void close();
+    }
+
+    /**
+     * Changements depuis une révision, fusionnés par ticket (la dernière mutation l'emporte)
+     */
+    public static final class Delta {
+        private final long revision;
+        private final Map<Integer, TicketChange> changes;
+
+        private Delta(long revision, Map<Integer, TicketChange> changes) {
+            this.revision = revision;
+            this.changes = changes;
+        }
+
+        public long getRevision() {
+            return revision;
+        }
+
+        /**
+         * @return ticketId -> dernière mutation, dans l'ordre des révisions
+         */
+        public Map<Integer, TicketChange> getChanges() {
+            return changes;
+        }
+    }
+
+    public ChangeFeed(int capacity, long startRevision) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacité invalide : " + capacity);
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.startRevision = startRevision;
+        this.claimed = new AtomicLong(startRevision);
+        this.published = new AtomicLong(startRevision);
+    }
+
+    /**
+     * Enregistre une mutation.
+     * Appelée pendant que le ticket est verrouillé, juste après la mutation.
+     * @return La révision attribuée
+     */
+    public long record(int ticketId, MutationType type, Integer createdBy) {
+        long revision = claimed.incrementAndGet();
+        if (revision - ring.length() > published.get()) {
+            awaitSlot(revision);
+        }
+        ring.set(slot(revision), new TicketChange(revision, ticketId, type, createdBy));
+        publish();
+
+        if (dispatcherIdle && !subscribers.isEmpty()) {
+            LockSupport.unpark(dispatcher);
+        }
+        return revision;
+    }
+
+    /**
+     * La case ne doit pas être reprise tant que la révision qu'elle contient n'est pas publiée
+     * (plus de "capacity" écritures simultanées seulement). L'écrivain attendu peut avoir perdu
+     * le processeur : l'attente cède la main au lieu de tourner à vide.
+     */
+    private void awaitSlot(long revision) {
+        for (int attempt = 0; revision - ring.length() > published.get(); attempt++) {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 1000) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    /**
+     * Avance la révision publiée sur les mutations rangées sans trou
+     */
+    private void publish() {
+        long current = published.get();
+        while (true) {
+            TicketChange next = ring.get(slot(current + 1));
+            if (next == null || next.revision != current + 1) {
+                return; // pas encore rangée : son écrivain poursuivra la publication
+            }
+            if (published.compareAndSet(current, current + 1)) {
+                current++;
+            } else {
+                current = published.get();
+            }
+        }
+    }
+
+    /**
+     * @return La dernière révision publiée
+     */
+    public long getRevision() {
+        return published.get();
+    }
+
+    /**
+     * Changements postérieurs à "since"
+     * @return Le delta, ou null si "since" est hors de l'historique (resynchronisation requise)
+     */
+    public Delta since(long since) {
+        while (true) {
+            long revision = published.get();
+            long oldestRetained = Math.max(startRevision + 1, revision - ring.length() + 1);
+            if (since > revision || since < oldestRetained - 1) {
+                return null;
+            }
+
+            Map<Integer, TicketChange> changes = new LinkedHashMap<>();
+            boolean overwritten = false;
+            for (long r = since + 1; r <= revision; r++) {
+                TicketChange change = ring.get(slot(r));
+                if (change.revision != r) {
+                    overwritten = true;     // case reprise pendant la lecture : recommencer
+                    break;
+                }
+                changes.remove(change.ticketId);    // réinsérer : ordre de la dernière mutation
+                changes.put(change.ticketId, change);
+            }
+            if (!overwritten) {
+                return new Delta(revision, changes);
+            }
+        }
+    }
+
+    // ========================================================================
+    // Abonnés
+    // ========================================================================
+
+    /**
+     * Abonne à partir de maintenant
+     * @return La révision courante (l'abonné reçoit les révisions suivantes)
+     */
+    public long subscribe(Subscriber subscriber) {
+        startDispatcher();
+        subscribers.add(subscriber);
+        return published.get();
+    }
+
+    /**
+     * Abonne et retourne les changements manqués depuis "since"
+     * (reprise d'un flux interrompu : l'abonné reçoit ensuite les révisions suivant le delta)
+     * @return Le delta manqué, ou null si "since" est hors de l'historique (l'abonné est tout de même inscrit)
+     */
+    public Delta subscribe(Subscriber subscriber, long since) {
+        startDispatcher();
+        subscribers.add(subscriber);
+        return since(since);
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Retire et ferme tous les abonnés (arrêt du serveur)
+     */
+    public void closeSubscribers() {
+        for (Subscriber subscriber : subscribers) {
+            subscribers.remove(subscriber);
+            subscriber.close();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // ========================================================================
+    // Diffusion
+    // ========================================================================
+
+    /**
+     * Démarre le thread de diffusion avant l'inscription du premier abonné : il part de la
+     * révision publiée, qui ne dépasse pas celle retournée à l'abonné
+     */
+    private synchronized void startDispatcher() {
+        if (dispatcher != null) {
+            return;
+        }
+        delivered = published.get();
+        dispatcher = new Thread(this::dispatch, "change-feed");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    private void dispatch() {
+        while (true) {
+            long revision = published.get();
+            if (revision == delivered) {
+                dispatcherIdle = true;
+                if (published.get() == delivered) {
+                    LockSupport.park(this);
+                }
+                dispatcherIdle = false;
+                continue;
+            }
+
+            for (long r = delivered + 1; r <= revision; r++) {
+                TicketChange change = ring.get(slot(r));
+                if (change.revision != r) {
+                    // Diffusion dépassée par l'historique : les abonnés reprendront avec Last-Event-ID
+                    closeSubscribers();
+                    break;
+                }
+                for (Subscriber subscriber : subscribers) {
+                    if (!subscriber.offer(change)) {
+                        subscribers.remove(subscriber);
+                        subscriber.close();
+                    }
+                }
+            }
+            delivered = revision;
+        }
+    }
+
+    private int slot(long r) {
+        return (int) Math.floorMod(r, (long) ring.length());
+    }
+}
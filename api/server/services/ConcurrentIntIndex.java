@@ -0,0 +1,276 @@
+package api.server.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ConcurrentIntIndex - Index de clé primaire int -> valeur, thread-safe
+ *
+ * Table de hachage "compacte" spécialisée pour les clés int (aucun boxing Integer) :
+ * - un tableau de slots (adressage ouvert, sondage linéaire) contient la position
+ *   de l'entrée dans un tableau dense
+ * - le tableau dense conserve l'ordre d'insertion (itération dans l'ordre de création)
+ *
+ * Les lectures (get, itération) sont sans verrou : elles travaillent sur la table
+ * publiée via un champ volatile. Les écritures (put, remove) sont sérialisées entre elles
+ * et ne bloquent jamais les lecteurs.
+ *
+ * @param <V> Type des valeurs indexées
+ */
+public class ConcurrentIntIndex<V> implements Iterable<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Entrée immuable (clé primitive + valeur)
+     */
+    private static final class Entry<V> {
+        final int key;
+        final V value;
+
+        Entry(int key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Table publiée : slots de hachage + entrées denses dans l'ordre d'insertion
+     */
+    private static final class Table<V> {
+        final AtomicIntegerArray slots;               // 0 = vide, sinon position + 1
+        final AtomicReferenceArray<Entry<V>> entries; // null = entrée supprimée
+        final int mask;
+        volatile int used;                            // positions occupées (incluant supprimées)
+
+        Table(int capacity) {
+            this.entries = new AtomicReferenceArray<>(capacity);
+            this.slots = new AtomicIntegerArray(capacity * 2);
+            this.mask = capacity * 2 - 1;
+        }
+    }
+
+    private volatile Table<V> table;
+    private volatile int size;
+
+    public ConcurrentIntIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    public ConcurrentIntIndex(int expectedSize) {
+        this.table = new Table<>(capacityFor(expectedSize));
+    }
+
+    // ========================================================================
+    // Lectures (sans verrou)
+    // ========================================================================
+
+    /**
+     * Retourne la valeur associée à la clé, ou null si absente
+     */
+    public V get(int key) {
+        Table<V> t = table;
+        int i = hash(key) & t.mask;
+        while (true) {
+            int slot = t.slots.get(i);
+            if (slot == 0) {
+                return null;
+            }
+            Entry<V> e = t.entries.get(slot - 1);
+            if (e != null && e.key == key) {
+                return e.value;
+            }
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copie des valeurs dans l'ordre d'insertion
+     */
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (V value : this) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    /**
+     * Itère sur les valeurs dans l'ordre d'insertion.
+     * L'itérateur est faiblement cohérent : il ne lève jamais
+     * ConcurrentModificationException et peut refléter ou non les écritures concurrentes.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        final Table<V> t = table;
+        final int limit = t.used;
+
+        return new Iterator<V>() {
+            private int position = 0;
+            private V next = advance();
+
+            private V advance() {
+                while (position < limit) {
+                    Entry<V> e = t.entries.get(position++);
+                    if (e != null) {
+                        return e.value;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public V next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                V current = next;
+                next = advance();
+                return current;
+            }
+        };
+    }
+
+    // ========================================================================
+    // Écritures (sérialisées)
+    // ========================================================================
+
+    /**
+     * Associe la valeur à la clé. Une clé existante conserve sa position d'insertion.
+     * @return L'ancienne valeur, ou null si la clé était absente
+     */
+    public synchronized V put(int key, V value) {
+        return insert(key, value, false);
+    }
+
+    /**
+     * Associe la valeur à la clé seulement si la clé est absente
+     * @return La valeur existante, ou null si l'insertion a eu lieu
+     */
+    public synchronized V putIfAbsent(int key, V value) {
+        return insert(key, value, true);
+    }
+
+    /**
+     * Retire la clé de l'index
+     * @return La valeur retirée, ou null si la clé était absente
+     */
+    public synchronized V remove(int key) {
+        Table<V> t = table;
+        int i = hash(key) & t.mask;
+        while (true) {
+            int slot = t.slots.get(i);
+            if (slot == 0) {
+                return null;
+            }
+            Entry<V> e = t.entries.get(slot - 1);
+            if (e != null && e.key == key) {
+                // Le slot reste en place (pierre tombale) jusqu'au prochain redimensionnement
+                t.entries.set(slot - 1, null);
+                size = size - 1;
+                return e.value;
+            }
+            i = (i + 1) & t.mask;
+        }
+    }
+
+    private V insert(int key, V value, boolean onlyIfAbsent) {
+        if (value == null) {
+            throw new IllegalArgumentException("La valeur ne peut pas être null");
+        }
+
+        Table<V> t = table;
+        int i = hash(key) & t.mask;
+        while (true) {
+            int slot = t.slots.get(i);
+            if (slot == 0) {
+                break;
+            }
+            Entry<V> e = t.entries.get(slot - 1);
+            if (e != null && e.key == key) {
+                if (!onlyIfAbsent) {
+                    t.entries.set(slot - 1, new Entry<>(key, value));
+                }
+                return e.value;
+            }
+            i = (i + 1) & t.mask;
+        }
+
+        if (t.used == t.entries.length()) {
+            t = resize(t);
+            i = hash(key) & t.mask;
+            while (t.slots.get(i) != 0) {
+                i = (i + 1) & t.mask;
+            }
+        }
+
+        // L'entrée est publiée avant le slot : un lecteur qui voit le slot voit l'entrée
+        int position = t.used;
+        t.entries.set(position, new Entry<>(key, value));
+        t.slots.set(i, position + 1);
+        t.used = position + 1;
+        size = size + 1;
+        return null;
+    }
+
+    /**
+     * Reconstruit une table compacte (sans entrées supprimées) en conservant l'ordre
+     */
+    private Table<V> resize(Table<V> old) {
+        Table<V> fresh = new Table<>(capacityFor(size + 1));
+        int position = 0;
+        for (int p = 0; p < old.used; p++) {
+            Entry<V> e = old.entries.get(p);
+            if (e == null) {
+                continue;
+            }
+            int i = hash(e.key) & fresh.mask;
+            while (fresh.slots.get(i) != 0) {
+                i = (i + 1) & fresh.mask;
+            }
+            fresh.entries.set(position, e);
+            fresh.slots.set(i, position + 1);
+            position++;
+        }
+        fresh.used = position;
+        table = fresh;
+        return fresh;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2 && capacity < (1 << 29)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Hachage de Fibonacci : disperse les IDs séquentiels sur toute la table
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,131 @@
+package api.server.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * ConcurrentIntIndexBenchmark - Micro-benchmark de l'index de clé primaire
+ *
+ * Lancement :
+ *   java -cp <classes> api.server.services.ConcurrentIntIndexBenchmark [tailles...]
+ *
+ * Compare ConcurrentIntIndex au stockage précédent d'ApplicationState (liste synchronisée,
+ * recherche par parcours sous le moniteur de la liste) pour put, get et l'itération,
+ * à plusieurs tailles de magasin (défaut : 1000 10000 100000 1000000).
+ * Chaque mesure est précédée d'un passage de chauffe; le temps par get de l'index doit
+ * rester à peu près constant quand la taille augmente, celui de la liste croît avec elle.
+ */
+public final class ConcurrentIntIndexBenchmark {
+
+    private static final int FIRST_ID = 1001;
+    private static final int INDEX_LOOKUPS = 2_000_000;
+    private static final long LIST_SCANNED_ELEMENTS = 200_000_000L; // budget de la recherche linéaire
+
+    private static long sink; // résultats consommés : le JIT ne peut pas supprimer les boucles
+
+    private ConcurrentIntIndexBenchmark() {
+    }
+
+    /**
+     * Valeur indexée (comme Ticket : l'ID est lu par un accesseur)
+     */
+    private static final class Item {
+        private final int id;
+
+        Item(int id) {
+            this.id = id;
+        }
+
+        int getId() {
+            return id;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1_000, 10_000, 100_000, 1_000_000};
+
+        System.out.printf("%10s | %12s %12s | %12s %12s | %12s %12s%n", "taille",
+                "put index", "add liste", "get index", "get liste", "iter index", "iter liste");
+        System.out.printf("%10s | %25s | %25s | %25s%n", "",
+                "ns / insertion", "ns / recherche", "ns / élément");
+        for (int size : sizes) {
+            measure(size);  // chauffe
+            double[] r = measure(size);
+            System.out.printf("%10d | %12.1f %12.1f | %12.1f %12.1f | %12.2f %12.2f%n",
+                    size, r[0], r[1], r[2], r[3], r[4], r[5]);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * @return ns par put (index), add (liste), get (index), get (liste), élément itéré (index, liste)
+     */
+    private static double[] measure(int size) {
+        double[] result = new double[6];
+
+        long start = System.nanoTime();
+        ConcurrentIntIndex<Item> index = new ConcurrentIntIndex<>();
+        for (int i = 0; i < size; i++) {
+            index.put(FIRST_ID + i, new Item(FIRST_ID + i));
+        }
+        result[0] = (System.nanoTime() - start) / (double) size;
+
+        start = System.nanoTime();
+        List<Item> list = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < size; i++) {
+            list.add(new Item(FIRST_ID + i));
+        }
+        result[1] = (System.nanoTime() - start) / (double) size;
+
+        SplittableRandom random = new SplittableRandom(size);
+        start = System.nanoTime();
+        for (int i = 0; i < INDEX_LOOKUPS; i++) {
+            sink += index.get(FIRST_ID + random.nextInt(size)).getId();
+        }
+        result[2] = (System.nanoTime() - start) / (double) INDEX_LOOKUPS;
+
+        // Un parcours coûte size / 2 en moyenne : nombre de recherches borné par un budget
+        int listLookups = (int) Math.max(100, Math.min(INDEX_LOOKUPS, LIST_SCANNED_ELEMENTS * 2 / size));
+        start = System.nanoTime();
+        for (int i = 0; i < listLookups; i++) {
+            sink += scan(list, FIRST_ID + random.nextInt(size)).getId();
+        }
+        result[3] = (System.nanoTime() - start) / (double) listLookups;
+
+        start = System.nanoTime();
+        for (Item item : index) {
+            sink += item.getId();
+        }
+        result[4] = (System.nanoTime() - start) / (double) size;
+
+        start = System.nanoTime();
+        synchronized (list) {
+            for (Item item : list) {
+                sink += item.getId();
+            }
+        }
+        result[5] = (System.nanoTime() - start) / (double) size;
+        return result;
+    }
+
+    /**
+     * Recherche de l'ancien ApplicationState.findTicketById
+     */
+    private static Item scan(List<Item> list, int id) {
+        synchronized (list) {
+            for (Item item : list) {
+                if (item.getId() == id) {
+                    return item;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package api.server.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RevocationList - Tokens signés révoqués (déconnexion) avant leur expiration
+ *
+ * Un token n'y reste que jusqu'à sa propre expiration : la liste ne contient que les
+ * déconnexions des dernières tokenTtlSeconds. Les entrées expirées sont purgées au
+ * plus une fois par minute, lors d'une nouvelle révocation.
+ */
+public class RevocationList {
+
+    private static final long PURGE_INTERVAL_SECONDS = 60;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>(); // id -> expiration (s)
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public void revoke(String tokenId, long expiresAt) {
+        long now = System.currentTimeMillis() / 1000;
+        if (expiresAt > now) {
+            revoked.put(tokenId, expiresAt);
+        }
+
+        long purgeAt = nextPurge.get();
+        if (now >= purgeAt && nextPurge.compareAndSet(purgeAt, now + PURGE_INTERVAL_SECONDS)) {
+            revoked.values().removeIf(expiration -> expiration <= now);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    /**
+     * @return id -> expiration des révocations en cours (snapshot)
+     */
+    public Map<String, Long> entries() {
+        return new HashMap<>(revoked);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
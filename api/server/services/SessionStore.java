@@ -0,0 +1,357 @@
+package api.server.services;
+
+import core.entities.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SessionStore - Sessions avec expiration (inactivité et durée maximale) et plafond
+ *
+ * Validation d'un token : une recherche dans un ConcurrentHashMap et une comparaison
+ * d'échéance, sans verrou. La date de dernier accès n'est réécrite qu'une fois par seconde
+ * au plus (pas d'écriture partagée à chaque requête).
+ *
+ * Expiration : une roue temporelle (une case par seconde) range chaque session selon son
+ * échéance. Le balayage (thread "session-sweeper") ne visite que les cases échues; une
+ * session utilisée entre-temps est simplement replacée à sa nouvelle échéance.
+ * Une session expirée est refusée dès la première requête, même avant son balayage.
+ *
+ * Plafond : au-delà de maxSessions, les sessions dont l'échéance est la plus proche
+ * (les moins récemment utilisées) sont évincées à l'ouverture d'une nouvelle session.
+ */
+public class SessionStore {
+
+    /**
+     * Notifiée quand une session disparaît sans déconnexion (expiration ou éviction)
+     */
+    public interface ExpiryListener {
+        void expired(String token);
+    }
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SLOTS = 4096; // un peu plus d'une heure
+
+    private static final class Session {
+        final String token;
+        final User user;
+        final long createdAt;
+        volatile long lastAccess;
+
+        Session(String token, User user, long now) {
+            this.token = token;
+            this.user = user;
+            this.createdAt = now;
+            this.lastAccess = now;
+        }
+    }
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;   // 0 = pas d'expiration par inactivité
+    private final long maxLifetimeMillis;   // 0 = pas de durée maximale
+    private final int maxSessions;
+    private final ExpiryListener listener;
+
+    private final ConcurrentLinkedQueue<Session>[] wheel;
+    private volatile long cursorTick;       // dernière case balayée, avancée sous le verrou de la roue
+    private ScheduledExecutorService sweeper;
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong loggedOut = new AtomicLong();
+    private final AtomicLong expiredIdle = new AtomicLong();
+    private final AtomicLong expiredLifetime = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SessionStore(long idleTimeoutSeconds, long maxLifetimeSeconds, int maxSessions, ExpiryListener listener) {
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        this.maxLifetimeMillis = TimeUnit.SECONDS.toMillis(maxLifetimeSeconds);
+        this.maxSessions = maxSessions;
+        this.listener = listener != null ? listener : token -> { };
+        this.wheel = new ConcurrentLinkedQueue[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.cursorTick = System.currentTimeMillis() / TICK_MILLIS;
+    }
+
+    // ========================================================================
+    // Cycle de vie
+    // ========================================================================
+
+    /**
+     * Démarre le balayage périodique des sessions expirées
+     */
+    public synchronized void start() {
+        if (sweeper != null || !expires()) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    // ========================================================================
+    // Sessions
+    // ========================================================================
+
+    /**
+     * Ouvre une session (évince les plus anciennes si le plafond est atteint)
+     */
+    public void open(String token, User user) {
+        add(token, user);
+        opened.incrementAndGet();
+        if (sessions.size() > maxSessions) {
+            evict(sessions.size() - maxSessions);
+        }
+    }
+
+    /**
+     * Session restaurée au démarrage : ses délais repartent de maintenant
+     */
+    public void restore(String token, User user) {
+        add(token, user);
+    }
+
+    /**
+     * @return L'utilisateur de la session, ou null si elle est inconnue ou expirée
+     */
+    public User get(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (expiredAt(session, now) != null) {
+            expire(session, now);
+            return null;
+        }
+        if (now - session.lastAccess >= TICK_MILLIS) {
+            session.lastAccess = now;
+        }
+        return session.user;
+    }
+
+    /**
+     * Déconnexion
+     * @return true si la session existait
+     */
+    public boolean remove(String token) {
+        if (sessions.remove(token) != null) {
+            loggedOut.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retrait sans compteur ni notification (rejeu du journal)
+     */
+    public void discard(String token) {
+        sessions.remove(token);
+    }
+
+    /**
+     * @return token -> userID des sessions actives (snapshot)
+     */
+    public Map<String, Integer> userIds() {
+        Map<String, Integer> userIds = new HashMap<>();
+        for (Session session : sessions.values()) {
+            userIds.put(session.token, session.user.getUserID());
+        }
+        return userIds;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void add(String token, User user) {
+        Session session = new Session(token, user, System.currentTimeMillis());
+        sessions.put(token, session);
+        schedule(session);
+    }
+
+    // ========================================================================
+    // Expiration
+    // ========================================================================
+
+    private boolean expires() {
+        return idleTimeoutMillis > 0 || maxLifetimeMillis > 0;
+    }
+
+    private long deadline(Session session) {
+        long deadline = Long.MAX_VALUE;
+        if (idleTimeoutMillis > 0) {
+            deadline = session.lastAccess + idleTimeoutMillis;
+        }
+        if (maxLifetimeMillis > 0) {
+            deadline = Math.min(deadline, session.createdAt + maxLifetimeMillis);
+        }
+        return deadline;
+    }
+
+    /**
+     * @return Le compteur de la cause d'expiration, ou null si la session est valide
+     */
+    private AtomicLong expiredAt(Session session, long now) {
+        if (maxLifetimeMillis > 0 && now >= session.createdAt + maxLifetimeMillis) {
+            return expiredLifetime;
+        }
+        if (idleTimeoutMillis > 0 && now >= session.lastAccess + idleTimeoutMillis) {
+            return expiredIdle;
+        }
+        return null;
+    }
+
+    private void expire(Session session, long now) {
+        AtomicLong cause = expiredAt(session, now);
+        if (cause != null && sessions.remove(session.token, session)) {
+            cause.incrementAndGet();
+            listener.expired(session.token);
+        }
+    }
+
+    /**
+     * Range la session dans la case de son échéance. Une échéance au-delà de la roue
+     * est bornée à la dernière case : la session y sera replacée au passage.
+     */
+    private void schedule(Session session) {
+        if (!expires()) {
+            return;
+        }
+        long cursor = cursorTick;
+        long tick = Math.max(deadline(session) / TICK_MILLIS, cursor + 1);
+        tick = Math.min(tick, cursor + WHEEL_SLOTS - 1);
+        wheel[(int) (tick % WHEEL_SLOTS)].add(session);
+    }
+
+    /**
+     * Balaye les cases échues depuis le dernier passage
+     */
+    synchronized void sweep() {
+        long now = System.currentTimeMillis();
+        long nowTick = now / TICK_MILLIS;
+        // Après une longue pause, un tour de roue suffit à visiter toutes les cases
+        long from = Math.max(cursorTick + 1, nowTick - WHEEL_SLOTS + 1);
+        for (long tick = from; tick <= nowTick; tick++) {
+            cursorTick = tick;
+            List<Session> due = drain(wheel[(int) (tick % WHEEL_SLOTS)]);
+            for (Session session : due) {
+                if (sessions.get(session.token) != session) {
+                    continue; // déjà retirée (déconnexion, expiration à la lecture)
+                }
+                if (expiredAt(session, now) != null) {
+                    expire(session, now);
+                } else {
+                    schedule(session);
+                }
+            }
+        }
+        cursorTick = Math.max(cursorTick, nowTick);
+    }
+
+    /**
+     * Évince les sessions dont l'échéance est la plus proche, en parcourant la roue
+     * à partir du curseur. Une session utilisée depuis son rangement est replacée plus loin
+     * (chaque session n'avance qu'une fois par utilisation : coût amorti constant).
+     */
+    private synchronized void evict(int count) {
+        long cursor = cursorTick;
+        for (int offset = 1; offset < WHEEL_SLOTS && count > 0; offset++) {
+            ConcurrentLinkedQueue<Session> slot = wheel[(int) ((cursor + offset) % WHEEL_SLOTS)];
+            // Dernière case : échéances bornées, évincées dans l'ordre de rangement
+            boolean lastSlot = offset == WHEEL_SLOTS - 1;
+            Session session;
+            while (count > 0 && (session = slot.poll()) != null) {
+                if (sessions.get(session.token) != session) {
+                    continue;
+                }
+                if (lastSlot || deadline(session) / TICK_MILLIS <= cursor + offset) {
+                    if (sessions.remove(session.token, session)) {
+                        evicted.incrementAndGet();
+                        listener.expired(session.token);
+                        count--;
+                    }
+                } else {
+                    schedule(session);
+                }
+            }
+        }
+
+        // Sans expiration, les sessions ne sont pas dans la roue : ordre quelconque
+        Iterator<Session> remaining = sessions.values().iterator();
+        while (count > 0 && remaining.hasNext()) {
+            Session session = remaining.next();
+            if (sessions.remove(session.token, session)) {
+                evicted.incrementAndGet();
+                listener.expired(session.token);
+                count--;
+            }
+        }
+    }
+
+    private static List<Session> drain(ConcurrentLinkedQueue<Session> slot) {
+        List<Session> sessions = new ArrayList<>();
+        Session session;
+        while ((session = slot.poll()) != null) {
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    // ========================================================================
+    // Métriques
+    // ========================================================================
+
+    public long getIdleTimeoutSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(idleTimeoutMillis);
+    }
+
+    public long getMaxLifetimeSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(maxLifetimeMillis);
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public long getOpened() {
+        return opened.get();
+    }
+
+    public long getLoggedOut() {
+        return loggedOut.get();
+    }
+
+    public long getExpiredIdle() {
+        return expiredIdle.get();
+    }
+
+    public long getExpiredLifetime() {
+        return expiredLifetime.get();
+    }
+
+    public long getEvicted() {
+        return evicted.get();
+    }
+}
@@ -0,0 +1,167 @@
+package api.server.services;
+
+import core.entities.Ticket;
+import core.entities.TicketChangeListener;
+import core.entities.TicketStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TicketIndex - Index secondaires des tickets
+ *
+ * Maintient des ensembles d'IDs par statut (EnumMap), par priorité,
+ * par utilisateur assigné et par créateur. Les index sont tenus à jour
+ * par les notifications de Ticket (TicketChangeListener), émises pendant
+ * que le ticket est verrouillé.
+ *
+ * Lors d'un changement, l'ID est ajouté au nouvel ensemble avant d'être retiré
+ * de l'ancien : un lecteur concurrent peut voir un ID dans deux ensembles à la fois
+ * mais jamais le manquer. Les index fournissent donc des candidats, que la recherche
+ * revérifie avec TicketQuery.matches().
+ */
+public class TicketIndex implements TicketChangeListener {
+
+    private final Map<TicketStatus, Set<Integer>> byStatus = new EnumMap<>(TicketStatus.class);
+    private final Map<String, Set<Integer>> byPriority = new ConcurrentHashMap<>();   // clé : priorityKey()
+    private final Map<Integer, Set<Integer>> byAssignee = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> byCreator = new ConcurrentHashMap<>();
+
+    public TicketIndex() {
+        // Toutes les clés de l'EnumMap sont créées d'avance : la map n'est plus modifiée ensuite
+        for (TicketStatus status : TicketStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    // ========================================================================
+    // Mise à jour
+    // ========================================================================
+
+    /**
+     * Indexe un nouveau ticket et s'abonne à ses changements
+     */
+    public void add(Ticket ticket) {
+        synchronized (ticket) {
+            Integer id = ticket.getTicketID();
+            byStatus.get(ticket.getStatus()).add(id);
+            addTo(byPriority, priorityKey(ticket.getPriority()), id);
+            addTo(byAssignee, ticket.getAssignedToUserID(), id);
+            addTo(byCreator, ticket.getCreatedByUserID(), id);
+            ticket.setChangeListener(this);
+        }
+    }
+
+    /**
+     * Retire un ticket de tous les index et se désabonne
+     */
+    public void remove(Ticket ticket) {
+        synchronized (ticket) {
+            ticket.setChangeListener(null);
+            Integer id = ticket.getTicketID();
+            byStatus.get(ticket.getStatus()).remove(id);
+            removeFrom(byPriority, priorityKey(ticket.getPriority()), id);
+            removeFrom(byAssignee, ticket.getAssignedToUserID(), id);
+            removeFrom(byCreator, ticket.getCreatedByUserID(), id);
+        }
+    }
+
+    @Override
+    public void onStatusChanged(Ticket ticket, TicketStatus oldStatus, TicketStatus newStatus) {
+        Integer id = ticket.getTicketID();
+        byStatus.get(newStatus).add(id);
+        if (oldStatus != null) {
+            byStatus.get(oldStatus).remove(id);
+        }
+    }
+
+    @Override
+    public void onPriorityChanged(Ticket ticket, String oldPriority, String newPriority) {
+        Integer id = ticket.getTicketID();
+        String newKey = priorityKey(newPriority);
+        String oldKey = priorityKey(oldPriority);
+        if (newKey != null && newKey.equals(oldKey)) {
+            return; // changement de casse seulement : même ensemble
+        }
+        addTo(byPriority, newKey, id);
+        removeFrom(byPriority, oldKey, id);
+    }
+
+    @Override
+    public void onAssigneeChanged(Ticket ticket, Integer oldUserID, Integer newUserID) {
+        Integer id = ticket.getTicketID();
+        addTo(byAssignee, newUserID, id);
+        removeFrom(byAssignee, oldUserID, id);
+    }
+
+    // ========================================================================
+    // Recherche
+    // ========================================================================
+
+    /**
+     * Retourne le plus petit ensemble de candidats correspondant aux filtres indexés,
+     * ou null si aucun filtre indexé n'est présent (parcours complet nécessaire)
+     */
+    public Set<Integer> candidates(TicketQuery query) {
+        Set<Integer> best = null;
+
+        if (query.getStatus() != null) {
+            best = smallest(best, byStatus.get(query.getStatus()));
+        }
+        if (query.getPriority() != null) {
+            best = smallest(best, byPriority.getOrDefault(priorityKey(query.getPriority()), Collections.emptySet()));
+        }
+        if (query.getAssignedTo() != null) {
+            best = smallest(best, byAssignee.getOrDefault(query.getAssignedTo(), Collections.emptySet()));
+        }
+        if (query.getCreatedBy() != null) {
+            best = smallest(best, byCreator.getOrDefault(query.getCreatedBy(), Collections.emptySet()));
+        }
+        if (query.getVisibleOnlyTo() != null) {
+            best = smallest(best, byCreator.getOrDefault(query.getVisibleOnlyTo(), Collections.emptySet()));
+        }
+
+        return best;
+    }
+
+    /**
+     * Clé de l'index des priorités : le filtre est insensible à la casse (TicketQuery.matches),
+     * donc "Haute", "haute" et "HAUTE" partagent un ensemble. Repli caractère par caractère
+     * identique à String.equalsIgnoreCase : deux priorités égales à la casse près ont la même clé.
+     */
+    static String priorityKey(String priority) {
+        if (priority == null) {
+            return null;
+        }
+        char[] folded = priority.toCharArray();
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(folded[i]));
+        }
+        return new String(folded);
+    }
+
+    private static Set<Integer> smallest(Set<Integer> current, Set<Integer> candidate) {
+        if (current == null || candidate.size() < current.size()) {
+            return candidate;
+        }
+        return current;
+    }
+
+    private static <K> void addTo(Map<K, Set<Integer>> index, K key, Integer id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Integer>> index, K key, Integer id) {
+        if (key != null) {
+            Set<Integer> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package api.server.services;
+
+import api.server.models.TicketDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TicketPage - Résultat paginé d'une recherche de tickets
+ * Contient la page demandée, le nombre total de résultats et le curseur suivant
+ */
+public class TicketPage {
+    private final List<TicketProjection> items;
+    private final int totalCount;
+    private final String nextCursor;
+
+    public TicketPage(List<TicketProjection> items, int totalCount, String nextCursor) {
+        this.items = items;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return Les projections de la page (JSON encodé prêt à concaténer)
+     */
+    public List<TicketProjection> getProjections() {
+        return items;
+    }
+
+    public List<TicketDTO> getItems() {
+        List<TicketDTO> dtos = new ArrayList<>(items.size());
+        for (TicketProjection item : items) {
+            dtos.add(item.getDto());
+        }
+        return dtos;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return Le curseur de la page suivante, ou null si c'est la dernière page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
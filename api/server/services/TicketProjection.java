@@ -0,0 +1,61 @@
+package api.server.services;
+
+import api.server.models.TicketDTO;
+import com.google.gson.Gson;
+import core.entities.TicketSnapshot;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * TicketProjection - Représentation d'un ticket prête à servir (DTO + JSON encodé)
+ *
+ * Construite pour une vue publiée du ticket (TicketSnapshot, republiée à chaque
+ * modification, description comprise) et pour les noms du créateur et de l'assigné
+ * résolus à ce moment : elle reste valide tant que ces trois références sont inchangées.
+ *
+ * Le DTO est partagé entre les requêtes : il ne doit pas être modifié.
+ * Le JSON (compact, même configuration que BaseResource) est encodé au premier besoin.
+ */
+public final class TicketProjection {
+
+    private static final Gson gson = new Gson();
+
+    private final TicketSnapshot snapshot;
+    private final String createdByName;
+    private final String assignedToName;
+    private final TicketDTO dto;
+    private volatile byte[] json;
+
+    TicketProjection(TicketSnapshot snapshot, String createdByName, String assignedToName, TicketDTO dto) {
+        this.snapshot = snapshot;
+        this.createdByName = createdByName;
+        this.assignedToName = assignedToName;
+        this.dto = dto;
+    }
+
+    /**
+     * Vrai si la projection correspond encore à cette vue et à ces noms
+     */
+    boolean isCurrent(TicketSnapshot snapshot, String createdByName, String assignedToName) {
+        return this.snapshot == snapshot
+                && this.createdByName.equals(createdByName)
+                && this.assignedToName.equals(assignedToName);
+    }
+
+    public TicketDTO getDto() {
+        return dto;
+    }
+
+    /**
+     * @return Le DTO encodé en JSON UTF-8 (ne pas modifier le tableau)
+     */
+    public byte[] getJson() {
+        byte[] bytes = json;
+        if (bytes == null) {
+            // Course bénigne : deux encodages concurrents produisent le même contenu
+            bytes = gson.toJson(dto).getBytes(StandardCharsets.UTF_8);
+            json = bytes;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,299 @@
+package api.server.services;
+
+import core.entities.Ticket;
+import core.entities.TicketStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * TicketQuery - Critères de recherche pour GET /tickets
+ *
+ * Regroupe les filtres (statut, priorité, assigné, créateur, titre), le tri
+ * et la pagination (limit + offset ou curseur opaque).
+ * Les filtres sont appliqués sur les entités Ticket, avant toute conversion en DTO.
+ */
+public class TicketQuery {
+
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Champs de tri supportés
+     */
+    public enum SortField {
+        ID("id"),
+        CREATION_DATE("creationDate"),
+        UPDATE_DATE("updateDate"),
+        PRIORITY("priority"),
+        STATUS("status");
+
+        private final String paramName;
+
+        SortField(String paramName) {
+            this.paramName = paramName;
+        }
+
+        public String getParamName() {
+            return paramName;
+        }
+
+        static SortField fromParam(String value) {
+            for (SortField field : values()) {
+                if (field.paramName.equalsIgnoreCase(value)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Tri invalide : " + value +
+                    ". Valeurs acceptées : id, creationDate, updateDate, priority, status");
+        }
+    }
+
+    private TicketStatus status;
+    private String priority;
+    private Integer assignedTo;
+    private Integer createdBy;
+    private String titleContains;  // en minuscules
+    private Integer visibleOnlyTo; // restriction de permissions (hors curseur)
+    private SortField sortField = SortField.ID;
+    private boolean descending = false;
+    private int offset = 0;
+    private Integer limit; // null = pas de pagination
+
+    /**
+     * Construit une requête depuis les paramètres de la query string
+     * @throws IllegalArgumentException si un paramètre est invalide
+     */
+    public static TicketQuery fromQueryParams(Map<String, String> params) {
+        TicketQuery query = new TicketQuery();
+
+        String status = params.get("status");
+        if (status != null && !status.isEmpty()) {
+            query.status = parseStatus(status);
+        }
+
+        String priority = params.get("priority");
+        if (priority != null && !priority.isEmpty()) {
+            query.priority = priority;
+        }
+
+        query.assignedTo = parseInteger(params.get("assignedTo"), "assignedTo");
+        query.createdBy = parseInteger(params.get("createdBy"), "createdBy");
+
+        String title = params.get("title");
+        if (title != null && !title.trim().isEmpty()) {
+            query.titleContains = title.trim().toLowerCase(Locale.ROOT);
+        }
+
+        String sort = params.get("sort");
+        if (sort != null && !sort.isEmpty()) {
+            query.sortField = SortField.fromParam(sort);
+        }
+
+        String order = params.get("order");
+        if (order != null && !order.isEmpty()) {
+            if (!"asc".equalsIgnoreCase(order) && !"desc".equalsIgnoreCase(order)) {
+                throw new IllegalArgumentException("Ordre invalide : " + order + ". Valeurs acceptées : asc, desc");
+            }
+            query.descending = "desc".equalsIgnoreCase(order);
+        }
+
+        Integer limit = parseInteger(params.get("limit"), "limit");
+        if (limit != null) {
+            if (limit < 1 || limit > MAX_LIMIT) {
+                throw new IllegalArgumentException("limit doit être entre 1 et " + MAX_LIMIT);
+            }
+            query.limit = limit;
+        }
+
+        String cursor = params.get("cursor");
+        Integer offset = parseInteger(params.get("offset"), "offset");
+        if (cursor != null && !cursor.isEmpty()) {
+            query.offset = query.decodeCursor(cursor);
+        } else if (offset != null) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("offset ne peut pas être négatif");
+            }
+            query.offset = offset;
+        }
+
+        return query;
+    }
+
+    /**
+     * Vérifie si un ticket satisfait les filtres
+     */
+    public boolean matches(Ticket ticket) {
+        if (status != null && ticket.getStatus() != status) {
+            return false;
+        }
+        if (priority != null && !priority.equalsIgnoreCase(ticket.getPriority())) {
+            return false;
+        }
+        if (assignedTo != null && !assignedTo.equals(ticket.getAssignedToUserID())) {
+            return false;
+        }
+        if (createdBy != null && !createdBy.equals(ticket.getCreatedByUserID())) {
+            return false;
+        }
+        if (visibleOnlyTo != null && !visibleOnlyTo.equals(ticket.getCreatedByUserID())) {
+            return false;
+        }
+        if (titleContains != null
+                && (ticket.getTitle() == null || !ticket.getTitle().toLowerCase(Locale.ROOT).contains(titleContains))) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Clé de tri du ticket selon le champ demandé (l'ID sert ensuite de départage).
+     * La clé est capturée une seule fois par ticket : un tri reste cohérent même
+     * si le ticket est modifié pendant la recherche.
+     */
+    public long sortKey(Ticket ticket) {
+        switch (sortField) {
+            case CREATION_DATE:
+                return ticket.getCreationDate().getTime();
+            case UPDATE_DATE:
+                return ticket.getUpdateDate().getTime();
+            case PRIORITY:
+                return priorityRank(ticket.getPriority());
+            case STATUS:
+                return ticket.getStatus().ordinal();  // Ordre du cycle de vie
+            case ID:
+            default:
+                return ticket.getTicketID();
+        }
+    }
+
+    /**
+     * Rang d'une priorité pour le tri (Basse < Moyenne < Haute < Critique).
+     * Casse ignorée, comme le filtre et l'index des priorités ("haute", "CRITIQUE")
+     */
+    public static int priorityRank(String priority) {
+        if (priority == null) {
+            return -1;
+        }
+        switch (TicketIndex.priorityKey(priority)) {
+            case "basse": return 0;
+            case "moyenne": return 1;
+            case "haute": return 2;
+            case "critique": return 3;
+            default: return -1;
+        }
+    }
+
+    /**
+     * Curseur opaque vers la page suivante, ou null s'il n'y en a pas
+     */
+    public String nextCursor(int total) {
+        if (limit == null) {
+            return null;
+        }
+        long next = (long) offset + limit; // offset d'un curseur ou de la requête : jusqu'à Integer.MAX_VALUE
+        if (next >= total) {
+            return null;
+        }
+        String raw = next + ":" + signature();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur; il n'est valide que pour les mêmes filtres et le même tri
+     */
+    private int decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            int cursorOffset = Integer.parseInt(raw.substring(0, separator));
+            int cursorSignature = Integer.parseInt(raw.substring(separator + 1));
+            if (cursorOffset < 0 || cursorSignature != signature()) {
+                throw new IllegalArgumentException("Curseur invalide pour ces critères de recherche");
+            }
+            return cursorOffset;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Curseur invalide : " + cursor);
+        }
+    }
+
+    private int signature() {
+        // Noms des enums (et non leur hashCode d'identité) : le curseur survit à un redémarrage
+        return Objects.hash(status != null ? status.name() : null, priority, assignedTo, createdBy,
+                titleContains, sortField.name(), descending, limit);
+    }
+
+    private static TicketStatus parseStatus(String value) {
+        for (TicketStatus candidate : TicketStatus.values()) {
+            if (candidate.name().equalsIgnoreCase(value) || candidate.getDisplayName().equalsIgnoreCase(value)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Statut invalide : " + value);
+    }
+
+    private static Integer parseInteger(String value, String name) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Paramètre " + name + " invalide : " + value);
+        }
+    }
+
+    // Getters et Setters
+    public TicketStatus getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public Integer getAssignedTo() {
+        return assignedTo;
+    }
+
+    public Integer getCreatedBy() {
+        return createdBy;
+    }
+
+    /**
+     * Texte recherché dans le titre (en minuscules), ou null
+     */
+    public String getTitleContains() {
+        return titleContains;
+    }
+
+    public Integer getVisibleOnlyTo() {
+        return visibleOnlyTo;
+    }
+
+    /**
+     * Restreint la recherche aux tickets créés par un utilisateur
+     * (utilisateurs sans accès complet : seulement leurs propres tickets)
+     */
+    public void setVisibleOnlyTo(Integer creatorId) {
+        this.visibleOnlyTo = creatorId;
+    }
+
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,303 @@
+package api.server.services;
+
+import api.server.models.CreateTicketRequest;
+import api.server.models.UpdateTicketRequest;
+import api.server.persistence.MutationType;
+import core.entities.Ticket;
+import core.entities.TicketSnapshot;
+import core.entities.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TicketStoreStress - Test de charge concurrent du magasin de tickets
+ *
+ * Lancement (persistance désactivée, aucun fichier écrit) :
+ *   java -cp <classes>:lib/gson-2.10.1.jar api.server.services.TicketStoreStress [écrivains] [opérations par écrivain]
+ *
+ * Des écrivains commentent, modifient et assignent des tickets partagés pendant que des
+ * lecteurs les lisent sans verrou. Vérifie :
+ * - aucune mise à jour perdue : chaque commentaire ajouté est présent et la version de
+ *   chaque ticket compte exactement ses modifications
+ * - une révision du flux de changements par mutation, et un abonné les reçoit toutes, dans l'ordre
+ * - un lecteur ne voit jamais une version reculer, ni deux états sous la même version,
+ *   ni le titre et la priorité de deux modifications
+ * - ChangeFeed seul, avec un anneau minuscule : révisions sans trou ni doublon, historique cohérent
+ *
+ * Code de sortie 1 si une vérification échoue.
+ */
+public final class TicketStoreStress {
+
+    private static final int TICKETS = 64;
+    private static final int READERS = 4;
+    private static final long DELIVERY_TIMEOUT_MS = 10_000;
+
+    private static final AtomicReference<String> failure = new AtomicReference<>();
+
+    private TicketStoreStress() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        if (System.getProperty("tickets.dataDir") == null) {
+            System.setProperty("tickets.dataDir", "");
+        }
+
+        long start = System.nanoTime();
+        checkStore(writers, operations);
+        checkChangeFeed(writers, operations);
+
+        if (failure.get() != null) {
+            System.err.println("[STRESS] ÉCHEC : " + failure.get());
+            System.exit(1);
+        }
+        System.out.printf("[STRESS] OK (%d écrivains x %d opérations, %d ms)%n",
+                writers, operations, (System.nanoTime() - start) / 1_000_000);
+        System.exit(0);
+    }
+
+    // ========================================================================
+    // ApplicationState : écrivains et lecteurs concurrents
+    // ========================================================================
+
+    private static void checkStore(int writers, int operations) throws InterruptedException {
+        ApplicationState state = ApplicationState.getInstance();
+        User creator = state.findUserById(1);
+
+        int[] ids = new int[TICKETS];
+        long[] initialVersions = new long[TICKETS];
+        for (int i = 0; i < TICKETS; i++) {
+            ids[i] = state.createTicket(new CreateTicketRequest("titre-0", "prio-0", null), creator).getTicketID();
+            initialVersions[i] = state.findTicketById(ids[i]).getVersion();
+        }
+
+        // Abonné : doit recevoir chaque révision suivant celle de l'abonnement
+        ConcurrentLinkedQueue<Long> received = new ConcurrentLinkedQueue<>();
+        AtomicBoolean subscriberClosed = new AtomicBoolean();
+        long subscribedAt = state.subscribeToChanges(new ChangeFeed.Subscriber() {
+            @Override
+            public boolean offer(ChangeFeed.TicketChange change) {
+                return received.add(change.getRevision());
+            }
+
+            @Override
+            public void close() {
+                subscriberClosed.set(true);
+            }
+        });
+
+        AtomicIntegerArray mutations = new AtomicIntegerArray(TICKETS);
+        List<Set<String>> comments = new ArrayList<>();
+        for (int i = 0; i < TICKETS; i++) {
+            comments.add(ConcurrentHashMap.newKeySet());
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(start("stress-writer-" + w, ready, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int op = 0; op < operations && failure.get() == null; op++) {
+                    int index = random.nextInt(TICKETS);
+                    int id = ids[index];
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            String text = writer + "-" + op;
+                            check(state.addComment(id, text) != null, "commentaire refusé sur " + id);
+                            comments.get(index).add(text);
+                            break;
+                        case 1:
+                            // Titre et priorité portent le même numéro : un lecteur ne doit jamais les mélanger
+                            String stamp = writer + "." + op;
+                            check(state.updateTicket(id, new UpdateTicketRequest("titre-" + stamp, "prio-" + stamp, null),
+                                    null) != null, "modification refusée sur " + id);
+                            break;
+                        default:
+                            check(state.assignTicket(id, 1 + random.nextInt(2), null) != null,
+                                    "assignation refusée sur " + id);
+                            break;
+                    }
+                    mutations.incrementAndGet(index);
+                }
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            threads.add(start("stress-reader-" + r, ready, () -> {
+                long[] lastVersions = new long[TICKETS];
+                String[] lastTitles = new String[TICKETS];
+                long lastStoreVersion = 0;
+                while (writing.get() && failure.get() == null) {
+                    long storeVersion = state.getStoreVersion();
+                    check(storeVersion >= lastStoreVersion, "version du magasin en recul : "
+                            + lastStoreVersion + " -> " + storeVersion);
+                    lastStoreVersion = storeVersion;
+
+                    for (int i = 0; i < TICKETS; i++) {
+                        TicketSnapshot snapshot = state.findTicketById(ids[i]).getSnapshot();
+                        check(snapshot.getVersion() >= lastVersions[i], "version du ticket " + ids[i]
+                                + " en recul : " + lastVersions[i] + " -> " + snapshot.getVersion());
+                        // Une version désigne un seul état (sinon ETag périmé)
+                        check(snapshot.getVersion() != lastVersions[i] || lastTitles[i] == null
+                                || lastTitles[i].equals(snapshot.getTitle()), "ticket " + ids[i] + " : version "
+                                + snapshot.getVersion() + " vue avec " + lastTitles[i] + " puis " + snapshot.getTitle());
+                        lastVersions[i] = snapshot.getVersion();
+                        lastTitles[i] = snapshot.getTitle();
+                        String title = snapshot.getTitle().substring("titre-".length());
+                        String priority = snapshot.getPriority().substring("prio-".length());
+                        check(title.equals(priority), "ticket " + ids[i] + " incohérent : "
+                                + snapshot.getTitle() + " / " + snapshot.getPriority());
+                    }
+                }
+            }));
+        }
+
+        long before = state.getStoreVersion();
+        ready.countDown();
+        for (int w = 0; w < writers; w++) {
+            threads.get(w).join();
+        }
+        writing.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long total = 0;
+        for (int i = 0; i < TICKETS; i++) {
+            Ticket ticket = state.findTicketById(ids[i]);
+            total += mutations.get(i);
+            check(ticket.getVersion() == initialVersions[i] + mutations.get(i), "ticket " + ids[i]
+                    + " : version " + ticket.getVersion() + ", attendue " + (initialVersions[i] + mutations.get(i)));
+            List<String> stored = ticket.getComments();
+            check(stored.size() == comments.get(i).size() && new HashSet<>(stored).equals(comments.get(i)),
+                    "ticket " + ids[i] + " : " + stored.size() + " commentaires, attendus " + comments.get(i).size());
+        }
+        long after = state.getStoreVersion();
+        check(after - before == total, "révisions attribuées : " + (after - before) + ", mutations : " + total);
+
+        // Diffusion asynchrone : attendre la dernière révision
+        long deadline = System.currentTimeMillis() + DELIVERY_TIMEOUT_MS;
+        while (!subscriberClosed.get() && !received.contains(after) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        check(!subscriberClosed.get(), "abonné fermé pendant la diffusion");
+        long expected = subscribedAt + 1;
+        for (long revision : received) {
+            if (revision <= subscribedAt) {
+                continue; // antérieure à l'abonnement (permis, ignorée par les flux SSE)
+            }
+            if (revision != expected) {
+                check(false, "abonné : révision " + revision + " reçue, attendue " + expected);
+                break;
+            }
+            expected++;
+        }
+        check(expected == after + 1, "abonné : dernière révision reçue " + (expected - 1) + ", attendue " + after);
+
+        System.out.printf("[STRESS] Magasin : %d mutations sur %d tickets, %d révisions diffusées%n",
+                total, TICKETS, after - subscribedAt);
+    }
+
+    // ========================================================================
+    // ChangeFeed seul : anneau plus petit que le nombre d'écritures simultanées
+    // ========================================================================
+
+    private static void checkChangeFeed(int writers, int operations) throws InterruptedException {
+        int capacity = 4;
+        long startRevision = 1_000;
+        ChangeFeed feed = new ChangeFeed(capacity, startRevision);
+        boolean[] seen = new boolean[writers * operations];
+        long[][] returned = new long[writers][operations];
+
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            threads.add(start("feed-writer-" + w, ready, () -> {
+                for (int op = 0; op < operations; op++) {
+                    returned[writer][op] = feed.record(writer, MutationType.UPDATE, null);
+                }
+            }));
+        }
+        Thread reader = start("feed-reader", ready, () -> {
+            long last = startRevision;
+            while (feed.getRevision() < startRevision + (long) writers * operations && failure.get() == null) {
+                long revision = feed.getRevision();
+                check(revision >= last, "révision publiée en recul : " + last + " -> " + revision);
+                last = revision;
+                ChangeFeed.Delta delta = feed.since(revision - 1);
+                if (delta != null) {
+                    check(delta.getRevision() >= revision, "delta antérieur à la révision lue");
+                    for (ChangeFeed.TicketChange change : delta.getChanges().values()) {
+                        check(change.getRevision() > revision - 1 && change.getRevision() <= delta.getRevision(),
+                                "delta : révision " + change.getRevision() + " hors de ]" + (revision - 1)
+                                        + ", " + delta.getRevision() + "]");
+                    }
+                }
+            }
+        });
+        threads.add(reader);
+
+        ready.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int w = 0; w < writers; w++) {
+            long previous = startRevision;
+            for (int op = 0; op < operations; op++) {
+                long revision = returned[w][op];
+                check(revision > previous, "écrivain " + w + " : révisions non croissantes");
+                previous = revision;
+                int index = (int) (revision - startRevision - 1);
+                if (index < 0 || index >= seen.length || seen[index]) {
+                    check(false, "révision en double ou hors plage : " + revision);
+                    return;
+                }
+                seen[index] = true;
+            }
+        }
+        check(feed.getRevision() == startRevision + (long) writers * operations,
+                "révision finale " + feed.getRevision());
+        ChangeFeed.Delta tail = feed.since(feed.getRevision() - capacity);
+        check(tail != null, "historique des " + capacity + " dernières mutations indisponible");
+
+        System.out.printf("[STRESS] ChangeFeed : %d révisions uniques, anneau de %d%n",
+                (long) writers * operations, capacity);
+    }
+
+    // ========================================================================
+    // Outils
+    // ========================================================================
+
+    private static Thread start(String name, CountDownLatch ready, Runnable body) {
+        Thread thread = new Thread(() -> {
+            try {
+                ready.await();
+                body.run();
+            } catch (Throwable e) {
+                check(false, name + " : " + e);
+            }
+        }, name);
+        thread.start();
+        return thread;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition && failure.compareAndSet(null, message)) {
+            System.err.println("[STRESS] " + message);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package api.server.services;
+
+import core.entities.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * TokenSigner - Tokens signés (HMAC-SHA256), vérifiables sans état partagé
+ *
+ * Format : "st1." + base64url(userID|rôle|expiration|id) + "." + base64url(HMAC)
+ * La signature couvre tout ce qui précède le dernier point. Tous les serveurs qui
+ * partagent le fichier de clé acceptent les mêmes tokens.
+ *
+ * L'id aléatoire identifie le token dans la liste de révocation (déconnexion).
+ */
+public final class TokenSigner {
+
+    public static final String PREFIX = "st1.";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int KEY_BYTES = 32;
+    private static final int MIN_KEY_BYTES = 16;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Contenu d'un token
+     */
+    public static final class Claims {
+        private final int userId;
+        private final String role;
+        private final long expiresAt;   // secondes depuis l'epoch
+        private final String id;
+
+        Claims(int userId, String role, long expiresAt, String id) {
+            this.userId = userId;
+            this.role = role;
+            this.expiresAt = expiresAt;
+            this.id = id;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    private final Mac prototype;        // initialisé avec la clé, cloné à chaque usage
+    private final long ttlSeconds;
+    private final SecureRandom random = new SecureRandom();
+
+    TokenSigner(byte[] key, long ttlSeconds) {
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " indisponible", e);
+        }
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * Charge la clé depuis le fichier (base64), ou la génère au premier démarrage
+     */
+    public static TokenSigner fromKeyFile(Path keyFile, long ttlSeconds) {
+        try {
+            if (!Files.exists(keyFile)) {
+                createKeyFile(keyFile);
+            }
+            byte[] key;
+            try {
+                key = Base64.getDecoder().decode(Files.readString(keyFile, StandardCharsets.US_ASCII).trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Clé de signature invalide (base64 attendu) : " + keyFile);
+            }
+            if (key.length < MIN_KEY_BYTES) {
+                throw new IllegalArgumentException("Clé de signature trop courte (" + key.length
+                        + " octets, minimum " + MIN_KEY_BYTES + ") : " + keyFile);
+            }
+            return new TokenSigner(key, ttlSeconds);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture de la clé de signature impossible : " + keyFile, e);
+        }
+    }
+
+    private static void createKeyFile(Path keyFile) throws IOException {
+        byte[] key = new byte[KEY_BYTES];
+        new SecureRandom().nextBytes(key);
+        if (keyFile.getParent() != null) {
+            Files.createDirectories(keyFile.getParent());
+        }
+        try {
+            Files.writeString(keyFile, Base64.getEncoder().encodeToString(key) + "\n",
+                    StandardCharsets.US_ASCII, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        } catch (FileAlreadyExistsException e) {
+            return; // créée par un autre processus entre-temps
+        }
+        try {
+            Files.setPosixFilePermissions(keyFile, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Système de fichiers non POSIX : permissions par défaut
+        }
+        System.out.println("[AUTH] Clé de signature des tokens générée : " + keyFile.toAbsolutePath());
+    }
+
+    // ========================================================================
+    // Émission et vérification
+    // ========================================================================
+
+    public String issue(User user) {
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String payload = user.getUserID() + "|" + user.getRole() + "|" + expiresAt + "|" + ENCODER.encodeToString(id);
+        String signed = PREFIX + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(sign(signed));
+    }
+
+    /**
+     * @return Le contenu du token, ou null s'il est mal formé, mal signé ou expiré
+     */
+    public Claims verify(String token) {
+        int dot = token.lastIndexOf('.');
+        if (!token.startsWith(PREFIX) || dot < PREFIX.length()) {
+            return null;
+        }
+        byte[] signature;
+        try {
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        // Comparaison en temps constant : le temps de réponse ne révèle pas la signature attendue
+        if (!MessageDigest.isEqual(signature, sign(token.substring(0, dot)))) {
+            return null;
+        }
+        Claims claims = parse(token);
+        if (claims == null || claims.expiresAt <= System.currentTimeMillis() / 1000) {
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * Lit le contenu sans vérifier la signature (rejeu des révocations journalisées)
+     * @return null si le token est mal formé
+     */
+    public static Claims parse(String token) {
+        int dot = token.lastIndexOf('.');
+        if (!token.startsWith(PREFIX) || dot < PREFIX.length()) {
+            return null;
+        }
+        try {
+            String payload = new String(DECODER.decode(token.substring(PREFIX.length(), dot)), StandardCharsets.UTF_8);
+            String[] fields = payload.split("\\|", -1);
+            if (fields.length != 4) {
+                return null;
+            }
+            return new Claims(Integer.parseInt(fields[0]), fields[1], Long.parseLong(fields[2]), fields[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String data) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " non clonable", e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,28 @@
+package api.server.services;
+
+/**
+ * VersionConflictException - Le ticket a été modifié depuis la version lue par le client
+ * (précondition If-Match non satisfaite : 412)
+ */
+public class VersionConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int ticketId;
+    private final long currentVersion;
+
+    public VersionConflictException(int ticketId, long expectedVersion, long currentVersion) {
+        super("Le ticket #" + ticketId + " a été modifié entre-temps ("
+                + (expectedVersion >= 0 ? "version " + expectedVersion + " attendue, " : "")
+                + "version courante " + currentVersion + ")");
+        this.ticketId = ticketId;
+        this.currentVersion = currentVersion;
+    }
+
+    public int getTicketId() {
+        return ticketId;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -2,23 +2,40 @@ package core.entities;
 import java.util.Date;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.function.Supplier;
 import core.content.Content;
 import core.exporter.Exporter;
 import core.exporter.PDFExporter;
 
 
+/**
+ * Ticket
+ *
+ * Concurrence : les modifications sont des methodes synchronized (verrou propre a chaque
+ * ticket : deux ecrivains sur des tickets differents ne se genent pas). Les lectures ne
+ * prennent jamais le verrou : les champs sont volatile, les commentaires sont une liste
+ * immuable remplacee a chaque ajout (copie a l'ecriture), et getSnapshot() donne une vue
+ * coherente de tous les attributs, republiee a la fin de chaque modification.
+ */
 public class Ticket {
 
-    private int ticketID;
-    private String title;
-    private Content description;  // MODIFIE : String -> Content
-    private TicketStatus status;  // MODIFIE : String -> TicketStatus
-    private String priority;
-    private Date creationDate;
-    private Date updateDate;
-    private Integer assignedToUserID;
-    private Integer createdByUserID;  // AJOUTE : ID de l'utilisateur créateur
-    private List<String> comments;  // AJOUTE : Stockage des commentaires
+    private volatile int ticketID;
+    private volatile String title;
+    private volatile Content description;  // MODIFIE : String -> Content
+    private volatile TicketStatus status;  // MODIFIE : String -> TicketStatus
+    private volatile String priority;
+    private volatile Date creationDate;
+    private volatile Date updateDate;
+    private volatile Integer assignedToUserID;
+    private volatile Integer createdByUserID;  // AJOUTE : ID de l'utilisateur créateur
+    private volatile List<String> comments;  // AJOUTE : Stockage des commentaires (liste immuable)
+    private TicketChangeListener changeListener;  // AJOUTE : Observateur (index serveur)
+    private volatile Supplier<Content> descriptionLoader;  // AJOUTE : Description pas encore decodee
+    private volatile Supplier<List<String>> commentsLoader;  // AJOUTE : Commentaires pas encore decodes
+    private volatile long version;  // AJOUTE : Incremente a chaque modification (ETag, If-Match)
+    private volatile TicketSnapshot snapshot;  // AJOUTE : Derniere vue coherente publiee
 
     // Constructeur
     public Ticket(int ticketID, String title, Content description, String priority) {
@@ -31,14 +48,20 @@ public class Ticket {
         this.updateDate = new Date();
         this.assignedToUserID = null;
         this.createdByUserID = null;  // AJOUTE : Sera défini lors de la création
-        this.comments = new ArrayList<>();  // AJOUTE : Initialisation de la liste
+        this.comments = Collections.emptyList();  // AJOUTE : Initialisation de la liste
+        publish();
     }
 
     // Methodes
-    public void assignTo(int userID) {
+    public synchronized void assignTo(int userID) {
+        Integer oldUserID = this.assignedToUserID;
+        TicketStatus oldStatus = this.status;
         this.assignedToUserID = userID;
         this.status = TicketStatus.ASSIGNE;  // MODIFIE : Utilisation de l'enum
         this.updateDate = new Date();
+        notifyAssigneeChanged(oldUserID, this.assignedToUserID);
+        notifyStatusChanged(oldStatus, this.status);
+        publishChanged();
         System.out.println("Ticket #" + ticketID + " assigne a l'utilisateur ID: " + assignedToUserID);
     }
 
@@ -47,7 +70,7 @@ public class Ticket {
      * @param newStatus Le nouveau statut souhaite
      * @throws IllegalStateException si la transition n'est pas autorisee
      */
-    public void updateStatus(TicketStatus newStatus) {
+    public synchronized void updateStatus(TicketStatus newStatus) {
         if (newStatus == null) {
             throw new IllegalArgumentException("Le statut ne peut pas etre null");
         }
@@ -63,6 +86,8 @@ public class Ticket {
         TicketStatus oldStatus = this.status;
         this.status = newStatus;
         this.updateDate = new Date();
+        notifyStatusChanged(oldStatus, newStatus);
+        publishChanged();
         System.out.println("Statut du ticket #" + ticketID + " change : " +
                          oldStatus + " -> " + newStatus);
     }
@@ -71,28 +96,134 @@ public class Ticket {
      * Ajoute un commentaire au ticket
      * @param comment Le commentaire a ajouter
      */
-    public void addComment(String comment) {
+    public synchronized void addComment(String comment) {
         if (comment == null || comment.trim().isEmpty()) {
             throw new IllegalArgumentException("Le commentaire ne peut pas etre vide");
         }
 
-        this.comments.add(comment);
+        loadComments();
+        List<String> updated = new ArrayList<>(comments.size() + 1);
+        updated.addAll(comments);
+        updated.add(comment);
+        this.comments = Collections.unmodifiableList(updated);
         this.updateDate = new Date();
+        publishChanged();
         System.out.println("Commentaire ajoute au ticket #" + ticketID + ": " + comment);
     }
 
     /**
-     * Retourne tous les commentaires du ticket
-     * @return Liste des commentaires (copie defensive)
+     * Retourne tous les commentaires du ticket (sans verrou une fois decodes)
+     * @return Liste non modifiable des commentaires a cet instant
      */
     public List<String> getComments() {
-        return new ArrayList<>(comments);
+        if (commentsLoader != null) {
+            synchronized (this) {
+                loadComments();
+            }
+        }
+        return comments;
+    }
+
+    /**
+     * Remplace les commentaires (restauration depuis la persistance, sans notification)
+     * @param comments Les commentaires a restaurer
+     */
+    public synchronized void setComments(List<String> comments) {
+        this.comments = Collections.unmodifiableList(new ArrayList<>(comments));
+        this.commentsLoader = null;
+    }
+
+    /**
+     * Differe le decodage de la description et des commentaires jusqu'au premier acces
+     * (chargement rapide d'un snapshot : seuls les champs indexes sont decodes au demarrage)
+     * @param descriptionLoader Decode la description
+     * @param commentsLoader Decode les commentaires
+     */
+    public synchronized void setLazyContent(Supplier<Content> descriptionLoader,
+                                            Supplier<List<String>> commentsLoader) {
+        this.commentsLoader = commentsLoader;
+        this.descriptionLoader = descriptionLoader;
+    }
+
+    /**
+     * @return Le chargeur de la description si elle n'a pas encore ete decodee, sinon null
+     */
+    public Supplier<Content> getPendingDescription() {
+        return descriptionLoader;
+    }
+
+    /**
+     * @return Le chargeur des commentaires s'ils n'ont pas encore ete decodes, sinon null
+     */
+    public Supplier<List<String>> getPendingComments() {
+        return commentsLoader;
+    }
+
+    /**
+     * @return La version du ticket (0 a la creation, incrementee a chaque modification)
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Incremente la version sans autre modification (enregistrement d'un ticket cree)
+     * @return La nouvelle version
+     */
+    public synchronized long incrementVersion() {
+        version++;
+        publish();
+        return version;
+    }
+
+    /**
+     * Restaure la version (rechargement depuis le disque) : elle survit aux redemarrages
+     */
+    public synchronized void setVersion(long version) {
+        this.version = version;
+        publish();
+    }
+
+    /**
+     * @return La derniere vue coherente du ticket (lecture sans verrou)
+     */
+    public TicketSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Publie l'etat courant pour les lecteurs.
+     * Appelee a la fin de chaque modification, pendant que le ticket est verrouille
+     * (ou dans le constructeur, avant toute publication du ticket).
+     */
+    private void publish() {
+        snapshot = new TicketSnapshot(ticketID, title, status, priority, creationDate, updateDate,
+                assignedToUserID, createdByUserID, version);
+    }
+
+    /**
+     * Incremente la version et publie dans la meme vue : un lecteur ne voit jamais
+     * le nouvel etat avec l'ancienne version (ETag perime). Fin des modifications versionnees.
+     */
+    private void publishChanged() {
+        version++;
+        publish();
+    }
+
+    // Appelee avec le verrou du ticket
+    private void loadComments() {
+        Supplier<List<String>> loader = commentsLoader;
+        if (loader != null) {
+            comments = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+            commentsLoader = null;
+        }
     }
 
     /**
      * Affiche tous les commentaires du ticket
      */
     public void displayComments() {
+        List<String> comments = getComments();
         if (comments.isEmpty()) {
             System.out.println("Aucun commentaire pour le ticket #" + ticketID);
             return;
@@ -112,31 +243,70 @@ public class Ticket {
         return ticketID;
     }
 
-    public void setTicketID(int ticketID) {
+    public synchronized void setTicketID(int ticketID) {
         this.ticketID = ticketID;
+        publish();
     }
 
     public String getTitle() {
         return title;
     }
 
-    public void setTitle(String title) {
+    public synchronized void setTitle(String title) {
         this.title = title;
+        publish();
     }
 
     public Content getDescription() {
+        if (descriptionLoader != null) {
+            synchronized (this) {
+                if (descriptionLoader != null) {
+                    description = descriptionLoader.get();
+                    descriptionLoader = null;
+                }
+            }
+        }
         return description;
     }
 
-    public void setDescription(Content description) {
+    public synchronized void setDescription(Content description) {
         this.description = description;
+        this.descriptionLoader = null;
         this.updateDate = new Date();
+        publish();
+    }
+
+    /**
+     * Modifie titre, priorite et description en une seule publication
+     * (un lecteur ne voit jamais le nouveau titre avec l'ancienne priorite)
+     * @param title Nouveau titre (null : inchange)
+     * @param priority Nouvelle priorite (null : inchangee)
+     * @param description Nouvelle description (null : inchangee)
+     */
+    public synchronized void update(String title, String priority, Content description) {
+        if (title != null) {
+            this.title = title;
+        }
+        if (priority != null) {
+            String oldPriority = this.priority;
+            this.priority = priority;
+            if (changeListener != null && !Objects.equals(oldPriority, priority)) {
+                changeListener.onPriorityChanged(this, oldPriority, priority);
+            }
+        }
+        if (description != null) {
+            this.description = description;
+            this.descriptionLoader = null;
+            this.updateDate = new Date();
+        }
+        publishChanged();
     }
 
     /**
      * Affiche la description dans la plateforme
      */
     public void displayDescription() {
+        Content description = getDescription();
         if (description != null) {
             System.out.println("\n" + "=".repeat(60));
             System.out.println("DESCRIPTION DU TICKET #" + ticketID);
@@ -154,6 +324,7 @@ public class Ticket {
      * @return Le contenu exporte
      */
     public String exportTo(Exporter exporter) {
+        Content description = getDescription();
         if (description == null) {
             return "[Aucune description a exporter]";
         }
@@ -177,48 +348,83 @@ public class Ticket {
         return status;
     }
 
-    public void setStatus(TicketStatus status) {
+    public synchronized void setStatus(TicketStatus status) {
+        TicketStatus oldStatus = this.status;
         this.status = status;
+        notifyStatusChanged(oldStatus, status);
+        publish();
     }
 
     public String getPriority() {
         return priority;
     }
 
-    public void setPriority(String priority) {
+    public synchronized void setPriority(String priority) {
+        String oldPriority = this.priority;
         this.priority = priority;
+        if (changeListener != null && !Objects.equals(oldPriority, priority)) {
+            changeListener.onPriorityChanged(this, oldPriority, priority);
+        }
+        publish();
     }
 
     public Date getCreationDate() {
         return creationDate;
     }
 
-    public void setCreationDate(Date creationDate) {
+    public synchronized void setCreationDate(Date creationDate) {
         this.creationDate = creationDate;
+        publish();
     }
 
     public Date getUpdateDate() {
         return updateDate;
     }
 
-    public void setUpdateDate(Date updateDate) {
+    public synchronized void setUpdateDate(Date updateDate) {
         this.updateDate = updateDate;
+        publish();
     }
 
     public Integer getAssignedToUserID() {
         return assignedToUserID;
     }
 
-    public void setAssignedToUserID(Integer assignedToUserID) {
+    public synchronized void setAssignedToUserID(Integer assignedToUserID) {
+        Integer oldUserID = this.assignedToUserID;
         this.assignedToUserID = assignedToUserID;
+        notifyAssigneeChanged(oldUserID, assignedToUserID);
+        publish();
     }
 
     public Integer getCreatedByUserID() {
         return createdByUserID;
     }
 
-    public void setCreatedByUserID(Integer createdByUserID) {
+    public synchronized void setCreatedByUserID(Integer createdByUserID) {
         this.createdByUserID = createdByUserID;
+        publish();
+    }
+
+    /**
+     * Definit l'observateur notifie des changements de statut, priorite et assignation
+     * (un seul observateur par ticket pour limiter l'empreinte memoire)
+     * @param changeListener L'observateur, ou null pour le retirer
+     */
+    public synchronized void setChangeListener(TicketChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void notifyStatusChanged(TicketStatus oldStatus, TicketStatus newStatus) {
+        if (changeListener != null && oldStatus != newStatus) {
+            changeListener.onStatusChanged(this, oldStatus, newStatus);
+        }
+    }
+
+    private void notifyAssigneeChanged(Integer oldUserID, Integer newUserID) {
+        if (changeListener != null && !Objects.equals(oldUserID, newUserID)) {
+            changeListener.onAssigneeChanged(this, oldUserID, newUserID);
+        }
     }
 
     @Override
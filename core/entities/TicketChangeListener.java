@@ -0,0 +1,28 @@
+package core.entities;
+
+/**
+ * TicketChangeListener
+ * Interface pour le pattern Observer côté domaine
+ * Notifiée à chaque changement des attributs indexables d'un ticket
+ *
+ * Les notifications sont émises pendant que le ticket est verrouillé (méthodes
+ * synchronized de Ticket) : l'observateur voit les changements d'un même ticket
+ * dans l'ordre où ils ont été appliqués.
+ */
+public interface TicketChangeListener {
+
+    /**
+     * Appelée quand le statut du ticket a changé
+     */
+    void onStatusChanged(Ticket ticket, TicketStatus oldStatus, TicketStatus newStatus);
+
+    /**
+     * Appelée quand la priorité du ticket a changé
+     */
+    void onPriorityChanged(Ticket ticket, String oldPriority, String newPriority);
+
+    /**
+     * Appelée quand l'utilisateur assigné au ticket a changé
+     */
+    void onAssigneeChanged(Ticket ticket, Integer oldUserID, Integer newUserID);
+}
@@ -0,0 +1,106 @@
+package core.entities;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TicketIdAllocator
+ * Attribution des IDs de tickets : uniques et croissants, sans verrou dans le cas courant
+ *
+ * Les IDs viennent d'un compteur atomique. Ils sont reserves par blocs : seule la borne
+ * haute d'un bloc (high-water mark) est confiee au Reserver (ex: journal du serveur), une
+ * fois par bloc, avant que le premier ID du bloc ne soit rendu. Apres un redemarrage, le
+ * compteur reprend au-dela de la derniere borne enregistree : les IDs reserves mais non
+ * utilises forment des trous, ils ne sont jamais reattribues.
+ */
+public final class TicketIdAllocator {
+
+    /**
+     * Enregistre une borne haute (appelee sous le verrou de l'allocateur, une fois par bloc)
+     */
+    public interface Reserver {
+        void reserve(int highWaterMark);
+    }
+
+    private static final Reserver NO_RESERVER = highWaterMark -> { };
+
+    private final AtomicInteger lastAllocated;
+    private volatile int reservedUpTo;   // ecrit sous le verrou, apres l'appel au Reserver
+    private int blockSize;               // protege par this
+    private Reserver reserver;           // protege par this
+
+    /**
+     * @param lastAllocated Dernier ID considere comme attribue (le premier ID rendu est le suivant)
+     */
+    public TicketIdAllocator(int lastAllocated) {
+        this.lastAllocated = new AtomicInteger(lastAllocated);
+        this.reservedUpTo = lastAllocated;
+        this.blockSize = 1;
+        this.reserver = NO_RESERVER;
+    }
+
+    /**
+     * Active la reservation par blocs (ex: journalisation des bornes hautes)
+     * @param blockSize Nombre d'IDs par bloc (une ecriture par bloc)
+     */
+    public synchronized void configure(int blockSize, Reserver reserver) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Taille de bloc invalide : " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.reserver = reserver != null ? reserver : NO_RESERVER;
+    }
+
+    /**
+     * @return Un nouvel ID, jamais rendu auparavant (ni avant un redemarrage)
+     * @throws IllegalStateException si les IDs sont epuises
+     */
+    public int next() {
+        int id = lastAllocated.incrementAndGet();
+        if (id <= 0) {
+            lastAllocated.set(Integer.MAX_VALUE);
+            throw new IllegalStateException("Plus aucun ID de ticket disponible");
+        }
+        if (id > reservedUpTo) {
+            reserveThrough(id);
+        }
+        return id;
+    }
+
+    /**
+     * Chemin lent, une fois par bloc : les threads dont l'ID depasse la borne attendent
+     * qu'elle soit enregistree
+     */
+    private synchronized void reserveThrough(int id) {
+        if (id <= reservedUpTo) {
+            return; // reserve par un autre thread entre-temps
+        }
+        int highWaterMark = (int) Math.min(Integer.MAX_VALUE, (long) id + blockSize - 1);
+        reserver.reserve(highWaterMark);
+        reservedUpTo = highWaterMark;
+    }
+
+    /**
+     * Recuperation : les prochains IDs sont strictement superieurs a "used"
+     * (borne haute enregistree ou ID d'un ticket restaure)
+     */
+    public synchronized void restore(int used) {
+        int last = lastAllocated.accumulateAndGet(used, Math::max);
+        if (reservedUpTo < last) {
+            reservedUpTo = last;
+        }
+    }
+
+    /**
+     * Borne a sauvegarder (snapshot) : aucun ID rendu ou en cours de reservation ne la depasse
+     */
+    public synchronized int getHighWaterMark() {
+        return reservedUpTo;
+    }
+
+    /**
+     * @return Le dernier ID rendu (ou restaure)
+     */
+    public int getLastAllocated() {
+        return lastAllocated.get();
+    }
+}
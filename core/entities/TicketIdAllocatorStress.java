@@ -0,0 +1,142 @@
+package core.entities;
+
+import core.content.Content;
+import core.content.TextContent;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TicketIdAllocatorStress - Test de charge concurrent de l'attribution des IDs de tickets
+ *
+ * Lancement :
+ *   java -cp <classes> core.entities.TicketIdAllocatorStress [threads] [tickets par thread] [taille de bloc]
+ *
+ * Plusieurs threads creent des tickets (User.createTicket, allocateur partage) avec une
+ * reservation par blocs, comme le serveur avec persistance. Verifie :
+ * - aucune collision : chaque ID n'est rendu qu'une fois
+ * - IDs strictement croissants dans chaque thread
+ * - chaque ID est couvert par une borne haute deja enregistree par le Reserver
+ * - bornes enregistrees croissantes, une par bloc au plus
+ * - un allocateur restaure depuis la derniere borne ne rend que des IDs superieurs
+ *
+ * Code de sortie 1 a la premiere verification en echec.
+ */
+public final class TicketIdAllocatorStress {
+
+    private static final AtomicReference<String> failure = new AtomicReference<>();
+
+    private TicketIdAllocatorStress() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 250_000;
+        int blockSize = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        long total = (long) threads * perThread;
+        TicketIdAllocator allocator = User.getTicketIDAllocator();
+        int firstId = allocator.getLastAllocated();
+        if (total > Integer.MAX_VALUE - firstId - blockSize) {
+            System.err.println("[STRESS] Trop de tickets demandes : " + total);
+            System.exit(2);
+        }
+
+        AtomicInteger reservedMark = new AtomicInteger(firstId);  // derniere borne enregistree
+        AtomicInteger reservations = new AtomicInteger();
+        allocator.configure(blockSize, highWaterMark -> {
+            // Appele sous le verrou de l'allocateur : les bornes doivent arriver croissantes
+            int previous = reservedMark.get();
+            check(highWaterMark > previous, "borne " + highWaterMark + " apres " + previous);
+            reservations.incrementAndGet();
+            reservedMark.set(highWaterMark);
+        });
+
+        int[][] ids = new int[threads][perThread];
+        Content description = new TextContent("");
+        // createTicket trace chaque creation : traces masquees pendant la charge
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int[] own = ids[t];
+            User creator = new User(t + 1, "Stress" + (t + 1), "stress" + (t + 1) + "@uqac.ca", "Developpeur");
+            Thread worker = new Thread(() -> {
+                try {
+                    ready.await();
+                    int previous = Integer.MIN_VALUE;
+                    for (int i = 0; i < own.length && failure.get() == null; i++) {
+                        int id = creator.createTicket("Ticket " + i, description, "Basse").getTicketID();
+                        // Le premier ID d'un bloc n'est rendu qu'apres l'enregistrement de sa borne
+                        check(id <= reservedMark.get(), "ID " + id + " rendu avant sa reservation");
+                        check(id > previous, "IDs non croissants : " + previous + " puis " + id);
+                        previous = id;
+                        own[i] = id;
+                    }
+                } catch (Throwable e) {
+                    check(false, Thread.currentThread().getName() + " : " + e);
+                }
+            }, "id-stress-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        ready.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.setOut(out);
+
+        // Unicite : un bit par ID possible
+        BitSet seen = new BitSet();
+        long collisions = 0;
+        for (int[] own : ids) {
+            for (int id : own) {
+                if (id <= firstId) {
+                    check(false, "ID hors plage : " + id);
+                    break;
+                }
+                if (seen.get(id - firstId)) {
+                    collisions++;
+                } else {
+                    seen.set(id - firstId);
+                }
+            }
+        }
+        check(collisions == 0, collisions + " collision(s)");
+        check(seen.cardinality() == total, seen.cardinality() + " IDs distincts, attendus " + total);
+        check(allocator.getLastAllocated() == firstId + total,
+                "dernier ID " + allocator.getLastAllocated() + ", attendu " + (firstId + total));
+        check(reservations.get() <= total / blockSize + 1, reservations.get() + " reservations pour "
+                + total + " IDs (blocs de " + blockSize + ")");
+        check(allocator.getHighWaterMark() == reservedMark.get(), "borne de l'allocateur "
+                + allocator.getHighWaterMark() + ", enregistree " + reservedMark.get());
+
+        // Redemarrage : la numerotation reprend au-dela de la derniere borne enregistree
+        TicketIdAllocator restarted = new TicketIdAllocator(firstId);
+        restarted.restore(reservedMark.get());
+        int next = restarted.next();
+        check(next > allocator.getLastAllocated() && next == reservedMark.get() + 1,
+                "apres restauration, premier ID " + next + " (borne " + reservedMark.get() + ")");
+
+        if (failure.get() != null) {
+            System.err.println("[STRESS] ECHEC : " + failure.get());
+            System.exit(1);
+        }
+        System.out.printf("[STRESS] OK : %d tickets, IDs uniques (%d threads), %d reservations, %d ms%n",
+                total, threads, reservations.get(), elapsedMillis);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition && failure.compareAndSet(null, message)) {
+            System.err.println("[STRESS] " + message);
+        }
+    }
+}
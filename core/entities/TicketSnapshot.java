@@ -0,0 +1,77 @@
+package core.entities;
+
+import java.util.Date;
+
+/**
+ * TicketSnapshot
+ * Vue immuable des attributs d'un ticket a un instant donne
+ *
+ * Publiee par Ticket a la fin de chaque modification (reference volatile) :
+ * un lecteur obtient un etat coherent (jamais un statut nouveau avec un assigne
+ * ancien) sans prendre le verrou du ticket, donc sans attendre les ecrivains.
+ * La description et les commentaires, decodes a la demande, n'en font pas partie.
+ */
+public final class TicketSnapshot {
+    private final int ticketID;
+    private final String title;
+    private final TicketStatus status;
+    private final String priority;
+    private final long creationDate;
+    private final long updateDate;
+    private final Integer assignedToUserID;
+    private final Integer createdByUserID;
+    private final long version;
+
+    TicketSnapshot(int ticketID, String title, TicketStatus status, String priority,
+                   Date creationDate, Date updateDate, Integer assignedToUserID,
+                   Integer createdByUserID, long version) {
+        this.ticketID = ticketID;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.creationDate = creationDate.getTime();
+        this.updateDate = updateDate.getTime();
+        this.assignedToUserID = assignedToUserID;
+        this.createdByUserID = createdByUserID;
+        this.version = version;
+    }
+
+    public int getTicketID() {
+        return ticketID;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public TicketStatus getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public Date getCreationDate() {
+        return new Date(creationDate);
+    }
+
+    public Date getUpdateDate() {
+        return new Date(updateDate);
+    }
+
+    public Integer getAssignedToUserID() {
+        return assignedToUserID;
+    }
+
+    public Integer getCreatedByUserID() {
+        return createdByUserID;
+    }
+
+    /**
+     * @return La version du ticket au moment de la publication
+     */
+    public long getVersion() {
+        return version;
+    }
+}
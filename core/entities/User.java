@@ -8,7 +8,7 @@ public class User {
     private String name;
     private String email;
     private String role;
-    private static int ticketIDCounter = 1000;
+    private static final TicketIdAllocator ticketIDs = new TicketIdAllocator(1000);
 
     public User(int userID, String name, String email, String role) {
         this.userID = userID;
@@ -18,13 +18,38 @@ public class User {
     }
 
     public Ticket createTicket(String title, Content description, String priority){
-        ticketIDCounter++;
-        Ticket newTicket = new Ticket(ticketIDCounter, title, description, priority);
+        Ticket newTicket = new Ticket(nextTicketID(), title, description, priority);
         newTicket.setCreatedByUserID(this.userID);  // Définir le créateur du ticket
         System.out.println("User " + name + " cree le ticket #" + newTicket.getTicketID() + ": " + title);
         return newTicket;
     }
 
+    private static int nextTicketID() {
+        return ticketIDs.next();
+    }
+
+    /**
+     * Allocateur partage des IDs de tickets (configure par le serveur pour la persistance)
+     */
+    public static TicketIdAllocator getTicketIDAllocator() {
+        return ticketIDs;
+    }
+
+    /**
+     * Borne haute des IDs de tickets attribues ou reserves (sauvegardee dans les snapshots)
+     */
+    public static int getLastTicketID() {
+        return ticketIDs.getHighWaterMark();
+    }
+
+    /**
+     * Restaure le compteur d'IDs apres une recuperation : les prochains tickets
+     * ne reutilisent jamais un ID deja attribue
+     */
+    public static void restoreLastTicketID(int lastTicketID) {
+        ticketIDs.restore(lastTicketID);
+    }
+
     public void viewTicket(Ticket ticket) {
         System.out.println("\n" + "=".repeat(60));
         System.out.println("User " + name + " consulte le ticket #" + ticket.getTicketID());
@@ -2,8 +2,14 @@ package gui.controllers;
 
 import gui.models.*;
 import gui.services.RestApiClient;
+import gui.services.TicketEventStream;
+import gui.services.UserDirectory;
+import gui.services.VersionConflictException;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * TicketController
@@ -19,14 +25,50 @@ import java.util.*;
  * - Encapsuler les appels au RestApiClient
  * - Gérer les erreurs et exceptions réseau
  * - Maintenir une interface cohérente pour la View
+ * - Tenir à jour la copie locale des tickets (deltas + flux d'événements) et notifier les vues
+ *
+ * Les méthodes font des appels réseau bloquants : la vue les appelle hors de l'EDT
+ * (BackgroundLoader). Les variantes ...Async permettent de lancer plusieurs requêtes en parallèle.
  */
 public class TicketController {
     private RestApiClient apiClient;
-    private UserDTO currentUser;
+    private final UserDirectory userDirectory;  // Utilisateurs en cache, rechargés à chaque connexion
+    private volatile UserDTO currentUser;
+    private final Map<Integer, TicketDTO> localTickets;  // Copie locale, tenue à jour par deltas (verrou)
+    private long ticketsRevision;  // Révision du serveur reflétée par localTickets (-1 : aucune)
+    private boolean largeList;     // Mode grande liste : pas de copie locale, le flux ne fait que notifier (verrou localTickets)
+    private TicketEventStream eventStream;  // Flux SSE ouvert après la première synchronisation
+    private final List<TicketStateListener> listeners;
 
     public TicketController() {
         this.apiClient = RestApiClient.getInstance();
+        this.userDirectory = new UserDirectory(apiClient);
         this.currentUser = null;
+        this.localTickets = new LinkedHashMap<>();
+        this.ticketsRevision = -1;
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    // ========================================================================
+    // Observateurs
+    // ========================================================================
+
+    /**
+     * Abonne une vue aux changements de la copie locale des tickets.
+     * onTicketsChanged() est appelée hors de l'EDT (thread du flux d'événements).
+     */
+    public void addListener(TicketStateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TicketStateListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyTicketsChanged() {
+        for (TicketStateListener listener : listeners) {
+            listener.onTicketsChanged();
+        }
     }
 
     /**
@@ -36,6 +78,9 @@ public class TicketController {
     public boolean login(int userID) {
         try {
             this.currentUser = apiClient.login(userID);
+            resetLocalTickets();  // Visibilité propre à l'utilisateur
+            userDirectory.invalidate();
+            userDirectory.prefetch();  // Prêt avant la première assignation
             return true;
         } catch (IOException e) {
             System.err.println("Erreur de connexion: " + e.getMessage());
@@ -50,6 +95,8 @@ public class TicketController {
         try {
             apiClient.logout();
             this.currentUser = null;
+            resetLocalTickets();
+            userDirectory.invalidate();
         } catch (IOException e) {
             System.err.println("Erreur de déconnexion: " + e.getMessage());
         }
@@ -70,15 +117,31 @@ public class TicketController {
     }
 
     /**
-     * Retourne tous les utilisateurs
+     * Retourne tous les utilisateurs (annuaire en cache; liste vide s'il n'a pas pu être chargé)
      */
     public List<UserDTO> getAllUsers() {
-        try {
-            return apiClient.getAllUsers();
-        } catch (IOException e) {
-            System.err.println("Erreur lors de la récupération des utilisateurs: " + e.getMessage());
-            return new ArrayList<>();
+        return userDirectory.getUsers();
+    }
+
+    /**
+     * Retourne tous les utilisateurs sans attendre (annuaire en cache : déjà terminé en régime établi)
+     */
+    public CompletableFuture<List<UserDTO>> getAllUsersAsync() {
+        return userDirectory.getUsersAsync();
+    }
+
+    /**
+     * ID d'un utilisateur à partir de son nom (insensible à la casse) ou de son ID (annuaire en cache)
+     * @return null si aucun utilisateur ne correspond
+     */
+    public Integer findUserId(String nameOrId) {
+        String value = nameOrId.trim();
+        for (UserDTO user : userDirectory.getUsers()) {
+            if (user.getName().equalsIgnoreCase(value) || String.valueOf(user.getUserID()).equals(value)) {
+                return user.getUserID();
+            }
         }
+        return null;
     }
 
     /**
@@ -119,8 +182,193 @@ public class TicketController {
      * Note: Le filtrage est maintenant fait côté serveur
      */
     public List<TicketDTO> getFilteredTickets() {
-        // Le serveur filtre automatiquement selon les permissions
-        return getAllTickets();
+        syncTickets();
+        return getLocalTickets();
+    }
+
+    /**
+     * Met à jour la copie locale des tickets avec les changements depuis la dernière synchronisation
+     * (GET /tickets/changes). Recharge la liste complète si le serveur demande une resynchronisation.
+     * @return true si la liste locale a changé
+     */
+    public boolean syncTickets() {
+        try {
+            long since;
+            synchronized (localTickets) {
+                since = ticketsRevision;
+            }
+            TicketChangesDTO changes = apiClient.getTicketChanges(since);
+
+            boolean changed;
+            if (changes.isResyncRequired()) {
+                // La révision est lue avant la liste : les deltas suivants sont réappliqués sans risque
+                List<TicketDTO> tickets = apiClient.getAllTickets();
+                changed = replaceLocalTickets(since, changes.getRevision(), tickets);
+            } else {
+                changed = applyChanges(changes);
+            }
+            startEventStream();
+            return changed;
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la synchronisation des tickets: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean replaceLocalTickets(long expectedRevision, long revision, List<TicketDTO> tickets) {
+        synchronized (localTickets) {
+            if (ticketsRevision != expectedRevision) {
+                // Le flux d'événements a avancé pendant le chargement : la copie locale est plus récente
+                return false;
+            }
+            localTickets.clear();
+            for (TicketDTO ticket : tickets) {
+                localTickets.put(ticket.getTicketID(), ticket);
+            }
+            ticketsRevision = revision;
+            return true;
+        }
+    }
+
+    private boolean applyChanges(TicketChangesDTO changes) {
+        synchronized (localTickets) {
+            if (changes.getRevision() <= ticketsRevision) {
+                // Déjà reçu par le flux d'événements
+                return false;
+            }
+            for (Integer ticketID : changes.getDeleted()) {
+                localTickets.remove(ticketID);
+            }
+            for (TicketDTO ticket : changes.getUpserted()) {
+                localTickets.put(ticket.getTicketID(), ticket);
+            }
+            ticketsRevision = changes.getRevision();
+            return !changes.getDeleted().isEmpty() || !changes.getUpserted().isEmpty();
+        }
+    }
+
+    /**
+     * Retourne la copie locale des tickets (sans appel réseau)
+     */
+    public List<TicketDTO> getLocalTickets() {
+        synchronized (localTickets) {
+            return new ArrayList<>(localTickets.values());
+        }
+    }
+
+    private void resetLocalTickets() {
+        synchronized (localTickets) {
+            if (eventStream != null) {
+                eventStream.close();
+                eventStream = null;
+            }
+            localTickets.clear();
+            ticketsRevision = -1;
+            largeList = false;
+        }
+    }
+
+    // ========================================================================
+    // Grande liste (pages demandées au serveur)
+    // ========================================================================
+
+    /**
+     * Nombre de tickets visibles par l'utilisateur (une requête d'un seul ticket, X-Total-Count)
+     * @return -1 en cas d'erreur
+     */
+    public int countTickets() {
+        try {
+            return apiClient.getTicketPage(Collections.emptyMap(), null, false, 0, 1).getTotalCount();
+        } catch (IOException e) {
+            System.err.println("Erreur lors du comptage des tickets: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Une page de tickets triée et filtrée par le serveur (source du TicketTableModel en mode grande liste)
+     */
+    public CompletableFuture<TicketPageDTO> loadTicketPage(Map<String, String> filters, String sort,
+                                                           boolean descending, int offset, int limit) {
+        return apiClient.getTicketPageAsync(filters, sort, descending, offset, limit);
+    }
+
+    /**
+     * Passe en mode grande liste : aucune copie locale des tickets n'est tenue; le flux
+     * d'événements sert seulement à notifier les vues, qui redemandent les pages affichées
+     */
+    public void watchTicketChanges() {
+        try {
+            // Sans "since" : la révision courante (les événements suivants seront reçus)
+            long revision = apiClient.getTicketChanges(-1).getRevision();
+            synchronized (localTickets) {
+                largeList = true;
+                localTickets.clear();
+                ticketsRevision = revision;
+            }
+            startEventStream();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'abonnement aux changements: " + e.getMessage());
+        }
+    }
+
+    // ========================================================================
+    // Flux d'événements (GET /events)
+    // ========================================================================
+
+    /**
+     * Ouvre le flux une fois la copie locale initialisée : les changements arrivent
+     * ensuite sans interrogation (reprise à ticketsRevision après une coupure)
+     */
+    private void startEventStream() {
+        synchronized (localTickets) {
+            if (eventStream != null || !apiClient.isAuthenticated()) {
+                return;
+            }
+            eventStream = apiClient.openEventStream(() -> {
+                synchronized (localTickets) {
+                    return ticketsRevision;
+                }
+            }, this::applyEvent);
+        }
+    }
+
+    /**
+     * Applique un événement du flux (thread du flux) puis notifie les vues
+     */
+    private void applyEvent(TicketEventDTO event) {
+        boolean notifyOnly;
+        synchronized (localTickets) {
+            notifyOnly = largeList;
+            if (notifyOnly) {
+                ticketsRevision = Math.max(ticketsRevision, event.getRevision());
+            }
+        }
+        if (notifyOnly) {
+            // Grande liste : la vue redemande les pages affichées
+            notifyTicketsChanged();
+            return;
+        }
+        if (event.isResync()) {
+            // Événements perdus : rattrapage par delta ou rechargement complet
+            if (syncTickets()) {
+                notifyTicketsChanged();
+            }
+            return;
+        }
+
+        synchronized (localTickets) {
+            if (event.getRevision() <= ticketsRevision) {
+                return;
+            }
+            if (event.isDeleted()) {
+                localTickets.remove(event.getTicketID());
+            } else {
+                localTickets.put(event.getTicketID(), event.getTicket());
+            }
+            ticketsRevision = event.getRevision();
+        }
+        notifyTicketsChanged();
     }
 
     /**
@@ -139,8 +387,17 @@ public class TicketController {
      * Assigne un ticket à un utilisateur
      */
     public void assignTicket(int ticketID, int userID) {
+        assignTicket(ticketID, userID, null);
+    }
+
+    /**
+     * Assigne un ticket s'il n'a pas changé depuis sa lecture
+     * @param expectedVersion Version lue (TicketDTO.getVersion()), null : sans condition
+     * @throws VersionConflictException si le ticket a été modifié entre-temps
+     */
+    public void assignTicket(int ticketID, int userID, Long expectedVersion) {
         try {
-            apiClient.assignTicket(ticketID, userID);
+            apiClient.assignTicket(ticketID, userID, expectedVersion);
         } catch (IOException e) {
             System.err.println("Erreur lors de l'assignation du ticket #" + ticketID + ": " + e.getMessage());
         }
@@ -150,10 +407,19 @@ public class TicketController {
      * Change le statut d'un ticket
      */
     public void changeTicketStatus(int ticketID, String newStatus) {
+        changeTicketStatus(ticketID, newStatus, null);
+    }
+
+    /**
+     * Change le statut d'un ticket s'il n'a pas changé depuis sa lecture
+     * @param expectedVersion Version lue (TicketDTO.getVersion()), null : sans condition
+     * @throws VersionConflictException si le ticket a été modifié entre-temps
+     */
+    public void changeTicketStatus(int ticketID, String newStatus, Long expectedVersion) {
         try {
             // Convertir le statut d'affichage en format API si nécessaire
             String apiStatus = convertToApiStatus(newStatus);
-            apiClient.changeTicketStatus(ticketID, apiStatus);
+            apiClient.changeTicketStatus(ticketID, apiStatus, expectedVersion);
         } catch (IOException e) {
             System.err.println("Erreur lors du changement de statut du ticket #" + ticketID + ": " + e.getMessage());
         }
@@ -171,6 +437,16 @@ public class TicketController {
         }
     }
 
+    /**
+     * Retourne les transitions possibles (requête lancée sans attendre; liste vide en cas d'erreur)
+     */
+    public CompletableFuture<List<String>> getAvailableTransitionsAsync(int ticketID) {
+        return apiClient.getAvailableTransitionsAsync(ticketID).exceptionally(e -> {
+            System.err.println("Erreur lors de la récupération des transitions pour le ticket #" + ticketID + ": " + causeMessage(e));
+            return new ArrayList<>();
+        });
+    }
+
     /**
      * Ajoute un commentaire à un ticket
      */
@@ -194,12 +470,32 @@ public class TicketController {
         }
     }
 
+    /**
+     * Récupère les commentaires d'un ticket (requête lancée sans attendre; liste vide en cas d'erreur)
+     */
+    public CompletableFuture<List<String>> getTicketCommentsAsync(int ticketID) {
+        return apiClient.getTicketCommentsAsync(ticketID).exceptionally(e -> {
+            System.err.println("Erreur lors de la récupération des commentaires du ticket #" + ticketID + ": " + causeMessage(e));
+            return new ArrayList<>();
+        });
+    }
+
     /**
      * Modifie un ticket avec une liste de ContentItemDTO
      */
     public void updateTicket(int ticketID, String title, String priority, List<ContentItemDTO> contentItems) {
+        updateTicket(ticketID, title, priority, contentItems, null);
+    }
+
+    /**
+     * Modifie un ticket s'il n'a pas changé depuis sa lecture
+     * @param expectedVersion Version lue (TicketDTO.getVersion()), null : sans condition
+     * @throws VersionConflictException si le ticket a été modifié entre-temps
+     */
+    public void updateTicket(int ticketID, String title, String priority, List<ContentItemDTO> contentItems,
+                             Long expectedVersion) {
         try {
-            apiClient.updateTicket(ticketID, title, priority, contentItems);
+            apiClient.updateTicket(ticketID, title, priority, contentItems, expectedVersion);
         } catch (IOException e) {
             System.err.println("Erreur lors de la modification du ticket #" + ticketID + ": " + e.getMessage());
         }
@@ -229,6 +525,8 @@ public class TicketController {
      * Retourne les détails complets d'un ticket (pour affichage)
      */
     public String getTicketDetails(int ticketID) {
+        // Les commentaires sont demandés en même temps que le ticket
+        CompletableFuture<List<String>> pendingComments = getTicketCommentsAsync(ticketID);
         try {
             TicketDTO ticket = apiClient.getTicketById(ticketID);
             if (ticket == null) return "";
@@ -249,8 +547,7 @@ public class TicketController {
             details.append("\nDescription:\n");
             details.append(ticket.getDescription());
 
-            // Récupérer les commentaires via l'API
-            List<String> comments = getTicketComments(ticketID);
+            List<String> comments = pendingComments.join();
             if (!comments.isEmpty()) {
                 details.append("\n\nCommentaires (").append(comments.size()).append("):\n");
                 int i = 1;
@@ -281,6 +578,15 @@ public class TicketController {
 
     // ========== Méthodes utilitaires privées ==========
 
+    /**
+     * Message de l'erreur d'origine d'un appel asynchrone (sans l'enveloppe CompletionException)
+     */
+    private static String causeMessage(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null
+            ? e.getCause() : e;
+        return cause.getMessage();
+    }
+
     /**
      * Convertit un nom de statut d'affichage en format API
      */
@@ -303,18 +609,14 @@ public class TicketController {
     }
 
     /**
-     * Récupère le nom d'un utilisateur par son ID
+     * Récupère le nom d'un utilisateur par son ID (annuaire en cache, sans appel réseau en régime établi)
      */
     public String getUserNameById(Integer userID) {
         if (userID == null) {
             return "Non assigne";
         }
 
-        try {
-            UserDTO user = apiClient.getUserById(userID);
-            return user != null ? user.getName() : "User #" + userID;
-        } catch (IOException e) {
-            return "User #" + userID;
-        }
+        UserDTO user = userDirectory.getUser(userID);
+        return user != null ? user.getName() : "User #" + userID;
     }
 }
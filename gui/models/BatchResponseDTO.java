@@ -0,0 +1,46 @@
+package gui.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BatchResponseDTO (Data Transfer Object)
+ * Reponse de POST /tickets/batch : un resultat par operation, dans l'ordre de la requete.
+ * committed est faux si un lot atomique a ete entierement annule.
+ */
+public class BatchResponseDTO {
+    private final String mode;
+    private final boolean committed;
+    private final int succeeded;
+    private final int failed;
+    private final List<BatchResultDTO> results;
+
+    public BatchResponseDTO(String mode, boolean committed, int succeeded, int failed,
+                            List<BatchResultDTO> results) {
+        this.mode = mode;
+        this.committed = committed;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.results = results;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BatchResultDTO> getResults() {
+        return results != null ? results : new ArrayList<>();
+    }
+}
@@ -0,0 +1,55 @@
+package gui.models;
+
+/**
+ * BatchResultDTO (Data Transfer Object)
+ * Resultat d'une operation de POST /tickets/batch.
+ * status : code HTTP de l'operation (2xx = reussie; 424 = annulee en mode atomique)
+ */
+public class BatchResultDTO {
+    private final int index;
+    private final int status;
+    private final Integer ticketID;
+    private final String error;
+    private final String message;
+    private final TicketDTO ticket;
+
+    public BatchResultDTO(int index, int status, Integer ticketID, String error, String message, TicketDTO ticket) {
+        this.index = index;
+        this.status = status;
+        this.ticketID = ticketID;
+        this.error = error;
+        this.message = message;
+        this.ticket = ticket;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Integer getTicketID() {
+        return ticketID;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Etat du ticket apres le lot (seulement si demande avec returnTickets)
+     */
+    public TicketDTO getTicket() {
+        return ticket;
+    }
+
+    public boolean isSuccess() {
+        return status >= 200 && status < 300;
+    }
+}
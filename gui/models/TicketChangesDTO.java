@@ -0,0 +1,40 @@
+package gui.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TicketChangesDTO (Data Transfer Object)
+ * Reponse de GET /tickets/changes?since= : tickets crees/modifies et IDs supprimes
+ * depuis une revision. Si resyncRequired est vrai, recharger la liste complete.
+ */
+public class TicketChangesDTO {
+    private final long revision;
+    private final boolean resyncRequired;
+    private final List<TicketDTO> upserted;
+    private final List<Integer> deleted;
+
+    public TicketChangesDTO(long revision, boolean resyncRequired,
+                            List<TicketDTO> upserted, List<Integer> deleted) {
+        this.revision = revision;
+        this.resyncRequired = resyncRequired;
+        this.upserted = upserted;
+        this.deleted = deleted;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    public List<TicketDTO> getUpserted() {
+        return upserted != null ? upserted : new ArrayList<>();
+    }
+
+    public List<Integer> getDeleted() {
+        return deleted != null ? deleted : new ArrayList<>();
+    }
+}
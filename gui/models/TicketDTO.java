@@ -14,10 +14,11 @@ public class TicketDTO {
     private final String assignedToName;
     private final String description;
     private final String creationDate;
+    private final long version;  // Version lue (If-Match des modifications)
 
     public TicketDTO(int ticketID, String title, String status, String priority,
                      String createdByName, String assignedToName,
-                     String description, String creationDate) {
+                     String description, String creationDate, long version) {
         this.ticketID = ticketID;
         this.title = title;
         this.status = status;
@@ -26,6 +27,7 @@ public class TicketDTO {
         this.assignedToName = assignedToName;
         this.description = description;
         this.creationDate = creationDate;
+        this.version = version;
     }
 
     public int getTicketID() {
@@ -59,4 +61,12 @@ public class TicketDTO {
     public String getCreationDate() {
         return creationDate;
     }
+
+    /**
+     * Version du ticket au moment de la lecture : a renvoyer avec une modification,
+     * qui est refusee si le ticket a change entre-temps
+     */
+    public long getVersion() {
+        return version;
+    }
 }
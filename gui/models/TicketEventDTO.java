@@ -0,0 +1,50 @@
+package gui.models;
+
+/**
+ * TicketEventDTO (Data Transfer Object)
+ * Evenement recu sur le flux GET /events : un ticket cree, modifie ou supprime.
+ * Le type RESYNC signale que des evenements ont ete perdus : recharger la liste.
+ */
+public class TicketEventDTO {
+    public static final String RESYNC = "RESYNC";
+    public static final String DELETE = "DELETE";
+
+    private final long revision;
+    private final String type;
+    private final int ticketID;
+    private final TicketDTO ticket;
+
+    public TicketEventDTO(long revision, String type, int ticketID, TicketDTO ticket) {
+        this.revision = revision;
+        this.type = type;
+        this.ticketID = ticketID;
+        this.ticket = ticket;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getTicketID() {
+        return ticketID;
+    }
+
+    /**
+     * Etat courant du ticket (null pour DELETE et RESYNC)
+     */
+    public TicketDTO getTicket() {
+        return ticket;
+    }
+
+    public boolean isResync() {
+        return RESYNC.equals(type);
+    }
+
+    public boolean isDeleted() {
+        return DELETE.equals(type) || (ticket == null && !isResync());
+    }
+}
@@ -0,0 +1,37 @@
+package gui.models;
+
+import java.util.List;
+
+/**
+ * TicketPageDTO
+ * Page de tickets (GET /tickets?limit=&offset=) et nombre total de résultats de la recherche
+ */
+public class TicketPageDTO {
+    private final List<TicketDTO> items;
+    private final int totalCount;
+    private final int offset;
+
+    public TicketPageDTO(List<TicketDTO> items, int totalCount, int offset) {
+        this.items = items;
+        this.totalCount = totalCount;
+        this.offset = offset;
+    }
+
+    public List<TicketDTO> getItems() {
+        return items;
+    }
+
+    /**
+     * Nombre total de tickets correspondant aux filtres (X-Total-Count)
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Position du premier ticket de la page dans les résultats
+     */
+    public int getOffset() {
+        return offset;
+    }
+}
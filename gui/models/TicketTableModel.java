@@ -1,24 +1,89 @@
 package gui.models;
 
+import javax.swing.*;
 import javax.swing.table.AbstractTableModel;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * TicketTableModel
  * Adapter pour afficher une liste de tickets dans une JTable
  * Ce n'est PAS le "Model" du MVC, mais un "View Model" (adapter Swing)
+ *
+ * Deux modes :
+ * - liste complète (refresh) : la nouvelle liste est comparée à l'ancienne par ID et seules les
+ *   lignes insérées, supprimées ou modifiées sont signalées (sélection et rendu conservés)
+ * - grande liste (useLargeList) : seules les pages affichées sont demandées au serveur
+ *   (GET /tickets?limit=&offset=), au fil du défilement; au plus MAX_CACHED_PAGES pages sont
+ *   gardées en mémoire. Tri et filtres par colonne sont appliqués par le serveur.
+ *
+ * Toutes les méthodes s'appellent depuis l'EDT.
  */
 public class TicketTableModel extends AbstractTableModel {
     private List<TicketDTO> tickets;
     private String[] columnNames = {"ID", "Titre", "Statut", "Priorite", "Source", "Assigne"};
 
+    // Paramètres du serveur par colonne (null : non supporté)
+    private static final String[] SORT_PARAMS = {"id", null, "status", "priority", null, null};
+    private static final String[] FILTER_PARAMS = {null, "title", "status", "priority", "createdBy", "assignedTo"};
+
+    public static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 50;      // Mémoire bornée : 10 000 tickets au plus
+    private static final int MAX_PAGES_IN_FLIGHT = 3;
+    private static final int MAX_WANTED_PAGES = 4;       // Pages demandées en attente (les plus récentes)
+    private static final int DISPATCH_DELAY_MS = 30;     // Regroupe les demandes d'un même défilement
+    private static final int PREFETCH_FROM = PAGE_SIZE / 2;  // Page suivante demandée dès la moitié de la page
+
+    /**
+     * Source des pages du mode grande liste (appelée sur l'EDT; le résultat peut arriver sur un autre thread)
+     */
+    public interface PageSource {
+        CompletableFuture<TicketPageDTO> loadPage(Map<String, String> filters, String sort, boolean descending,
+                                                  int offset, int limit);
+    }
+
+    /**
+     * Page chargée; "version" est la version des données au moment de la demande
+     */
+    private static final class Page {
+        final List<TicketDTO> rows;
+        final long version;
+
+        Page(List<TicketDTO> rows, long version) {
+            this.rows = rows;
+            this.version = version;
+        }
+    }
+
+    // Mode grande liste (pageSource null : liste complète)
+    private PageSource pageSource;
+    private int rowCount;
+    private final LinkedHashMap<Integer, Page> pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> inFlight = new HashSet<>();
+    private final LinkedHashSet<Integer> wanted = new LinkedHashSet<>();  // Ordre de demande
+    private final javax.swing.Timer dispatchTimer;
+    private long queryGeneration;   // Incrémentée quand le tri ou les filtres changent
+    private long dataVersion;       // Incrémentée par reload() : les pages plus anciennes sont périmées
+    private final Map<String, String> filters = new HashMap<>();
+    private int sortColumn = 0;
+    private boolean sortDescending = false;
+    private Consumer<Throwable> loadErrorListener;
+
     public TicketTableModel(List<TicketDTO> tickets) {
-        this.tickets = tickets;
+        this.tickets = new ArrayList<>(tickets);
+        this.dispatchTimer = new javax.swing.Timer(DISPATCH_DELAY_MS, e -> dispatch());
+        this.dispatchTimer.setRepeats(false);
     }
 
     @Override
     public int getRowCount() {
-        return tickets.size();
+        return pageSource != null ? rowCount : tickets.size();
     }
 
     @Override
@@ -33,7 +98,11 @@ public class TicketTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int row, int col) {
-        TicketDTO ticket = tickets.get(row);
+        TicketDTO ticket = getTicketAt(row);
+        if (ticket == null) {
+            // Page pas encore reçue (grande liste)
+            return col == 1 ? "Chargement..." : null;
+        }
         switch (col) {
             case 0: return ticket.getTicketID();
             case 1: return ticket.getTitle();
@@ -48,21 +117,391 @@ public class TicketTableModel extends AbstractTableModel {
     /**
      * Recupere l'ID du ticket a une ligne donnee
      * @param row L'index de la ligne
-     * @return L'ID du ticket correspondant
+     * @return L'ID du ticket correspondant (-1 si la ligne n'est pas encore chargée)
      */
     public int getTicketIdAt(int row) {
-        if (row >= 0 && row < tickets.size()) {
-            return tickets.get(row).getTicketID();
+        TicketDTO ticket = getTicketAt(row);
+        return ticket != null ? ticket.getTicketID() : -1;
+    }
+
+    /**
+     * Ticket affiché à une ligne; en mode grande liste, demande la page si elle manque ou est périmée
+     * @return null si la ligne est hors limites ou pas encore chargée
+     */
+    public TicketDTO getTicketAt(int row) {
+        if (pageSource == null) {
+            return row >= 0 && row < tickets.size() ? tickets.get(row) : null;
+        }
+        if (row < 0 || row >= rowCount) {
+            return null;
+        }
+        int pageIndex = row / PAGE_SIZE;
+        Page page = pages.get(pageIndex);
+        if (page == null || page.version != dataVersion) {
+            want(pageIndex);
         }
-        return -1;
+        int index = row - pageIndex * PAGE_SIZE;
+        if (page != null && index >= PREFETCH_FROM && (pageIndex + 1) * PAGE_SIZE < rowCount
+                && !pages.containsKey(pageIndex + 1)) {
+            want(pageIndex + 1);  // Page suivante demandée avant d'être atteinte par le défilement
+        }
+        return page != null && index < page.rows.size() ? page.rows.get(index) : null;
     }
 
+    // ========================================================================
+    // Liste complète
+    // ========================================================================
+
     /**
      * Rafraichit la table avec une nouvelle liste de tickets
+     * Seules les lignes qui changent sont signalées à la table (clé : ID du ticket)
      * @param newTickets La nouvelle liste
      */
     public void refresh(List<TicketDTO> newTickets) {
-        this.tickets = newTickets;
+        if (pageSource != null) {
+            return;  // Grande liste : voir reload()
+        }
+        applyDiff(newTickets);
+    }
+
+    private void applyDiff(List<TicketDTO> newTickets) {
+        Map<Integer, Integer> newPositions = new HashMap<>(newTickets.size() * 2);
+        for (int i = 0; i < newTickets.size(); i++) {
+            newPositions.put(newTickets.get(i).getTicketID(), i);
+        }
+
+        // 1. Suppressions (de la fin vers le début : les index restants ne bougent pas)
+        int row = tickets.size() - 1;
+        while (row >= 0) {
+            if (newPositions.containsKey(tickets.get(row).getTicketID())) {
+                row--;
+                continue;
+            }
+            int last = row;
+            while (row >= 0 && !newPositions.containsKey(tickets.get(row).getTicketID())) {
+                row--;
+            }
+            tickets.subList(row + 1, last + 1).clear();
+            fireTableRowsDeleted(row + 1, last);
+        }
+
+        // Les lignes restantes doivent garder leur ordre relatif; sinon tout est redessiné
+        int previous = -1;
+        for (TicketDTO ticket : tickets) {
+            int position = newPositions.get(ticket.getTicketID());
+            if (position < previous) {
+                tickets = new ArrayList<>(newTickets);
+                fireTableDataChanged();
+                return;
+            }
+            previous = position;
+        }
+
+        // 2. Insertions puis modifications, dans l'ordre de la nouvelle liste
+        int changedFrom = -1;
+        for (int i = 0; i < newTickets.size(); i++) {
+            TicketDTO ticket = newTickets.get(i);
+            if (i >= tickets.size() || tickets.get(i).getTicketID() != ticket.getTicketID()) {
+                flushUpdated(changedFrom, i - 1);
+                changedFrom = -1;
+                int first = i;
+                while (i < newTickets.size()
+                        && (i >= tickets.size() || tickets.get(i).getTicketID() != newTickets.get(i).getTicketID())) {
+                    tickets.add(i, newTickets.get(i));
+                    i++;
+                }
+                fireTableRowsInserted(first, i - 1);
+                i--;
+                continue;
+            }
+            if (!sameRow(tickets.get(i), ticket)) {
+                tickets.set(i, ticket);
+                if (changedFrom == -1) {
+                    changedFrom = i;
+                }
+            } else {
+                flushUpdated(changedFrom, i - 1);
+                changedFrom = -1;
+            }
+        }
+        flushUpdated(changedFrom, newTickets.size() - 1);
+    }
+
+    private void flushUpdated(int first, int last) {
+        if (first != -1 && last >= first) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    /**
+     * Vrai si la ligne affichée ne change pas (même ticket, même version et mêmes colonnes)
+     */
+    private static boolean sameRow(TicketDTO a, TicketDTO b) {
+        return a == b
+            || (a.getTicketID() == b.getTicketID()
+                && a.getVersion() == b.getVersion()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getStatus(), b.getStatus())
+                && Objects.equals(a.getPriority(), b.getPriority())
+                && Objects.equals(a.getCreatedByName(), b.getCreatedByName())
+                && Objects.equals(a.getAssignedToName(), b.getAssignedToName()));
+    }
+
+    // ========================================================================
+    // Grande liste
+    // ========================================================================
+
+    /**
+     * Passe en mode grande liste : les lignes sont chargées par pages depuis la source
+     */
+    public void useLargeList(PageSource source) {
+        this.pageSource = source;
+        this.tickets = new ArrayList<>();
+        this.rowCount = 0;
+        resetPages();
+        fireTableDataChanged();
+        want(0);
+    }
+
+    /**
+     * Revient au mode liste complète (vide jusqu'au prochain refresh)
+     */
+    public void useFullList() {
+        this.pageSource = null;
+        this.rowCount = 0;
+        resetPages();
         fireTableDataChanged();
     }
+
+    public boolean isLargeList() {
+        return pageSource != null;
+    }
+
+    /**
+     * Grande liste : les pages en mémoire deviennent périmées; celles qui sont affichées
+     * sont redemandées et seules les lignes modifiées sont redessinées.
+     * Les appels rapprochés sont regroupés (au plus MAX_PAGES_IN_FLIGHT requêtes en cours).
+     */
+    public void reload() {
+        if (pageSource == null) {
+            return;
+        }
+        dataVersion++;
+        if (rowCount > 0) {
+            // Redessine les lignes visibles, qui redemandent leur page
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+        want(0);  // Nombre total à jour même si aucune ligne n'est visible
+    }
+
+    /**
+     * Trie par colonne côté serveur (second clic : ordre inverse)
+     * @return false si le serveur ne trie pas sur cette colonne
+     */
+    public boolean sortByColumn(int column) {
+        if (pageSource == null || column < 0 || column >= SORT_PARAMS.length || SORT_PARAMS[column] == null) {
+            return false;
+        }
+        sortDescending = column == sortColumn && !sortDescending;
+        sortColumn = column;
+        restartQuery();
+        return true;
+    }
+
+    public boolean isSortable(int column) {
+        return column >= 0 && column < SORT_PARAMS.length && SORT_PARAMS[column] != null;
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isSortDescending() {
+        return sortDescending;
+    }
+
+    public boolean isFilterable(int column) {
+        return column >= 0 && column < FILTER_PARAMS.length && FILTER_PARAMS[column] != null;
+    }
+
+    /**
+     * Filtre une colonne côté serveur (remplace le filtre précédent de cette colonne)
+     * Source et Assigne attendent un ID d'utilisateur; Statut et Priorite une valeur exacte;
+     * Titre une partie du titre
+     * @param value Valeur du filtre, null ou vide : retire le filtre
+     */
+    public void setFilter(int column, String value) {
+        if (!isFilterable(column)) {
+            throw new IllegalArgumentException("Colonne non filtrable : " + getColumnName(column));
+        }
+        if (value == null || value.trim().isEmpty()) {
+            filters.remove(FILTER_PARAMS[column]);
+        } else {
+            filters.put(FILTER_PARAMS[column], value.trim());
+        }
+        if (pageSource != null) {
+            restartQuery();
+        }
+    }
+
+    public void clearFilters() {
+        filters.clear();
+        if (pageSource != null) {
+            restartQuery();
+        }
+    }
+
+    /**
+     * Appelé (sur l'EDT) quand une page n'a pas pu être chargée
+     */
+    public void setLoadErrorListener(Consumer<Throwable> listener) {
+        this.loadErrorListener = listener;
+    }
+
+    /**
+     * Nouvelle recherche : résultats précédents abandonnés, retour en haut de la liste
+     */
+    private void restartQuery() {
+        queryGeneration++;
+        resetPages();
+        int previousCount = rowCount;
+        rowCount = 0;
+        if (previousCount > 0) {
+            fireTableRowsDeleted(0, previousCount - 1);
+        }
+        want(0);
+    }
+
+    private void resetPages() {
+        pages.clear();
+        inFlight.clear();
+        wanted.clear();
+        dispatchTimer.stop();
+    }
+
+    private void want(int pageIndex) {
+        if (inFlight.contains(pageIndex)) {
+            return;
+        }
+        wanted.remove(pageIndex);
+        wanted.add(pageIndex);
+        if (!dispatchTimer.isRunning()) {
+            dispatchTimer.start();
+        }
+    }
+
+    /**
+     * Lance les pages demandées le plus récemment; les plus anciennes (déjà dépassées par
+     * le défilement) sont abandonnées et redessinées : elles ne sont redemandées que si visibles
+     */
+    private void dispatch() {
+        List<Integer> ordered = new ArrayList<>(wanted);
+        List<Integer> dropped = new ArrayList<>();
+        for (int i = 0; i < ordered.size() - MAX_WANTED_PAGES; i++) {
+            dropped.add(ordered.get(i));
+        }
+        wanted.removeAll(dropped);
+
+        List<Integer> newestFirst = new ArrayList<>(wanted);
+        Collections.reverse(newestFirst);
+        for (int pageIndex : newestFirst) {
+            if (inFlight.size() >= MAX_PAGES_IN_FLIGHT) {
+                break;
+            }
+            wanted.remove(pageIndex);
+            load(pageIndex);
+        }
+
+        for (int pageIndex : dropped) {
+            repaintPage(pageIndex);
+        }
+    }
+
+    private void load(int pageIndex) {
+        long generation = queryGeneration;
+        long version = dataVersion;
+        inFlight.add(pageIndex);
+        pageSource.loadPage(new HashMap<>(filters), SORT_PARAMS[sortColumn], sortDescending,
+                pageIndex * PAGE_SIZE, PAGE_SIZE)
+            .whenComplete((page, error) -> SwingUtilities.invokeLater(
+                () -> pageLoaded(generation, version, pageIndex, page, error)));
+    }
+
+    private void pageLoaded(long generation, long version, int pageIndex, TicketPageDTO page, Throwable error) {
+        if (generation != queryGeneration || pageSource == null) {
+            return;  // Tri ou filtres changés entre-temps
+        }
+        inFlight.remove(pageIndex);
+
+        if (error != null) {
+            if (loadErrorListener != null) {
+                loadErrorListener.accept(error.getCause() != null ? error.getCause() : error);
+            } else {
+                System.err.println("Erreur lors du chargement des tickets (page " + pageIndex + "): " + error.getMessage());
+            }
+        } else {
+            updateRowCount(page.getTotalCount());
+            Page previous = pages.get(pageIndex);
+            pages.put(pageIndex, new Page(page.getItems(), version));
+            firePageChanges(pageIndex, previous, page.getItems());
+        }
+
+        if (!wanted.isEmpty() && !dispatchTimer.isRunning()) {
+            dispatchTimer.start();
+        }
+    }
+
+    /**
+     * Ajuste le nombre de lignes (total du serveur) en signalant les lignes ajoutées ou retirées en fin de liste
+     */
+    private void updateRowCount(int total) {
+        if (total > rowCount) {
+            int first = rowCount;
+            rowCount = total;
+            fireTableRowsInserted(first, total - 1);
+        } else if (total < rowCount) {
+            int previousCount = rowCount;
+            rowCount = total;
+            fireTableRowsDeleted(total, previousCount - 1);
+        }
+    }
+
+    /**
+     * Signale les lignes de la page qui ont changé (toutes si elle n'était pas affichée)
+     */
+    private void firePageChanges(int pageIndex, Page previous, List<TicketDTO> rows) {
+        int first = pageIndex * PAGE_SIZE;
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (last < first) {
+            return;
+        }
+        if (previous == null) {
+            fireTableRowsUpdated(first, last);
+            return;
+        }
+        int changedFrom = -1;
+        for (int row = first; row <= last; row++) {
+            int index = row - first;
+            TicketDTO before = index < previous.rows.size() ? previous.rows.get(index) : null;
+            TicketDTO after = index < rows.size() ? rows.get(index) : null;
+            boolean same = before != null && after != null ? sameRow(before, after) : before == after;
+            if (!same) {
+                if (changedFrom == -1) {
+                    changedFrom = row;
+                }
+            } else {
+                flushUpdated(changedFrom, row - 1);
+                changedFrom = -1;
+            }
+        }
+        flushUpdated(changedFrom, last);
+    }
+
+    private void repaintPage(int pageIndex) {
+        int first = pageIndex * PAGE_SIZE;
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (last >= first) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
 }
@@ -5,10 +5,28 @@ import com.google.gson.reflect.TypeToken;
 import gui.models.*;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * RestApiClient - Client HTTP pour communiquer avec l'API REST
@@ -16,20 +34,79 @@ import java.util.*;
  * Encapsule tous les appels HTTP vers le serveur REST
  * Gère l'authentification via token Bearer
  * Convertit les réponses JSON en DTOs
+ *
+ * Un seul java.net.http.HttpClient est partagé : les connexions sont réutilisées
+ * (keep-alive) et HTTP/2 est négocié (ALPN) quand l'API est servie en https.
+ * Chaque méthode existe en version bloquante et en version ...Async (CompletableFuture);
+ * les callbacks des futures s'exécutent hors de l'EDT Swing.
+ *
+ * Délais et reprises (propriétés système) :
+ * - tickets.client.connectTimeoutMs (5000), tickets.client.requestTimeoutMs (30000)
+ * - tickets.client.maxRetries (2), tickets.client.retryBackoffMs (200) : les requêtes
+ *   idempotentes (GET, PUT, DELETE) sont relancées après une erreur réseau ou une réponse
+ *   502/503/504, avec un délai doublé à chaque tentative (Retry-After respecté)
  */
 public class RestApiClient {
     private static final String BASE_URL = "http://localhost:8080/api/v1";
     private static RestApiClient instance;
+    private static final int CACHE_MAX_ENTRIES = 64;
+    private static final long MAX_BACKOFF_MS = 10_000;
 
     private final Gson gson;
-    private String authToken;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private volatile String authToken;
+    private final Map<String, CachedResponse> responseCache; // URL -> dernière réponse GET avec ETag
 
     private RestApiClient() {
         this.gson = new Gson();
         this.authToken = null;
+        this.requestTimeout = Duration.ofMillis(Long.getLong("tickets.client.requestTimeoutMs", 30_000));
+        this.maxRetries = Integer.getInteger("tickets.client.maxRetries", 2);
+        this.retryBackoffMillis = Long.getLong("tickets.client.retryBackoffMs", 200);
+        this.httpClient = HttpClient.newBuilder()
+                // HTTP/2 négocié par ALPN en https; en clair, HTTP/1.1 persistant (pas d'Upgrade h2c à chaque requête)
+                .version(BASE_URL.startsWith("https:") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(Long.getLong("tickets.client.connectTimeoutMs", 5_000)))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.responseCache = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > CACHE_MAX_ENTRIES;
+            }
+        };
+    }
+
+    /**
+     * Réponse GET conservée pour la revalidation (If-None-Match -> 304)
+     */
+    private static final class CachedResponse {
+        final String etag;
+        final ApiResponse response;
+
+        CachedResponse(String etag, ApiResponse response) {
+            this.etag = etag;
+            this.response = response;
+        }
+    }
+
+    /**
+     * Corps décodé et en-têtes d'une réponse (en-têtes de la réponse 200 d'origine après un 304)
+     */
+    private static final class ApiResponse {
+        final String body;
+        final HttpHeaders headers;
+
+        ApiResponse(String body, HttpHeaders headers) {
+            this.body = body;
+            this.headers = headers;
+        }
     }
 
-    public static RestApiClient getInstance() {
+    public static synchronized RestApiClient getInstance() {
         if (instance == null) {
             instance = new RestApiClient();
         }
@@ -41,6 +118,9 @@ public class RestApiClient {
      */
     public void setAuthToken(String token) {
         this.authToken = token;
+        synchronized (responseCache) {
+            responseCache.clear(); // Les réponses dépendent de l'utilisateur
+        }
     }
 
     /**
@@ -54,7 +134,8 @@ public class RestApiClient {
      * Vérifie si le client est authentifié
      */
     public boolean isAuthenticated() {
-        return authToken != null && !authToken.isEmpty();
+        String token = authToken;
+        return token != null && !token.isEmpty();
     }
 
     // ========================================================================
@@ -66,18 +147,22 @@ public class RestApiClient {
      * Authentifie un utilisateur et stocke le token
      */
     public UserDTO login(int userID) throws IOException {
-        String requestBody = String.format("{\"userID\": %d}", userID);
+        return await(loginAsync(userID));
+    }
 
-        String response = sendRequest("POST", "/auth/login", requestBody, false);
+    public CompletableFuture<UserDTO> loginAsync(int userID) {
+        String requestBody = String.format("{\"userID\": %d}", userID);
 
-        // Parser la réponse AuthResponse
-        Map<String, Object> authResponse = gson.fromJson(response,
-            new TypeToken<Map<String, Object>>(){}.getType());
+        return sendAsync("POST", "/auth/login", requestBody, false).thenApply(response -> {
+            // Parser la réponse AuthResponse
+            Map<String, Object> authResponse = gson.fromJson(response,
+                new TypeToken<Map<String, Object>>(){}.getType());
 
-        this.authToken = (String) authResponse.get("token");
+            this.authToken = (String) authResponse.get("token");
 
-        Map<String, Object> userMap = (Map<String, Object>) authResponse.get("user");
-        return mapToUserDTO(userMap);
+            Map<String, Object> userMap = (Map<String, Object>) authResponse.get("user");
+            return mapToUserDTO(userMap);
+        });
     }
 
     /**
@@ -85,8 +170,11 @@ public class RestApiClient {
      * Vérifie la session active
      */
     public UserDTO getSession() throws IOException {
-        String response = sendRequest("GET", "/auth/session", null, true);
-        return gson.fromJson(response, UserDTO.class);
+        return await(getSessionAsync());
+    }
+
+    public CompletableFuture<UserDTO> getSessionAsync() {
+        return sendAsync("GET", "/auth/session", null, true).thenApply(json(UserDTO.class));
     }
 
     /**
@@ -94,8 +182,11 @@ public class RestApiClient {
      * Déconnexion
      */
     public void logout() throws IOException {
-        sendRequest("POST", "/auth/logout", null, true);
-        this.authToken = null;
+        await(logoutAsync());
+    }
+
+    public CompletableFuture<Void> logoutAsync() {
+        return sendAsync("POST", "/auth/logout", null, true).thenAccept(response -> this.authToken = null);
     }
 
     // ========================================================================
@@ -107,8 +198,12 @@ public class RestApiClient {
      * Liste tous les utilisateurs
      */
     public List<UserDTO> getAllUsers() throws IOException {
-        String response = sendRequest("GET", "/users", null, true);
-        return gson.fromJson(response, new TypeToken<List<UserDTO>>(){}.getType());
+        return await(getAllUsersAsync());
+    }
+
+    public CompletableFuture<List<UserDTO>> getAllUsersAsync() {
+        return sendAsync("GET", "/users", null, true)
+                .thenApply(json(new TypeToken<List<UserDTO>>(){}));
     }
 
     /**
@@ -116,8 +211,11 @@ public class RestApiClient {
      * Détails d'un utilisateur
      */
     public UserDTO getUserById(int userID) throws IOException {
-        String response = sendRequest("GET", "/users/" + userID, null, true);
-        return gson.fromJson(response, UserDTO.class);
+        return await(getUserByIdAsync(userID));
+    }
+
+    public CompletableFuture<UserDTO> getUserByIdAsync(int userID) {
+        return sendAsync("GET", "/users/" + userID, null, true).thenApply(json(UserDTO.class));
     }
 
     // ========================================================================
@@ -129,8 +227,12 @@ public class RestApiClient {
      * Liste des tickets (filtrés selon les permissions utilisateur)
      */
     public List<TicketDTO> getAllTickets() throws IOException {
-        String response = sendRequest("GET", "/tickets", null, true);
-        return gson.fromJson(response, new TypeToken<List<TicketDTO>>(){}.getType());
+        return await(getAllTicketsAsync());
+    }
+
+    public CompletableFuture<List<TicketDTO>> getAllTicketsAsync() {
+        return sendAsync("GET", "/tickets", null, true)
+                .thenApply(json(new TypeToken<List<TicketDTO>>(){}));
     }
 
     /**
@@ -138,20 +240,84 @@ public class RestApiClient {
      * Liste des tickets avec filtres
      */
     public List<TicketDTO> getTicketsWithFilters(String status, String priority, Integer assignedTo) throws IOException {
+        return await(getTicketsWithFiltersAsync(status, priority, assignedTo));
+    }
+
+    public CompletableFuture<List<TicketDTO>> getTicketsWithFiltersAsync(String status, String priority,
+                                                                         Integer assignedTo) {
         StringBuilder endpoint = new StringBuilder("/tickets?");
 
         if (status != null && !status.isEmpty()) {
-            endpoint.append("status=").append(status).append("&");
+            endpoint.append("status=").append(URLEncoder.encode(status, StandardCharsets.UTF_8)).append("&");
         }
         if (priority != null && !priority.isEmpty()) {
-            endpoint.append("priority=").append(priority).append("&");
+            endpoint.append("priority=").append(URLEncoder.encode(priority, StandardCharsets.UTF_8)).append("&");
         }
         if (assignedTo != null) {
             endpoint.append("assignedTo=").append(assignedTo).append("&");
         }
 
-        String response = sendRequest("GET", endpoint.toString(), null, true);
-        return gson.fromJson(response, new TypeToken<List<TicketDTO>>(){}.getType());
+        return sendAsync("GET", endpoint.toString(), null, true)
+                .thenApply(json(new TypeToken<List<TicketDTO>>(){}));
+    }
+
+    /**
+     * GET /tickets?limit=&offset=&sort=&order=&...
+     * Une page de tickets et le nombre total de résultats (X-Total-Count)
+     * @param filters Filtres du serveur (status, priority, assignedTo, createdBy, title), valeurs vides ignorées
+     * @param sort Champ de tri (id, creationDate, updateDate, priority, status), null : id
+     */
+    public TicketPageDTO getTicketPage(Map<String, String> filters, String sort, boolean descending,
+                                       int offset, int limit) throws IOException {
+        return await(getTicketPageAsync(filters, sort, descending, offset, limit));
+    }
+
+    public CompletableFuture<TicketPageDTO> getTicketPageAsync(Map<String, String> filters, String sort,
+                                                               boolean descending, int offset, int limit) {
+        StringBuilder endpoint = new StringBuilder("/tickets?limit=").append(limit).append("&offset=").append(offset);
+        if (sort != null) {
+            endpoint.append("&sort=").append(URLEncoder.encode(sort, StandardCharsets.UTF_8))
+                    .append("&order=").append(descending ? "desc" : "asc");
+        }
+        // Ordre stable des paramètres : même URL (et même entrée du cache ETag) pour la même page
+        for (Map.Entry<String, String> filter : new TreeMap<>(filters).entrySet()) {
+            if (filter.getValue() != null && !filter.getValue().isEmpty()) {
+                endpoint.append("&").append(filter.getKey()).append("=")
+                        .append(URLEncoder.encode(filter.getValue(), StandardCharsets.UTF_8));
+            }
+        }
+
+        return exchangeAsync("GET", endpoint.toString(), null, true, -1, null).thenApply(response -> {
+            List<TicketDTO> items = gson.fromJson(response.body, new TypeToken<List<TicketDTO>>(){}.getType());
+            long total = response.headers.firstValue("X-Total-Count").map(Long::parseLong).orElse((long) items.size());
+            return new TicketPageDTO(items, (int) total, offset);
+        });
+    }
+
+    /**
+     * GET /tickets/changes?since=
+     * Changements depuis une révision (since négatif : révision courante + resynchronisation)
+     */
+    public TicketChangesDTO getTicketChanges(long since) throws IOException {
+        return await(getTicketChangesAsync(since));
+    }
+
+    public CompletableFuture<TicketChangesDTO> getTicketChangesAsync(long since) {
+        String endpoint = since >= 0 ? "/tickets/changes?since=" + since : "/tickets/changes";
+        return sendAsync("GET", endpoint, null, true).thenApply(json(TicketChangesDTO.class));
+    }
+
+    /**
+     * GET /events (Server-Sent Events)
+     * Ouvre le flux des changements de tickets pour l'utilisateur connecté
+     * @param lastEventId Révision déjà connue, relue à chaque reconnexion (négative : aucune)
+     * @param consumer Appelé sur le thread du flux pour chaque événement
+     * @return Le flux démarré (à fermer avec close())
+     */
+    public TicketEventStream openEventStream(LongSupplier lastEventId, Consumer<TicketEventDTO> consumer) {
+        TicketEventStream stream = new TicketEventStream(BASE_URL + "/events", authToken, lastEventId, consumer, gson);
+        stream.start();
+        return stream;
     }
 
     /**
@@ -159,8 +325,11 @@ public class RestApiClient {
      * Détails d'un ticket
      */
     public TicketDTO getTicketById(int ticketID) throws IOException {
-        String response = sendRequest("GET", "/tickets/" + ticketID, null, true);
-        return gson.fromJson(response, TicketDTO.class);
+        return await(getTicketByIdAsync(ticketID));
+    }
+
+    public CompletableFuture<TicketDTO> getTicketByIdAsync(int ticketID) {
+        return sendAsync("GET", "/tickets/" + ticketID, null, true).thenApply(json(TicketDTO.class));
     }
 
     /**
@@ -168,15 +337,18 @@ public class RestApiClient {
      * Créer un nouveau ticket
      */
     public TicketDTO createTicket(String title, String priority, List<ContentItemDTO> contentItems) throws IOException {
+        return await(createTicketAsync(title, priority, contentItems));
+    }
+
+    public CompletableFuture<TicketDTO> createTicketAsync(String title, String priority,
+                                                          List<ContentItemDTO> contentItems) {
         Map<String, Object> request = new HashMap<>();
         request.put("title", title);
         request.put("priority", priority);
         request.put("descriptionContent", contentItems);
 
         String requestBody = gson.toJson(request);
-        String response = sendRequest("POST", "/tickets", requestBody, true);
-
-        return gson.fromJson(response, TicketDTO.class);
+        return sendAsync("POST", "/tickets", requestBody, true).thenApply(json(TicketDTO.class));
     }
 
     /**
@@ -184,15 +356,34 @@ public class RestApiClient {
      * Modifier un ticket
      */
     public TicketDTO updateTicket(int ticketID, String title, String priority, List<ContentItemDTO> contentItems) throws IOException {
+        return updateTicket(ticketID, title, priority, contentItems, null);
+    }
+
+    public CompletableFuture<TicketDTO> updateTicketAsync(int ticketID, String title, String priority,
+                                                          List<ContentItemDTO> contentItems) {
+        return updateTicketAsync(ticketID, title, priority, contentItems, null);
+    }
+
+    /**
+     * PUT /tickets/{id} conditionnel (If-Match)
+     * @param expectedVersion Version lue (TicketDTO.getVersion()), null : sans condition
+     * @throws VersionConflictException si le ticket a été modifié depuis cette version
+     */
+    public TicketDTO updateTicket(int ticketID, String title, String priority, List<ContentItemDTO> contentItems,
+                                  Long expectedVersion) throws IOException {
+        return await(updateTicketAsync(ticketID, title, priority, contentItems, expectedVersion));
+    }
+
+    public CompletableFuture<TicketDTO> updateTicketAsync(int ticketID, String title, String priority,
+                                                          List<ContentItemDTO> contentItems, Long expectedVersion) {
         Map<String, Object> request = new HashMap<>();
         if (title != null) request.put("title", title);
         if (priority != null) request.put("priority", priority);
         if (contentItems != null) request.put("descriptionContent", contentItems);
 
         String requestBody = gson.toJson(request);
-        String response = sendRequest("PUT", "/tickets/" + ticketID, requestBody, true);
-
-        return gson.fromJson(response, TicketDTO.class);
+        return sendAsync("PUT", "/tickets/" + ticketID, requestBody, true, -1, expectedVersion)
+                .thenApply(json(TicketDTO.class));
     }
 
     /**
@@ -200,7 +391,11 @@ public class RestApiClient {
      * Supprimer un ticket (admin seulement)
      */
     public void deleteTicket(int ticketID) throws IOException {
-        sendRequest("DELETE", "/tickets/" + ticketID, null, true);
+        await(deleteTicketAsync(ticketID));
+    }
+
+    public CompletableFuture<Void> deleteTicketAsync(int ticketID) {
+        return sendAsync("DELETE", "/tickets/" + ticketID, null, true).thenAccept(response -> { });
     }
 
     // ========================================================================
@@ -212,8 +407,12 @@ public class RestApiClient {
      * Liste des commentaires d'un ticket
      */
     public List<String> getTicketComments(int ticketID) throws IOException {
-        String response = sendRequest("GET", "/tickets/" + ticketID + "/comments", null, true);
-        return gson.fromJson(response, new TypeToken<List<String>>(){}.getType());
+        return await(getTicketCommentsAsync(ticketID));
+    }
+
+    public CompletableFuture<List<String>> getTicketCommentsAsync(int ticketID) {
+        return sendAsync("GET", "/tickets/" + ticketID + "/comments", null, true)
+                .thenApply(json(new TypeToken<List<String>>(){}));
     }
 
     /**
@@ -221,13 +420,16 @@ public class RestApiClient {
      * Ajouter un commentaire
      */
     public String addComment(int ticketID, String text) throws IOException {
+        return await(addCommentAsync(ticketID, text));
+    }
+
+    public CompletableFuture<String> addCommentAsync(int ticketID, String text) {
         Map<String, String> request = new HashMap<>();
         request.put("text", text);
 
         String requestBody = gson.toJson(request);
-        String response = sendRequest("POST", "/tickets/" + ticketID + "/comments", requestBody, true);
-
-        return gson.fromJson(response, String.class);
+        return sendAsync("POST", "/tickets/" + ticketID + "/comments", requestBody, true)
+                .thenApply(json(String.class));
     }
 
     // ========================================================================
@@ -239,8 +441,12 @@ public class RestApiClient {
      * Obtenir les transitions disponibles
      */
     public List<String> getAvailableTransitions(int ticketID) throws IOException {
-        String response = sendRequest("GET", "/tickets/" + ticketID + "/status", null, true);
-        return gson.fromJson(response, new TypeToken<List<String>>(){}.getType());
+        return await(getAvailableTransitionsAsync(ticketID));
+    }
+
+    public CompletableFuture<List<String>> getAvailableTransitionsAsync(int ticketID) {
+        return sendAsync("GET", "/tickets/" + ticketID + "/status", null, true)
+                .thenApply(json(new TypeToken<List<String>>(){}));
     }
 
     /**
@@ -248,13 +454,29 @@ public class RestApiClient {
      * Changer le statut d'un ticket
      */
     public TicketDTO changeTicketStatus(int ticketID, String newStatus) throws IOException {
+        return changeTicketStatus(ticketID, newStatus, null);
+    }
+
+    public CompletableFuture<TicketDTO> changeTicketStatusAsync(int ticketID, String newStatus) {
+        return changeTicketStatusAsync(ticketID, newStatus, null);
+    }
+
+    /**
+     * Changement de statut conditionnel (If-Match)
+     * @param expectedVersion Version lue (TicketDTO.getVersion()), null : sans condition
+     * @throws VersionConflictException si le ticket a été modifié depuis cette version
+     */
+    public TicketDTO changeTicketStatus(int ticketID, String newStatus, Long expectedVersion) throws IOException {
+        return await(changeTicketStatusAsync(ticketID, newStatus, expectedVersion));
+    }
+
+    public CompletableFuture<TicketDTO> changeTicketStatusAsync(int ticketID, String newStatus, Long expectedVersion) {
         Map<String, String> request = new HashMap<>();
         request.put("newStatus", newStatus);
 
         String requestBody = gson.toJson(request);
-        String response = sendRequest("POST", "/tickets/" + ticketID + "/status", requestBody, true);
-
-        return gson.fromJson(response, TicketDTO.class);
+        return sendAsync("POST", "/tickets/" + ticketID + "/status", requestBody, true, -1, expectedVersion)
+                .thenApply(json(TicketDTO.class));
     }
 
     // ========================================================================
@@ -266,31 +488,164 @@ public class RestApiClient {
      * Assigner un ticket à un utilisateur
      */
     public TicketDTO assignTicket(int ticketID, int userID) throws IOException {
+        return assignTicket(ticketID, userID, null);
+    }
+
+    public CompletableFuture<TicketDTO> assignTicketAsync(int ticketID, int userID) {
+        return assignTicketAsync(ticketID, userID, null);
+    }
+
+    /**
+     * Assignation conditionnelle (If-Match)
+     * @param expectedVersion Version lue (TicketDTO.getVersion()), null : sans condition
+     * @throws VersionConflictException si le ticket a été modifié depuis cette version
+     */
+    public TicketDTO assignTicket(int ticketID, int userID, Long expectedVersion) throws IOException {
+        return await(assignTicketAsync(ticketID, userID, expectedVersion));
+    }
+
+    public CompletableFuture<TicketDTO> assignTicketAsync(int ticketID, int userID, Long expectedVersion) {
         Map<String, Integer> request = new HashMap<>();
         request.put("userID", userID);
 
         String requestBody = gson.toJson(request);
-        String response = sendRequest("POST", "/tickets/" + ticketID + "/assignment", requestBody, true);
-
-        return gson.fromJson(response, TicketDTO.class);
+        return sendAsync("POST", "/tickets/" + ticketID + "/assignment", requestBody, true, -1, expectedVersion)
+                .thenApply(json(TicketDTO.class));
     }
 
     // ========================================================================
     // EXPORT
     // ========================================================================
 
+    // ========================================================================
+    // Opérations groupées (POST /tickets/batch)
+    // ========================================================================
+
+    /**
+     * Crée une opération pour executeBatch()
+     * @param op CREATE, UPDATE, STATUS, ASSIGN, COMMENT ou DELETE
+     * @param ticketID Ticket visé (null pour CREATE)
+     * @return Map à compléter (title, priority, descriptionContent, newStatus, userID, text)
+     */
+    public static Map<String, Object> batchOperation(String op, Integer ticketID) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("op", op);
+        if (ticketID != null) {
+            operation.put("ticketID", ticketID);
+        }
+        return operation;
+    }
+
+    /**
+     * POST /tickets/batch
+     * Exécute plusieurs opérations en une requête
+     * @param atomic true : tout ou rien (committed faux si une opération échoue);
+     *               false : chaque opération réussit ou échoue seule
+     */
+    public BatchResponseDTO executeBatch(List<Map<String, Object>> operations, boolean atomic) throws IOException {
+        return await(executeBatchAsync(operations, atomic));
+    }
+
+    public CompletableFuture<BatchResponseDTO> executeBatchAsync(List<Map<String, Object>> operations,
+                                                                 boolean atomic) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("mode", atomic ? "atomic" : "bestEffort");
+        request.put("operations", operations);
+
+        // 409 : lot atomique annulé, le corps détaille l'opération en échec
+        return sendAsync("POST", "/tickets/batch", gson.toJson(request), true, HTTP_CONFLICT, null)
+                .thenApply(json(BatchResponseDTO.class));
+    }
+
+    /**
+     * Change le statut de plusieurs tickets (une requête)
+     */
+    public BatchResponseDTO changeTicketStatusBulk(List<Integer> ticketIDs, String newStatus, boolean atomic) throws IOException {
+        return await(changeTicketStatusBulkAsync(ticketIDs, newStatus, atomic));
+    }
+
+    public CompletableFuture<BatchResponseDTO> changeTicketStatusBulkAsync(List<Integer> ticketIDs, String newStatus,
+                                                                           boolean atomic) {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (Integer ticketID : ticketIDs) {
+            Map<String, Object> operation = batchOperation("STATUS", ticketID);
+            operation.put("newStatus", newStatus);
+            operations.add(operation);
+        }
+        return executeBatchAsync(operations, atomic);
+    }
+
+    /**
+     * Assigne plusieurs tickets au même utilisateur (une requête)
+     */
+    public BatchResponseDTO assignTicketsBulk(List<Integer> ticketIDs, int userID, boolean atomic) throws IOException {
+        return await(assignTicketsBulkAsync(ticketIDs, userID, atomic));
+    }
+
+    public CompletableFuture<BatchResponseDTO> assignTicketsBulkAsync(List<Integer> ticketIDs, int userID,
+                                                                      boolean atomic) {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (Integer ticketID : ticketIDs) {
+            Map<String, Object> operation = batchOperation("ASSIGN", ticketID);
+            operation.put("userID", userID);
+            operations.add(operation);
+        }
+        return executeBatchAsync(operations, atomic);
+    }
+
+    /**
+     * Ajoute le même commentaire à plusieurs tickets (une requête)
+     */
+    public BatchResponseDTO addCommentBulk(List<Integer> ticketIDs, String text, boolean atomic) throws IOException {
+        return await(addCommentBulkAsync(ticketIDs, text, atomic));
+    }
+
+    public CompletableFuture<BatchResponseDTO> addCommentBulkAsync(List<Integer> ticketIDs, String text,
+                                                                   boolean atomic) {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (Integer ticketID : ticketIDs) {
+            Map<String, Object> operation = batchOperation("COMMENT", ticketID);
+            operation.put("text", text);
+            operations.add(operation);
+        }
+        return executeBatchAsync(operations, atomic);
+    }
+
+    /**
+     * Supprime plusieurs tickets (une requête, Admin seulement)
+     */
+    public BatchResponseDTO deleteTicketsBulk(List<Integer> ticketIDs, boolean atomic) throws IOException {
+        return await(deleteTicketsBulkAsync(ticketIDs, atomic));
+    }
+
+    public CompletableFuture<BatchResponseDTO> deleteTicketsBulkAsync(List<Integer> ticketIDs, boolean atomic) {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (Integer ticketID : ticketIDs) {
+            operations.add(batchOperation("DELETE", ticketID));
+        }
+        return executeBatchAsync(operations, atomic);
+    }
+
     /**
      * GET /tickets/{id}/export/pdf
      * Exporter un ticket en PDF
      */
     public String exportTicketToPDF(int ticketID) throws IOException {
-        return sendRequest("GET", "/tickets/" + ticketID + "/export/pdf", null, true);
+        return await(exportTicketToPDFAsync(ticketID));
+    }
+
+    public CompletableFuture<String> exportTicketToPDFAsync(int ticketID) {
+        return sendAsync("GET", "/tickets/" + ticketID + "/export/pdf", null, true);
     }
 
     // ========================================================================
     // MÉTHODES UTILITAIRES PRIVÉES
     // ========================================================================
 
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_CONFLICT = 409;
+    private static final int HTTP_PRECON_FAILED = 412;
+
     /**
      * Envoie une requête HTTP au serveur
      *
@@ -298,71 +653,245 @@ public class RestApiClient {
      * @param endpoint Chemin de l'endpoint (ex: "/tickets")
      * @param requestBody Corps de la requête JSON (null si GET)
      * @param requireAuth true si l'authentification est requise
-     * @return La réponse du serveur (corps de la réponse)
-     * @throws IOException En cas d'erreur réseau ou HTTP
+     * @return La réponse du serveur (corps de la réponse); le future échoue avec IOException
+     *         en cas d'erreur réseau ou HTTP
      */
-    private String sendRequest(String method, String endpoint, String requestBody, boolean requireAuth) throws IOException {
-        URL url = new URL(BASE_URL + endpoint);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+    private CompletableFuture<String> sendAsync(String method, String endpoint, String requestBody,
+                                                boolean requireAuth) {
+        return sendAsync(method, endpoint, requestBody, requireAuth, -1, null);
+    }
+
+    /**
+     * Comme sendAsync, avec If-Match si expectedVersion est fourni
+     * @param acceptedErrorStatus Code d'erreur dont le corps est retourné au lieu d'un échec
+     * @throws VersionConflictException (cause du future) si le serveur répond 412 (version dépassée)
+     */
+    private CompletableFuture<String> sendAsync(String method, String endpoint, String requestBody,
+                                                boolean requireAuth, int acceptedErrorStatus,
+                                                Long expectedVersion) {
+        return exchangeAsync(method, endpoint, requestBody, requireAuth, acceptedErrorStatus, expectedVersion)
+                .thenApply(response -> response.body);
+    }
 
-        conn.setRequestMethod(method);
-        conn.setRequestProperty("Content-Type", "application/json");
-        conn.setRequestProperty("Accept", "application/json");
+    /**
+     * Comme sendAsync, en conservant les en-têtes de la réponse (ex : X-Total-Count)
+     */
+    private CompletableFuture<ApiResponse> exchangeAsync(String method, String endpoint, String requestBody,
+                                                         boolean requireAuth, int acceptedErrorStatus,
+                                                         Long expectedVersion) {
+        URI uri = URI.create(BASE_URL + endpoint);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip, deflate");
 
         // Ajouter le token d'authentification si requis
-        if (requireAuth && authToken != null) {
-            conn.setRequestProperty("Authorization", "Bearer " + authToken);
+        String token = authToken;
+        if (requireAuth && token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        // Écriture conditionnelle : refusée (412) si le ticket a changé depuis cette version
+        if (expectedVersion != null) {
+            builder.header("If-Match", "\"" + expectedVersion + "\"");
         }
 
-        // Envoyer le corps de la requête si présent
-        if (requestBody != null && !requestBody.isEmpty()) {
-            conn.setDoOutput(true);
-            try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = requestBody.getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
+        // Revalidation : le serveur répond 304 si la version en cache est toujours à jour
+        String cacheKey = uri.toString();
+        CachedResponse cached = null;
+        if ("GET".equals(method)) {
+            synchronized (responseCache) {
+                cached = responseCache.get(cacheKey);
+            }
+            if (cached != null) {
+                builder.header("If-None-Match", cached.etag);
             }
         }
 
-        // Lire la réponse
-        int statusCode = conn.getResponseCode();
+        builder.method(method, requestBody != null && !requestBody.isEmpty()
+                ? HttpRequest.BodyPublishers.ofString(requestBody, StandardCharsets.UTF_8)
+                : HttpRequest.BodyPublishers.noBody());
+
+        CachedResponse revalidated = cached;
+        return sendWithRetry(builder.build(), isIdempotent(method), 0)
+                .thenApply(response -> readResponse(method, cacheKey, revalidated, acceptedErrorStatus, response));
+    }
+
+    /**
+     * Lit la réponse : corps (succès ou acceptedErrorStatus), cache ETag, ou exception
+     */
+    private ApiResponse readResponse(String method, String cacheKey, CachedResponse cached, int acceptedErrorStatus,
+                                     HttpResponse<byte[]> response) {
+        int statusCode = response.statusCode();
+
+        if (statusCode == HTTP_NOT_MODIFIED && cached != null) {
+            return cached.response;
+        }
+
+        String body;
+        try {
+            body = decodeBody(response);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
 
         // Codes de succès
-        if (statusCode >= 200 && statusCode < 300) {
+        if ((statusCode >= 200 && statusCode < 300) || statusCode == acceptedErrorStatus) {
             if (statusCode == 204) {
                 // No Content
-                return "";
+                return new ApiResponse("", response.headers());
             }
 
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = br.readLine()) != null) {
-                    response.append(line);
+            ApiResponse result = new ApiResponse(body, response.headers());
+            Optional<String> etag = response.headers().firstValue("ETag");
+            if ("GET".equals(method) && etag.isPresent()) {
+                synchronized (responseCache) {
+                    responseCache.put(cacheKey, new CachedResponse(etag.get(), result));
                 }
-                return response.toString();
             }
-        } else {
-            // Erreur HTTP
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(conn.getErrorStream(), StandardCharsets.UTF_8))) {
-                StringBuilder errorResponse = new StringBuilder();
-                String line;
-                while ((line = br.readLine()) != null) {
-                    errorResponse.append(line);
-                }
+            return result;
+        }
+
+        // Erreur HTTP : parser l'erreur JSON si possible
+        String message;
+        try {
+            Map<String, Object> errorMap = gson.fromJson(body,
+                new TypeToken<Map<String, Object>>(){}.getType());
+            message = (String) errorMap.get("message");
+        } catch (Exception e) {
+            message = body;
+        }
+        if (statusCode == HTTP_PRECON_FAILED) {
+            throw new CompletionException(new VersionConflictException(message));
+        }
+        throw new CompletionException(new IOException("Erreur HTTP " + statusCode + ": " + message));
+    }
+
+    /**
+     * Envoie la requête; une requête idempotente est relancée après une erreur réseau
+     * ou une réponse 502/503/504, au plus maxRetries fois (délai exponentiel avec gigue)
+     */
+    private CompletableFuture<HttpResponse<byte[]>> sendWithRetry(HttpRequest request, boolean idempotent,
+                                                                  int attempt) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    boolean retry = idempotent && attempt < maxRetries
+                            && (error != null ? isTransient(error) : isRetryableStatus(response.statusCode()));
+                    if (!retry) {
+                        return error != null
+                                ? CompletableFuture.<HttpResponse<byte[]>>failedFuture(error)
+                                : CompletableFuture.completedFuture(response);
+                    }
+                    long delay = backoffMillis(attempt, response);
+                    System.err.println("[API] " + request.method() + " " + request.uri().getPath() + " : "
+                            + (error != null ? rootCause(error).getClass().getSimpleName() : "HTTP " + response.statusCode())
+                            + ", nouvelle tentative dans " + delay + " ms");
+                    return CompletableFuture.runAsync(() -> { },
+                                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                            .thenCompose(ignored -> sendWithRetry(request, true, attempt + 1));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private static boolean isIdempotent(String method) {
+        return "GET".equals(method) || "PUT".equals(method) || "DELETE".equals(method) || "HEAD".equals(method);
+    }
+
+    private static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * Erreurs réseau passagères (connexion refusée ou coupée, délai dépassé)
+     */
+    private static boolean isTransient(Throwable error) {
+        Throwable cause = rootCause(error);
+        return cause instanceof ConnectException
+                || cause instanceof HttpConnectTimeoutException
+                || cause instanceof HttpTimeoutException
+                || (cause instanceof IOException && !(cause instanceof InterruptedIOException));
+    }
 
-                // Parser l'erreur JSON si possible
+    /**
+     * Délai avant la tentative suivante : Retry-After (secondes) s'il est fourni,
+     * sinon retryBackoffMillis doublé à chaque tentative, avec gigue
+     */
+    private long backoffMillis(int attempt, HttpResponse<byte[]> response) {
+        if (response != null) {
+            Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+            if (retryAfter.isPresent()) {
                 try {
-                    Map<String, Object> errorMap = gson.fromJson(errorResponse.toString(),
-                        new TypeToken<Map<String, Object>>(){}.getType());
-                    String message = (String) errorMap.get("message");
-                    throw new IOException("Erreur HTTP " + statusCode + ": " + message);
-                } catch (Exception e) {
-                    throw new IOException("Erreur HTTP " + statusCode + ": " + errorResponse.toString());
+                    return Math.min(MAX_BACKOFF_MS, Long.parseLong(retryAfter.get().trim()) * 1000);
+                } catch (NumberFormatException e) {
+                    // date HTTP : délai exponentiel
                 }
             }
         }
+        long base = Math.min(MAX_BACKOFF_MS, retryBackoffMillis << Math.min(attempt, 20));
+        return base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * Attend le résultat d'un appel asynchrone (méthodes bloquantes)
+     * @throws IOException L'erreur réseau ou HTTP de l'appel (VersionConflictException, 412, est relancée telle quelle)
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Requête interrompue");
+        } catch (ExecutionException e) {
+            Throwable cause = rootCause(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private <T> Function<String, T> json(Class<T> type) {
+        return response -> gson.fromJson(response, type);
+    }
+
+    private <T> Function<String, T> json(TypeToken<T> type) {
+        return response -> gson.fromJson(response, type.getType());
+    }
+
+    /**
+     * Décompresse le corps de la réponse selon Content-Encoding (gzip ou deflate)
+     */
+    private static String decodeBody(HttpResponse<byte[]> response) throws IOException {
+        byte[] body = response.body();
+        if (body == null || body.length == 0) {
+            return "";
+        }
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        InputStream in;
+        if ("gzip".equalsIgnoreCase(encoding) || "x-gzip".equalsIgnoreCase(encoding)) {
+            in = new GZIPInputStream(new ByteArrayInputStream(body));
+        } else if ("deflate".equalsIgnoreCase(encoding)) {
+            in = new InflaterInputStream(new ByteArrayInputStream(body));
+        } else {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        try (InputStream decoded = in) {
+            return new String(decoded.readAllBytes(), StandardCharsets.UTF_8);
+        }
     }
 
     /**
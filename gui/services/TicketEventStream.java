@@ -0,0 +1,177 @@
+package gui.services;
+
+import com.google.gson.Gson;
+import gui.models.TicketEventDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * TicketEventStream - Abonnement au flux Server-Sent Events GET /events
+ *
+ * Un thread (daemon) lit le flux et transmet chaque événement au consommateur.
+ * En cas de coupure, la connexion est rétablie (délai croissant) avec l'en-tête
+ * Last-Event-ID : le serveur rejoue les changements manqués ou envoie RESYNC.
+ *
+ * Le consommateur est appelé sur le thread du flux, pas sur l'EDT Swing.
+ */
+public class TicketEventStream {
+    private static final int CONNECT_TIMEOUT_MS = 5000;
+    private static final int READ_TIMEOUT_MS = 45000;   // 3 heartbeats du serveur
+    private static final long MAX_RETRY_MS = 30000;
+
+    private final String url;
+    private final String authToken;
+    private final LongSupplier lastEventId;
+    private final Consumer<TicketEventDTO> consumer;
+    private final Gson gson;
+    private final Thread thread;
+
+    private volatile boolean closed;
+    private volatile HttpURLConnection connection;
+    private long retryMillis = 3000;
+
+    /**
+     * @param lastEventId Révision déjà connue (négative : aucune), lue à chaque (re)connexion
+     */
+    TicketEventStream(String url, String authToken, LongSupplier lastEventId,
+                      Consumer<TicketEventDTO> consumer, Gson gson) {
+        this.url = url;
+        this.authToken = authToken;
+        this.lastEventId = lastEventId;
+        this.consumer = consumer;
+        this.gson = gson;
+        this.thread = new Thread(this::run, "ticket-events");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Arrête le flux (la connexion en cours est coupée)
+     */
+    public void close() {
+        closed = true;
+        HttpURLConnection conn = connection;
+        if (conn != null) {
+            conn.disconnect();
+        }
+        thread.interrupt();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void run() {
+        long delay = 0;
+        while (!closed) {
+            try {
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+                boolean received = readStream();
+                delay = received ? retryMillis : Math.min(MAX_RETRY_MS, Math.max(retryMillis, delay * 2));
+            } catch (InterruptedException e) {
+                return;
+            } catch (SecurityException e) {
+                System.err.println("Flux d'événements arrêté: " + e.getMessage());
+                closed = true;
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Flux d'événements interrompu: " + e.getMessage());
+                }
+                delay = Math.min(MAX_RETRY_MS, Math.max(retryMillis, delay * 2));
+            }
+        }
+    }
+
+    /**
+     * Lit le flux jusqu'à sa fin
+     * @return true si au moins un événement a été reçu (reconnexion rapide)
+     */
+    private boolean readStream() throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        conn.setReadTimeout(READ_TIMEOUT_MS);
+        conn.setRequestProperty("Accept", "text/event-stream");
+        conn.setRequestProperty("Authorization", "Bearer " + authToken);
+        long since = lastEventId.getAsLong();
+        if (since >= 0) {
+            conn.setRequestProperty("Last-Event-ID", Long.toString(since));
+        }
+        connection = conn;
+
+        try {
+            int statusCode = conn.getResponseCode();
+            if (statusCode == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                throw new SecurityException("session expirée");
+            }
+            if (statusCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Erreur HTTP " + statusCode);
+            }
+
+            boolean received = false;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+                String eventName = null;
+                StringBuilder data = new StringBuilder();
+                String line;
+                while (!closed && (line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        // Fin d'un événement
+                        if (data.length() > 0) {
+                            dispatch(eventName, data.toString());
+                            received = true;
+                        }
+                        eventName = null;
+                        data.setLength(0);
+                    } else if (line.startsWith(":")) {
+                        // Commentaire (heartbeat)
+                    } else if (line.startsWith("event:")) {
+                        eventName = line.substring(6).trim();
+                    } else if (line.startsWith("data:")) {
+                        if (data.length() > 0) {
+                            data.append('\n');
+                        }
+                        data.append(line.substring(5).trim());
+                    } else if (line.startsWith("retry:")) {
+                        try {
+                            retryMillis = Long.parseLong(line.substring(6).trim());
+                        } catch (NumberFormatException e) {
+                            // Valeur ignorée
+                        }
+                    }
+                    // "id:" : la révision est aussi dans les données
+                }
+            }
+            return received;
+        } finally {
+            connection = null;
+            conn.disconnect();
+        }
+    }
+
+    private void dispatch(String eventName, String data) {
+        TicketEventDTO event = gson.fromJson(data, TicketEventDTO.class);
+        if (event == null) {
+            return;
+        }
+        if ("resync".equals(eventName) && !event.isResync()) {
+            event = new TicketEventDTO(event.getRevision(), TicketEventDTO.RESYNC, 0, null);
+        }
+        try {
+            consumer.accept(event);
+        } catch (RuntimeException e) {
+            System.err.println("Erreur lors du traitement d'un événement: " + e.getMessage());
+        }
+    }
+}
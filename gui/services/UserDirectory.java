@@ -0,0 +1,144 @@
+package gui.services;
+
+import gui.models.UserDTO;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDirectory - Annuaire des utilisateurs côté client
+ *
+ * Chargé une fois par session (GET /users) puis indexé par ID : la résolution des noms et
+ * les listes d'utilisateurs ne font aucun appel réseau tant que l'annuaire est frais.
+ *
+ * Passé le délai de validité (propriété tickets.client.userDirectoryTtlMs, 5 minutes par défaut),
+ * l'annuaire courant reste servi pendant qu'il est revalidé en arrière-plan : RestApiClient envoie
+ * If-None-Match et le serveur répond 304 si la liste n'a pas changé. Un seul chargement est en
+ * cours à la fois; en cas d'échec, la version précédente est conservée.
+ */
+public class UserDirectory {
+    private static final long DEFAULT_TTL_MS = 5 * 60 * 1000;
+
+    private final RestApiClient apiClient;
+    private final long ttlNanos;
+    private volatile Snapshot snapshot;            // null : pas encore chargé pour cette session
+    private CompletableFuture<Snapshot> loading;   // Chargement en cours (verrou this)
+    private long generation;                       // Incrémentée par invalidate() (verrou this)
+
+    /**
+     * Liste chargée et son index par ID (immuables)
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyList(), 0);
+
+        final List<UserDTO> users;
+        final Map<Integer, UserDTO> byId;
+        final long loadedAt;
+
+        Snapshot(List<UserDTO> users, long loadedAt) {
+            Map<Integer, UserDTO> index = new HashMap<>();
+            for (UserDTO user : users) {
+                index.put(user.getUserID(), user);
+            }
+            this.users = Collections.unmodifiableList(new ArrayList<>(users));
+            this.byId = Collections.unmodifiableMap(index);
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public UserDirectory(RestApiClient apiClient) {
+        this(apiClient, Long.getLong("tickets.client.userDirectoryTtlMs", DEFAULT_TTL_MS));
+    }
+
+    /**
+     * @param ttlMillis Durée pendant laquelle l'annuaire est servi sans revalidation
+     */
+    public UserDirectory(RestApiClient apiClient, long ttlMillis) {
+        this.apiClient = apiClient;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    /**
+     * Tous les utilisateurs (bloque seulement au premier chargement de la session)
+     * @return Liste non modifiable, vide si l'annuaire n'a jamais pu être chargé
+     */
+    public List<UserDTO> getUsers() {
+        return current().join().users;
+    }
+
+    public CompletableFuture<List<UserDTO>> getUsersAsync() {
+        return current().thenApply(loaded -> loaded.users);
+    }
+
+    /**
+     * Utilisateur par ID (bloque seulement au premier chargement de la session)
+     * @return null si l'utilisateur est inconnu
+     */
+    public UserDTO getUser(int userID) {
+        return current().join().byId.get(userID);
+    }
+
+    /**
+     * Lance le chargement sans attendre (ex : juste après la connexion)
+     */
+    public void prefetch() {
+        current();
+    }
+
+    /**
+     * Oublie l'annuaire (changement d'utilisateur) : le prochain accès recharge la liste
+     */
+    public synchronized void invalidate() {
+        generation++;
+        snapshot = null;
+        loading = null;
+    }
+
+    // ========================================================================
+    // Chargement
+    // ========================================================================
+
+    /**
+     * Annuaire à servir : le courant s'il est frais; s'il est périmé, le courant pendant
+     * la revalidation; s'il n'y en a pas, le chargement en cours
+     */
+    private CompletableFuture<Snapshot> current() {
+        Snapshot loaded = snapshot;
+        if (loaded != null && System.nanoTime() - loaded.loadedAt < ttlNanos) {
+            return CompletableFuture.completedFuture(loaded);
+        }
+        CompletableFuture<Snapshot> pending = load();
+        return loaded != null ? CompletableFuture.completedFuture(loaded) : pending;
+    }
+
+    private synchronized CompletableFuture<Snapshot> load() {
+        if (loading != null) {
+            return loading;
+        }
+        long loadGeneration = generation;
+        CompletableFuture<Snapshot> pending = new CompletableFuture<>();
+        loading = pending;
+        apiClient.getAllUsersAsync().whenComplete(
+            (users, error) -> pending.complete(install(loadGeneration, pending, users, error)));
+        return pending;
+    }
+
+    private synchronized Snapshot install(long loadGeneration, CompletableFuture<Snapshot> pending,
+                                          List<UserDTO> users, Throwable error) {
+        if (loading == pending) {
+            loading = null;
+        }
+        if (error != null) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            System.err.println("Erreur lors du chargement de l'annuaire des utilisateurs: " + cause.getMessage());
+            Snapshot previous = loadGeneration == generation ? snapshot : null;
+            return previous != null ? previous : Snapshot.EMPTY;
+        }
+        Snapshot loaded = new Snapshot(users, System.nanoTime());
+        if (loadGeneration == generation) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+}
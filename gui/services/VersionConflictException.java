@@ -0,0 +1,13 @@
+package gui.services;
+
+/**
+ * VersionConflictException - Modification refusée (412) : le ticket a été modifié
+ * par un autre utilisateur depuis sa lecture. Relire le ticket avant de réessayer.
+ */
+public class VersionConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
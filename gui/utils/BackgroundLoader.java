@@ -0,0 +1,174 @@
+package gui.utils;
+
+import javax.swing.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BackgroundLoader
+ * Exécute les appels réseau de l'interface hors de l'EDT et livre les résultats sur l'EDT
+ *
+ * - latest(key, ...) : une nouvelle demande annule la précédente de même clé
+ *   (ex : détails d'un autre ticket); le résultat d'une demande remplacée est ignoré
+ * - coalesced(key, ...) : les demandes répétées pendant un chargement en cours sont
+ *   regroupées en un seul chargement, lancé à la fin de celui en cours
+ * - submit(...) : tâche sans clé, jamais annulée (écritures)
+ * - loadingListener reçoit true quand l'activité commence, false quand tout est terminé
+ *
+ * Toutes les méthodes publiques s'appellent depuis l'EDT.
+ */
+public class BackgroundLoader {
+    private final ExecutorService executor;
+    private final Consumer<Boolean> loadingListener;
+    private final Map<String, Slot> slots = new HashMap<>();  // EDT seulement
+    private int active;  // Tâches en cours (EDT seulement)
+
+    /**
+     * Tâche en cours pour une clé
+     */
+    private static final class Slot {
+        Future<?> future;
+        long generation;   // Incrémentée à chaque lancement : une livraison d'une autre génération est ignorée
+        Runnable pending;  // Demande regroupée, lancée à la fin de la tâche en cours
+    }
+
+    /**
+     * @param threads Nombre de threads de chargement
+     * @param loadingListener Indicateur de chargement (appelé sur l'EDT), peut être null
+     */
+    public BackgroundLoader(int threads, Consumer<Boolean> loadingListener) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "gui-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loadingListener = loadingListener;
+    }
+
+    /**
+     * Lance la tâche en annulant la précédente de même clé (interrompue si déjà commencée)
+     */
+    public <T> void latest(String key, Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        checkEdt();
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        cancel(slot);
+        start(slot, task, onSuccess, onError);
+    }
+
+    /**
+     * Lance la tâche, ou la regroupe avec la précédente de même clé si celle-ci est en cours :
+     * une seule nouvelle exécution (la dernière demandée) suit alors la tâche en cours
+     */
+    public <T> void coalesced(String key, Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        checkEdt();
+        Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+        if (slot.future != null) {
+            slot.pending = () -> start(slot, task, onSuccess, onError);
+            return;
+        }
+        start(slot, task, onSuccess, onError);
+    }
+
+    /**
+     * Lance une tâche indépendante (jamais annulée ni regroupée)
+     */
+    public <T> void submit(Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        checkEdt();
+        start(new Slot(), task, onSuccess, onError);
+    }
+
+    /**
+     * Annule la tâche en cours et la demande regroupée de cette clé (résultats ignorés)
+     */
+    public void cancel(String key) {
+        checkEdt();
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            slot.pending = null;
+            cancel(slot);
+        }
+    }
+
+    /**
+     * Arrête les threads de chargement (tâches en cours interrompues)
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ========================================================================
+    // Exécution
+    // ========================================================================
+
+    private <T> void start(Slot slot, Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        long generation = ++slot.generation;
+        setActive(active + 1);
+        slot.future = executor.submit(() -> {
+            T result = null;
+            Exception error = null;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                error = e;
+            }
+            T delivered = result;
+            Exception failure = error;
+            SwingUtilities.invokeLater(() -> complete(slot, generation, delivered, failure, onSuccess, onError));
+        });
+    }
+
+    private <T> void complete(Slot slot, long generation, T result, Exception error,
+                              Consumer<T> onSuccess, Consumer<Exception> onError) {
+        if (slot.generation != generation) {
+            // Tâche annulée ou remplacée : déjà décomptée
+            return;
+        }
+        slot.future = null;
+        setActive(active - 1);
+        try {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else if (onError != null) {
+                onError.accept(error);
+            } else {
+                System.err.println("Erreur de chargement : " + error.getMessage());
+            }
+        } finally {
+            Runnable pending = slot.pending;
+            slot.pending = null;
+            if (pending != null) {
+                pending.run();
+            }
+        }
+    }
+
+    private void cancel(Slot slot) {
+        if (slot.future != null) {
+            slot.future.cancel(true);
+            slot.future = null;
+            slot.generation++;
+            setActive(active - 1);
+        }
+    }
+
+    private void setActive(int count) {
+        boolean wasLoading = active > 0;
+        active = count;
+        if (loadingListener != null && wasLoading != (active > 0)) {
+            loadingListener.accept(active > 0);
+        }
+    }
+
+    private static void checkEdt() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            throw new IllegalStateException("BackgroundLoader doit être appelé depuis l'EDT");
+        }
+    }
+}
@@ -5,11 +5,13 @@ import gui.models.*;
 import gui.views.dialogs.*;
 import gui.views.components.TicketDetailPanel;
 import gui.services.*;
+import gui.utils.BackgroundLoader;
 import gui.utils.ErrorHandler;
 import javax.swing.*;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * TicketManagerGUI
@@ -17,6 +19,7 @@ import java.util.List;
  * Architecture MVC - Ceci est la VIEW principale
  * REFACTORISE: Implémente TicketStateListener (Observer pattern)
  * Utilise les services (FileService, PermissionService) et ErrorHandler
+ * Les appels réseau passent par BackgroundLoader : l'EDT n'attend jamais le serveur
  */
 public class TicketManagerGUI extends JFrame implements TicketStateListener {
     // Components
@@ -32,30 +35,55 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
     private JButton switchUserButton;
     private JLabel statusLabel;
     private JLabel userLabel;
+    private JPanel filterPanel;  // Filtres par colonne (grande liste)
+    private JComboBox<String> filterColumnCombo;
+    private JTextField filterValueField;
+    private JProgressBar loadingBar;
+    private javax.swing.Timer loadingDelay;  // L'indicateur n'apparaît que si le chargement dure
 
     // Controllers
     private TicketController ticketController;
+    private BackgroundLoader loader;
+
+    private static final int LOADING_INDICATOR_DELAY_MS = 150;
+    // Au-delà, la table passe en mode grande liste (pages chargées au défilement)
+    private static final int LARGE_LIST_THRESHOLD = Integer.getInteger("tickets.gui.largeListThreshold", 10_000);
+    private static final int[] FILTER_COLUMNS = {1, 2, 3, 4, 5};  // Titre, Statut, Priorite, Source, Assigne
 
     public TicketManagerGUI() {
         ticketController = new TicketController();
+        loader = new BackgroundLoader(4, this::setLoading);
 
         // Note: ApplicationState n'est plus utilisé en Lab 4 (architecture REST)
-        // Les changements d'état sont maintenant gérés via le serveur REST
+        // Les changements arrivent du serveur par le flux d'événements du controller
+        ticketController.addListener(this);
 
         // Afficher le dialogue de login au démarrage
         showLoginDialog();
 
         initComponents();
-        loadTickets();
+        chooseListMode();
     }
 
     /**
      * NOUVEAU: Implémentation de TicketStateListener
      * Rafraîchit automatiquement l'affichage quand les tickets changent
+     * (appelée par le flux d'événements : la copie locale est déjà à jour, aucun appel réseau)
      */
     @Override
     public void onTicketsChanged() {
-        SwingUtilities.invokeLater(() -> loadTickets());
+        SwingUtilities.invokeLater(() -> {
+            if (tableModel == null) {
+                return;
+            }
+            if (tableModel.isLargeList()) {
+                tableModel.reload();  // Seules les pages affichées sont redemandées
+                return;
+            }
+            List<TicketDTO> tickets = ticketController.getLocalTickets();
+            tableModel.refresh(tickets);
+            statusLabel.setText(tickets.size() + " ticket(s) | Double-cliquez pour voir les details");
+        });
     }
 
     /**
@@ -108,18 +136,42 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
         // Layout principal
         setLayout(new BorderLayout(10, 10));
 
+        // CENTER: Table des tickets (créée d'abord : les filtres du header utilisent son modèle)
+        JScrollPane scrollPane = createTablePanel();
+        add(scrollPane, BorderLayout.CENTER);
+
         // NORTH: Header avec info utilisateur
         JPanel headerPanel = createHeaderPanel();
         add(headerPanel, BorderLayout.NORTH);
 
-        // CENTER: Table des tickets
-        JScrollPane scrollPane = createTablePanel();
-        add(scrollPane, BorderLayout.CENTER);
-
-        // SOUTH: Status bar
+        // SOUTH: Status bar + indicateur de chargement
+        JPanel statusPanel = new JPanel(new BorderLayout());
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
         statusLabel = new JLabel("Pret");
-        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-        add(statusLabel, BorderLayout.SOUTH);
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+
+        loadingBar = new JProgressBar();
+        loadingBar.setIndeterminate(true);
+        loadingBar.setString("Chargement...");
+        loadingBar.setStringPainted(true);
+        loadingBar.setVisible(false);
+        statusPanel.add(loadingBar, BorderLayout.EAST);
+        add(statusPanel, BorderLayout.SOUTH);
+
+        loadingDelay = new javax.swing.Timer(LOADING_INDICATOR_DELAY_MS, e -> loadingBar.setVisible(true));
+        loadingDelay.setRepeats(false);
+    }
+
+    /**
+     * Indicateur de chargement (BackgroundLoader, sur l'EDT)
+     */
+    private void setLoading(boolean loading) {
+        if (loading) {
+            loadingDelay.restart();
+        } else {
+            loadingDelay.stop();
+            loadingBar.setVisible(false);
+        }
     }
 
     private JPanel createHeaderPanel() {
@@ -174,6 +226,7 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
         toolbar.add(switchUserButton);
 
         panel.add(toolbar, BorderLayout.CENTER);
+        panel.add(createFilterPanel(), BorderLayout.SOUTH);
 
         return panel;
     }
@@ -205,12 +258,116 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
             }
         });
 
+        // Grande liste : clic sur l'en-tête = tri par le serveur
+        ticketTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int column = ticketTable.convertColumnIndexToModel(ticketTable.columnAtPoint(e.getPoint()));
+                if (tableModel.sortByColumn(column)) {
+                    updateColumnHeaders();
+                }
+            }
+        });
+
+        // Grande liste : nombre de tickets et erreurs de chargement des pages
+        tableModel.addTableModelListener(e -> {
+            if (tableModel.isLargeList() && statusLabel != null) {
+                statusLabel.setText(tableModel.getRowCount() + " ticket(s) | Double-cliquez pour voir les details");
+            }
+        });
+        tableModel.setLoadErrorListener(error -> statusLabel.setText("Erreur de chargement: " + error.getMessage()));
+
         JScrollPane scrollPane = new JScrollPane(ticketTable);
         scrollPane.setBorder(BorderFactory.createTitledBorder("Liste des tickets"));
 
         return scrollPane;
     }
 
+    /**
+     * Filtres par colonne appliqués par le serveur (visibles en mode grande liste)
+     */
+    private JPanel createFilterPanel() {
+        filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+
+        String[] columns = new String[FILTER_COLUMNS.length];
+        for (int i = 0; i < FILTER_COLUMNS.length; i++) {
+            columns[i] = tableModel.getColumnName(FILTER_COLUMNS[i]);
+        }
+        filterColumnCombo = new JComboBox<>(columns);
+        filterValueField = new JTextField(15);
+        filterValueField.setToolTipText("Titre : partie du titre; Source/Assigne : nom ou ID de l'utilisateur");
+        filterValueField.addActionListener(e -> onApplyFilter());
+
+        JButton applyButton = new JButton("Filtrer");
+        applyButton.addActionListener(e -> onApplyFilter());
+        JButton clearButton = new JButton("Effacer les filtres");
+        clearButton.addActionListener(e -> {
+            filterValueField.setText("");
+            tableModel.clearFilters();
+        });
+
+        filterPanel.add(new JLabel("Filtre:"));
+        filterPanel.add(filterColumnCombo);
+        filterPanel.add(filterValueField);
+        filterPanel.add(applyButton);
+        filterPanel.add(clearButton);
+        filterPanel.setVisible(false);
+        return filterPanel;
+    }
+
+    /**
+     * Applique le filtre saisi; un nom d'utilisateur (Source, Assigne) est converti en ID via l'annuaire
+     */
+    private void onApplyFilter() {
+        int column = FILTER_COLUMNS[filterColumnCombo.getSelectedIndex()];
+        String value = filterValueField.getText().trim();
+        if (value.isEmpty() || (column != 4 && column != 5)) {
+            tableModel.setFilter(column, value);
+            return;
+        }
+        loader.latest("filter", () -> ticketController.findUserId(value), userID -> {
+            if (userID == null) {
+                ErrorHandler.showUserError(this, "Utilisateur inconnu : " + value);
+                return;
+            }
+            tableModel.setFilter(column, String.valueOf(userID));
+        }, ex -> ErrorHandler.showTechnicalError(this, "Erreur lors de la recherche de l'utilisateur", ex));
+    }
+
+    /**
+     * En-têtes des colonnes : indicateur du tri serveur (grande liste)
+     */
+    private void updateColumnHeaders() {
+        for (int column = 0; column < tableModel.getColumnCount(); column++) {
+            String header = tableModel.getColumnName(column);
+            if (tableModel.isLargeList() && column == tableModel.getSortColumn()) {
+                header += tableModel.isSortDescending() ? " \u25BC" : " \u25B2";
+            }
+            ticketTable.getColumnModel().getColumn(ticketTable.convertColumnIndexToView(column)).setHeaderValue(header);
+        }
+        ticketTable.getTableHeader().repaint();
+    }
+
+    /**
+     * Choisit le mode de la table selon le nombre de tickets visibles :
+     * liste complète tenue à jour localement, ou grande liste chargée par pages
+     */
+    private void chooseListMode() {
+        loader.latest("mode", ticketController::countTickets, total -> {
+            if (total >= LARGE_LIST_THRESHOLD) {
+                tableModel.useLargeList(ticketController::loadTicketPage);
+                loader.submit(() -> {
+                    ticketController.watchTicketChanges();
+                    return null;
+                }, ignored -> { }, null);
+            } else if (tableModel.isLargeList()) {
+                tableModel.useFullList();
+            }
+            filterPanel.setVisible(tableModel.isLargeList());
+            updateColumnHeaders();
+            loadTickets();
+        }, ex -> ErrorHandler.showTechnicalError(this, "Erreur lors du chargement des tickets", ex));
+    }
+
     /**
      * Ouvre le dialogue de creation de ticket
      * REFACTORISE: Passe le controller (injection), plus besoin de loadTickets() (Observer)
@@ -237,43 +394,80 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
     /**
      * Affiche les details d'un ticket dans un dialogue
      * REFACTORISE: Utilise TicketDetailPanel pour la présentation
+     * Ticket et commentaires sont chargés en parallèle, hors EDT; un nouveau double-clic
+     * annule le chargement précédent
      */
     private void showTicketDetails(int ticketID) {
-        // Récupérer les données via le controller
-        TicketDTO ticket = ticketController.getTicketById(ticketID);
-        List<String> comments = ticketController.getTicketComments(ticketID);
+        loader.latest("details", () -> loadTicketWith(ticketID, ticketController.getTicketCommentsAsync(ticketID)),
+            loaded -> {
+                if (loaded.ticket == null) {
+                    ErrorHandler.showUserError(this, "Ticket introuvable");
+                    return;
+                }
 
-        if (ticket == null) {
-            ErrorHandler.showUserError(this, "Ticket introuvable");
-            return;
-        }
+                // Créer le panel de détails
+                TicketDetailPanel detailPanel = new TicketDetailPanel();
+                detailPanel.displayTicket(loaded.ticket, loaded.extra);
 
-        // Créer le panel de détails
-        TicketDetailPanel detailPanel = new TicketDetailPanel();
-        detailPanel.displayTicket(ticket, comments);
+                // Afficher dans un dialogue
+                JOptionPane.showMessageDialog(this,
+                    detailPanel,
+                    "Details du ticket #" + ticketID,
+                    JOptionPane.INFORMATION_MESSAGE);
+            },
+            ex -> ErrorHandler.showTechnicalError(this, "Erreur lors du chargement du ticket", ex));
+    }
 
-        // Afficher dans un dialogue
-        JOptionPane.showMessageDialog(this,
-            detailPanel,
-            "Details du ticket #" + ticketID,
-            JOptionPane.INFORMATION_MESSAGE);
+    /**
+     * Ticket lu avec une donnée associée (commentaires, transitions, utilisateurs)
+     */
+    private static final class LoadedTicket<T> {
+        final TicketDTO ticket;
+        final T extra;
+
+        LoadedTicket(TicketDTO ticket, T extra) {
+            this.ticket = ticket;
+            this.extra = extra;
+        }
     }
 
     /**
-     * Charge tous les tickets depuis le controller
+     * Lit le ticket pendant que la requête associée (déjà lancée) s'exécute (thread de chargement)
      */
-    private void loadTickets() {
-        UserDTO currentUser = ticketController.getCurrentUser();
-        List<TicketDTO> tickets = ticketController.getFilteredTickets();
+    private <T> LoadedTicket<T> loadTicketWith(int ticketID, CompletableFuture<T> pending) {
+        try {
+            TicketDTO ticket = ticketController.getTicketById(ticketID);
+            return new LoadedTicket<>(ticket, ticket != null ? pending.join() : null);
+        } finally {
+            pending.cancel(true);  // sans effet si déjà terminée (interruption du chargement)
+        }
+    }
 
-        tableModel.refresh(tickets);
-        statusLabel.setText(tickets.size() + " ticket(s) | Double-cliquez pour voir les details");
+    /**
+     * Charge tous les tickets depuis le controller (hors EDT)
+     * Les demandes répétées pendant un chargement sont regroupées en un seul rechargement
+     */
+    private void loadTickets() {
+        if (tableModel.isLargeList()) {
+            tableModel.reload();
+            updateUserLabel();
+            updateButtonPermissions();
+            return;
+        }
 
-        // Mettre à jour le label utilisateur et les permissions
-        userLabel.setText("Connecte: " + currentUser.getName() + " (" + currentUser.getRole() + ")");
+        // Seuls les changements depuis le dernier chargement sont téléchargés;
+        // la table n'est reconstruite que si la liste a changé
+        loader.coalesced("tickets", ticketController::syncTickets, changed -> {
+            List<TicketDTO> tickets = ticketController.getLocalTickets();
+            if (changed) {
+                tableModel.refresh(tickets);
+            }
+            statusLabel.setText(tickets.size() + " ticket(s) | Double-cliquez pour voir les details");
 
-        // Mettre à jour les permissions des boutons
-        updateButtonPermissions();
+            // Mettre à jour le label utilisateur et les permissions
+            updateUserLabel();
+            updateButtonPermissions();
+        }, ex -> ErrorHandler.showTechnicalError(this, "Erreur lors du chargement des tickets", ex));
     }
 
     /**
@@ -312,23 +506,23 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
             return;
         }
 
-        try {
-            // Le controller génère le contenu
-            String pdfContent = ticketController.exportTicketToText(ticketID);
-
-            // Le service gère la sauvegarde
-            String fileName = FileService.generateTicketReportFileName(ticketID);
-            java.nio.file.Path savedPath = FileService.saveTextFile(this, fileName, pdfContent);
+        // Le controller génère le contenu (hors EDT)
+        loader.latest("action", () -> ticketController.exportTicketToText(ticketID), pdfContent -> {
+            try {
+                // Le service gère la sauvegarde
+                String fileName = FileService.generateTicketReportFileName(ticketID);
+                java.nio.file.Path savedPath = FileService.saveTextFile(this, fileName, pdfContent);
+
+                if (savedPath != null) {
+                    ErrorHandler.showSuccess(this,
+                        "Rapport exporté avec succès:\n" + savedPath.toString() + "\n\n" +
+                        "Note: Le fichier est au format texte.");
+                }
 
-            if (savedPath != null) {
-                ErrorHandler.showSuccess(this,
-                    "Rapport exporté avec succès:\n" + savedPath.toString() + "\n\n" +
-                    "Note: Le fichier est au format texte.");
+            } catch (Exception ex) {
+                ErrorHandler.showTechnicalError(this, "Erreur lors de l'export", ex);
             }
-
-        } catch (Exception ex) {
-            ErrorHandler.showTechnicalError(this, "Erreur lors de l'export", ex);
-        }
+        }, ex -> ErrorHandler.showTechnicalError(this, "Erreur lors de l'export", ex));
     }
 
     /**
@@ -364,19 +558,19 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
             JOptionPane.QUESTION_MESSAGE);
 
         if (comment != null && !comment.trim().isEmpty()) {
-            try {
+            loader.submit(() -> {
                 ticketController.addComment(ticketID, comment);
+                return null;
+            }, ignored -> {
                 JOptionPane.showMessageDialog(this,
                     "Commentaire ajoute avec succes!",
                     "Succes",
                     JOptionPane.INFORMATION_MESSAGE);
                 loadTickets();
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this,
-                    "Erreur: " + ex.getMessage(),
-                    "Erreur",
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> JOptionPane.showMessageDialog(this,
+                "Erreur: " + ex.getMessage(),
+                "Erreur",
+                JOptionPane.ERROR_MESSAGE));
         }
     }
 
@@ -396,11 +590,22 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
         int ticketID = tableModel.getTicketIdAt(row);
         if (ticketID == -1) return;
 
-        TicketDTO ticket = ticketController.getTicketById(ticketID);
-        if (ticket == null) return;
+        // Ticket et transitions chargés en parallèle, hors EDT
+        loader.latest("action",
+            () -> loadTicketWith(ticketID, ticketController.getAvailableTransitionsAsync(ticketID)),
+            loaded -> {
+                if (loaded.ticket != null) {
+                    chooseNewStatus(ticketID, loaded.ticket, loaded.extra);
+                }
+            },
+            ex -> ErrorHandler.showTechnicalError(this, "Erreur lors du chargement du ticket", ex));
+    }
 
+    /**
+     * Propose les transitions disponibles puis applique le statut choisi (hors EDT)
+     */
+    private void chooseNewStatus(int ticketID, TicketDTO ticket, List<String> available) {
         String currentStatus = ticket.getStatus();
-        List<String> available = ticketController.getAvailableTransitions(ticketID);
 
         if (available.isEmpty()) {
             JOptionPane.showMessageDialog(this,
@@ -421,25 +626,31 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
         );
 
         if (newStatus != null) {
-            try {
-                ticketController.changeTicketStatus(ticketID, newStatus);
+            loader.submit(() -> {
+                ticketController.changeTicketStatus(ticketID, newStatus, ticket.getVersion());
+                return null;
+            }, ignored -> {
                 JOptionPane.showMessageDialog(this,
                     "Statut modifie: " + currentStatus + " -> " + newStatus,
                     "Succes",
                     JOptionPane.INFORMATION_MESSAGE);
                 loadTickets();
-            } catch (IllegalStateException ex) {
-                JOptionPane.showMessageDialog(this,
-                    "Erreur de transition: " + ex.getMessage(),
-                    "Erreur",
-                    JOptionPane.ERROR_MESSAGE);
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this,
-                    "Erreur inattendue: " + ex.getMessage(),
-                    "Erreur",
-                    JOptionPane.ERROR_MESSAGE);
-                ex.printStackTrace();
-            }
+            }, ex -> {
+                if (ex instanceof VersionConflictException) {
+                    showConflict(ticketID);
+                } else if (ex instanceof IllegalStateException) {
+                    JOptionPane.showMessageDialog(this,
+                        "Erreur de transition: " + ex.getMessage(),
+                        "Erreur",
+                        JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "Erreur inattendue: " + ex.getMessage(),
+                        "Erreur",
+                        JOptionPane.ERROR_MESSAGE);
+                    ex.printStackTrace();
+                }
+            });
         }
     }
 
@@ -482,8 +693,22 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
         int ticketID = tableModel.getTicketIdAt(row);
         if (ticketID == -1) return;
 
-        // Recuperer la liste des utilisateurs
-        List<UserDTO> users = ticketController.getAllUsers();
+        // Version lue avant le choix : l'assignation echoue si le ticket change entre-temps
+        // (ticket et utilisateurs charges en parallele, hors EDT)
+        loader.latest("action",
+            () -> loadTicketWith(ticketID, ticketController.getAllUsersAsync()),
+            loaded -> {
+                if (loaded.ticket != null) {
+                    chooseAssignee(ticketID, loaded.ticket, loaded.extra);
+                }
+            },
+            ex -> ErrorHandler.showTechnicalError(this, "Erreur lors du chargement du ticket", ex));
+    }
+
+    /**
+     * Propose les utilisateurs puis assigne le ticket (hors EDT)
+     */
+    private void chooseAssignee(int ticketID, TicketDTO ticket, List<UserDTO> users) {
         if (users.isEmpty()) {
             JOptionPane.showMessageDialog(this,
                 "Aucun utilisateur disponible",
@@ -512,22 +737,40 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
             int selectedIndex = java.util.Arrays.asList(userNames).indexOf(selectedUser);
             UserDTO user = users.get(selectedIndex);
 
-            try {
-                ticketController.assignTicket(ticketID, user.getUserID());
+            loader.submit(() -> {
+                ticketController.assignTicket(ticketID, user.getUserID(), ticket.getVersion());
+                return null;
+            }, ignored -> {
                 JOptionPane.showMessageDialog(this,
                     "Ticket assigne a " + user.getName() + " avec succes!",
                     "Succes",
                     JOptionPane.INFORMATION_MESSAGE);
                 loadTickets();
-            } catch (Exception ex) {
-                JOptionPane.showMessageDialog(this,
-                    "Erreur lors de l'assignation: " + ex.getMessage(),
-                    "Erreur",
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            }, ex -> {
+                if (ex instanceof VersionConflictException) {
+                    showConflict(ticketID);
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                        "Erreur lors de l'assignation: " + ex.getMessage(),
+                        "Erreur",
+                        JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
+    /**
+     * Le ticket a ete modifie par quelqu'un d'autre pendant l'operation : rien n'a ete applique
+     */
+    private void showConflict(int ticketID) {
+        JOptionPane.showMessageDialog(this,
+            "Le ticket #" + ticketID + " a ete modifie par un autre utilisateur.\n"
+                + "L'operation n'a pas ete appliquee : verifiez le ticket puis reessayez.",
+            "Conflit de modification",
+            JOptionPane.WARNING_MESSAGE);
+        loadTickets();
+    }
+
     /**
      * Change l'utilisateur actuel
      * REFACTORISE: Passe le controller au dialogue
@@ -538,16 +781,28 @@ public class TicketManagerGUI extends JFrame implements TicketStateListener {
 
         if (loginDialog.isLoginSuccessful()) {
             int selectedUserID = loginDialog.getSelectedUserID();
-            ticketController.setCurrentUser(selectedUserID);
 
-            // Rafraîchir l'interface pour refléter le changement (sera fait automatiquement via Observer)
-            // loadTickets();
+            // Les chargements de l'utilisateur précédent sont abandonnés
+            loader.cancel("details");
+            loader.cancel("action");
+            loader.latest("user", () -> ticketController.login(selectedUserID), success -> {
+                if (!success) {
+                    ErrorHandler.showUserError(this, "Connexion impossible pour l'utilisateur #" + selectedUserID);
+                    return;
+                }
 
-            UserDTO newUser = ticketController.getCurrentUser();
-            JOptionPane.showMessageDialog(this,
-                "Utilisateur changé avec succès!\nConnecté en tant que: " + newUser.getName(),
-                "Changement d'utilisateur",
-                JOptionPane.INFORMATION_MESSAGE);
+                // Rafraîchir l'interface pour refléter le changement (copie locale réinitialisée)
+                tableModel.refresh(new ArrayList<>());
+                updateUserLabel();
+                updateButtonPermissions();
+                chooseListMode();  // Visibilité propre à l'utilisateur : le nombre de tickets change
+
+                UserDTO newUser = ticketController.getCurrentUser();
+                JOptionPane.showMessageDialog(this,
+                    "Utilisateur changé avec succès!\nConnecté en tant que: " + newUser.getName(),
+                    "Changement d'utilisateur",
+                    JOptionPane.INFORMATION_MESSAGE);
+            }, ex -> ErrorHandler.showTechnicalError(this, "Erreur lors du changement d'utilisateur", ex));
         }
     }
 }
@@ -3,6 +3,7 @@ package gui.views.dialogs;
 import gui.controllers.TicketController;
 import gui.models.TicketDTO;
 import gui.models.ContentItemDTO;
+import gui.services.VersionConflictException;
 import javax.swing.*;
 
 import core.content.Content;
@@ -18,6 +19,7 @@ import java.util.List;
  */
 public class EditTicketDialog extends JDialog {
     private int ticketID;
+    private long loadedVersion;  // Version affichee : la sauvegarde echoue si le ticket a change depuis
     private TicketController ticketController;
     private JTextField titleField;
     private JComboBox<String> priorityCombo;
@@ -134,6 +136,7 @@ public class EditTicketDialog extends JDialog {
             return;
         }
 
+        loadedVersion = ticket.getVersion();
         titleField.setText(ticket.getTitle());
         priorityCombo.setSelectedItem(ticket.getPriority());
 
@@ -187,7 +190,7 @@ public class EditTicketDialog extends JDialog {
             if (newContentItems == null || newContentItems.isEmpty()) {
                 newContentItems = new ArrayList<>();
             }
-            ticketController.updateTicket(ticketID, title, priority, newContentItems);
+            ticketController.updateTicket(ticketID, title, priority, newContentItems, loadedVersion);
 
             JOptionPane.showMessageDialog(this,
                 "Ticket modifie avec succes!",
@@ -195,6 +198,13 @@ public class EditTicketDialog extends JDialog {
                 JOptionPane.INFORMATION_MESSAGE);
 
             dispose();
+        } catch (VersionConflictException ex) {
+            JOptionPane.showMessageDialog(this,
+                "Le ticket a ete modifie par un autre utilisateur.\n"
+                    + "Vos modifications n'ont pas ete enregistrees : le ticket va etre recharge.",
+                "Conflit de modification",
+                JOptionPane.WARNING_MESSAGE);
+            loadTicketData();
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this,
                 "Erreur lors de la modification: " + ex.getMessage(),
@@ -9,6 +9,9 @@ class ApiClient {
     constructor() {
         this.token = localStorage.getItem('authToken');
         this.currentUser = JSON.parse(localStorage.getItem('currentUser'));
+        this.etagCache = new Map(); // endpoint -> { etag, data } (revalidation If-None-Match)
+        this.eventSource = null;    // Flux SSE /events (changements de tickets)
+        this.onSessionExpired = null; // Appelée quand le serveur refuse le token (401)
     }
 
     /**
@@ -16,6 +19,7 @@ class ApiClient {
      */
     setToken(token) {
         this.token = token;
+        this.etagCache.clear();
         localStorage.setItem('authToken', token);
     }
 
@@ -31,7 +35,9 @@ class ApiClient {
      * Déconnexion
      */
     clearAuth() {
+        this.closeEventStream();
         this.token = null;
+        this.etagCache.clear();
         this.currentUser = null;
         localStorage.removeItem('authToken');
         localStorage.removeItem('currentUser');
@@ -47,7 +53,7 @@ class ApiClient {
     /**
      * Effectue une requête HTTP
      */
-    async request(method, endpoint, body = null, requireAuth = true) {
+    async request(method, endpoint, body = null, requireAuth = true, expectedVersion = null) {
         const headers = {
             'Content-Type': 'application/json',
         };
@@ -56,6 +62,11 @@ class ApiClient {
             headers['Authorization'] = `Bearer ${this.token}`;
         }
 
+        // Écriture conditionnelle : 412 si le ticket a changé depuis cette version
+        if (expectedVersion !== null && expectedVersion !== undefined) {
+            headers['If-Match'] = `"${expectedVersion}"`;
+        }
+
         const options = {
             method,
             headers,
@@ -65,9 +76,20 @@ class ApiClient {
             options.body = JSON.stringify(body);
         }
 
+        // Revalidation : 304 si la version en cache est toujours à jour
+        const cached = method === 'GET' ? this.etagCache.get(endpoint) : undefined;
+        if (cached) {
+            headers['If-None-Match'] = cached.etag;
+        }
+
         try {
             const response = await fetch(`${API_BASE_URL}${endpoint}`, options);
 
+            // Not Modified (304) : réutiliser la réponse en cache
+            if (response.status === 304 && cached) {
+                return cached.data;
+            }
+
             // No Content (204)
             if (response.status === 204) {
                 return null;
@@ -76,7 +98,23 @@ class ApiClient {
             const data = await response.json();
 
             if (!response.ok) {
-                throw new Error(data.message || `Erreur HTTP ${response.status}`);
+                const error = new Error(data.message || `Erreur HTTP ${response.status}`);
+                error.status = response.status;
+                error.conflict = response.status === 412;
+                if (response.status === 401 && requireAuth && this.token) {
+                    // Session expirée ou évincée : le token stocké est inutilisable
+                    this.clearAuth();
+                    error.sessionExpired = true;
+                    if (this.onSessionExpired) {
+                        this.onSessionExpired();
+                    }
+                }
+                throw error;
+            }
+
+            const etag = response.headers.get('ETag');
+            if (method === 'GET' && etag) {
+                this.etagCache.set(endpoint, { etag, data });
             }
 
             return data;
@@ -86,6 +124,36 @@ class ApiClient {
         }
     }
 
+    // ========================================================================
+    // ÉVÉNEMENTS (Server-Sent Events)
+    // ========================================================================
+
+    /**
+     * GET /events - Ouvre le flux des changements de tickets
+     * EventSource se reconnecte seul et reprend avec Last-Event-ID;
+     * il ne peut pas envoyer d'en-tête Authorization : le token passe en paramètre.
+     * @param onTicket appelée avec {revision, type, ticketID, ticket}
+     * @param onResync appelée quand des événements ont été perdus (recharger la liste)
+     */
+    openEventStream(onTicket, onResync) {
+        this.closeEventStream();
+        if (!this.token || typeof EventSource === 'undefined') {
+            return;
+        }
+
+        const source = new EventSource(`${API_BASE_URL}/events?access_token=${encodeURIComponent(this.token)}`);
+        source.addEventListener('ticket', (e) => onTicket(JSON.parse(e.data)));
+        source.addEventListener('resync', () => onResync());
+        this.eventSource = source;
+    }
+
+    closeEventStream() {
+        if (this.eventSource) {
+            this.eventSource.close();
+            this.eventSource = null;
+        }
+    }
+
     // ========================================================================
     // AUTHENTIFICATION
     // ========================================================================
@@ -179,14 +247,15 @@ class ApiClient {
 
     /**
      * PUT /tickets/{id}
+     * @param expectedVersion version lue (ticket.version) : refus (error.conflict) si le ticket a changé
      */
-    async updateTicket(ticketID, title, priority, descriptionContent = null) {
+    async updateTicket(ticketID, title, priority, descriptionContent = null, expectedVersion = null) {
         const body = {};
         if (title) body.title = title;
         if (priority) body.priority = priority;
         if (descriptionContent) body.descriptionContent = descriptionContent;
 
-        return await this.request('PUT', `/tickets/${ticketID}`, body);
+        return await this.request('PUT', `/tickets/${ticketID}`, body, true, expectedVersion);
     }
 
     /**
@@ -227,9 +296,10 @@ class ApiClient {
 
     /**
      * POST /tickets/{id}/status
+     * @param expectedVersion version lue (ticket.version) : refus (error.conflict) si le ticket a changé
      */
-    async changeTicketStatus(ticketID, newStatus) {
-        return await this.request('POST', `/tickets/${ticketID}/status`, { newStatus });
+    async changeTicketStatus(ticketID, newStatus, expectedVersion = null) {
+        return await this.request('POST', `/tickets/${ticketID}/status`, { newStatus }, true, expectedVersion);
     }
 
     // ========================================================================
@@ -238,9 +308,10 @@ class ApiClient {
 
     /**
      * POST /tickets/{id}/assignment
+     * @param expectedVersion version lue (ticket.version) : refus (error.conflict) si le ticket a changé
      */
-    async assignTicket(ticketID, userID) {
-        return await this.request('POST', `/tickets/${ticketID}/assignment`, { userID });
+    async assignTicket(ticketID, userID, expectedVersion = null) {
+        return await this.request('POST', `/tickets/${ticketID}/assignment`, { userID }, true, expectedVersion);
     }
 
     // ========================================================================
@@ -5,6 +5,7 @@
 // État global
 let tickets = [];
 let selectedTicketId = null;
+let selectedTicketVersion = null; // version affichée (If-Match des modifications)
 let allUsers = [];
 
 // Éléments DOM
@@ -44,6 +45,8 @@ document.addEventListener('DOMContentLoaded', () => {
 });
 
 function initializeApp() {
+    api.onSessionExpired = handleSessionExpired;
+
     // Vérifier si l'utilisateur est déjà connecté
     if (api.isAuthenticated()) {
         showMainPage();
@@ -110,6 +113,15 @@ async function handleLogout() {
     showLoginPage();
 }
 
+/**
+ * Le serveur a refusé le token (session expirée) : retour à la connexion
+ */
+function handleSessionExpired() {
+    showLoginPage();
+    loginError.textContent = 'Session expirée : veuillez vous reconnecter.';
+    loginError.style.display = 'block';
+}
+
 function showLoginPage() {
     loginPage.style.display = 'flex';
     mainPage.style.display = 'none';
@@ -139,12 +151,44 @@ async function loadTickets() {
 
         tickets = await api.getAllTickets(filters);
         displayTickets();
+
+        // Les changements suivants arrivent par le flux d'événements
+        if (!api.eventSource) {
+            api.openEventStream(handleTicketEvent, () => loadTickets());
+        }
     } catch (error) {
         console.error('Erreur lors du chargement des tickets:', error);
         showError('Impossible de charger les tickets');
     }
 }
 
+/**
+ * Applique un changement reçu par le flux d'événements (sans recharger la liste)
+ */
+function handleTicketEvent(event) {
+    const index = tickets.findIndex(t => t.ticketID === event.ticketID);
+    const ticket = event.ticket;
+    const visible = ticket && (!statusFilter.value || ticket.status === statusFilter.value);
+
+    if (visible && index >= 0) {
+        tickets[index] = ticket;
+    } else if (visible) {
+        tickets.push(ticket);
+    } else if (index >= 0) {
+        tickets.splice(index, 1);
+    }
+    displayTickets();
+
+    if (selectedTicketId === event.ticketID) {
+        if (ticket) {
+            selectTicket(event.ticketID);
+        } else {
+            selectedTicketId = null;
+            ticketDetailsSection.style.display = 'none';
+        }
+    }
+}
+
 async function loadUsers() {
     try {
         allUsers = await api.getAllUsers();
@@ -216,6 +260,7 @@ async function selectTicket(ticketID) {
     try {
         const ticket = await api.getTicketById(ticketID);
         const comments = await api.getTicketComments(ticketID);
+        selectedTicketVersion = ticket.version;
         displayTicketDetails(ticket, comments);
         ticketDetailsSection.style.display = 'block';
     } catch (error) {
@@ -348,13 +393,18 @@ async function handleChangeStatus(e) {
     const newStatus = document.getElementById('new-status').value;
 
     try {
-        await api.changeTicketStatus(selectedTicketId, newStatus);
+        await api.changeTicketStatus(selectedTicketId, newStatus, selectedTicketVersion);
         closeModal(statusModal);
         await selectTicket(selectedTicketId); // Recharger les détails
         await loadTickets(); // Recharger la liste
         showSuccess('Statut modifié avec succès!');
     } catch (error) {
         console.error('Erreur lors du changement de statut:', error);
+        if (error.conflict) {
+            closeModal(statusModal);
+            await handleConflict();
+            return;
+        }
         showError('Impossible de changer le statut: ' + error.message);
     }
 }
@@ -377,17 +427,32 @@ async function handleAssignTicket(e) {
     const userID = parseInt(document.getElementById('assign-user').value);
 
     try {
-        await api.assignTicket(selectedTicketId, userID);
+        await api.assignTicket(selectedTicketId, userID, selectedTicketVersion);
         closeModal(assignModal);
         await selectTicket(selectedTicketId); // Recharger les détails
         await loadTickets(); // Recharger la liste
         showSuccess('Ticket assigné avec succès!');
     } catch (error) {
         console.error('Erreur lors de l\'assignation:', error);
+        if (error.conflict) {
+            closeModal(assignModal);
+            await handleConflict();
+            return;
+        }
         showError('Impossible d\'assigner le ticket: ' + error.message);
     }
 }
 
+/**
+ * Le ticket sélectionné a été modifié par quelqu'un d'autre (412) : rien n'a été appliqué.
+ * Recharger la version courante avant que l'utilisateur ne réessaie.
+ */
+async function handleConflict() {
+    showError('Ce ticket a été modifié par un autre utilisateur : l\'opération n\'a pas été appliquée. Vérifiez-le puis réessayez.');
+    await selectTicket(selectedTicketId);
+    await loadTickets();
+}
+
 async function handleExportPdf() {
     if (!selectedTicketId) return;
 